@@ -0,0 +1,52 @@
+package br.unicamp.fnjv.wasis.api.config;
+
+import br.unicamp.fnjv.wasis.api.core.dsp.fft.FFTEngine;
+import br.unicamp.fnjv.wasis.api.core.dsp.fft.FFTPlan;
+import br.unicamp.fnjv.wasis.api.core.dsp.features.FeatureConfig;
+import br.unicamp.fnjv.wasis.api.core.dsp.features.SpectraCache;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PostConstruct;
+
+@Data
+@Configuration
+public class DspConfig {
+
+    @Value("${dsp.fft-engine:COLUMBIA}")
+    private FFTEngine fftEngine;
+
+    @Value("${dsp.spectra-cache-bytes:67108864}")
+    private long spectraCacheBytes;
+
+    /**
+     * Applies the signal processing settings to the DSP core.
+     */
+    @PostConstruct
+    public void applySettings() {
+        FFTPlan.setDefaultEngine(fftEngine);
+    }
+
+    /**
+     * Default configuration of the feature extractors, using the configured FFT engine.
+     *
+     * @return featureConfig
+     */
+    @Bean
+    public FeatureConfig featureConfig() {
+        return FeatureConfig.builder().fftEngine(fftEngine).build();
+    }
+
+    /**
+     * Cache of the amplitude spectra of audio segments, limited to the configured size.
+     *
+     * @return spectraCache
+     */
+    @Bean
+    public SpectraCache spectraCache() {
+        return new SpectraCache(spectraCacheBytes);
+    }
+
+}
\ No newline at end of file
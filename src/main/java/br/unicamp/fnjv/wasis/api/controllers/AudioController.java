@@ -1,15 +1,22 @@
 package br.unicamp.fnjv.wasis.api.controllers;
 
+import br.unicamp.fnjv.wasis.api.dtos.AudioEventDTO;
+import br.unicamp.fnjv.wasis.api.dtos.PowerSpectrumDTO;
+import br.unicamp.fnjv.wasis.api.services.AudioEventService;
 import br.unicamp.fnjv.wasis.api.services.AudioService;
+import br.unicamp.fnjv.wasis.api.services.PowerSpectrumService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/audio")
 public class AudioController {
@@ -17,9 +24,27 @@ public class AudioController {
     @Autowired
     private AudioService audioService;
 
+    @Autowired
+    private AudioEventService audioEventService;
+
+    @Autowired
+    private PowerSpectrumService powerSpectrumService;
+
     @RequestMapping(value = "load", method = RequestMethod.POST, produces = "application/json")
     public ResponseEntity loadAudio(@RequestParam("file") MultipartFile file) {
         return new ResponseEntity<>(audioService.loadAudio(file), HttpStatus.OK);
     }
 
+    @RequestMapping(value = "{hash}/events", method = RequestMethod.GET, produces = "application/json")
+    public ResponseEntity<List<AudioEventDTO>> getAudioEvents(@PathVariable String hash) {
+        return new ResponseEntity<>(audioEventService.getAudioEvents(hash), HttpStatus.OK);
+    }
+
+    @RequestMapping(value = "{hash}/power-spectrum", method = RequestMethod.GET, produces = "application/json")
+    public ResponseEntity<PowerSpectrumDTO> getPowerSpectrum(@PathVariable String hash,
+                                                             @RequestParam int timeInitial, @RequestParam int timeFinal,
+                                                             @RequestParam int frequencyInitial, @RequestParam int frequencyFinal) {
+        return new ResponseEntity<>(powerSpectrumService.getPowerSpectrum(hash, timeInitial, timeFinal, frequencyInitial, frequencyFinal), HttpStatus.OK);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package br.unicamp.fnjv.wasis.api.controllers;
+
+import br.unicamp.fnjv.wasis.api.dtos.SpectrogramDTO;
+import br.unicamp.fnjv.wasis.api.services.SpectrogramService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/spectrogram")
+public class SpectrogramController {
+
+    @Autowired
+    private SpectrogramService spectrogramService;
+
+    @RequestMapping(value = "{hash}", method = RequestMethod.GET, produces = "application/json")
+    public ResponseEntity<SpectrogramDTO> getSpectrogram(@PathVariable String hash) {
+        return new ResponseEntity<>(spectrogramService.getSpectrogram(hash), HttpStatus.OK);
+    }
+
+    @RequestMapping(value = "{hash}/{zoom}/{x}/{y}", method = RequestMethod.GET, produces = "image/png")
+    public ResponseEntity<byte[]> getTile(@PathVariable String hash, @PathVariable int zoom, @PathVariable int x, @PathVariable int y) {
+        // Os tiles de um hash nunca mudam
+        return ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_PNG)
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS))
+                .body(spectrogramService.getTile(hash, zoom, x, y));
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.features;
+
+/**
+ * Candidate segment of an audio signal proposed by <i>AcousticEventDetector</i> - Samples and frequency band of an acoustic event.
+ *
+ * @author Leandro Tacioli
+ */
+public final class AcousticEvent {
+
+    /** First sample of the event. */
+    private final int initialSample;
+
+    /** Last sample of the event (Inclusive). */
+    private final int finalSample;
+
+    /** Lower limit of the frequency band of the event (Hz). */
+    private final int initialFrequency;
+
+    /** Upper limit of the frequency band of the event (Hz). */
+    private final int finalFrequency;
+
+    /** Highest short-time energy of the event (dB). */
+    private final double peakEnergy;
+
+    /**
+     * Candidate segment of an audio signal.
+     *
+     * @param initialSample    - First sample of the event
+     * @param finalSample      - Last sample of the event (Inclusive)
+     * @param initialFrequency - Lower limit of the frequency band (Hz)
+     * @param finalFrequency   - Upper limit of the frequency band (Hz)
+     * @param peakEnergy       - Highest short-time energy (dB)
+     */
+    AcousticEvent(int initialSample, int finalSample, int initialFrequency, int finalFrequency, double peakEnergy) {
+        this.initialSample = initialSample;
+        this.finalSample = finalSample;
+        this.initialFrequency = initialFrequency;
+        this.finalFrequency = finalFrequency;
+        this.peakEnergy = peakEnergy;
+    }
+
+    public int getInitialSample() {
+        return initialSample;
+    }
+
+    public int getFinalSample() {
+        return finalSample;
+    }
+
+    public int getInitialFrequency() {
+        return initialFrequency;
+    }
+
+    public int getFinalFrequency() {
+        return finalFrequency;
+    }
+
+    public double getPeakEnergy() {
+        return peakEnergy;
+    }
+
+    /**
+     * Returns the number of samples of the event.
+     *
+     * @return numSamples
+     */
+    public int getNumSamples() {
+        return finalSample - initialSample + 1;
+    }
+
+    /**
+     * Returns the initial time of the event.
+     *
+     * @param sampleRate - Sample Rate
+     *
+     * @return timeInitial - Milliseconds
+     */
+    public int getTimeInitial(double sampleRate) {
+        return (int) (initialSample * 1000L / sampleRate);
+    }
+
+    /**
+     * Returns the final time of the event.
+     *
+     * @param sampleRate - Sample Rate
+     *
+     * @return timeFinal - Milliseconds
+     */
+    public int getTimeFinal(double sampleRate) {
+        return (int) Math.ceil((finalSample + 1) * 1000L / sampleRate);
+    }
+
+    @Override
+    public String toString() {
+        return "AcousticEvent[samples=" + initialSample + "-" + finalSample + ", frequencies=" + initialFrequency + "-" + finalFrequency
+             + ", peakEnergy=" + peakEnergy + "]";
+    }
+
+}
\ No newline at end of file
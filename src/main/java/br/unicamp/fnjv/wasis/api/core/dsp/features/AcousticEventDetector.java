@@ -0,0 +1,365 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.features;
+
+import br.unicamp.fnjv.wasis.api.core.dsp.fft.FFT;
+import br.unicamp.fnjv.wasis.api.core.dsp.windowing.WindowFunction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <pre>
+ * Detection of acoustic events - Proposes the segments of an audio signal that stand out from the background noise.
+ *
+ * Each frame is active when its short-time energy rises above the noise floor or its spectral flux (Mean increase of
+ * the spectrum amplitudes from the previous frame) rises above the usual flux of the background:
+ *  - The noise floor follows the lowest energies, rising slowly (<i>NOISE_FLOOR_RISE</i>) so it adapts to louder backgrounds;
+ *  - Active frames separated by less than <i>minimumGap</i> belong to the same event;
+ *  - Events shorter than <i>minimumDuration</i> are discarded;
+ *  - The frequency band of an event holds the frequencies within <i>BAND_DECIBELS</i> of its loudest frequency.
+ *
+ * The signal is received in pieces (<i>accept()</i>) and processed in a single pass, so the silent parts of long
+ * recordings can be skipped by extracting the features of the proposed segments only:
+ *
+ * AcousticEventDetector detector = new AcousticEventDetector(FeatureConfig.DEFAULT, sampleRate);
+ * detector.accept(samples, 0, samples.length);
+ * detector.end();
+ *
+ * for (AcousticEvent event : detector.getEvents()) {
+ *     mfcc.process(Arrays.copyOfRange(samples, event.getInitialSample(), event.getFinalSample() + 1));
+ * }
+ * </pre>
+ *
+ * @author Leandro Tacioli
+ */
+public class AcousticEventDetector {
+
+    /** Default energy above the noise floor of an active frame (dB). */
+    public static final double ENERGY_THRESHOLD = 9.0;
+
+    /** Default spectral flux above the background flux of an active frame (dB). */
+    public static final double FLUX_THRESHOLD = 3.0;
+
+    /** Default shortest event (Milliseconds). */
+    public static final int MINIMUM_DURATION = 30;
+
+    /** Default longest silence inside an event (Milliseconds). */
+    public static final int MINIMUM_GAP = 100;
+
+    /** Frequency band of an event - Frequencies within this range of its loudest frequency (dB). */
+    public static final double BAND_DECIBELS = 20.0;
+
+    /** Rise of the noise floor (dB per second). */
+    private static final double NOISE_FLOOR_RISE = 3.0;
+
+    /** Weight of each inactive frame on the background flux (Exponential average). */
+    private static final double BACKGROUND_FLUX_WEIGHT = 0.05;
+
+    /** Lowest amplitude considered by the spectral flux (dBFS) - Avoids infinite differences of silent frequencies. */
+    private static final double MINIMUM_AMPLITUDE = -200.0;
+
+    private final double sampleRate;
+    private final int frameLength;
+    private final int hopSize;
+
+    private final WindowFunction windowFunction;
+    private final FFT fft;
+
+    /** Windowed frame. */
+    private final double[] windowedFrame;
+
+    /** Amplitudes of the current and previous frames (dBFS). */
+    private double[] amplitudes;
+    private double[] previousAmplitudes;
+
+    /** Highest amplitude of each frequency over the active frames of the current event (dBFS). */
+    private final double[] eventAmplitudes;
+
+    private double energyThreshold = ENERGY_THRESHOLD;
+    private double fluxThreshold = FLUX_THRESHOLD;
+    private int minimumDuration = MINIMUM_DURATION;
+    private int minimumGap = MINIMUM_GAP;
+
+    private FrameStream frameStream;
+
+    /** Number of samples received. */
+    private long totalSamples;
+
+    /** Number of frames processed. */
+    private int totalFrames;
+
+    /** Noise floor (dB) - NaN until the first frame. */
+    private double noiseFloor = Double.NaN;
+
+    /** Usual spectral flux of the background (dB) - NaN until the second frame. */
+    private double backgroundFlux = Double.NaN;
+
+    /** First and last active frames of the current event (-1 = No event). */
+    private int eventInitialFrame = -1;
+    private int eventFinalFrame = -1;
+
+    /** Highest energy of the current event (dB). */
+    private double eventPeakEnergy;
+
+    private final List<AcousticEvent> events = new ArrayList<>();
+
+    /**
+     * Detection of acoustic events.
+     *
+     * @param config     - Feature configuration (Frame length, hop size and window function)
+     * @param sampleRate - Sample Rate
+     */
+    public AcousticEventDetector(FeatureConfig config, double sampleRate) {
+        if (config == null) {
+            throw new IllegalArgumentException("Feature configuration must not be null");
+        }
+
+        if (!(sampleRate > 0)) {
+            throw new IllegalArgumentException("Sample rate must be greater than zero");
+        }
+
+        this.sampleRate = sampleRate;
+        this.frameLength = config.getFrameLength();
+        this.hopSize = config.getHopSize();
+
+        this.windowFunction = new WindowFunction(config.getWindowFunction());
+        this.fft = new FFT(frameLength);
+        this.windowedFrame = new double[frameLength];
+        this.amplitudes = new double[frameLength / 2];
+        this.previousAmplitudes = new double[frameLength / 2];
+        this.eventAmplitudes = new double[frameLength / 2];
+
+        this.frameStream = new FrameStream(frameLength, config.getOverlapSamples(), false, 0, this::processFrame);
+    }
+
+    /**
+     * Returns the events of an audio signal.
+     *
+     * @param config      - Feature configuration (Frame length, hop size and window function)
+     * @param sampleRate  - Sample Rate
+     * @param audioSignal - Audio signal
+     *
+     * @return events
+     */
+    public static List<AcousticEvent> detect(FeatureConfig config, double sampleRate, double[] audioSignal) {
+        AcousticEventDetector detector = new AcousticEventDetector(config, sampleRate);
+        detector.accept(audioSignal, 0, audioSignal.length);
+        detector.end();
+
+        return detector.getEvents();
+    }
+
+    /**
+     * Energy above the noise floor of an active frame (Default = 9 dB).
+     *
+     * @param energyThreshold - dB
+     */
+    public void setEnergyThreshold(double energyThreshold) {
+        if (!(energyThreshold > 0)) {
+            throw new IllegalArgumentException("Energy threshold must be greater than zero");
+        }
+
+        this.energyThreshold = energyThreshold;
+    }
+
+    /**
+     * Spectral flux above the background flux of an active frame (Default = 3 dB).
+     *
+     * @param fluxThreshold - dB
+     */
+    public void setFluxThreshold(double fluxThreshold) {
+        if (!(fluxThreshold > 0)) {
+            throw new IllegalArgumentException("Flux threshold must be greater than zero");
+        }
+
+        this.fluxThreshold = fluxThreshold;
+    }
+
+    /**
+     * Shortest event (Default = 30 milliseconds).
+     *
+     * @param minimumDuration - Milliseconds
+     */
+    public void setMinimumDuration(int minimumDuration) {
+        if (minimumDuration < 0) {
+            throw new IllegalArgumentException("Minimum duration must not be negative");
+        }
+
+        this.minimumDuration = minimumDuration;
+    }
+
+    /**
+     * Longest silence inside an event (Default = 100 milliseconds).
+     *
+     * @param minimumGap - Milliseconds
+     */
+    public void setMinimumGap(int minimumGap) {
+        if (minimumGap < 0) {
+            throw new IllegalArgumentException("Minimum gap must not be negative");
+        }
+
+        this.minimumGap = minimumGap;
+    }
+
+    /**
+     * Receives samples of the audio signal, closing the events completed by them.
+     *
+     * @param samples - Samples
+     * @param offset  - Position of the first sample
+     * @param length  - Number of samples
+     */
+    public void accept(double[] samples, int offset, int length) {
+        if (frameStream == null) {
+            throw new IllegalStateException("Event detection already finished");
+        }
+
+        totalSamples += length;
+
+        frameStream.accept(samples, offset, length);
+    }
+
+    /**
+     * Processes the remaining frames and closes the last event.
+     */
+    public void end() {
+        if (frameStream == null) {
+            throw new IllegalStateException("Event detection already finished");
+        }
+
+        frameStream.end();
+        frameStream = null;
+
+        closeEvent();
+    }
+
+    /**
+     * Returns the events closed so far, in order - All events after <i>end()</i>.
+     *
+     * @return events
+     */
+    public List<AcousticEvent> getEvents() {
+        return Collections.unmodifiableList(events);
+    }
+
+    /**
+     * Classifies a frame, extending the current event or closing it after <i>minimumGap</i> inactive frames.
+     *
+     * @param frame
+     */
+    private void processFrame(double[] frame) {
+        double sumSquares = 0;
+
+        for (int index = 0; index < frameLength; index++) {
+            sumSquares += frame[index] * frame[index];
+        }
+
+        double energy = 10 * Math.log10(Math.max(sumSquares / frameLength, 1e-12));
+
+        windowFunction.applyWindow(frame, 0, frameLength, windowedFrame, 0);
+
+        fft.executeRealFFT(windowedFrame);
+        fft.getAmplitudes(amplitudes);
+
+        for (int indexFrequency = 0; indexFrequency < amplitudes.length; indexFrequency++) {
+            amplitudes[indexFrequency] = Math.max(amplitudes[indexFrequency], MINIMUM_AMPLITUDE);
+        }
+
+        double flux = Double.NaN;
+
+        if (totalFrames > 0) {
+            flux = 0;
+
+            for (int indexFrequency = 0; indexFrequency < amplitudes.length; indexFrequency++) {
+                flux += Math.max(0, amplitudes[indexFrequency] - previousAmplitudes[indexFrequency]);
+            }
+
+            flux /= amplitudes.length;
+        }
+
+        if (Double.isNaN(noiseFloor)) {
+            noiseFloor = energy;
+        }
+
+        boolean isActive = energy >= noiseFloor + energyThreshold
+                        || (!Double.isNaN(flux) && !Double.isNaN(backgroundFlux) && flux >= backgroundFlux + fluxThreshold);
+
+        // Noise floor - Drops immediately, rises slowly
+        noiseFloor = Math.min(energy, noiseFloor + NOISE_FLOOR_RISE * hopSize / sampleRate);
+
+        if (!Double.isNaN(flux) && !isActive) {
+            backgroundFlux = Double.isNaN(backgroundFlux) ? flux : backgroundFlux + BACKGROUND_FLUX_WEIGHT * (flux - backgroundFlux);
+        }
+
+        if (isActive) {
+            if (eventInitialFrame < 0) {
+                eventInitialFrame = totalFrames;
+                eventPeakEnergy = energy;
+
+                Arrays.fill(eventAmplitudes, MINIMUM_AMPLITUDE);
+            }
+
+            eventFinalFrame = totalFrames;
+            eventPeakEnergy = Math.max(eventPeakEnergy, energy);
+
+            for (int indexFrequency = 0; indexFrequency < amplitudes.length; indexFrequency++) {
+                eventAmplitudes[indexFrequency] = Math.max(eventAmplitudes[indexFrequency], amplitudes[indexFrequency]);
+            }
+
+        } else if (eventInitialFrame >= 0 && (long) (totalFrames - eventFinalFrame) * hopSize * 1000 > minimumGap * sampleRate) {
+            closeEvent();
+        }
+
+        double[] swap = previousAmplitudes;
+        previousAmplitudes = amplitudes;
+        amplitudes = swap;
+
+        totalFrames++;
+    }
+
+    /**
+     * Adds the current event to the events, unless it is shorter than <i>minimumDuration</i>.
+     */
+    private void closeEvent() {
+        if (eventInitialFrame < 0) {
+            return;
+        }
+
+        int initialSample = eventInitialFrame * hopSize;
+        int finalSample = (int) Math.min(totalSamples, (long) eventFinalFrame * hopSize + frameLength) - 1;
+
+        if (finalSample >= initialSample && (finalSample - initialSample + 1) * 1000L >= minimumDuration * sampleRate) {
+            double peakAmplitude = MINIMUM_AMPLITUDE;
+
+            for (double amplitude : eventAmplitudes) {
+                peakAmplitude = Math.max(peakAmplitude, amplitude);
+            }
+
+            int lowestFrequency = 0;
+            int highestFrequency = 0;
+
+            for (int indexFrequency = eventAmplitudes.length - 1; indexFrequency >= 0; indexFrequency--) {
+                if (eventAmplitudes[indexFrequency] >= peakAmplitude - BAND_DECIBELS) {
+                    highestFrequency = indexFrequency;
+                    break;
+                }
+            }
+
+            for (int indexFrequency = 0; indexFrequency < eventAmplitudes.length; indexFrequency++) {
+                if (eventAmplitudes[indexFrequency] >= peakAmplitude - BAND_DECIBELS) {
+                    lowestFrequency = indexFrequency;
+                    break;
+                }
+            }
+
+            int initialFrequency = (int) (lowestFrequency * sampleRate / frameLength);
+            int finalFrequency = (int) Math.min(sampleRate / 2, Math.ceil((highestFrequency + 1) * sampleRate / frameLength));
+
+            events.add(new AcousticEvent(initialSample, finalSample, initialFrequency, finalFrequency, eventPeakEnergy));
+        }
+
+        eventInitialFrame = -1;
+        eventFinalFrame = -1;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,165 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.features;
+
+import br.unicamp.fnjv.wasis.api.core.dsp.fft.FFTPlan;
+
+/**
+ * <pre>
+ * Autocorrelation of a frame, up to a given order (lag).
+ *
+ * r[i] = Sum_k {x[k] * x[k - i]}, i = 0..order
+ *
+ * DIRECT - Sums the lagged products, in the same order as the original LPC loop (bit-identical).
+ * FFT    - Wiener-Khinchin theorem: the autocorrelation is the inverse FFT of the power spectrum. The frame is padded
+ *          with zeros up to a power of two M >= N + order, so the circular autocorrelation equals the linear one for
+ *          the lags needed. As the power spectrum is real and even, its inverse FFT is its forward FFT divided by M.
+ * </pre>
+ *
+ * @author Leandro Tacioli
+ */
+final class AutoCorrelation {
+
+    /**
+     * <pre>
+     * Cost (ns) of each lagged product of the direct method - Measured with 256 to 2048 samples per frame and orders 12 to 128
+     * (Best of 30 runs of 200 frames each).
+     *
+     * With 1024 samples per frame the measured crossover is between orders 56 and 64 (Direct 41 us x FFT 44 us at order 56,
+     * 45 us x 42 us at order 64), so the usual LPC orders (Up to 48) are computed by the direct method - FFT only wins above ~order 60.
+     * </pre>
+     */
+    private static final double DIRECT_COST = 0.7;
+
+    /** Cost (ns) of each <i>M * log2(M)</i> unit of the FFT method (two real FFTs and the power spectrum) - Same measurement. */
+    private static final double FFT_COST = 1.8;
+
+    /** Work buffers of the FFT method - One set per thread, by FFT size. */
+    private static final ThreadLocal<double[][]> BUFFERS = ThreadLocal.withInitial(() -> new double[3][0]);
+
+    private AutoCorrelation() {
+
+    }
+
+    /**
+     * Chooses the cheapest method by comparing the estimated costs of both methods.
+     *
+     * @param frameLength - Number of samples of the frame
+     * @param order       - Highest lag
+     *
+     * @return method - <i>DIRECT</i> or <i>FFT</i>
+     */
+    static AutoCorrelationMethod chooseMethod(int frameLength, int order) {
+        int fftSize = fftSize(frameLength, order);
+
+        // Direct - Number of lagged products
+        double directCost = DIRECT_COST * (double) (order + 1) * (frameLength - order / 2.0);
+
+        // FFT - Two real FFTs of M samples
+        double fftCost = FFT_COST * fftSize * (Math.log(fftSize) / Math.log(2));
+
+        return (fftCost < directCost) ? AutoCorrelationMethod.FFT : AutoCorrelationMethod.DIRECT;
+    }
+
+    /**
+     * Computes the autocorrelation with a given method.
+     *
+     * @param samples         - Frame
+     * @param order           - Highest lag
+     * @param method          - Method - <i>AUTOMATIC</i> chooses it by <i>chooseMethod()</i>
+     * @param autoCorrelation - Autocorrelation (Output - <i>order + 1</i> positions)
+     */
+    static void compute(double[] samples, int order, AutoCorrelationMethod method, double[] autoCorrelation) {
+        if (method == AutoCorrelationMethod.AUTOMATIC) {
+            method = chooseMethod(samples.length, order);
+        }
+
+        if (method == AutoCorrelationMethod.FFT) {
+            fft(samples, order, autoCorrelation);
+        } else {
+            direct(samples, order, autoCorrelation);
+        }
+    }
+
+    /**
+     * Computes the autocorrelation by the direct sum of the lagged products.
+     *
+     * @param samples         - Frame
+     * @param order           - Highest lag
+     * @param autoCorrelation - Autocorrelation (Output - <i>order + 1</i> positions)
+     */
+    static void direct(double[] samples, int order, double[] autoCorrelation) {
+        for (int i = 0; i <= order; i++) {
+            double sum = 0;
+
+            for (int k = i; k < samples.length; k++) {
+                sum += samples[k - i] * samples[k];
+            }
+
+            autoCorrelation[i] = sum;
+        }
+    }
+
+    /**
+     * Computes the autocorrelation by the inverse FFT of the power spectrum (Wiener-Khinchin).
+     *
+     * @param samples         - Frame
+     * @param order           - Highest lag
+     * @param autoCorrelation - Autocorrelation (Output - <i>order + 1</i> positions)
+     */
+    static void fft(double[] samples, int order, double[] autoCorrelation) {
+        int fftSize = fftSize(samples.length, order);
+        FFTPlan fftPlan = FFTPlan.getPlan(fftSize);
+
+        double[][] buffers = BUFFERS.get();
+
+        if (buffers[0].length != fftSize) {
+            buffers[0] = new double[fftSize];                       // Power spectrum (full, even)
+            buffers[1] = new double[fftPlan.getSpectrumSize()];     // Real part
+            buffers[2] = new double[fftPlan.getSpectrumSize()];     // Imaginary part
+        }
+
+        double[] powerSpectrum = buffers[0];
+        double[] real = buffers[1];
+        double[] imag = buffers[2];
+
+        // Spectrum of the frame padded with zeros
+        fftPlan.realTransform(samples, 0, samples.length, real, imag);
+
+        // Power spectrum - Mirrored, as the spectrum of a real sequence
+        int half = fftSize / 2;
+
+        for (int k = 0; k <= half; k++) {
+            powerSpectrum[k] = real[k] * real[k] + imag[k] * imag[k];
+        }
+
+        for (int k = half + 1; k < fftSize; k++) {
+            powerSpectrum[k] = powerSpectrum[fftSize - k];
+        }
+
+        // Inverse FFT of a real and even sequence = Forward FFT / M
+        fftPlan.realTransform(powerSpectrum, real, imag);
+
+        // The result is even - Lags above M / 2 (Frames shorter than the order) are mirrored
+        for (int i = 0; i <= order; i++) {
+            autoCorrelation[i] = real[(i <= half) ? i : fftSize - i] / fftSize;
+        }
+    }
+
+    /**
+     * Returns the FFT size used by the FFT method - The lowest power of two not lesser than <i>frameLength + order</i>.
+     *
+     * @param frameLength - Number of samples of the frame
+     * @param order       - Highest lag
+     *
+     * @return fftSize
+     */
+    static int fftSize(int frameLength, int order) {
+        int fftSize = 2;
+
+        while (fftSize < frameLength + order) {
+            fftSize <<= 1;
+        }
+
+        return fftSize;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.features;
+
+/**
+ * Methods used to compute the autocorrelation of the frames (LPC).
+ *
+ * @author Leandro Tacioli
+ */
+public enum AutoCorrelationMethod {
+
+    /** Direct sum of the lagged products - O(N * order). */
+    DIRECT,
+
+    /** Wiener-Khinchin - Power spectrum followed by an inverse FFT - O(M * log(M)), M >= N + order. */
+    FFT,
+
+    /** Chooses the cheapest method for the frame length and order (see <i>AutoCorrelation.chooseMethod()</i>). */
+    AUTOMATIC
+
+}
\ No newline at end of file
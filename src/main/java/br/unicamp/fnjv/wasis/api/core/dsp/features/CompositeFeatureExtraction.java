@@ -0,0 +1,248 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.features;
+
+import br.unicamp.fnjv.wasis.api.core.dsp.fft.FFTPlan;
+import br.unicamp.fnjv.wasis.api.core.dsp.windowing.WindowFunction;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <pre>
+ * Extraction of composite features (Ex: <i>Feature.MFCC_LPC_LPCC_PLP</i>) sharing the spectral front-end.
+ *
+ * Framing, windowing and the FFT are computed once per frame and fanned out to every extractor of the composite:
+ * - MFCC, LPC and LPCC share the windowed frame of the pre-emphasized signal (MFCC Mel bank from its magnitude spectrum,
+ *   LPC autocorrelation from the frame itself). When both LPC and LPCC are requested, the linear prediction is computed once.
+ * - PLP does not perform pre-emphasis, hence it has its own windowed frame and magnitude spectrum.
+ *
+ * The results are bit-identical to the ones of each extractor processing the audio signal by itself.
+ * </pre>
+ *
+ * @author Leandro Tacioli
+ */
+public class CompositeFeatureExtraction {
+
+    /** Configuration - The same for all extractors. */
+    private final FeatureConfig config;
+
+    /** Number of samples per frame - The same for all extractors. */
+    private final int frameLength;
+
+    /** Window Function - The same for all extractors. */
+    private final String windowFunctionName;
+
+    /** Features of the composite. */
+    private final Set<Feature> features;
+
+    /** Extractors - One for each feature of the composite. */
+    private final Map<Feature, FeatureExtraction> featureExtractions;
+
+    /** Whether the frames are processed in parallel. */
+    private boolean parallel;
+
+    /**
+     * Extraction of composite features (Ex: <i>Feature.MFCC_LPC_LPCC_PLP</i>) sharing the spectral front-end.
+     *
+     * @param feature    - Single or composite feature (<i>POWER_SPECTRUM</i> is not supported)
+     * @param sampleRate - Sample rate of the audio signal
+     */
+    public CompositeFeatureExtraction(Feature feature, double sampleRate) {
+        this(feature, FeatureConfig.DEFAULT, sampleRate);
+    }
+
+    /**
+     * Extraction of composite features (Ex: <i>Feature.MFCC_LPC_LPCC_PLP</i>) sharing the spectral front-end.
+     *
+     * @param feature    - Single or composite feature (<i>POWER_SPECTRUM</i> is not supported)
+     * @param config     - Feature configuration - The same for all extractors
+     * @param sampleRate - Sample rate of the audio signal
+     */
+    public CompositeFeatureExtraction(Feature feature, FeatureConfig config, double sampleRate) {
+        this.config = config;
+        this.frameLength = config.getFrameLength();
+        this.windowFunctionName = config.getWindowFunction();
+        this.features = getComponents(feature);
+        this.featureExtractions = new EnumMap<>(Feature.class);
+
+        for (Feature component : features) {
+            switch (component) {
+                case MFCC:
+                    featureExtractions.put(component, new MFCC(config, sampleRate));
+                    break;
+                case LPC:
+                    featureExtractions.put(component, new LPC(config));
+                    break;
+                case LPCC:
+                    featureExtractions.put(component, new LPCC(config));
+                    break;
+                case PLP:
+                    featureExtractions.put(component, new PLP(config, sampleRate));
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Returns the single features of a composite feature (Ex: <i>MFCC_PLP</i> = <i>MFCC</i> and <i>PLP</i>).
+     *
+     * @param feature
+     *
+     * @return components
+     */
+    public static Set<Feature> getComponents(Feature feature) {
+        switch (feature) {
+            case MFCC_LPC:
+                return EnumSet.of(Feature.MFCC, Feature.LPC);
+            case MFCC_LPCC:
+                return EnumSet.of(Feature.MFCC, Feature.LPCC);
+            case MFCC_PLP:
+                return EnumSet.of(Feature.MFCC, Feature.PLP);
+            case MFCC_LPC_LPCC_PLP:
+                return EnumSet.of(Feature.MFCC, Feature.LPC, Feature.LPCC, Feature.PLP);
+            case MFCC:
+            case LPC:
+            case LPCC:
+            case PLP:
+                return EnumSet.of(feature);
+            default:
+                throw new IllegalArgumentException("Feature not supported by the composite extraction: " + feature);
+        }
+    }
+
+    /**
+     * Sets whether the frames are processed in parallel (see <i>FeatureExtraction.setParallel()</i>).
+     *
+     * @param parallel
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Returns whether the frames are processed in parallel.
+     *
+     * @return parallel
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Sets whether the rounding of the coefficients is left to the caller (see <i>FeatureExtraction.setRoundingDeferred()</i>).
+     *
+     * @param roundingDeferred
+     */
+    public void setRoundingDeferred(boolean roundingDeferred) {
+        for (FeatureExtraction featureExtraction : featureExtractions.values()) {
+            featureExtraction.setRoundingDeferred(roundingDeferred);
+        }
+    }
+
+    /**
+     * Returns the extractor of a single feature of the composite, holding its coefficients, mean and standard deviation.
+     *
+     * @param feature - Single feature (Ex: <i>Feature.MFCC</i>)
+     *
+     * @return featureExtraction - Null if the feature is not part of the composite
+     */
+    public FeatureExtraction getFeatureExtraction(Feature feature) {
+        return featureExtractions.get(feature);
+    }
+
+    /**
+     * Take samples from an audio signal and computes all features of the composite.
+     *
+     * @param audioSignal
+     */
+    public void process(double[] audioSignal) {
+        MFCC mfcc = (MFCC) featureExtractions.get(Feature.MFCC);
+        PLP plp = (PLP) featureExtractions.get(Feature.PLP);
+
+        // Linear prediction computed once - By the LPCC extractor when requested, as it also computes LPC
+        LPC lpc = (LPC) featureExtractions.get(Feature.LPC);
+        LPCC lpcc = (LPCC) featureExtractions.get(Feature.LPCC);
+        LPC linearPrediction = (lpcc != null) ? lpcc : lpc;
+
+        // Step 1 - Pre-Emphasis (MFCC, LPC, LPCC)
+        FrameView preEmphasisFrames = null;
+
+        if (mfcc != null || linearPrediction != null) {
+            preEmphasisFrames = new FrameView(Preprocessing.preEmphasis(audioSignal, config.getPreEmphasisAlpha()), frameLength, config.getOverlapSamples());
+        }
+
+        // Step 2 - Frame Blocking
+        FrameView plpFrames = (plp != null) ? new FrameView(audioSignal, frameLength, config.getOverlapSamples()) : null;
+        int numFrames = (preEmphasisFrames != null) ? preEmphasisFrames.getNumFrames() : plpFrames.getNumFrames();
+
+        double[][] initialMfcc = (mfcc != null) ? new double[numFrames][mfcc.getTotalStaticCoefficients()] : null;
+        double[][] plpCoefficients = (plp != null) ? new double[numFrames][] : null;
+
+        if (linearPrediction != null) {
+            linearPrediction.initializeFrames(numFrames);
+        }
+
+        FrameView frames = preEmphasisFrames;
+
+        // Below computations are all based on individual frames - Each chunk of frames has its own buffers
+        ParallelFrames.forEachChunk(numFrames, parallel, (firstFrame, endFrame) -> {
+            WindowFunction windowFunction = new WindowFunction(windowFunctionName);
+            FFTPlan fftPlan = FFTPlan.getPlan(frameLength, config.getFftEngine());
+
+            double[] frame = new double[frameLength];
+            double[] real = new double[fftPlan.getSpectrumSize()];
+            double[] imag = new double[fftPlan.getSpectrumSize()];
+            double[] mfccSpectrum = new double[fftPlan.getSpectrumSize()];
+            double[] plpSpectrum = new double[frameLength];
+            LPCC plpLpcc = (plp != null) ? plp.createFrameLPCC() : null;
+
+            for (int indexFrame = firstFrame; indexFrame < endFrame; indexFrame++) {
+                if (frames != null) {
+                    // Step 3 - Windowing of the pre-emphasized frame
+                    frames.applyWindow(indexFrame, windowFunction, frame, 0);
+
+                    // MFCC - Magnitude Spectrum (FFT) and Mel filter bank
+                    if (mfcc != null) {
+                        mfcc.magnitudeSpectrum(frame, fftPlan, real, imag, mfccSpectrum);
+                        mfcc.spectrumCoefficients(mfccSpectrum, initialMfcc[indexFrame]);
+                    }
+
+                    // LPC / LPCC - Autocorrelation and Levinson-Durbin
+                    if (linearPrediction != null) {
+                        linearPrediction.processWindowedFrame(indexFrame, frame);
+                    }
+                }
+
+                if (plp != null) {
+                    // PLP - Windowing of the frame (without pre-emphasis), Magnitude Spectrum (FFT) and Bark filter bank
+                    plpFrames.applyWindow(indexFrame, windowFunction, frame, 0);
+
+                    plp.magnitudeSpectrum(frame, fftPlan, real, imag, plpSpectrum);
+                    plpCoefficients[indexFrame] = plp.spectrumCoefficients(plpSpectrum, plpLpcc);
+                }
+            }
+        });
+
+        // Final coefficients, mean and standard deviation of each feature
+        if (mfcc != null) {
+            mfcc.computeFinalMFCC(initialMfcc);
+        }
+
+        if (linearPrediction != null) {
+            linearPrediction.computeFinalCoefficients(numFrames);
+        }
+
+        if (lpc != null && lpcc != null) {
+            lpc.shareLinearPrediction(lpcc);
+            lpc.computeFinalCoefficients(numFrames);
+        }
+
+        if (plp != null) {
+            plp.computeFinalPLP(plpCoefficients);
+        }
+    }
+
+}
\ No newline at end of file
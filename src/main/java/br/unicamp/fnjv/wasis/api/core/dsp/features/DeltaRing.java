@@ -0,0 +1,179 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.features;
+
+/**
+ * <pre>
+ * Delta and Delta-Delta of coefficients received one frame at a time.
+ *
+ * Delta[t] = Sum_n {n * c[t + n]} / (2 * Sum_n {n^2}), n = -N..N, repeating the border frames (as in <i>MFCC.performDelta()</i>).
+ *
+ * The Delta-Delta of a frame depends on the coefficients of the next 2*N frames, so the frames are emitted with a
+ * delay of 2*N frames. Only the last 2*N+1 coefficient and Delta vectors are kept, in ring buffers.
+ * </pre>
+ *
+ * @author Leandro Tacioli
+ */
+class DeltaRing {
+
+    /**
+     * Receives the coefficients, Delta and Delta-Delta of a frame.
+     */
+    @FunctionalInterface
+    interface Output {
+
+        /**
+         * Receives the coefficients, Delta and Delta-Delta of a frame - The arrays are reused, so they must not be kept.
+         *
+         * @param indexFrame   - Index of the frame
+         * @param coefficients - Coefficients
+         * @param delta        - Delta (Differential Coefficients)
+         * @param deltaDelta   - Delta-Delta (Acceleration Coefficients)
+         */
+        void accept(int indexFrame, double[] coefficients, double[] delta, double[] deltaDelta);
+
+    }
+
+    /** Delta N. */
+    private final int deltaN;
+
+    /** Number of coefficients per frame. */
+    private final int columns;
+
+    /** Arithmetic progression of Delta - Ex: {-2, -1, 0, 1, 2} when N = 2. */
+    private final double[] deltaProgression;
+
+    /** Delta denominator. */
+    private final double deltaDenominator;
+
+    /** Last 2*N+1 coefficient vectors (position = frame % (2*N+1)). */
+    private final double[][] coefficientsRing;
+
+    /** Last 2*N+1 Delta vectors (position = frame % (2*N+1)). */
+    private final double[][] deltaRing;
+
+    /** Delta-Delta of the frame being emitted. */
+    private final double[] deltaDelta;
+
+    /** Receives each frame. */
+    private final Output output;
+
+    /** Number of coefficient vectors received. */
+    private int totalCoefficients;
+
+    /** Number of Delta vectors computed. */
+    private int totalDelta;
+
+    /** Number of frames emitted. */
+    private int totalEmitted;
+
+    /**
+     * Delta and Delta-Delta of coefficients received one frame at a time.
+     *
+     * @param deltaN  - Delta N
+     * @param columns - Number of coefficients per frame
+     * @param output  - Receives each frame
+     */
+    DeltaRing(int deltaN, int columns, Output output) {
+        this.deltaN = deltaN;
+        this.columns = columns;
+        this.output = output;
+
+        deltaProgression = new double[2 * deltaN + 1];
+
+        for (int indexProgression = -deltaN; indexProgression <= deltaN; indexProgression++) {
+            deltaProgression[indexProgression + deltaN] = indexProgression;
+        }
+
+        double denominator = 0;
+
+        for (int indexDelta = 0; indexDelta <= deltaN; indexDelta++) {
+            denominator += Math.pow(indexDelta, 2);
+        }
+
+        deltaDenominator = 2 * denominator;
+
+        coefficientsRing = new double[2 * deltaN + 1][columns];
+        deltaRing = new double[2 * deltaN + 1][columns];
+        deltaDelta = new double[columns];
+    }
+
+    /**
+     * Receives the coefficients of the next frame, emitting the frames whose Delta-Delta became complete.
+     *
+     * @param coefficients
+     */
+    void push(double[] coefficients) {
+        System.arraycopy(coefficients, 0, coefficientsRing[totalCoefficients % coefficientsRing.length], 0, columns);
+        totalCoefficients++;
+
+        // Delta of the frame t needs the coefficients up to t + N
+        while (totalDelta <= totalCoefficients - 1 - deltaN) {
+            computeDelta();
+        }
+
+        // Delta-Delta of the frame t needs the Delta up to t + N
+        while (totalEmitted <= totalDelta - 1 - deltaN) {
+            emit();
+        }
+    }
+
+    /**
+     * Emits the remaining frames, repeating the last frame as the following ones.
+     */
+    void end() {
+        // Each Delta is followed by the frames it completes, so the Delta ring buffer is not overwritten too early
+        while (totalDelta < totalCoefficients) {
+            computeDelta();
+
+            while (totalEmitted <= totalDelta - 1 - deltaN) {
+                emit();
+            }
+        }
+
+        while (totalEmitted < totalDelta) {
+            emit();
+        }
+    }
+
+    /**
+     * Computes the Delta of the next frame.
+     */
+    private void computeDelta() {
+        regression(coefficientsRing, totalDelta, totalCoefficients - 1, deltaRing[totalDelta % deltaRing.length]);
+        totalDelta++;
+    }
+
+    /**
+     * Computes the Delta-Delta of the next frame and emits it.
+     */
+    private void emit() {
+        regression(deltaRing, totalEmitted, totalDelta - 1, deltaDelta);
+
+        int position = totalEmitted % coefficientsRing.length;
+
+        output.accept(totalEmitted, coefficientsRing[position], deltaRing[position], deltaDelta);
+        totalEmitted++;
+    }
+
+    /**
+     * Computes the regression (Delta) of a frame from a ring buffer, repeating the border frames.
+     *
+     * @param ring       - Ring buffer
+     * @param indexFrame - Index of the frame
+     * @param lastFrame  - Index of the last frame available in the ring buffer
+     * @param result     - Delta of the frame (Output)
+     */
+    private void regression(double[][] ring, int indexFrame, int lastFrame, double[] result) {
+        for (int indexColumn = 0; indexColumn < columns; indexColumn++) {
+            double numerator = 0;
+
+            for (int indexProgression = 0; indexProgression < deltaProgression.length; indexProgression++) {
+                int neighbour = Math.min(Math.max(indexFrame - deltaN + indexProgression, 0), lastFrame);
+
+                numerator += deltaProgression[indexProgression] * ring[neighbour % ring.length][indexColumn];
+            }
+
+            result[indexColumn] = numerator / deltaDenominator;
+        }
+    }
+
+}
\ No newline at end of file
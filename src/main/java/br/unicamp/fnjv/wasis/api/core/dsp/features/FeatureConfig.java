@@ -0,0 +1,457 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.features;
+
+import br.unicamp.fnjv.wasis.api.core.dsp.fft.FFTEngine;
+import br.unicamp.fnjv.wasis.api.core.dsp.fft.FFTPlan;
+import br.unicamp.fnjv.wasis.api.core.dsp.windowing.WindowFunction;
+
+import java.util.Objects;
+
+/**
+ * <pre>
+ * Configuration of the feature extractors - Framing, windowing, pre-emphasis, filter banks and number of coefficients.
+ *
+ * Configurations are immutable and created by <i>FeatureConfig.builder()</i>. The extractors compute their tables
+ * (Ex: Mel and Bark filter banks, DCT basis) from the configuration, so each configuration has its own tables.
+ * <i>DEFAULT</i> holds the values used by the extractors built without a configuration.
+ *
+ * Ex: Shorter frames with a larger hop
+ * FeatureConfig config = FeatureConfig.builder().frameLength(256).hopSize(256).build();
+ * </pre>
+ *
+ * @author Leandro Tacioli
+ */
+public final class FeatureConfig {
+
+    /** Default configuration - 1024 samples per frame, 50% overlap, Hamming window. */
+    public static final FeatureConfig DEFAULT = builder().build();
+
+    /** Number of samples per frame. */
+    private final int frameLength;
+
+    /** Number of samples between the beginning of consecutive frames. */
+    private final int hopSize;
+
+    /** Window Function (Ex: <i>WindowFunction.HAMMING</i>). */
+    private final String windowFunction;
+
+    /** Pre-Emphasis Alpha (MFCC, LPC and LPCC). */
+    private final double preEmphasisAlpha;
+
+    /** Lower limit of the Mel and Bark filters (Hz). */
+    private final double lowerFilterFrequency;
+
+    /** Number of Mel filters (MFCC). */
+    private final int melFilters;
+
+    /** Number of MFCCs per frame, including the discarded 0th coefficient. */
+    private final int mfccCoefficients;
+
+    /** Delta N - Number of frames on each side of the Delta regression window (MFCC). */
+    private final int deltaN;
+
+    /** Number of Bark filters (PLP). */
+    private final int barkFilters;
+
+    /** LPC Order (LPC, LPCC and PLP). */
+    private final int lpcOrder;
+
+    /** LPCC Order (LPCC and PLP) - Also, the final number of PLP coefficients. */
+    private final int lpccOrder;
+
+    /** FFT engine of the frames (MFCC, PLP, Power Spectrum and the composite features). */
+    private final FFTEngine fftEngine;
+
+    /**
+     * Configuration of the feature extractors.
+     *
+     * @param builder
+     * @param fftEngine - FFT engine (Informed or default)
+     */
+    private FeatureConfig(Builder builder, FFTEngine fftEngine) {
+        this.frameLength = builder.frameLength;
+        this.hopSize = (builder.hopSize != null) ? builder.hopSize : builder.frameLength - builder.frameLength / 2;
+        this.windowFunction = builder.windowFunction.toUpperCase();
+        this.preEmphasisAlpha = builder.preEmphasisAlpha;
+        this.lowerFilterFrequency = builder.lowerFilterFrequency;
+        this.melFilters = builder.melFilters;
+        this.mfccCoefficients = builder.mfccCoefficients;
+        this.deltaN = builder.deltaN;
+        this.barkFilters = builder.barkFilters;
+        this.lpcOrder = builder.lpcOrder;
+        this.lpccOrder = builder.lpccOrder;
+        this.fftEngine = fftEngine;
+    }
+
+    /**
+     * Returns a builder initialized with the default values.
+     *
+     * @return builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns a builder initialized with the values of this configuration.
+     *
+     * @return builder
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.frameLength = frameLength;
+        builder.hopSize = hopSize;
+        builder.windowFunction = windowFunction;
+        builder.preEmphasisAlpha = preEmphasisAlpha;
+        builder.lowerFilterFrequency = lowerFilterFrequency;
+        builder.melFilters = melFilters;
+        builder.mfccCoefficients = mfccCoefficients;
+        builder.deltaN = deltaN;
+        builder.barkFilters = barkFilters;
+        builder.lpcOrder = lpcOrder;
+        builder.lpccOrder = lpccOrder;
+        builder.fftEngine = fftEngine;
+
+        return builder;
+    }
+
+    public int getFrameLength() {
+        return frameLength;
+    }
+
+    public int getHopSize() {
+        return hopSize;
+    }
+
+    /**
+     * Returns the number of overlapping samples of consecutive frames (<i>frameLength - hopSize</i>).
+     *
+     * @return overlapSamples
+     */
+    public int getOverlapSamples() {
+        return frameLength - hopSize;
+    }
+
+    public String getWindowFunction() {
+        return windowFunction;
+    }
+
+    public double getPreEmphasisAlpha() {
+        return preEmphasisAlpha;
+    }
+
+    public double getLowerFilterFrequency() {
+        return lowerFilterFrequency;
+    }
+
+    public int getMelFilters() {
+        return melFilters;
+    }
+
+    public int getMfccCoefficients() {
+        return mfccCoefficients;
+    }
+
+    public int getDeltaN() {
+        return deltaN;
+    }
+
+    public int getBarkFilters() {
+        return barkFilters;
+    }
+
+    public int getLpcOrder() {
+        return lpcOrder;
+    }
+
+    public int getLpccOrder() {
+        return lpccOrder;
+    }
+
+    public FFTEngine getFftEngine() {
+        return fftEngine;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+
+        if (!(object instanceof FeatureConfig)) {
+            return false;
+        }
+
+        FeatureConfig config = (FeatureConfig) object;
+
+        return frameLength == config.frameLength
+            && hopSize == config.hopSize
+            && windowFunction.equals(config.windowFunction)
+            && Double.compare(preEmphasisAlpha, config.preEmphasisAlpha) == 0
+            && Double.compare(lowerFilterFrequency, config.lowerFilterFrequency) == 0
+            && melFilters == config.melFilters
+            && mfccCoefficients == config.mfccCoefficients
+            && deltaN == config.deltaN
+            && barkFilters == config.barkFilters
+            && lpcOrder == config.lpcOrder
+            && lpccOrder == config.lpccOrder
+            && fftEngine == config.fftEngine;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(frameLength, hopSize, windowFunction, preEmphasisAlpha, lowerFilterFrequency,
+                            melFilters, mfccCoefficients, deltaN, barkFilters, lpcOrder, lpccOrder, fftEngine);
+    }
+
+    @Override
+    public String toString() {
+        return "FeatureConfig[frameLength=" + frameLength + ", hopSize=" + hopSize + ", windowFunction=" + windowFunction
+             + ", preEmphasisAlpha=" + preEmphasisAlpha + ", lowerFilterFrequency=" + lowerFilterFrequency
+             + ", melFilters=" + melFilters + ", mfccCoefficients=" + mfccCoefficients + ", deltaN=" + deltaN
+             + ", barkFilters=" + barkFilters + ", lpcOrder=" + lpcOrder + ", lpccOrder=" + lpccOrder
+             + ", fftEngine=" + fftEngine + "]";
+    }
+
+    /**
+     * Builder of <i>FeatureConfig</i> - Starts with the default values.
+     */
+    public static final class Builder {
+
+        private int frameLength = 1024;
+        private Integer hopSize;                      // Null = frameLength / 2 of overlap
+        private String windowFunction = WindowFunction.HAMMING;
+        private double preEmphasisAlpha = 0.95;
+        private double lowerFilterFrequency = 45.0;
+        private int melFilters = 23;
+        private int mfccCoefficients = 13;
+        private int deltaN = 2;
+        private int barkFilters = 21;
+        private int lpcOrder = 24;
+        private int lpccOrder = 24;
+        private FFTEngine fftEngine;                  // Null = FFTPlan.getDefaultEngine() when built
+
+        private Builder() {
+
+        }
+
+        /**
+         * Number of samples per frame - Power of 2 for the COLUMBIA FFT engine and the single precision path (Default = 1024).
+         *
+         * @param frameLength
+         *
+         * @return builder
+         */
+        public Builder frameLength(int frameLength) {
+            this.frameLength = frameLength;
+            return this;
+        }
+
+        /**
+         * Number of samples between the beginning of consecutive frames - From 1 to <i>frameLength</i> (Default = 50% overlap).
+         *
+         * @param hopSize
+         *
+         * @return builder
+         */
+        public Builder hopSize(int hopSize) {
+            this.hopSize = hopSize;
+            return this;
+        }
+
+        /**
+         * Window Function - BARTLETT / BLACKMAN / HAMMING / HANNING / RECTANGULAR (Default = HAMMING).
+         *
+         * @param windowFunction
+         *
+         * @return builder
+         */
+        public Builder windowFunction(String windowFunction) {
+            this.windowFunction = windowFunction;
+            return this;
+        }
+
+        /**
+         * Pre-Emphasis Alpha - 0 disables the pre-emphasis (Default = 0.95).
+         *
+         * @param preEmphasisAlpha
+         *
+         * @return builder
+         */
+        public Builder preEmphasisAlpha(double preEmphasisAlpha) {
+            this.preEmphasisAlpha = preEmphasisAlpha;
+            return this;
+        }
+
+        /**
+         * Lower limit of the Mel and Bark filters in Hz (Default = 45).
+         *
+         * @param lowerFilterFrequency
+         *
+         * @return builder
+         */
+        public Builder lowerFilterFrequency(double lowerFilterFrequency) {
+            this.lowerFilterFrequency = lowerFilterFrequency;
+            return this;
+        }
+
+        /**
+         * Number of Mel filters (Default = 23).
+         *
+         * @param melFilters
+         *
+         * @return builder
+         */
+        public Builder melFilters(int melFilters) {
+            this.melFilters = melFilters;
+            return this;
+        }
+
+        /**
+         * Number of MFCCs per frame, including the discarded 0th coefficient (Default = 13).
+         *
+         * @param mfccCoefficients
+         *
+         * @return builder
+         */
+        public Builder mfccCoefficients(int mfccCoefficients) {
+            this.mfccCoefficients = mfccCoefficients;
+            return this;
+        }
+
+        /**
+         * Delta N - Number of frames on each side of the Delta regression window (Default = 2).
+         *
+         * @param deltaN
+         *
+         * @return builder
+         */
+        public Builder deltaN(int deltaN) {
+            this.deltaN = deltaN;
+            return this;
+        }
+
+        /**
+         * Number of Bark filters (Default = 21).
+         *
+         * @param barkFilters
+         *
+         * @return builder
+         */
+        public Builder barkFilters(int barkFilters) {
+            this.barkFilters = barkFilters;
+            return this;
+        }
+
+        /**
+         * LPC Order (Default = 24).
+         *
+         * @param lpcOrder
+         *
+         * @return builder
+         */
+        public Builder lpcOrder(int lpcOrder) {
+            this.lpcOrder = lpcOrder;
+            return this;
+        }
+
+        /**
+         * LPCC Order - Also, the final number of PLP coefficients - At least 2 (Default = 24).
+         *
+         * @param lpccOrder
+         *
+         * @return builder
+         */
+        public Builder lpccOrder(int lpccOrder) {
+            this.lpccOrder = lpccOrder;
+            return this;
+        }
+
+        /**
+         * FFT engine of the frames - Power of 2 frame lengths for <i>COLUMBIA</i>, any length for <i>MIXED_RADIX</i>
+         * (Default = <i>FFTPlan.getDefaultEngine()</i> when the configuration is built).
+         *
+         * @param fftEngine
+         *
+         * @return builder
+         */
+        public Builder fftEngine(FFTEngine fftEngine) {
+            this.fftEngine = fftEngine;
+            return this;
+        }
+
+        /**
+         * Validates the values and creates the configuration.
+         *
+         * @return config
+         */
+        public FeatureConfig build() {
+            if (frameLength < 2) {
+                throw new IllegalArgumentException("Frame length must be at least 2");
+            }
+
+            FFTEngine engine = (fftEngine != null) ? fftEngine : FFTPlan.getDefaultEngine();
+
+            if (engine == FFTEngine.COLUMBIA && Integer.bitCount(frameLength) != 1) {
+                throw new IllegalArgumentException("Frame length must be a power of 2 for the COLUMBIA FFT engine"
+                                                 + " (MIXED_RADIX supports any length): " + frameLength);
+            }
+
+            if (hopSize != null && (hopSize < 1 || hopSize > frameLength)) {
+                throw new IllegalArgumentException("Hop size must be between 1 and the frame length");
+            }
+
+            if (windowFunction == null || !isWindowFunction(windowFunction)) {
+                throw new IllegalArgumentException("Window function not supported: " + windowFunction);
+            }
+
+            if (preEmphasisAlpha < 0 || preEmphasisAlpha >= 1) {
+                throw new IllegalArgumentException("Pre-emphasis alpha must be in [0, 1)");
+            }
+
+            if (lowerFilterFrequency < 0) {
+                throw new IllegalArgumentException("Lower filter frequency must not be negative");
+            }
+
+            if (melFilters < 1 || barkFilters < 1) {
+                throw new IllegalArgumentException("Number of filters must be greater than zero");
+            }
+
+            if (mfccCoefficients < 2) {
+                throw new IllegalArgumentException("Number of MFCCs must be at least 2 (0th coefficient is discarded)");
+            }
+
+            if (deltaN < 1) {
+                throw new IllegalArgumentException("Delta N must be greater than zero");
+            }
+
+            if (lpcOrder < 1) {
+                throw new IllegalArgumentException("LPC order must be greater than zero");
+            }
+
+            if (lpccOrder < 2) {
+                throw new IllegalArgumentException("LPCC order must be at least 2 (Energy and first cepstral coefficient)");
+            }
+
+            return new FeatureConfig(this, engine);
+        }
+
+        /**
+         * Returns whether a window function is supported by <i>WindowFunction</i>.
+         *
+         * @param windowFunction
+         *
+         * @return isWindowFunction
+         */
+        private static boolean isWindowFunction(String windowFunction) {
+            for (Object window : WindowFunction.WINDOW_FUNCTIONS[0]) {
+                if (window.equals(windowFunction.toUpperCase())) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+    }
+
+}
\ No newline at end of file
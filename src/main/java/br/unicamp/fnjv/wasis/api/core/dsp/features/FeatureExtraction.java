@@ -1,5 +1,7 @@
 package br.unicamp.fnjv.wasis.api.core.dsp.features;
 
+import br.unicamp.fnjv.wasis.api.utils.transformations.RoundNumbers;
+
 /**
  * Feature Extraction.
  *
@@ -7,6 +9,49 @@ package br.unicamp.fnjv.wasis.api.core.dsp.features;
  */
 public abstract class FeatureExtraction {
 
+    /** Number of decimal places of the coefficients, mean and standard deviation. */
+    public static final int DECIMAL_PLACES = 4;
+
+    /** Configuration - Framing, windowing, pre-emphasis, filter banks and number of coefficients. */
+    protected final FeatureConfig config;
+
+    /** Whether the frames are processed in parallel (see <i>setParallel()</i>). */
+    private boolean parallel;
+
+    /** Whether the rounding of the coefficients is left to the caller (see <i>setRoundingDeferred()</i>). */
+    private boolean roundingDeferred;
+
+    /** Streaming - Frame blocking of the samples received by <i>accept()</i>. */
+    private FrameStream frameStream;
+
+    /** Streaming - Receives the feature vectors. */
+    private FeatureSink featureSink;
+
+    /** Streaming - Number of feature vectors emitted. */
+    private int emittedFrames;
+
+    /**
+     * Feature Extraction.
+     *
+     * @param config - Configuration of the extractor
+     */
+    protected FeatureExtraction(FeatureConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("Feature configuration must not be null");
+        }
+
+        this.config = config;
+    }
+
+    /**
+     * Returns the configuration of the extractor.
+     *
+     * @return config
+     */
+    public FeatureConfig getConfig() {
+        return config;
+    }
+
     /**
      * Take samples from an audio signal and computes the features.
      *
@@ -21,7 +66,190 @@ public abstract class FeatureExtraction {
      *
      * @param frames
      */
-    public abstract void processFrames(double[][] frames);
+    public void processFrames(double[][] frames) {
+        processFrames(new FrameView(frames));
+    }
+
+    /**
+     * Computes the features from a view of audio frames.
+     * <br>
+     * Frames are read from the view without being copied into a frame matrix.
+     *
+     * @param frames
+     */
+    public abstract void processFrames(FrameView frames);
+
+    /**
+     * <pre>
+     * Sets whether <i>process()</i> and <i>processFrames()</i> compute the frames in parallel (ForkJoin common pool).
+     *
+     * The frames are split into chunks with their own work buffers, and the results are bit-identical to the
+     * sequential ones. The streaming extraction (<i>begin()</i>) is always sequential.
+     * </pre>
+     *
+     * @param parallel
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Returns whether the frames are processed in parallel.
+     *
+     * @return parallel
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * <pre>
+     * Sets whether the rounding of the coefficients (<i>DECIMAL_PLACES</i>) is left to the caller.
+     *
+     * By default, every coefficient is rounded as soon as it is computed. When deferred, the whole numeric pipeline
+     * keeps the raw doubles (Ex: LPCC recursion, Delta, mean and standard deviation), and the caller rounds the
+     * results when serializing them (see <i>RoundNumbers.round(double[][], int)</i>).
+     * </pre>
+     *
+     * @param roundingDeferred
+     */
+    public void setRoundingDeferred(boolean roundingDeferred) {
+        this.roundingDeferred = roundingDeferred;
+    }
+
+    /**
+     * Returns whether the rounding of the coefficients is left to the caller.
+     *
+     * @return roundingDeferred
+     */
+    public boolean isRoundingDeferred() {
+        return roundingDeferred;
+    }
+
+    /**
+     * Rounds a coefficient to <i>DECIMAL_PLACES</i> (HALF_UP) - Unless the rounding is deferred.
+     *
+     * @param value
+     *
+     * @return roundedValue
+     */
+    protected double roundCoefficient(double value) {
+        return roundingDeferred ? value : RoundNumbers.roundHalfUp(value, DECIMAL_PLACES);
+    }
+
+    /**
+     * <pre>
+     * Checks the frame length of the single precision path (<i>process(float[])</i>).
+     *
+     * The float FFT is radix-2 only, whatever the FFT engine, so the frame length must be a power of 2 (greater than 1).
+     * Other lengths are only supported by <i>process(double[])</i> with the <i>MIXED_RADIX</i> engine.
+     * </pre>
+     *
+     * @param frameLength - Number of samples per frame
+     */
+    protected static void checkSinglePrecisionFrameLength(int frameLength) {
+        if (frameLength < 2 || Integer.bitCount(frameLength) != 1) {
+            throw new IllegalArgumentException("Frame length must be a power of 2 in single precision: " + frameLength);
+        }
+    }
+
+    /**
+     * Processes all frames in chunks, in parallel when <i>isParallel()</i> is true.
+     * <br>
+     * Each chunk must allocate its own work buffers and write only the results of its frames.
+     *
+     * @param numFrames - Number of frames
+     * @param chunkTask - Processes each chunk
+     */
+    void forEachFrameChunk(int numFrames, ParallelFrames.ChunkTask chunkTask) {
+        ParallelFrames.forEachChunk(numFrames, parallel, chunkTask);
+    }
+
+    /**
+     * <pre>
+     * Starts a streaming feature extraction.
+     *
+     * The audio signal is then pushed in pieces by <i>accept()</i>, and the feature vector of each frame is emitted to
+     * the sink as soon as it is complete. The memory used does not depend on the length of the signal, so the
+     * feature matrix is not kept: after <i>end()</i>, <i>getFeature()</i> returns null (except for aggregated
+     * features, such as the Power Spectrum), while the mean and standard deviation are available.
+     * </pre>
+     *
+     * @param featureSink - Receives the feature vectors
+     */
+    public void begin(FeatureSink featureSink) {
+        this.featureSink = featureSink;
+        this.emittedFrames = 0;
+        this.frameStream = new FrameStream(config.getFrameLength(), config.getOverlapSamples(), isPreEmphasisPerformed(), config.getPreEmphasisAlpha(), this::processStreamFrame);
+
+        beginStream();
+    }
+
+    /**
+     * Pushes samples of the audio signal to the streaming feature extraction.
+     * <br>
+     * The pre-emphasis state and the overlapping samples are carried from the previous call.
+     *
+     * @param samples - Samples
+     * @param offset  - Position of the first sample
+     * @param length  - Number of samples
+     */
+    public void accept(double[] samples, int offset, int length) {
+        if (frameStream == null) {
+            throw new IllegalStateException("Streaming feature extraction not started - Call begin() first");
+        }
+
+        frameStream.accept(samples, offset, length);
+    }
+
+    /**
+     * Ends the streaming feature extraction, emitting the remaining frames (padded with zeros).
+     */
+    public void end() {
+        if (frameStream == null) {
+            throw new IllegalStateException("Streaming feature extraction not started - Call begin() first");
+        }
+
+        frameStream.end();
+        frameStream = null;
+
+        endStream();
+    }
+
+    /**
+     * Returns whether pre-emphasis is performed before framing.
+     *
+     * @return preEmphasis
+     */
+    protected abstract boolean isPreEmphasisPerformed();
+
+    /**
+     * Streaming - Prepares the buffers of the feature extraction.
+     */
+    protected abstract void beginStream();
+
+    /**
+     * Streaming - Computes the features of a frame (before windowing).
+     * <br>
+     * The array is reused by the next frame, so it must not be kept.
+     *
+     * @param frame
+     */
+    protected abstract void processStreamFrame(double[] frame);
+
+    /**
+     * Streaming - Finishes the feature extraction after the last frame.
+     */
+    protected abstract void endStream();
+
+    /**
+     * Streaming - Emits the feature vector of the next frame to the sink.
+     *
+     * @param featureVector
+     */
+    protected void emitFeature(double[] featureVector) {
+        featureSink.accept(emittedFrames++, featureVector);
+    }
 
     /**
      * Returns the feature coefficients.
@@ -0,0 +1,21 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.features;
+
+/**
+ * Receives the feature vectors emitted by a streaming feature extraction (see <i>FeatureExtraction.begin()</i>).
+ *
+ * @author Leandro Tacioli
+ */
+@FunctionalInterface
+public interface FeatureSink {
+
+    /**
+     * Receives the feature vector of a frame, as soon as it is complete.
+     * <br>
+     * Frames are emitted in order, starting at 0. The vector is not reused by the extractor.
+     *
+     * @param indexFrame    - Index of the frame
+     * @param featureVector - Feature vector of the frame
+     */
+    void accept(int indexFrame, double[] featureVector);
+
+}
\ No newline at end of file
@@ -0,0 +1,93 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.features;
+
+import br.unicamp.fnjv.wasis.api.core.dsp.windowing.WindowFunction;
+
+/**
+ * <pre>
+ * View of the frames of an audio signal in single precision (float), without copying the signal into a frame matrix.
+ *
+ * Same framing as <i>FrameView</i> - The frame <i>i</i> starts at <i>i * hopSize</i> and the samples beyond the end of
+ * the signal are read as zeros.
+ * </pre>
+ *
+ * @author Leandro Tacioli
+ */
+public class FloatFrameView {
+
+    /** Audio signal. */
+    private final float[] audioSignal;
+
+    /** Number of samples per frame. */
+    private final int frameLength;
+
+    /** Number of samples between the beginning of consecutive frames (<i>frameLength - overlapSamples</i>). */
+    private final int hopSize;
+
+    /** Number of frames. */
+    private final int numFrames;
+
+    /**
+     * <pre>
+     * View of the frames of an audio signal in single precision.
+     *
+     * <i>overlapSamples</i> = <i>frameLength</i> / 2.
+     * </pre>
+     *
+     * @param audioSignal - Audio Signal
+     * @param frameLength - Frame Length
+     */
+    public FloatFrameView(float[] audioSignal, int frameLength) {
+        this(audioSignal, frameLength, frameLength / 2);
+    }
+
+    /**
+     * View of the frames of an audio signal in single precision.
+     *
+     * @param audioSignal    - Audio Signal
+     * @param frameLength    - Frame Length
+     * @param overlapSamples - Overlap Samples
+     */
+    public FloatFrameView(float[] audioSignal, int frameLength, int overlapSamples) {
+        if (frameLength - overlapSamples <= 0) {
+            throw new IllegalArgumentException("Overlap samples must be lesser than the frame length");
+        }
+
+        this.audioSignal = audioSignal;
+        this.frameLength = frameLength;
+        this.hopSize = frameLength - overlapSamples;
+
+        // Unconditionally round up - At least one frame
+        this.numFrames = Math.max(1, (audioSignal.length + hopSize - 1) / hopSize);
+    }
+
+    /**
+     * Returns the number of frames.
+     *
+     * @return numFrames
+     */
+    public int getNumFrames() {
+        return numFrames;
+    }
+
+    /**
+     * Returns the number of samples per frame.
+     *
+     * @return frameLength
+     */
+    public int getFrameLength() {
+        return frameLength;
+    }
+
+    /**
+     * Applies a window function to a frame, writing the result into a buffer supplied by the caller (e.g. the FFT buffer).
+     *
+     * @param indexFrame        - Index of the frame
+     * @param windowFunction    - Window Function
+     * @param destination       - Output buffer
+     * @param destinationOffset - Position of the first sample in <i>destination</i>
+     */
+    public void applyWindow(int indexFrame, WindowFunction windowFunction, float[] destination, int destinationOffset) {
+        windowFunction.applyWindow(audioSignal, indexFrame * hopSize, frameLength, destination, destinationOffset);
+    }
+
+}
\ No newline at end of file
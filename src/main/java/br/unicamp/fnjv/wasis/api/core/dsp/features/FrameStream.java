@@ -0,0 +1,125 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.features;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * <pre>
+ * Frame blocking of an audio signal received in pieces.
+ *
+ * The pre-emphasis state and the overlapping samples are carried across the calls of <i>accept()</i>, hence the
+ * frames are exactly the same as the ones of <i>Preprocessing.preEmphasis()</i> followed by <i>FrameView</i>,
+ * with only one frame kept in memory.
+ * </pre>
+ *
+ * @author Leandro Tacioli
+ */
+class FrameStream {
+
+    /** Number of samples per frame. */
+    private final int frameLength;
+
+    /** Number of samples between the beginning of consecutive frames. */
+    private final int hopSize;
+
+    /** Whether pre-emphasis is performed. */
+    private final boolean preEmphasis;
+
+    /** Pre-Emphasis Alpha. */
+    private final double preEmphasisAlpha;
+
+    /** Receives each complete frame - The array is reused, so it must not be kept. */
+    private final Consumer<double[]> frameConsumer;
+
+    /** Current frame. */
+    private final double[] frame;
+
+    /** Number of samples already in the current frame. */
+    private int frameSamples;
+
+    /** Previous sample of the signal (Pre-emphasis). */
+    private double previousSample;
+
+    /** Number of samples received. */
+    private long totalSamples;
+
+    /** Number of frames emitted. */
+    private long totalFrames;
+
+    /**
+     * Frame blocking of an audio signal received in pieces.
+     *
+     * @param frameLength      - Frame Length
+     * @param overlapSamples   - Overlap Samples
+     * @param preEmphasis      - Whether pre-emphasis is performed
+     * @param preEmphasisAlpha - Pre-Emphasis Alpha
+     * @param frameConsumer    - Receives each complete frame
+     */
+    FrameStream(int frameLength, int overlapSamples, boolean preEmphasis, double preEmphasisAlpha, Consumer<double[]> frameConsumer) {
+        if (frameLength - overlapSamples <= 0) {
+            throw new IllegalArgumentException("Overlap samples must be lesser than the frame length");
+        }
+
+        this.frameLength = frameLength;
+        this.hopSize = frameLength - overlapSamples;
+        this.preEmphasis = preEmphasis;
+        this.preEmphasisAlpha = preEmphasisAlpha;
+        this.frameConsumer = frameConsumer;
+        this.frame = new double[frameLength];
+    }
+
+    /**
+     * Receives samples of the audio signal, emitting the frames completed by them.
+     *
+     * @param samples - Samples
+     * @param offset  - Position of the first sample
+     * @param length  - Number of samples
+     */
+    void accept(double[] samples, int offset, int length) {
+        for (int indexSample = offset; indexSample < offset + length; indexSample++) {
+            double sample = samples[indexSample];
+
+            if (preEmphasis) {
+                // As in Preprocessing.preEmphasis(), the first sample is zero
+                frame[frameSamples++] = (totalSamples == 0) ? 0 : sample - preEmphasisAlpha * previousSample;
+            } else {
+                frame[frameSamples++] = sample;
+            }
+
+            previousSample = sample;
+            totalSamples++;
+
+            if (frameSamples == frameLength) {
+                emitFrame();
+
+                frameSamples = frameLength - hopSize;
+            }
+        }
+    }
+
+    /**
+     * Emits the remaining frames, padded with zeros - At least one frame is always emitted.
+     */
+    void end() {
+        long numFrames = Math.max(1, (totalSamples + hopSize - 1) / hopSize);
+
+        while (totalFrames < numFrames) {
+            Arrays.fill(frame, frameSamples, frameLength, 0);
+
+            emitFrame();
+
+            frameSamples = Math.max(0, frameSamples - hopSize);
+        }
+    }
+
+    /**
+     * Emits the current frame and keeps its overlapping samples at the beginning of the next one.
+     */
+    private void emitFrame() {
+        frameConsumer.accept(frame);
+        totalFrames++;
+
+        System.arraycopy(frame, hopSize, frame, 0, frameLength - hopSize);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,168 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.features;
+
+import br.unicamp.fnjv.wasis.api.core.dsp.windowing.WindowFunction;
+
+/**
+ * <pre>
+ * View of the frames of an audio signal, without copying the signal into a frame matrix.
+ *
+ * Frames are read directly from the original signal, the frame <i>i</i> starting at <i>i * hopSize</i>.
+ * Samples beyond the end of the signal are read as zeros, hence only the last frames are padded.
+ * The number of frames is the same as the one of <i>Preprocessing.framing()</i>.
+ * </pre>
+ *
+ * @author Leandro Tacioli
+ */
+public class FrameView {
+
+    /** Audio signal - Null when the view wraps a frame matrix. */
+    private final double[] audioSignal;
+
+    /** Frame matrix - Null when the view wraps an audio signal. */
+    private final double[][] frames;
+
+    /** Number of samples per frame. */
+    private final int frameLength;
+
+    /** Number of samples between the beginning of consecutive frames (<i>frameLength - overlapSamples</i>). */
+    private final int hopSize;
+
+    /** Number of frames. */
+    private final int numFrames;
+
+    /**
+     * <pre>
+     * View of the frames of an audio signal.
+     *
+     * <i>overlapSamples</i> = <i>frameLength</i> / 2.
+     * </pre>
+     *
+     * @param audioSignal - Audio Signal
+     * @param frameLength - Frame Length
+     */
+    public FrameView(double[] audioSignal, int frameLength) {
+        this(audioSignal, frameLength, frameLength / 2);
+    }
+
+    /**
+     * View of the frames of an audio signal.
+     *
+     * @param audioSignal    - Audio Signal
+     * @param frameLength    - Frame Length
+     * @param overlapSamples - Overlap Samples
+     */
+    public FrameView(double[] audioSignal, int frameLength, int overlapSamples) {
+        if (frameLength - overlapSamples <= 0) {
+            throw new IllegalArgumentException("Overlap samples must be lesser than the frame length");
+        }
+
+        this.audioSignal = audioSignal;
+        this.frames = null;
+        this.frameLength = frameLength;
+        this.hopSize = frameLength - overlapSamples;
+
+        // Unconditionally round up - At least one frame
+        this.numFrames = Math.max(1, (audioSignal.length + hopSize - 1) / hopSize);
+    }
+
+    /**
+     * <pre>
+     * View of frames already blocked in a matrix (e.g. by <i>Preprocessing.framing()</i>).
+     *
+     * All frames are expected to have the same length as the first one.
+     * </pre>
+     *
+     * @param frames - Frame matrix
+     */
+    public FrameView(double[][] frames) {
+        this.audioSignal = null;
+        this.frames = frames;
+        this.frameLength = (frames.length > 0) ? frames[0].length : 0;
+        this.hopSize = frameLength;
+        this.numFrames = frames.length;
+    }
+
+    /**
+     * Returns the number of frames.
+     *
+     * @return numFrames
+     */
+    public int getNumFrames() {
+        return numFrames;
+    }
+
+    /**
+     * Returns the number of samples per frame.
+     *
+     * @return frameLength
+     */
+    public int getFrameLength() {
+        return frameLength;
+    }
+
+    /**
+     * Returns the number of samples between the beginning of consecutive frames.
+     *
+     * @return hopSize
+     */
+    public int getHopSize() {
+        return hopSize;
+    }
+
+    /**
+     * Copies a frame into a buffer supplied by the caller, padding with zeros beyond the end of the signal.
+     *
+     * @param indexFrame  - Index of the frame
+     * @param destination - Output buffer (<i>frameLength</i> positions)
+     *
+     * @return destination
+     */
+    public double[] copyFrame(int indexFrame, double[] destination) {
+        double[] source = getSource(indexFrame);
+        int sourceOffset = getSourceOffset(indexFrame);
+        int available = Math.max(0, Math.min(frameLength, source.length - sourceOffset));
+
+        System.arraycopy(source, sourceOffset, destination, 0, available);
+
+        for (int index = available; index < frameLength; index++) {
+            destination[index] = 0;
+        }
+
+        return destination;
+    }
+
+    /**
+     * Applies a window function to a frame, writing the result into a buffer supplied by the caller (e.g. the FFT buffer).
+     *
+     * @param indexFrame        - Index of the frame
+     * @param windowFunction    - Window Function
+     * @param destination       - Output buffer
+     * @param destinationOffset - Position of the first sample in <i>destination</i>
+     */
+    public void applyWindow(int indexFrame, WindowFunction windowFunction, double[] destination, int destinationOffset) {
+        windowFunction.applyWindow(getSource(indexFrame), getSourceOffset(indexFrame), frameLength, destination, destinationOffset);
+    }
+
+    /**
+     * Returns the array holding the samples of a frame.
+     *
+     * @param indexFrame - Index of the frame
+     *
+     * @return source
+     */
+    private double[] getSource(int indexFrame) {
+        return (frames != null) ? frames[indexFrame] : audioSignal;
+    }
+
+    /**
+     * Returns the position of the first sample of a frame in its array.
+     *
+     * @param indexFrame - Index of the frame
+     *
+     * @return sourceOffset
+     */
+    private int getSourceOffset(int indexFrame) {
+        return (frames != null) ? 0 : indexFrame * hopSize;
+    }
+
+}
\ No newline at end of file
@@ -2,7 +2,7 @@ package br.unicamp.fnjv.wasis.api.core.dsp.features;
 
 import br.unicamp.fnjv.wasis.api.core.dsp.windowing.WindowFunction;
 import br.unicamp.fnjv.wasis.api.utils.statistics.BasicStatistics;
-import br.unicamp.fnjv.wasis.api.utils.transformations.RoundNumbers;
+import br.unicamp.fnjv.wasis.api.utils.statistics.RunningStatistics;
 
 /**
  * Feature extraction class used to extract Linear Predictive Coding (LPC) from audio signals.
@@ -17,19 +17,19 @@ public class LPC extends FeatureExtraction {
      * Used when the number of coefficients is not informed.
      * </pre>
      */
-    protected final int DEFAULT_LPC_ORDER = 24;
+    protected final int DEFAULT_LPC_ORDER = FeatureConfig.DEFAULT.getLpcOrder();
 
     /** Final Order - Number of coefficients. */
     protected int lpcOrder;
 
     /** Number of samples per frame. */
-    protected final int FRAME_LENGTH = 1024;
+    protected final int frameLength;
 
     /** Window Function */
-    private final String WINDOW_FUNCTION = WindowFunction.HAMMING;
+    private final String windowFunctionName;
 
-    /** Lambda. */
-    private final double LAMBDA = 0.0;
+    /** Method used to compute the autocorrelation of the frames. */
+    private AutoCorrelationMethod autoCorrelationMethod = AutoCorrelationMethod.AUTOMATIC;
 
     /** Reflection coefficients - Each row is related to its respective frame. */
     protected double[][] reflectionCoefficients;
@@ -49,11 +49,20 @@ public class LPC extends FeatureExtraction {
     /** The standard deviation of the LPC coefficients. */
     private double[] lpcStandardDeviation;
 
+    /** Streaming - Window Function. */
+    private WindowFunction streamWindowFunction;
+
+    /** Streaming - Windowed frame. */
+    private double[] streamFrame;
+
+    /** Streaming - Mean and standard deviation of the LPC coefficients. */
+    private RunningStatistics streamStatistics;
+
     /**
      * Feature extraction class used to extract Linear Predictive Coding (LPC) from audio signals.
      */
     public LPC() {
-        this.lpcOrder = DEFAULT_LPC_ORDER;
+        this(FeatureConfig.DEFAULT);
     }
 
     /**
@@ -62,7 +71,20 @@ public class LPC extends FeatureExtraction {
      * @param order - LPC Order - Equivalent to the number of LPC coefficients
      */
     public LPC(int order) {
-        this.lpcOrder = order;
+        this(FeatureConfig.DEFAULT.toBuilder().lpcOrder(order).build());
+    }
+
+    /**
+     * Feature extraction class used to extract Linear Predictive Coding (LPC) from audio signals.
+     *
+     * @param config - Feature configuration (Frame length, hop size, window function, pre-emphasis and LPC order)
+     */
+    public LPC(FeatureConfig config) {
+        super(config);
+
+        this.lpcOrder = config.getLpcOrder();
+        this.frameLength = config.getFrameLength();
+        this.windowFunctionName = config.getWindowFunction();
     }
 
     /**
@@ -77,10 +99,10 @@ public class LPC extends FeatureExtraction {
     @Override
     public void process(double[] audioSignal) {
         // Step 1 - Pre-Emphasis
-        double[] preEmphasis = Preprocessing.preEmphasis(audioSignal);
+        double[] preEmphasis = Preprocessing.preEmphasis(audioSignal, config.getPreEmphasisAlpha());
 
         // Step 2 - Frame Blocking
-        double[][] frames = Preprocessing.framing(preEmphasis, FRAME_LENGTH);
+        FrameView frames = new FrameView(preEmphasis, frameLength, config.getOverlapSamples());
 
         processFrames(frames);
     }
@@ -95,26 +117,131 @@ public class LPC extends FeatureExtraction {
      * @param frames
      */
     @Override
-    public void processFrames(double[][] frames) {
-        WindowFunction windowFunction = new WindowFunction(WINDOW_FUNCTION);
+    public void processFrames(FrameView frames) {
+        initializeFrames(frames.getNumFrames());
+
+        // Below computations are all based on individual frames - Each chunk of frames has its own buffers
+        forEachFrameChunk(frames.getNumFrames(), (firstFrame, endFrame) -> {
+            WindowFunction windowFunction = new WindowFunction(windowFunctionName);
+            double[] frame = new double[frames.getFrameLength()];
+
+            for (int indexFrame = firstFrame; indexFrame < endFrame; indexFrame++) {
+                // Step 3 - Windowing - Apply Hamming Window to all frames
+                frames.applyWindow(indexFrame, windowFunction, frame, 0);
+
+                // Steps 4 and 5
+                processWindowedFrame(indexFrame, frame);
+            }
+        });
+
+        computeFinalLPC(frames.getNumFrames());
+    }
+
+    /**
+     * Initializes the reflection coefficients, autoregressive parameters and alpha of all frames.
+     *
+     * @param totalFrames
+     */
+    void initializeFrames(int totalFrames) {
+        reflectionCoefficients = new double[totalFrames][lpcOrder + 1];
+        autoregressiveParameters = new double[totalFrames][lpcOrder + 1];
+        alpha = new double[totalFrames];
+    }
+
+    /**
+     * Computes the linear prediction of a windowed frame (Autocorrelation and Levinson-Durbin).
+     *
+     * @param indexFrame - Index of the frame
+     * @param frame      - Windowed frame
+     */
+    void processWindowedFrame(int indexFrame, double[] frame) {
+        // Step 4 - Autocorrelation
+        double[] autoCorrelation = autoCorrelation(frame);
+
+        // Step 5 - Levinson-Durbin Algorithm
+        levinsonDurbin(indexFrame, autoCorrelation);
+    }
+
+    /**
+     * Uses the linear prediction (reflection coefficients, autoregressive parameters and alpha) already computed by
+     * another extractor of the same LPC order, instead of computing it again.
+     *
+     * @param source
+     */
+    void shareLinearPrediction(LPC source) {
+        reflectionCoefficients = source.reflectionCoefficients;
+        autoregressiveParameters = source.autoregressiveParameters;
+        alpha = source.alpha;
+    }
+
+    /**
+     * Computes the final coefficients, mean and standard deviation of all frames from their linear prediction.
+     *
+     * @param totalFrames
+     */
+    void computeFinalCoefficients(int totalFrames) {
+        computeFinalLPC(totalFrames);
+    }
+
+    @Override
+    protected boolean isPreEmphasisPerformed() {
+        return true;
+    }
 
-        reflectionCoefficients = new double[frames.length][lpcOrder + 1];
-        autoregressiveParameters = new double[frames.length][lpcOrder + 1];
-        alpha = new double[frames.length];
+    @Override
+    protected void beginStream() {
+        lpc = null;
+        lpcMean = null;
+        lpcStandardDeviation = null;
+
+        streamWindowFunction = new WindowFunction(windowFunctionName);
+        streamFrame = new double[frameLength];
+        streamStatistics = new RunningStatistics(lpcOrder);
+
+        // Only the current frame is kept
+        reflectionCoefficients = new double[1][lpcOrder + 1];
+        autoregressiveParameters = new double[1][lpcOrder + 1];
+        alpha = new double[1];
+    }
 
-        // Below computations are all based on individual frames
-        for (int indexFrame = 0; indexFrame < frames.length; indexFrame++) {
-            // Step 3 - Windowing - Apply Hamming Window to all frames
-            frames[indexFrame] = windowFunction.applyWindow(frames[indexFrame]);
+    @Override
+    protected void processStreamFrame(double[] frame) {
+        // Step 3 - Windowing
+        streamWindowFunction.applyWindow(frame, 0, frame.length, streamFrame, 0);
 
-            // Step 4 - Autocorrelation
-            double[] autoCorrelation = autoCorrelation(frames[indexFrame]);
+        // Steps 4 and 5
+        processWindowedFrame(0, streamFrame);
 
-            // Step 5 - Levinson-Durbin Algorithm
-            levinsonDurbin(indexFrame, autoCorrelation);
+        emitStreamFrame();
+    }
+
+    /**
+     * Streaming - Emits the coefficients of the current frame (computed by <i>levinsonDurbin()</i> at index 0).
+     */
+    protected void emitStreamFrame() {
+        double[] lpcVector = new double[lpcOrder];
+
+        computeLPC(0, lpcVector);
+
+        streamStatistics.accept(lpcVector);
+
+        emitFeature(lpcVector);
+    }
+
+    @Override
+    protected void endStream() {
+        // Calculates mean and standard deviation for each LPC coefficient
+        if (streamStatistics.getCount() > 1) {
+            lpcMean = streamStatistics.getMean();
+            lpcStandardDeviation = streamStatistics.getStandardDeviation();
+
+            for (int indexCoefficient = 0; indexCoefficient < lpcOrder; indexCoefficient++) {
+                lpcMean[indexCoefficient] = roundCoefficient(lpcMean[indexCoefficient]);
+                lpcStandardDeviation[indexCoefficient] = roundCoefficient(lpcStandardDeviation[indexCoefficient]);
+            }
         }
 
-        computeFinalLPC(frames.length);
+        streamFrame = null;
     }
 
     /**
@@ -148,49 +275,43 @@ public class LPC extends FeatureExtraction {
     }
 
     /**
-     * Find the order-P autocorrelation array for the sequence x of length L and warping of lambda.
+     * <pre>
+     * Sets the method used to compute the autocorrelation of the frames.
      *
-     * @param samples
+     * <i>AUTOMATIC</i> (Default) - Direct sum for low orders and FFT (Wiener-Khinchin) for high orders.
+     * </pre>
      *
-     * @return autoCorrelation array
+     * @param autoCorrelationMethod
      */
-    private double[] autoCorrelation(double[] samples) {
-        double[] r = new double[lpcOrder + 1];
-        double[] dl = new double[samples.length];
-        double[] rt = new double[samples.length];
-        double r1, r2, r1t;
-
-        r[0] = 0;
-        rt[0] = 0;
-        r1 = 0;
-        r2 = 0;
-
-        for (int k = 0; k < samples.length; k++) {
-            rt[0] += samples[k] * samples[k];
-
-            dl[k] = r1 - LAMBDA * (samples[k] - r2);
-            r1 = samples[k];
-            r2 = dl[k];
+    public void setAutoCorrelationMethod(AutoCorrelationMethod autoCorrelationMethod) {
+        if (autoCorrelationMethod == null) {
+            throw new IllegalArgumentException("Autocorrelation method must not be null");
         }
 
-        for (int i = 1; i < r.length; i++) {
-            rt[i] = 0;
-            r1 = 0;
-            r2 = 0;
+        this.autoCorrelationMethod = autoCorrelationMethod;
+    }
 
-            for (int k = 0; k < samples.length; k++) {
-                rt[i] += dl[k] * samples[k];
+    /**
+     * Returns the method used to compute the autocorrelation of the frames.
+     *
+     * @return autoCorrelationMethod
+     */
+    public AutoCorrelationMethod getAutoCorrelationMethod() {
+        return autoCorrelationMethod;
+    }
 
-                r1t = dl[k];
-                dl[k] = r1 - LAMBDA * (r1t - r2);
-                r1 = r1t;
-                r2 = dl[k];
-            }
-        }
+    /**
+     * Find the order-P autocorrelation array for the sequence x of length L.
+     *
+     * @param samples
+     *
+     * @return autoCorrelation array
+     */
+    private double[] autoCorrelation(double[] samples) {
+        double[] r = new double[lpcOrder + 1];
 
-        for (int i = 0; i < r.length; i++) {
-            r[i] = rt[i];
-        }
+        // Direct sum or FFT (see AutoCorrelation)
+        AutoCorrelation.compute(samples, lpcOrder, autoCorrelationMethod, r);
 
         return r;
     }
@@ -236,6 +357,18 @@ public class LPC extends FeatureExtraction {
         }
     }
 
+    /**
+     * Computes the final Linear Predictive Coding (LPC) coefficients of a frame.
+     *
+     * @param indexFrame - Index of the frame
+     * @param lpcVector  - LPC coefficients (Output - <i>lpcOrder</i> positions)
+     */
+    private void computeLPC(int indexFrame, double[] lpcVector) {
+        for (int indexOrder = 0; indexOrder < lpcOrder; indexOrder++) {
+            lpcVector[indexOrder] = roundCoefficient(autoregressiveParameters[indexFrame][indexOrder + 1]);
+        }
+    }
+
     /**
      * Computes the final Linear Predictive Coding (LPC) coefficients.
      *
@@ -245,9 +378,7 @@ public class LPC extends FeatureExtraction {
         lpc = new double[totalFrames][lpcOrder];
 
         for (int indexFrame = 0; indexFrame < totalFrames; indexFrame++) {
-            for (int indexOrder = 0; indexOrder < lpcOrder; indexOrder++) {
-                lpc[indexFrame][indexOrder] = RoundNumbers.round(autoregressiveParameters[indexFrame][indexOrder + 1], 4);
-            }
+            computeLPC(indexFrame, lpc[indexFrame]);
         }
 
         // Calculates mean and standard deviation for each LPC coefficient
@@ -262,8 +393,8 @@ public class LPC extends FeatureExtraction {
                     coefficientValues[indexFrame] = lpc[indexFrame][indexCoefficient];
                 }
 
-                lpcMean[indexCoefficient] = RoundNumbers.round(BasicStatistics.mean(coefficientValues), 4);
-                lpcStandardDeviation[indexCoefficient] = RoundNumbers.round(BasicStatistics.standardDeviation(coefficientValues), 4);
+                lpcMean[indexCoefficient] = roundCoefficient(BasicStatistics.mean(coefficientValues));
+                lpcStandardDeviation[indexCoefficient] = roundCoefficient(BasicStatistics.standardDeviation(coefficientValues));
             }
         }
     }
@@ -1,7 +1,7 @@
 package br.unicamp.fnjv.wasis.api.core.dsp.features;
 
 import br.unicamp.fnjv.wasis.api.utils.statistics.BasicStatistics;
-import br.unicamp.fnjv.wasis.api.utils.transformations.RoundNumbers;
+import br.unicamp.fnjv.wasis.api.utils.statistics.RunningStatistics;
 
 /**
  * Feature extraction class used to extract LPCC (Linear Prediction Cepstral Coefficients) from audio signals.
@@ -16,7 +16,7 @@ public class LPCC extends LPC {
      * Used when the Number of coefficients is not informed.
      * </pre>
      */
-    protected final int DEFAULT_LPCC_ORDER = 24;
+    protected final int DEFAULT_LPCC_ORDER = FeatureConfig.DEFAULT.getLpccOrder();
 
     /** Final Order - Number of coefficients. */
     private int lpccOrder;
@@ -30,12 +30,14 @@ public class LPCC extends LPC {
     /** The standard deviation of the LPCC coefficients. */
     private double[] lpccStandardDeviation;
 
+    /** Streaming - Mean and standard deviation of the LPCC coefficients. */
+    private RunningStatistics streamLpccStatistics;
+
     /**
      * Feature extraction class used to extract LPCC (Linear Prediction Cepstral Coefficients) from audio signals.
      */
     public LPCC() {
-        this.lpcOrder = DEFAULT_LPC_ORDER;
-        this.lpccOrder = DEFAULT_LPCC_ORDER;
+        this(FeatureConfig.DEFAULT);
     }
 
     /**
@@ -45,8 +47,18 @@ public class LPCC extends LPC {
      * @param lpccOrder - LPCC Order - Equivalent to the number of LPCC coefficients
      */
     public LPCC(int lpcOrder, int lpccOrder) {
-        this.lpcOrder = lpcOrder;
-        this.lpccOrder = lpccOrder;
+        this(FeatureConfig.DEFAULT.toBuilder().lpcOrder(lpcOrder).lpccOrder(lpccOrder).build());
+    }
+
+    /**
+     * Feature extraction class used to extract LPCC (Linear Prediction Cepstral Coefficients) from audio signals.
+     *
+     * @param config - Feature configuration (Frame length, hop size, window function, pre-emphasis, LPC and LPCC orders)
+     */
+    public LPCC(FeatureConfig config) {
+        super(config);
+
+        this.lpccOrder = config.getLpccOrder();
     }
 
     /**
@@ -60,9 +72,9 @@ public class LPCC extends LPC {
      */
     @Override
     public void process(double[] audioSignal) {
-        double[] preEmphasis = Preprocessing.preEmphasis(audioSignal);
+        double[] preEmphasis = Preprocessing.preEmphasis(audioSignal, config.getPreEmphasisAlpha());
 
-        double[][] frames = Preprocessing.framing(preEmphasis, FRAME_LENGTH);
+        FrameView frames = new FrameView(preEmphasis, frameLength, config.getOverlapSamples());
 
         processFrames(frames);
     }
@@ -77,10 +89,55 @@ public class LPCC extends LPC {
      * @param frames
      */
     @Override
-    public void processFrames(double[][] frames) {
+    public void processFrames(FrameView frames) {
         super.processFrames(frames);
 
-        computeFinalLPCC(frames.length);
+        computeFinalLPCC(frames.getNumFrames());
+    }
+
+    @Override
+    void computeFinalCoefficients(int totalFrames) {
+        super.computeFinalCoefficients(totalFrames);
+
+        computeFinalLPCC(totalFrames);
+    }
+
+    @Override
+    protected void beginStream() {
+        super.beginStream();
+
+        lpcc = null;
+        lpccMean = null;
+        lpccStandardDeviation = null;
+
+        streamLpccStatistics = new RunningStatistics(lpccOrder);
+    }
+
+    @Override
+    protected void emitStreamFrame() {
+        double[] lpccVector = new double[lpccOrder];
+
+        computeLPCC(0, lpccVector);
+
+        streamLpccStatistics.accept(lpccVector);
+
+        emitFeature(lpccVector);
+    }
+
+    @Override
+    protected void endStream() {
+        super.endStream();
+
+        // Calculates mean and standard deviation for each LPCC coefficient
+        if (streamLpccStatistics.getCount() > 1) {
+            lpccMean = streamLpccStatistics.getMean();
+            lpccStandardDeviation = streamLpccStatistics.getStandardDeviation();
+
+            for (int indexCoefficient = 0; indexCoefficient < lpccOrder; indexCoefficient++) {
+                lpccMean[indexCoefficient] = roundCoefficient(lpccMean[indexCoefficient]);
+                lpccStandardDeviation[indexCoefficient] = roundCoefficient(lpccStandardDeviation[indexCoefficient]);
+            }
+        }
     }
 
     /**
@@ -136,40 +193,73 @@ public class LPCC extends LPC {
     }
 
     /**
-     * Computes the final LPCC (Linear Prediction Cepstral Coefficients).
+     * <pre>
+     * Computes the LPCC (Linear Prediction Cepstral Coefficients) from an autocorrelated frame into a buffer supplied by the caller.
      *
-     * @param totalFrames
+     * Unlike <i>processAutocorrelatedFrame(double[])</i>, the work arrays are reused by the next frames, so the same
+     * object serves all frames of a PLP computation (one object per thread).
+     * </pre>
+     *
+     * @param autocorrelatedFrame
+     * @param lpccVector          - LPCC coefficients (Output - <i>lpccOrder</i> positions)
      */
-    private void computeFinalLPCC(int totalFrames) {
-        lpcc = new double[totalFrames][lpccOrder];
+    void processAutocorrelatedFrame(double[] autocorrelatedFrame, double[] lpccVector) {
+        if (alpha == null || alpha.length != 1) {
+            reflectionCoefficients = new double[1][lpcOrder + 1];
+            autoregressiveParameters = new double[1][lpcOrder + 1];
+            alpha = new double[1];
+        }
 
-        for (int indexFrame = 0; indexFrame < totalFrames; indexFrame++) {
-            lpcc[indexFrame][0] = RoundNumbers.round(Math.log(alpha[indexFrame]), 4);
-            lpcc[indexFrame][1] = RoundNumbers.round(-autoregressiveParameters[indexFrame][1], 4);
+        super.levinsonDurbin(0, autocorrelatedFrame);
 
-            int i;
-            double sum;
+        computeLPCC(0, lpccVector);
+    }
 
-            for (i = 2; i < Math.min(lpccOrder, lpcOrder + 1); i++) {
-                sum = i * autoregressiveParameters[indexFrame][i];
+    /**
+     * Computes the final LPCC (Linear Prediction Cepstral Coefficients) of a frame.
+     *
+     * @param indexFrame - Index of the frame
+     * @param lpccVector - LPCC coefficients (Output - <i>lpccOrder</i> positions)
+     */
+    private void computeLPCC(int indexFrame, double[] lpccVector) {
+        lpccVector[0] = roundCoefficient(Math.log(alpha[indexFrame]));
+        lpccVector[1] = roundCoefficient(-autoregressiveParameters[indexFrame][1]);
 
-                for (int j = 1; j < i; j++) {
-                    sum += autoregressiveParameters[indexFrame][j] * lpcc[indexFrame][i - j] * (i - j);
-                }
+        int i;
+        double sum;
 
-                lpcc[indexFrame][i] = RoundNumbers.round((-sum / i), 4);
+        for (i = 2; i < Math.min(lpccOrder, lpcOrder + 1); i++) {
+            sum = i * autoregressiveParameters[indexFrame][i];
+
+            for (int j = 1; j < i; j++) {
+                sum += autoregressiveParameters[indexFrame][j] * lpccVector[i - j] * (i - j);
             }
 
-            // Only if lpccOrder > lpcOrder + 1
-            for (; i < lpccOrder; i++) {
-                sum = 0;
+            lpccVector[i] = roundCoefficient(-sum / i);
+        }
 
-                for (int j = 1; j <= lpcOrder; j++) {
-                    sum += autoregressiveParameters[indexFrame][j] * lpcc[indexFrame][i - j] * (i - j);
-                }
+        // Only if lpccOrder > lpcOrder + 1
+        for (; i < lpccOrder; i++) {
+            sum = 0;
 
-                lpcc[indexFrame][i] = RoundNumbers.round((-sum / i), 4);
+            for (int j = 1; j <= lpcOrder; j++) {
+                sum += autoregressiveParameters[indexFrame][j] * lpccVector[i - j] * (i - j);
             }
+
+            lpccVector[i] = roundCoefficient(-sum / i);
+        }
+    }
+
+    /**
+     * Computes the final LPCC (Linear Prediction Cepstral Coefficients).
+     *
+     * @param totalFrames
+     */
+    private void computeFinalLPCC(int totalFrames) {
+        lpcc = new double[totalFrames][lpccOrder];
+
+        for (int indexFrame = 0; indexFrame < totalFrames; indexFrame++) {
+            computeLPCC(indexFrame, lpcc[indexFrame]);
         }
 
         // Calculates mean and standard deviation for each LPCC coefficient
@@ -184,8 +274,8 @@ public class LPCC extends LPC {
                     coefficientValues[indexFrame] = lpcc[indexFrame][indexCoefficient];
                 }
 
-                lpccMean[indexCoefficient] = RoundNumbers.round(BasicStatistics.mean(coefficientValues), 4);
-                lpccStandardDeviation[indexCoefficient] = RoundNumbers.round(BasicStatistics.standardDeviation(coefficientValues), 4);
+                lpccMean[indexCoefficient] = roundCoefficient(BasicStatistics.mean(coefficientValues));
+                lpccStandardDeviation[indexCoefficient] = roundCoefficient(BasicStatistics.standardDeviation(coefficientValues));
             }
         }
     }
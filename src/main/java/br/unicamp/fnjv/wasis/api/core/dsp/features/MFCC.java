@@ -1,10 +1,9 @@
 package br.unicamp.fnjv.wasis.api.core.dsp.features;
 
-import br.unicamp.fnjv.wasis.api.core.dsp.fft.FFT;
+import br.unicamp.fnjv.wasis.api.core.dsp.fft.FFTPlan;
 import br.unicamp.fnjv.wasis.api.core.dsp.windowing.WindowFunction;
-import br.unicamp.fnjv.wasis.api.utils.mathematics.MatrixOperations;
 import br.unicamp.fnjv.wasis.api.utils.statistics.BasicStatistics;
-import br.unicamp.fnjv.wasis.api.utils.transformations.RoundNumbers;
+import br.unicamp.fnjv.wasis.api.utils.statistics.RunningStatistics;
 
 /**
  * Feature extraction class used to extract Mel-Frequency Cepstral Coefficients (MFFC) from audio signals.
@@ -20,31 +19,28 @@ public class MFCC extends FeatureExtraction {
      * <br>
      * <b>IMPORTANT 2:</b> Delta & Delta Delta will also be computed, returning a total of 36 coefficients.
      */
-    private final int MFFC_COEFFICIENTS = 13;
+    private final int mfccCoefficients;
 
     /** Number of Mel filters */
-    private final int MEL_FILTERS = 23;
+    private final int melFilters;
 
     /** Number of samples per frame */
-    private final int FRAME_LENGTH = 1024;
+    private final int frameLength;
 
     /** Window Function */
-    private final String WINDOW_FUNCTION = WindowFunction.HAMMING;
+    private final String windowFunctionName;
 
     /** Lower limit of the filter */
-    private final double LOWER_FILTER_FREQUENCY = 45.0;
+    private final double lowerFilterFrequency;
 
     /** Sample rate */
     private double sampleRate;
 
-    /** Delta N */
-    private final int DELTA_N = 2;
+    /** Default Delta N - Used when Delta N is not informed */
+    public static final int DEFAULT_DELTA_N = FeatureConfig.DEFAULT.getDeltaN();
 
-    /** Arithmetic progression of Delta */
-    private double[][] deltaProgression;
-
-    /** Delta denominator */
-    private double deltaDenominator;
+    /** Delta N - Number of frames on each side of the Delta regression window */
+    private final int deltaN;
 
     /** MFCC Coefficients */
     private double[][] mfcc;
@@ -55,37 +51,71 @@ public class MFCC extends FeatureExtraction {
     /** The standard deviation of the LPC coefficients. */
     private double[] standardDeviation;
 
+    /** Mel filter bank - Rising slope of each filter, up to its center bin. */
+    private SparseFilterBank melRisingFilters;
+
+    /** Mel filter bank - Falling slope of each filter, after its center bin. */
+    private SparseFilterBank melFallingFilters;
+
+    /** DCT basis - <i>cos(PI * i / melFilters * (j + 0.5))</i> for coefficient <i>i</i> and filter <i>j</i>. */
+    private double[][] dctBasis;
+
+    /** Streaming - Buffers of the frame computations. */
+    private FrameProcessor streamFrameProcessor;
+
+    /** Streaming - Static MFCCs of the current frame. */
+    private double[] streamStaticCoefficients;
+
+    /** Streaming - Lookahead of the Delta & Delta Delta. */
+    private DeltaRing streamDeltaRing;
+
+    /** Streaming - Mean and standard deviation of the coefficients. */
+    private RunningStatistics streamStatistics;
+
     /**
      * Feature extraction class used to extract Mel-Frequency Cepstral Coefficients (MFFCs) from audio signals.
      *
      * @param sampleRate
      */
     public MFCC(double sampleRate) {
-        this.sampleRate = sampleRate;
-
-        calculateDeltaValues();
+        this(FeatureConfig.DEFAULT, sampleRate);
     }
 
     /**
-     * Calculates Arithmetic progression and denominator of Delta.
+     * Feature extraction class used to extract Mel-Frequency Cepstral Coefficients (MFFCs) from audio signals.
+     *
+     * @param sampleRate
+     * @param deltaN     - Delta N - Number of frames on each side of the Delta regression window
      */
-    private void calculateDeltaValues() {
-        // Calculate Delta Arithmetic Progression
-        // Ex: {-2, -1, 0, 1, 2} - when N = 2
-        deltaProgression = new double[1][2 * DELTA_N + 1];
+    public MFCC(double sampleRate, int deltaN) {
+        this(FeatureConfig.DEFAULT.toBuilder().deltaN(deltaN).build(), sampleRate);
+    }
 
-        for (int indexProgression = -DELTA_N; indexProgression <= DELTA_N; indexProgression++) {
-            deltaProgression[0][indexProgression + DELTA_N] = indexProgression;
-        }
+    /**
+     * <pre>
+     * Feature extraction class used to extract Mel-Frequency Cepstral Coefficients (MFFCs) from audio signals.
+     *
+     * The Mel filter bank and the DCT basis are computed from the frame length, number of filters and number of
+     * coefficients of the configuration.
+     * </pre>
+     *
+     * @param config     - Feature configuration
+     * @param sampleRate
+     */
+    public MFCC(FeatureConfig config, double sampleRate) {
+        super(config);
 
-        // Calculate Delta Denominator
-        deltaDenominator = 0;
+        this.mfccCoefficients = config.getMfccCoefficients();
+        this.melFilters = config.getMelFilters();
+        this.frameLength = config.getFrameLength();
+        this.windowFunctionName = config.getWindowFunction();
+        this.lowerFilterFrequency = config.getLowerFilterFrequency();
 
-        for (int indexDelta = 0; indexDelta <= DELTA_N; indexDelta++) {
-            deltaDenominator += Math.pow(indexDelta, 2);
-        }
+        this.sampleRate = sampleRate;
+        this.deltaN = config.getDeltaN();
 
-        deltaDenominator = 2 * deltaDenominator;
+        computeMelFilterBank();
+        computeDCTBasis();
     }
 
     /**
@@ -100,14 +130,58 @@ public class MFCC extends FeatureExtraction {
     @Override
     public void process(double[] audioSignal) {
         // Step 1 - Pre-Emphasis
-        double[] preEmphasis = Preprocessing.preEmphasis(audioSignal);
+        double[] preEmphasis = Preprocessing.preEmphasis(audioSignal, config.getPreEmphasisAlpha());
 
         // Step 2 - Frame Blocking
-        double[][] frames = Preprocessing.framing(preEmphasis, FRAME_LENGTH);
+        FrameView frames = new FrameView(preEmphasis, frameLength, config.getOverlapSamples());
 
         processFrames(frames);
     }
 
+    /**
+     * <pre>
+     * Take samples from an audio signal and computes the Mel-Frequency Cepstral Coefficients (MFCCs) in single precision.
+     *
+     * Pre-emphasis, framing, windowing, FFT and the Mel filter bank are computed in float, halving the memory traffic
+     * of the samples and spectra. The logarithm, DCT and Delta stages work on a few values per frame and stay in double.
+     * See <i>FloatPrecisionTest</i> for the deviation from <i>process(double[])</i>.
+     *
+     * The frame length must be a power of 2 (see <i>checkSinglePrecisionFrameLength()</i>).
+     * </pre>
+     *
+     * @param audioSignal
+     *
+     * @throws IllegalArgumentException - Frame length is not a power of 2
+     */
+    public void process(float[] audioSignal) {
+        checkSinglePrecisionFrameLength(frameLength);
+
+        // Step 1 - Pre-Emphasis
+        float[] preEmphasis = Preprocessing.preEmphasis(audioSignal, config.getPreEmphasisAlpha());
+
+        // Step 2 - Frame Blocking
+        FloatFrameView frames = new FloatFrameView(preEmphasis, frameLength, config.getOverlapSamples());
+
+        int totalStaticCoefficients = mfccCoefficients - 1;
+
+        double[][] initialMfcc = new double[frames.getNumFrames()][totalStaticCoefficients];
+
+        // Below computations are all based on individual frames - Each chunk of frames has its own buffers
+        forEachFrameChunk(frames.getNumFrames(), (firstFrame, endFrame) -> {
+            FloatFrameProcessor frameProcessor = new FloatFrameProcessor();
+
+            for (int indexFrame = firstFrame; indexFrame < endFrame; indexFrame++) {
+                // Step 3 - Windowing - Apply Hamming Window to all frames
+                frames.applyWindow(indexFrame, frameProcessor.windowFunction, frameProcessor.frame, 0);
+
+                // Steps 4 to 7
+                frameProcessor.staticCoefficients(initialMfcc[indexFrame]);
+            }
+        });
+
+        computeFinalMFCC(initialMfcc);
+    }
+
     /**
      * <pre>
      * Computes the Mel-Frequency Cepstral Coefficients (MFCCs) from audio frames.
@@ -118,79 +192,149 @@ public class MFCC extends FeatureExtraction {
      * @param frames
      */
     @Override
-    public void processFrames(double[][] frames) {
-        WindowFunction windowFunction = new WindowFunction(WINDOW_FUNCTION);
-
-        // 0th coefficient will be discarded, hence 'MFFC_COEFFICIENTS - 1'
+    public void processFrames(FrameView frames) {
+        // 0th coefficient will be discarded, hence 'mfccCoefficients - 1'
         // Total of static coefficients - Not considering Delta and Delta-Delta
-        int totalStaticCoefficients = MFFC_COEFFICIENTS - 1;
+        int totalStaticCoefficients = mfccCoefficients - 1;
 
         // Initializes the MFCC matrix
-        double[][] initialMfcc = new double[frames.length][totalStaticCoefficients];
-        double[] magnitudeSpectrum;
-        double[] melFilterBank;
-        double[] naturalLogarithm;
-        double[] cepstralCoefficients;
+        double[][] initialMfcc = new double[frames.getNumFrames()][totalStaticCoefficients];
 
-        // Below computations are all based on individual frames
-        for (int indexFrame = 0; indexFrame < frames.length; indexFrame++) {
-            // Step 3 - Windowing - Apply Hamming Window to all frames
-            frames[indexFrame] = windowFunction.applyWindow(frames[indexFrame]);
+        // Below computations are all based on individual frames - Each chunk of frames has its own buffers
+        forEachFrameChunk(frames.getNumFrames(), (firstFrame, endFrame) -> {
+            FrameProcessor frameProcessor = new FrameProcessor(frames.getFrameLength());
 
-            // Step 4 - Magnitude Spectrum (FFT)
-            magnitudeSpectrum = magnitudeSpectrum(frames[indexFrame]);
+            for (int indexFrame = firstFrame; indexFrame < endFrame; indexFrame++) {
+                // Step 3 - Windowing - Apply Hamming Window to all frames
+                frames.applyWindow(indexFrame, frameProcessor.windowFunction, frameProcessor.frame, 0);
 
-            // Step 5 - Mel Filter Bank
-            melFilterBank = melFilterBank(magnitudeSpectrum);
-
-            // Step 6 - Logarithm
-            naturalLogarithm = naturalLogarithm(melFilterBank);
+                // Steps 4 to 7
+                frameProcessor.staticCoefficients(initialMfcc[indexFrame]);
+            }
+        });
 
-            // Step 7 - DCT - Cepstral coefficients
-            cepstralCoefficients = cepstralCoefficients(naturalLogarithm);
+        computeFinalMFCC(initialMfcc);
+    }
 
-            // Add resulting MFCC to array
-            // 0th coefficient is discarded
-            for (int indexCoefficient = 1; indexCoefficient < MFFC_COEFFICIENTS; indexCoefficient++) {
-                initialMfcc[indexFrame][indexCoefficient - 1] = cepstralCoefficients[indexCoefficient];
-            }
-        }
+    /**
+     * Computes the final MFCCs (Delta, Delta-Delta, mean and standard deviation) from the static MFCCs of all frames.
+     *
+     * @param initialMfcc - Static MFCCs of each frame (0th coefficient discarded)
+     */
+    void computeFinalMFCC(double[][] initialMfcc) {
+        int totalStaticCoefficients = mfccCoefficients - 1;
+        int numFrames = initialMfcc.length;
 
         // Step 8 - Delta & Delta Delta
-        double[][] delta = performDelta(initialMfcc);   // Differential Coefficients
-        double[][] deltaDelta = performDelta(delta);    // Acceleration Coefficients
+        double[][] delta = new double[numFrames][totalStaticCoefficients];        // Differential Coefficients
+        double[][] deltaDelta = new double[numFrames][totalStaticCoefficients];   // Acceleration Coefficients
+
+        performDelta(initialMfcc, delta, deltaDelta);
 
         // Step 9 - Final MFCC feature
         int totalMfccCoefficients = totalStaticCoefficients * 3;   // Considering Delta and Delta-Delta
-        mfcc = new double[frames.length][totalMfccCoefficients];
+        mfcc = new double[numFrames][totalMfccCoefficients];
 
         // Concatenates MFCC + Delta + Delta Delta
-        for (int indexFrame = 0; indexFrame < frames.length; indexFrame++) {
+        for (int indexFrame = 0; indexFrame < numFrames; indexFrame++) {
             for (int indexCoefficient = 0; indexCoefficient < totalStaticCoefficients; indexCoefficient++) {
-                mfcc[indexFrame][indexCoefficient] = RoundNumbers.round(initialMfcc[indexFrame][indexCoefficient], 4);                              // MFCC
-                mfcc[indexFrame][indexCoefficient + totalStaticCoefficients] = RoundNumbers.round(delta[indexFrame][indexCoefficient], 4);          // Delta
-                mfcc[indexFrame][indexCoefficient + totalStaticCoefficients * 2] = RoundNumbers.round(deltaDelta[indexFrame][indexCoefficient], 4); // Delta Delta
+                mfcc[indexFrame][indexCoefficient] = roundCoefficient(initialMfcc[indexFrame][indexCoefficient]);                              // MFCC
+                mfcc[indexFrame][indexCoefficient + totalStaticCoefficients] = roundCoefficient(delta[indexFrame][indexCoefficient]);          // Delta
+                mfcc[indexFrame][indexCoefficient + totalStaticCoefficients * 2] = roundCoefficient(deltaDelta[indexFrame][indexCoefficient]); // Delta Delta
             }
         }
 
         // Calculates mean and standard deviation for each coefficient
-        if (frames.length > 1) {
+        if (numFrames > 1) {
             mean = new double[totalMfccCoefficients];
             standardDeviation = new double[totalMfccCoefficients];
 
             for (int indexCoefficient = 0; indexCoefficient < totalMfccCoefficients; indexCoefficient++) {
-                double[] coefficientValues = new double[frames.length];
+                double[] coefficientValues = new double[numFrames];
 
-                for (int indexFrame = 0; indexFrame < frames.length; indexFrame++) {
+                for (int indexFrame = 0; indexFrame < numFrames; indexFrame++) {
                     coefficientValues[indexFrame] = mfcc[indexFrame][indexCoefficient];
                 }
 
-                mean[indexCoefficient] = RoundNumbers.round(BasicStatistics.mean(coefficientValues), 4);
-                standardDeviation[indexCoefficient] = RoundNumbers.round(BasicStatistics.standardDeviation(coefficientValues), 4);
+                mean[indexCoefficient] = roundCoefficient(BasicStatistics.mean(coefficientValues));
+                standardDeviation[indexCoefficient] = roundCoefficient(BasicStatistics.standardDeviation(coefficientValues));
             }
         }
     }
 
+    /**
+     * Returns the number of static MFCCs per frame (0th coefficient discarded).
+     *
+     * @return totalStaticCoefficients
+     */
+    int getTotalStaticCoefficients() {
+        return mfccCoefficients - 1;
+    }
+
+    @Override
+    protected boolean isPreEmphasisPerformed() {
+        return true;
+    }
+
+    @Override
+    protected void beginStream() {
+        int totalStaticCoefficients = mfccCoefficients - 1;
+
+        mfcc = null;
+        mean = null;
+        standardDeviation = null;
+
+        streamFrameProcessor = new FrameProcessor(frameLength);
+        streamStaticCoefficients = new double[totalStaticCoefficients];
+        streamStatistics = new RunningStatistics(totalStaticCoefficients * 3);
+
+        // Step 8 - Delta & Delta Delta - Each frame is emitted once the Delta-Delta of the frame is complete
+        streamDeltaRing = new DeltaRing(deltaN, totalStaticCoefficients, (indexFrame, coefficients, delta, deltaDelta) -> {
+            // Step 9 - Final MFCC feature - Concatenates MFCC + Delta + Delta Delta
+            double[] featureVector = new double[totalStaticCoefficients * 3];
+
+            for (int indexCoefficient = 0; indexCoefficient < totalStaticCoefficients; indexCoefficient++) {
+                featureVector[indexCoefficient] = roundCoefficient(coefficients[indexCoefficient]);                             // MFCC
+                featureVector[indexCoefficient + totalStaticCoefficients] = roundCoefficient(delta[indexCoefficient]);          // Delta
+                featureVector[indexCoefficient + totalStaticCoefficients * 2] = roundCoefficient(deltaDelta[indexCoefficient]); // Delta Delta
+            }
+
+            streamStatistics.accept(featureVector);
+
+            emitFeature(featureVector);
+        });
+    }
+
+    @Override
+    protected void processStreamFrame(double[] frame) {
+        // Step 3 - Windowing
+        streamFrameProcessor.windowFunction.applyWindow(frame, 0, frame.length, streamFrameProcessor.frame, 0);
+
+        // Steps 4 to 7
+        streamFrameProcessor.staticCoefficients(streamStaticCoefficients);
+
+        streamDeltaRing.push(streamStaticCoefficients);
+    }
+
+    @Override
+    protected void endStream() {
+        streamDeltaRing.end();
+
+        // Calculates mean and standard deviation for each coefficient
+        if (streamStatistics.getCount() > 1) {
+            mean = streamStatistics.getMean();
+            standardDeviation = streamStatistics.getStandardDeviation();
+
+            for (int indexCoefficient = 0; indexCoefficient < mean.length; indexCoefficient++) {
+                mean[indexCoefficient] = roundCoefficient(mean[indexCoefficient]);
+                standardDeviation[indexCoefficient] = roundCoefficient(standardDeviation[indexCoefficient]);
+            }
+        }
+
+        streamFrameProcessor = null;
+        streamDeltaRing = null;
+    }
+
     /**
      * Returns the final MFCC Coefficients.
      *
@@ -223,22 +367,69 @@ public class MFCC extends FeatureExtraction {
 
     /**
      * Computes the magnitude spectrum of the input frame (FFT).
+     * <br>
+     * Only the non-redundant bins (0 to <i>frameLength</i> / 2) are computed, which are the ones used by the Mel filter bank.
      *
-     * @param frame - Input frame signal
+     * @param frame             - Input frame signal
+     * @param fftPlan           - FFT plan
+     * @param real              - Buffer for the real part of the spectrum
+     * @param imag              - Buffer for the imaginary part of the spectrum
+     * @param magnitudeSpectrum - Magnitude Spectrum (Output)
+     */
+    void magnitudeSpectrum(double[] frame, FFTPlan fftPlan, double[] real, double[] imag, double[] magnitudeSpectrum) {
+        fftPlan.realTransform(frame, real, imag);
+
+        for (int k = 0; k < magnitudeSpectrum.length; k++) {
+            magnitudeSpectrum[k] = Math.sqrt(real[k] * real[k] + imag[k] * imag[k]);
+        }
+    }
+
+    /**
+     * Computes the static MFCCs (0th coefficient discarded) from the magnitude spectrum of a frame.
      *
-     * @return magnitudeSpectrum - Magnitude Spectrum
+     * @param magnitudeSpectrum  - Magnitude Spectrum (Non-redundant bins)
+     * @param staticCoefficients - Static MFCCs (Output - <i>mfccCoefficients - 1</i> positions)
      */
-    private double[] magnitudeSpectrum(double[] frame) {
-        double[] magnitudeSpectrum = new double[frame.length];
+    void spectrumCoefficients(double[] magnitudeSpectrum, double[] staticCoefficients) {
+        // Step 5 - Mel Filter Bank
+        double[] melFilterBank = melFilterBank(magnitudeSpectrum);
+
+        // Step 6 - Logarithm
+        double[] naturalLogarithm = naturalLogarithm(melFilterBank);
+
+        // Step 7 - DCT - Cepstral coefficients
+        double[] cepstralCoefficients = cepstralCoefficients(naturalLogarithm);
+
+        // 0th coefficient is discarded
+        for (int indexCoefficient = 1; indexCoefficient < mfccCoefficients; indexCoefficient++) {
+            staticCoefficients[indexCoefficient - 1] = cepstralCoefficients[indexCoefficient];
+        }
+    }
 
-        FFT fft = new FFT(FRAME_LENGTH);
-        fft.executeFFT(frame);
+    /**
+     * Computes the static MFCCs (0th coefficient discarded) from the single precision magnitude spectrum of a frame.
+     *
+     * @param magnitudeSpectrum  - Magnitude Spectrum (Non-redundant bins)
+     * @param staticCoefficients - Static MFCCs (Output - <i>mfccCoefficients - 1</i> positions)
+     */
+    private void spectrumCoefficients(float[] magnitudeSpectrum, double[] staticCoefficients) {
+        // Step 5 - Mel Filter Bank (Single precision)
+        double[] melFilterBank = new double[melFilters];
 
-        for (int k = 0; k < frame.length; k++) {
-            magnitudeSpectrum[k] = Math.pow(fft.getReal()[k] * fft.getReal()[k] + fft.getImag()[k] * fft.getImag()[k], 0.5);
+        for (int indexMelFilter = 0; indexMelFilter < melFilters; indexMelFilter++) {
+            melFilterBank[indexMelFilter] = melRisingFilters.filterOutput(indexMelFilter, magnitudeSpectrum) + melFallingFilters.filterOutput(indexMelFilter, magnitudeSpectrum);
         }
 
-        return magnitudeSpectrum;
+        // Step 6 - Logarithm
+        double[] naturalLogarithm = naturalLogarithm(melFilterBank);
+
+        // Step 7 - DCT - Cepstral coefficients
+        double[] cepstralCoefficients = cepstralCoefficients(naturalLogarithm);
+
+        // 0th coefficient is discarded
+        for (int indexCoefficient = 1; indexCoefficient < mfccCoefficients; indexCoefficient++) {
+            staticCoefficients[indexCoefficient - 1] = cepstralCoefficients[indexCoefficient];
+        }
     }
 
     /**
@@ -249,32 +440,55 @@ public class MFCC extends FeatureExtraction {
      * @return melFilterBank
      */
     private double[] melFilterBank(double[] magnitudeSpectrum) {
-        int[] fftBinIndices = fftBinIndices();
+        double[] melFilterBank = new double[melFilters];
+
+        for (int indexMelFilter = 0; indexMelFilter < melFilters; indexMelFilter++) {
+            melFilterBank[indexMelFilter] = melRisingFilters.filterOutput(indexMelFilter, magnitudeSpectrum) + melFallingFilters.filterOutput(indexMelFilter, magnitudeSpectrum);
+        }
+
+        return melFilterBank;
+    }
 
-        double[] temp = new double[MEL_FILTERS + 2];
+    /**
+     * <pre>
+     * Computes the weights of the triangular Mel filters - Called once, by the constructor.
+     *
+     * The weights keep the integer division of the original filter bank, hence each filter sums the magnitudes of the
+     * bins from its center to the center of the next filter. The rising and falling slopes are kept apart, as the
+     * filter output is the sum of the outputs of both slopes.
+     * </pre>
+     */
+    private void computeMelFilterBank() {
+        int[] fftBinIndices = fftBinIndices();
 
-        for (int k = 1; k <= MEL_FILTERS; k++) {
-            double num1 = 0;
-            double num2 = 0;
+        double[][] risingWeights = new double[melFilters][frameLength / 2 + 1];
+        double[][] fallingWeights = new double[melFilters][frameLength / 2 + 1];
 
+        for (int k = 1; k <= melFilters; k++) {
             for (int i = fftBinIndices[k - 1]; i <= fftBinIndices[k]; i++) {
-                num1 += ((i - fftBinIndices[k - 1] + 1) / (fftBinIndices[k] - fftBinIndices[k - 1] + 1)) * magnitudeSpectrum[i];
+                risingWeights[k - 1][i] = (i - fftBinIndices[k - 1] + 1) / (fftBinIndices[k] - fftBinIndices[k - 1] + 1);
             }
 
             for (int i = fftBinIndices[k] + 1; i <= fftBinIndices[k + 1]; i++) {
-                num2 += (1 - ((i - fftBinIndices[k]) / (fftBinIndices[k + 1] - fftBinIndices[k] + 1))) * magnitudeSpectrum[i];
+                fallingWeights[k - 1][i] = 1 - ((i - fftBinIndices[k]) / (fftBinIndices[k + 1] - fftBinIndices[k] + 1));
             }
-
-            temp[k] = num1 + num2;
         }
 
-        double[] melFilterBank = new double[MEL_FILTERS];
+        melRisingFilters = new SparseFilterBank(risingWeights);
+        melFallingFilters = new SparseFilterBank(fallingWeights);
+    }
 
-        for (int i = 0; i < MEL_FILTERS; i++) {
-            melFilterBank[i] = temp[i + 1];
-        }
+    /**
+     * Computes the DCT basis used by <i>cepstralCoefficients()</i> - Called once, by the constructor.
+     */
+    private void computeDCTBasis() {
+        dctBasis = new double[mfccCoefficients][melFilters];
 
-        return melFilterBank;
+        for (int i = 0; i < mfccCoefficients; i++) {
+            for (int j = 1; j <= melFilters; j++) {
+                dctBasis[i][j - 1] = Math.cos(Math.PI * i / melFilters * (j - 0.5));
+            }
+        }
     }
 
     /**
@@ -283,13 +497,13 @@ public class MFCC extends FeatureExtraction {
      * @return fftBinIndices
      */
     private int[] fftBinIndices() {
-        int[] fftBinIndices = new int[MEL_FILTERS + 2];
+        int[] fftBinIndices = new int[melFilters + 2];
 
-        fftBinIndices[0] = (int) Math.round(LOWER_FILTER_FREQUENCY / sampleRate * FRAME_LENGTH);
-        fftBinIndices[fftBinIndices.length - 1] = FRAME_LENGTH / 2;
+        fftBinIndices[0] = (int) Math.round(lowerFilterFrequency / sampleRate * frameLength);
+        fftBinIndices[fftBinIndices.length - 1] = frameLength / 2;
 
-        for (int indexMelFilter = 1; indexMelFilter <= MEL_FILTERS; indexMelFilter++) {
-            fftBinIndices[indexMelFilter] = (int) Math.round(centerFrequency(indexMelFilter) / sampleRate * FRAME_LENGTH);
+        for (int indexMelFilter = 1; indexMelFilter <= melFilters; indexMelFilter++) {
+            fftBinIndices[indexMelFilter] = (int) Math.round(centerFrequency(indexMelFilter) / sampleRate * frameLength);
         }
 
         return fftBinIndices;
@@ -327,11 +541,13 @@ public class MFCC extends FeatureExtraction {
      * @return cepstralCoefficients
      */
     private double[] cepstralCoefficients(double[] naturalLogarithm) {
-        double[] cepstralCoefficients = new double[MFFC_COEFFICIENTS];
+        double[] cepstralCoefficients = new double[mfccCoefficients];
 
         for (int i = 0; i < cepstralCoefficients.length; i++) {
-            for (int j = 1; j <= MEL_FILTERS; j++) {
-                cepstralCoefficients[i] += naturalLogarithm[j - 1] * Math.cos(Math.PI * i / MEL_FILTERS * (j - 0.5));
+            double[] basis = dctBasis[i];
+
+            for (int j = 0; j < melFilters; j++) {
+                cepstralCoefficients[i] += naturalLogarithm[j] * basis[j];
             }
         }
 
@@ -358,11 +574,11 @@ public class MFCC extends FeatureExtraction {
      */
     private double centerFrequency(int indexMelFilter) {
         double[] mel = new double[2];
-        mel[0] = frequencyToMel(LOWER_FILTER_FREQUENCY);
+        mel[0] = frequencyToMel(lowerFilterFrequency);
         mel[1] = frequencyToMel(sampleRate / 2);
 
         // take inverse mel of:
-        double valueToInvert = mel[0] + ((mel[1] - mel[0]) / (MEL_FILTERS + 1)) * indexMelFilter;
+        double valueToInvert = mel[0] + ((mel[1] - mel[0]) / (melFilters + 1)) * indexMelFilter;
 
         return inverseMel(valueToInvert);
     }
@@ -390,71 +606,112 @@ public class MFCC extends FeatureExtraction {
     }
 
     /**
-     * Performs Delta computation.
-     * <br>
+     * <pre>
+     * Performs Delta and Delta Delta computation in a single pass over the static coefficients.
+     *
      * <i>Delta</i>       - Differential Coefficient.
-     * <br>
      * <i>Delta Delta</i> - Acceleration Coefficient.
      *
-     * @param data
+     * The regression window repeats the border frames. Only the last <i>2 * deltaN + 1</i> frames are kept by the
+     * regression (see <i>DeltaRing</i>), and nothing is allocated per frame.
+     * </pre>
      *
-     * @return delta
+     * @param data       - Static coefficients of each frame
+     * @param delta      - Delta of each frame (Output)
+     * @param deltaDelta - Delta Delta of each frame (Output)
      */
-    private double[][] performDelta(double[][] data) {
-        double[][] delta = new double[data.length][data[0].length];
+    private void performDelta(double[][] data, double[][] delta, double[][] deltaDelta) {
+        DeltaRing deltaRing = new DeltaRing(deltaN, data[0].length, (indexFrame, coefficients, frameDelta, frameDeltaDelta) -> {
+            System.arraycopy(frameDelta, 0, delta[indexFrame], 0, frameDelta.length);
+            System.arraycopy(frameDeltaDelta, 0, deltaDelta[indexFrame], 0, frameDeltaDelta.length);
+        });
+
+        for (double[] frame : data) {
+            deltaRing.push(frame);
+        }
 
-        double[][] paddedData = padding(data);
+        deltaRing.end();
+    }
+
+    /**
+     * Computes the static MFCCs of individual frames, holding the buffers reused by all frames.
+     */
+    private class FrameProcessor {
 
-        double[][] paddedToProcess;
-        double[][] numerator;
+        /** Window Function */
+        private final WindowFunction windowFunction = new WindowFunction(windowFunctionName);
 
-        for (int indexFrame = 0; indexFrame < delta.length; indexFrame++) {
-            int indexPaddedToProcess = 0;
+        /** FFT plan */
+        private final FFTPlan fftPlan = FFTPlan.getPlan(frameLength, config.getFftEngine());
 
-            paddedToProcess = new double[2 * DELTA_N + 1][data[0].length];
+        /** Windowed frame (Input of <i>staticCoefficients()</i>) */
+        private final double[] frame;
 
-            for (int indexPadded = indexFrame; indexPadded < indexFrame + 2 * DELTA_N + 1; indexPadded++) {
-                paddedToProcess[indexPaddedToProcess++] = paddedData[indexPadded];
-            }
+        // Spectrum buffers
+        private final double[] real = new double[fftPlan.getSpectrumSize()];
+        private final double[] imag = new double[fftPlan.getSpectrumSize()];
+        private final double[] magnitudeSpectrum = new double[fftPlan.getSpectrumSize()];
 
-            numerator = MatrixOperations.multiplyMatrices(deltaProgression, paddedToProcess);
+        /**
+         * Computes the static MFCCs of individual frames, holding the buffers reused by all frames.
+         *
+         * @param frameLength - Number of samples of the frames
+         */
+        private FrameProcessor(int frameLength) {
+            this.frame = new double[frameLength];
+        }
 
-            for (int indexNumerator = 0; indexNumerator < numerator[0].length; indexNumerator++) {
-                numerator[0][indexNumerator] = numerator[0][indexNumerator] / deltaDenominator;
-            }
+        /**
+         * Computes the static MFCCs (0th coefficient discarded) of the windowed frame held in <i>frame</i>.
+         *
+         * @param staticCoefficients - Static MFCCs (Output - <i>mfccCoefficients - 1</i> positions)
+         */
+        private void staticCoefficients(double[] staticCoefficients) {
+            // Step 4 - Magnitude Spectrum (FFT)
+            magnitudeSpectrum(frame, fftPlan, real, imag, magnitudeSpectrum);
 
-            delta[indexFrame] = numerator[0];
+            // Steps 5 to 7
+            spectrumCoefficients(magnitudeSpectrum, staticCoefficients);
         }
 
-        return delta;
     }
 
     /**
-     * Pad out the data by repeating the border values, according to the <i>DELTA_N</i> value.
-     *
-     * @param data
-     *
-     * @return paddedData
+     * Computes the static MFCCs of individual frames in single precision, holding the buffers reused by all frames.
      */
-    private double[][] padding(double[][] data) {
-        int totalRows = data.length;
-        int totalColumns = data[0].length;
-        int totalPaddedRows = data.length + (DELTA_N * 2);
+    private class FloatFrameProcessor {
 
-        double[][] paddedData = new double[totalPaddedRows][totalColumns];
+        /** Window Function */
+        private final WindowFunction windowFunction = new WindowFunction(windowFunctionName);
 
-        // Initial & final padding
-        for (int i = 0; i < DELTA_N; i++) {
-            paddedData[i] = data[0];                                    // Initial padding
-            paddedData[totalRows + DELTA_N + i] = data[totalRows - 1];  // Final padding
-        }
+        /** FFT plan */
+        private final FFTPlan fftPlan = FFTPlan.getPlan(frameLength, config.getFftEngine());
+
+        /** Windowed frame (Input of <i>staticCoefficients()</i>) */
+        private final float[] frame = new float[frameLength];
+
+        // Spectrum buffers
+        private final float[] real = new float[fftPlan.getSpectrumSize()];
+        private final float[] imag = new float[fftPlan.getSpectrumSize()];
+        private final float[] magnitudeSpectrum = new float[fftPlan.getSpectrumSize()];
+
+        /**
+         * Computes the static MFCCs (0th coefficient discarded) of the windowed frame held in <i>frame</i>.
+         *
+         * @param staticCoefficients - Static MFCCs (Output - <i>mfccCoefficients - 1</i> positions)
+         */
+        private void staticCoefficients(double[] staticCoefficients) {
+            // Step 4 - Magnitude Spectrum (FFT)
+            fftPlan.realTransform(frame, 0, frameLength, real, imag);
+
+            for (int k = 0; k < magnitudeSpectrum.length; k++) {
+                magnitudeSpectrum[k] = (float) Math.sqrt(real[k] * real[k] + imag[k] * imag[k]);
+            }
 
-        // Middle
-        for (int i = 0; i < totalRows; i++) {
-            paddedData[i + DELTA_N] = data[i];
+            // Steps 5 to 7
+            spectrumCoefficients(magnitudeSpectrum, staticCoefficients);
         }
 
-        return paddedData;
     }
 
 }
\ No newline at end of file
@@ -1,9 +1,9 @@
 package br.unicamp.fnjv.wasis.api.core.dsp.features;
 
-import br.unicamp.fnjv.wasis.api.core.dsp.fft.FFT;
+import br.unicamp.fnjv.wasis.api.core.dsp.fft.FFTPlan;
 import br.unicamp.fnjv.wasis.api.core.dsp.windowing.WindowFunction;
 import br.unicamp.fnjv.wasis.api.utils.statistics.BasicStatistics;
-import br.unicamp.fnjv.wasis.api.utils.transformations.RoundNumbers;
+import br.unicamp.fnjv.wasis.api.utils.statistics.RunningStatistics;
 
 /**
  * Feature extraction class used to extract Perceptual Linear Prediction (PLP) from audio signals.
@@ -13,28 +13,28 @@ import br.unicamp.fnjv.wasis.api.utils.transformations.RoundNumbers;
 public class PLP extends FeatureExtraction {
 
     /** Number of PLP filters. */
-    private final int PLP_FILTERS = 21;
+    private final int plpFilters;
 
     /** LPC Order. Equivalent to the number of LPC coefficients. */
-    private final int LPC_ORDER = 24;
+    private final int lpcOrder;
 
     /** LPCC Order. Equivalent to the number of LPCC coefficients. Also, the final number of PLP coefficients. */
-    private final int LPCC_ORDER = 24;
+    private final int lpccOrder;
 
     /** Number of samples per frame. */
-    private final int FRAME_LENGTH = 1024;
+    private final int frameLength;
 
     /** Window Function */
-    private final String WINDOW_FUNCTION = WindowFunction.HAMMING;
+    private final String windowFunctionName;
 
     /** Lower limit of the filter */
-    private final double LOWER_FILTER_FREQUENCY = 45.0;
+    private final double lowerFilterFrequency;
 
     /** Sample rate */
     private double sampleRate;
 
-    /** Filter coefficients. */
-    private BarkFilterbank[] barkFilterbanks;
+    /** Filter coefficients - Sparse bands. */
+    private SparseFilterBank barkFilterbanks;
 
     /** Equal Loudness. */
     private double[] equalLoudness;
@@ -60,13 +60,53 @@ public class PLP extends FeatureExtraction {
     /** The standard deviation of the LPC coefficients. */
     private double[] standardDeviation;
 
+    /** Streaming - Buffers of the frame computations. */
+    private FrameProcessor streamFrameProcessor;
+
+    /** Streaming - Mean and standard deviation of the coefficients. */
+    private RunningStatistics streamStatistics;
+
     /**
      * Feature extraction class used to extract Perceptual Linear Prediction (PLP) from audio signal.
      */
     public PLP(double sampleRate) {
+        this(FeatureConfig.DEFAULT, sampleRate);
+    }
+
+    /**
+     * Feature extraction class used to extract Perceptual Linear Prediction (PLP) from audio signal.
+     *
+     * @param config     - Feature configuration (Frame length, hop size, window function, Bark filters, LPC and LPCC orders)
+     * @param sampleRate
+     */
+    public PLP(FeatureConfig config, double sampleRate) {
+        super(config);
+
+        this.plpFilters = config.getBarkFilters();
+        this.lpcOrder = config.getLpcOrder();
+        this.lpccOrder = config.getLpccOrder();
+        this.frameLength = config.getFrameLength();
+        this.windowFunctionName = config.getWindowFunction();
+        this.lowerFilterFrequency = config.getLowerFilterFrequency();
+
         this.sampleRate = sampleRate;
 
-        computeCosine();
+        minimumBarkFrequency = frequencyToBark(lowerFilterFrequency);
+        maximumBarkFrequency = frequencyToBark(sampleRate / 2);
+        deltaBarkFrequency = (maximumBarkFrequency - minimumBarkFrequency) / (plpFilters + 1);
+
+        // The filters do not depend on the frames, so they are computed once per instance and shared by all frames
+        BarkFilterbank[] denseFilterbanks = barkFilterBank();
+
+        double[][] filterCoefficients = new double[plpFilters][];
+
+        for (int indexFilter = 0; indexFilter < plpFilters; indexFilter++) {
+            filterCoefficients[indexFilter] = denseFilterbanks[indexFilter].getFilterCoefficients();
+        }
+
+        barkFilterbanks = new SparseFilterBank(filterCoefficients);
+        equalLoudness = equalLoudness(denseFilterbanks);
+        cosine = computeCosine();
     }
 
     /**
@@ -81,7 +121,7 @@ public class PLP extends FeatureExtraction {
     @Override
     public void process(double[] audioSignal) {
         // Step 1 - Frame Blocking
-        double[][] frames = Preprocessing.framing(audioSignal, FRAME_LENGTH);
+        FrameView frames = new FrameView(audioSignal, frameLength, config.getOverlapSamples());
 
         processFrames(frames);
     }
@@ -96,71 +136,95 @@ public class PLP extends FeatureExtraction {
      * @param frames
      */
     @Override
-    public void processFrames(double[][] frames) {
-        WindowFunction windowFunction = new WindowFunction(WINDOW_FUNCTION);
+    public void processFrames(FrameView frames) {
+        double[][] plpCoefficients = new double[frames.getNumFrames()][lpccOrder];
 
-        minimumBarkFrequency = frequencyToBark(LOWER_FILTER_FREQUENCY);
-        maximumBarkFrequency = frequencyToBark(sampleRate / 2);
-        deltaBarkFrequency = (maximumBarkFrequency - minimumBarkFrequency) / (PLP_FILTERS + 1);
+        // Below computations are all based on individual frames - Each chunk of frames has its own buffers
+        forEachFrameChunk(frames.getNumFrames(), (firstFrame, endFrame) -> {
+            FrameProcessor frameProcessor = new FrameProcessor(frames.getFrameLength());
 
-        plp = new double[frames.length][LPCC_ORDER];
+            for (int indexFrame = firstFrame; indexFrame < endFrame; indexFrame++) {
+                // Step 2 - Windowing - Apply Hamming Window to all frames
+                frames.applyWindow(indexFrame, frameProcessor.windowFunction, frameProcessor.frame, 0);
 
-        double[] magnitudeSpectrum;
-        double[] plpSpectral;
-        double[] intensityLoudness;
-        double[] autoCorrelation;
+                // Steps 3 to 8
+                plpCoefficients[indexFrame] = frameProcessor.plpCoefficients();
+            }
+        });
 
-        // Below computations are all based on individual frames
-        for (int indexFrame = 0; indexFrame < frames.length; indexFrame++) {
-            // Step 2 - Windowing - Apply Hamming Window to all frames
-            frames[indexFrame] = windowFunction.applyWindow(frames[indexFrame]);
+        computeFinalPLP(plpCoefficients);
+    }
 
-            // Step 3 - Magnitude Spectrum (FFT)
-            magnitudeSpectrum = magnitudeSpectrum(frames[indexFrame]);
+    /**
+     * Sets the PLP coefficients of all frames, computing their mean and standard deviation.
+     *
+     * @param plpCoefficients - PLP coefficients of each frame
+     */
+    void computeFinalPLP(double[][] plpCoefficients) {
+        plp = plpCoefficients;
 
-            // Step 4 - Bark Filter Bank
-            barkFilterBank(magnitudeSpectrum);
+        int numFrames = plp.length;
 
-            // Step 5 - Equal Loudness / Pre-emphasis
-            equalLoudness();
+        // Calculates mean and standard deviation for each coefficient
+        if (numFrames > 1) {
+            mean = new double[lpccOrder];
+            standardDeviation = new double[lpccOrder];
+
+            for (int indexCoefficient = 0; indexCoefficient < lpccOrder; indexCoefficient++) {
+                double[] coefficientValues = new double[numFrames];
 
-            // PLP Spectral array
-            plpSpectral = new double[PLP_FILTERS];
+                for (int indexFrame = 0; indexFrame < numFrames; indexFrame++) {
+                    coefficientValues[indexFrame] = plp[indexFrame][indexCoefficient];
+                }
 
-            for (int indexFilter = 0; indexFilter < PLP_FILTERS; indexFilter++) {
-                plpSpectral[indexFilter] = barkFilterbanks[indexFilter].filterOutput(magnitudeSpectrum);
-                plpSpectral[indexFilter] *= equalLoudness[indexFilter];  // Scale for equal loudness preemphasis
+                mean[indexCoefficient] = roundCoefficient(BasicStatistics.mean(coefficientValues));
+                standardDeviation[indexCoefficient] = roundCoefficient(BasicStatistics.standardDeviation(coefficientValues));
             }
+        }
+    }
 
-            // Step 6 - Intensity Loudness
-            intensityLoudness = intensityLoudness(plpSpectral);
+    @Override
+    protected boolean isPreEmphasisPerformed() {
+        return false;
+    }
 
-            autoCorrelation = applyCosine(intensityLoudness);
+    @Override
+    protected void beginStream() {
+        plp = null;
+        mean = null;
+        standardDeviation = null;
 
-            // Step 7 - Linear Predictive Coding (LPC)
-            LPCC lpcc = new LPCC(LPC_ORDER, LPCC_ORDER);
-            lpcc.processAutocorrelatedFrame(autoCorrelation);
+        streamFrameProcessor = new FrameProcessor(frameLength);
+        streamStatistics = new RunningStatistics(lpccOrder);
+    }
 
-            // Step 8 - Linear Prediction Cepstral Coefficient (LPCC)
-            plp[indexFrame] = lpcc.getFeature()[0];
-        }
+    @Override
+    protected void processStreamFrame(double[] frame) {
+        // Step 2 - Windowing
+        streamFrameProcessor.windowFunction.applyWindow(frame, 0, frame.length, streamFrameProcessor.frame, 0);
 
-        // Calculates mean and standard deviation for each coefficient
-        if (frames.length > 1) {
-            mean = new double[LPCC_ORDER];
-            standardDeviation = new double[LPCC_ORDER];
+        // Steps 3 to 8
+        double[] plpVector = streamFrameProcessor.plpCoefficients();
 
-            for (int indexCoefficient = 0; indexCoefficient < LPCC_ORDER; indexCoefficient++) {
-                double[] coefficientValues = new double[frames.length];
+        streamStatistics.accept(plpVector);
 
-                for (int indexFrame = 0; indexFrame < frames.length; indexFrame++) {
-                    coefficientValues[indexFrame] = plp[indexFrame][indexCoefficient];
-                }
+        emitFeature(plpVector);
+    }
 
-                mean[indexCoefficient] = RoundNumbers.round(BasicStatistics.mean(coefficientValues), 4);
-                standardDeviation[indexCoefficient] = RoundNumbers.round(BasicStatistics.standardDeviation(coefficientValues), 4);
+    @Override
+    protected void endStream() {
+        // Calculates mean and standard deviation for each coefficient
+        if (streamStatistics.getCount() > 1) {
+            mean = streamStatistics.getMean();
+            standardDeviation = streamStatistics.getStandardDeviation();
+
+            for (int indexCoefficient = 0; indexCoefficient < lpccOrder; indexCoefficient++) {
+                mean[indexCoefficient] = roundCoefficient(mean[indexCoefficient]);
+                standardDeviation[indexCoefficient] = roundCoefficient(standardDeviation[indexCoefficient]);
             }
         }
+
+        streamFrameProcessor = null;
     }
 
     /**
@@ -196,55 +260,109 @@ public class PLP extends FeatureExtraction {
     /**
      * Computes the magnitude spectrum of the input frame (FFT).
      *
-     * @param frame - Input frame signal
-     *
-     * @return magnitudeSpectrum - Magnitude Spectrum
+     * @param frame             - Input frame signal
+     * @param fftPlan           - FFT plan
+     * @param real              - Buffer for the real part of the spectrum
+     * @param imag              - Buffer for the imaginary part of the spectrum
+     * @param magnitudeSpectrum - Magnitude Spectrum (Output - <i>frameLength</i> positions)
      */
-    private double[] magnitudeSpectrum(double[] frame) {
-        double[] magnitudeSpectrum = new double[frame.length];
+    void magnitudeSpectrum(double[] frame, FFTPlan fftPlan, double[] real, double[] imag, double[] magnitudeSpectrum) {
+        fftPlan.realTransform(frame, real, imag);
+
+        for (int k = 0; k < real.length; k++) {
+            magnitudeSpectrum[k] = Math.sqrt(real[k] * real[k] + imag[k] * imag[k]);
+        }
 
-        FFT fft = new FFT(FRAME_LENGTH);
-        fft.executeFFT(frame);
+        // The spectrum of a real frame is symmetric - Mirrors the non-redundant bins
+        for (int k = real.length; k < frameLength; k++) {
+            magnitudeSpectrum[k] = magnitudeSpectrum[frameLength - k];
+        }
+    }
 
-        for (int k = 0; k < frame.length; k++) {
-            magnitudeSpectrum[k] = Math.pow(fft.getReal()[k] * fft.getReal()[k] + fft.getImag()[k] * fft.getImag()[k], 0.5);
+    /**
+     * Computes the PLP coefficients from the magnitude spectrum of a frame.
+     *
+     * @param magnitudeSpectrum - Magnitude Spectrum (<i>frameLength</i> positions)
+     * @param lpcc              - LPCC of the frames (see <i>createFrameLPCC()</i>) - Reused by all frames of a thread
+     *
+     * @return plpCoefficients
+     */
+    double[] spectrumCoefficients(double[] magnitudeSpectrum, LPCC lpcc) {
+        // Steps 4 and 5 - Bark Filter Bank and Equal Loudness / Pre-emphasis (computed by the constructor)
+        // PLP Spectral array
+        double[] plpSpectral = new double[plpFilters];
+
+        for (int indexFilter = 0; indexFilter < plpFilters; indexFilter++) {
+            plpSpectral[indexFilter] = barkFilterbanks.filterOutput(indexFilter, magnitudeSpectrum);
+            plpSpectral[indexFilter] *= equalLoudness[indexFilter];  // Scale for equal loudness preemphasis
         }
 
-        return magnitudeSpectrum;
+        // Step 6 - Intensity Loudness
+        double[] intensityLoudness = intensityLoudness(plpSpectral);
+
+        double[] autoCorrelation = applyCosine(intensityLoudness);
+
+        // Step 7 - Linear Predictive Coding (LPC)
+        // Step 8 - Linear Prediction Cepstral Coefficient (LPCC)
+        double[] plpCoefficients = new double[lpccOrder];
+
+        lpcc.processAutocorrelatedFrame(autoCorrelation, plpCoefficients);
+
+        return plpCoefficients;
+    }
+
+    /**
+     * Creates the LPCC used by <i>spectrumCoefficients()</i> - One for each thread.
+     *
+     * @return lpcc
+     */
+    LPCC createFrameLPCC() {
+        LPCC lpcc = new LPCC(config);
+        lpcc.setRoundingDeferred(isRoundingDeferred());
+
+        return lpcc;
     }
 
     /**
      * Computes BarkFilterBank.
      *
-     * @param magnitudeSpectrum
+     * @return barkFilterbanks
      */
-    private void barkFilterBank(double[] magnitudeSpectrum) {
-        double[] frequencyBins = new double[FRAME_LENGTH];
+    private BarkFilterbank[] barkFilterBank() {
+        double[] frequencyBins = new double[frameLength];
 
-        for (int indexFrameLength = 0; indexFrameLength < FRAME_LENGTH; indexFrameLength++) {
-            frequencyBins[indexFrameLength] = (indexFrameLength * (sampleRate / 2)) / (FRAME_LENGTH - 1);
+        for (int indexFrameLength = 0; indexFrameLength < frameLength; indexFrameLength++) {
+            frequencyBins[indexFrameLength] = (indexFrameLength * (sampleRate / 2)) / (frameLength - 1);
         }
 
-        barkFilterbanks = new BarkFilterbank[PLP_FILTERS];
+        BarkFilterbank[] barkFilterbanks = new BarkFilterbank[plpFilters];
 
-        for (int indexFilter = 0; indexFilter < PLP_FILTERS; indexFilter++) {
+        for (int indexFilter = 0; indexFilter < plpFilters; indexFilter++) {
             double centerFrequency = barkToFrequency(minimumBarkFrequency + indexFilter * deltaBarkFrequency);
 
             barkFilterbanks[indexFilter] = new BarkFilterbank(frequencyBins, centerFrequency);
         }
+
+        return barkFilterbanks;
     }
 
     /**
      * Create an array of equal loudness preemphasis scaling terms for all the filters.
+     *
+     * @param barkFilterbanks
+     *
+     * @return equalLoudness
      */
-    private void equalLoudness() {
-        equalLoudness = new double[PLP_FILTERS];
+    private double[] equalLoudness(BarkFilterbank[] barkFilterbanks) {
+        double[] equalLoudness = new double[plpFilters];
 
-        for (int indexFilter = 0; indexFilter < PLP_FILTERS; indexFilter++) {
+        for (int indexFilter = 0; indexFilter < plpFilters; indexFilter++) {
             double centerFrequency = barkFilterbanks[indexFilter].getCenterFrequency();
 
             equalLoudness[indexFilter] = loudnessScalingFunction(centerFrequency);
         }
+
+        return equalLoudness;
     }
 
     /**
@@ -290,19 +408,23 @@ public class PLP extends FeatureExtraction {
 
     /**
      * Compute the Cosine values for IDCT.
+     *
+     * @return cosine
      */
-    private void computeCosine() {
-        cosine = new double[LPC_ORDER + 1][PLP_FILTERS];
+    private double[][] computeCosine() {
+        double[][] cosine = new double[lpcOrder + 1][plpFilters];
 
-        double period = (double) 2 * PLP_FILTERS;
+        double period = (double) 2 * plpFilters;
 
-        for (int i = 0; i <= LPC_ORDER; i++) {
+        for (int i = 0; i <= lpcOrder; i++) {
             double frequency = 2 * Math.PI * i / period;
 
-            for (int j = 0; j < PLP_FILTERS; j++) {
+            for (int j = 0; j < plpFilters; j++) {
                 cosine[i][j] = Math.cos(frequency * (j + 0.5));
             }
         }
+
+        return cosine;
     }
 
     /**
@@ -313,18 +435,18 @@ public class PLP extends FeatureExtraction {
      * @return autoCorrelation
      */
     private double[] applyCosine(double[] plpSpectrum) {
-        double[] autoCorrelation = new double[LPC_ORDER + 1];
-        double period = PLP_FILTERS;
+        double[] autoCorrelation = new double[lpcOrder + 1];
+        double period = plpFilters;
         double beta = 0.5;
 
         // Apply the IDCT
-        for (int i = 0; i <= LPC_ORDER; i++) {
-            if (PLP_FILTERS > 0) {
+        for (int i = 0; i <= lpcOrder; i++) {
+            if (plpFilters > 0) {
                 int j = 0;
 
                 autoCorrelation[i] += (beta * plpSpectrum[j] * cosine[i][j]);
 
-                for (j = 1; j < PLP_FILTERS; j++) {
+                for (j = 1; j < plpFilters; j++) {
                     autoCorrelation[i] += (plpSpectrum[j] * cosine[i][j]);
                 }
 
@@ -378,6 +500,15 @@ public class PLP extends FeatureExtraction {
             return centerFrequency;
         }
 
+        /**
+         * Return the filter coefficients (<i>frameLength</i> positions).
+         *
+         * @return filterCoefficients
+         */
+        protected double[] getFilterCoefficients() {
+            return filterCoefficients;
+        }
+
         /**
          * Bark Filterbank.
          *
@@ -387,11 +518,11 @@ public class PLP extends FeatureExtraction {
         private BarkFilterbank(double[] frequencyBins, double centerFrequency) {
             this.centerFrequency = centerFrequency;
 
-            filterCoefficients = new double[FRAME_LENGTH];
+            filterCoefficients = new double[frameLength];
 
             double centerBarkFrequency = frequencyToBark(centerFrequency);
 
-            for (int indexFrameLength = 0; indexFrameLength < FRAME_LENGTH; indexFrameLength++) {
+            for (int indexFrameLength = 0; indexFrameLength < frameLength; indexFrameLength++) {
                 double barkFrequency = frequencyToBark(frequencyBins[indexFrameLength]) - centerBarkFrequency;
 
                 if (barkFrequency < -2.5) {
@@ -408,21 +539,50 @@ public class PLP extends FeatureExtraction {
             }
         }
 
+    }
+
+    /**
+     * Computes the PLP coefficients of individual frames, holding the buffers reused by all frames.
+     */
+    private class FrameProcessor {
+
+        /** Window Function */
+        private final WindowFunction windowFunction = new WindowFunction(windowFunctionName);
+
+        /** FFT plan */
+        private final FFTPlan fftPlan = FFTPlan.getPlan(frameLength, config.getFftEngine());
+
+        /** Windowed frame (Input of <i>plpCoefficients()</i>) */
+        private final double[] frame;
+
+        // Spectrum buffers
+        private final double[] real = new double[fftPlan.getSpectrumSize()];
+        private final double[] imag = new double[fftPlan.getSpectrumSize()];
+        private final double[] magnitudeSpectrum = new double[frameLength];
+
+        /** LPCC of the frames */
+        private final LPCC lpcc = createFrameLPCC();
+
         /**
-         * Compute the PLP spectrum at the center frequency of this filter for a given power spectrum.
-         *
-         * @param spectrum - Input power spectrum to be filtered
+         * Computes the PLP coefficients of individual frames, holding the buffers reused by all frames.
          *
-         * @return plpSpectrum - PLP spectrum value
+         * @param frameLength - Number of samples of the frames
          */
-        public double filterOutput(double[] spectrum) {
-            double plpSpectrum = 0.0;
+        private FrameProcessor(int frameLength) {
+            this.frame = new double[frameLength];
+        }
 
-            for (int i = 0; i < FRAME_LENGTH; i++) {
-                plpSpectrum += spectrum[i] * filterCoefficients[i];
-            }
+        /**
+         * Computes the PLP coefficients of the windowed frame held in <i>frame</i>.
+         *
+         * @return plpCoefficients
+         */
+        private double[] plpCoefficients() {
+            // Step 3 - Magnitude Spectrum (FFT)
+            magnitudeSpectrum(frame, fftPlan, real, imag, magnitudeSpectrum);
 
-            return plpSpectrum;
+            // Steps 4 to 8
+            return spectrumCoefficients(magnitudeSpectrum, lpcc);
         }
 
     }
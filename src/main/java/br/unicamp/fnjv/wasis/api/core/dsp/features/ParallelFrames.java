@@ -0,0 +1,100 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.features;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <pre>
+ * Splits a range of frames into chunks processed by the ForkJoin common pool.
+ *
+ * Each chunk is processed by a single task, which allocates its own work buffers (Ex: window, FFT spectrum), so the
+ * frames of a chunk share the buffers while the chunks do not share anything. As every frame is computed exactly as
+ * in the sequential path and written to its own position, the results are bit-identical to the sequential ones.
+ * </pre>
+ *
+ * @author Leandro Tacioli
+ */
+class ParallelFrames {
+
+    /** Minimum number of frames per chunk - Smaller ranges are not worth splitting. */
+    private static final int MINIMUM_CHUNK_FRAMES = 16;
+
+    /** Number of chunks per worker thread - More chunks than workers balance uneven frames. */
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    /**
+     * Processes a chunk of frames.
+     */
+    @FunctionalInterface
+    interface ChunkTask {
+
+        /**
+         * Processes the frames from <i>firstFrame</i> (inclusive) to <i>endFrame</i> (exclusive).
+         *
+         * @param firstFrame - Index of the first frame
+         * @param endFrame   - Index after the last frame
+         */
+        void process(int firstFrame, int endFrame);
+
+    }
+
+    private ParallelFrames() {
+
+    }
+
+    /**
+     * Processes all frames, in chunks - In parallel when <i>parallel</i> is true and there are enough frames.
+     *
+     * @param numFrames - Number of frames
+     * @param parallel  - Whether the chunks are processed in parallel
+     * @param chunkTask - Processes each chunk
+     */
+    static void forEachChunk(int numFrames, boolean parallel, ChunkTask chunkTask) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        if (!parallel || pool.getParallelism() < 2 || numFrames < 2 * MINIMUM_CHUNK_FRAMES) {
+            chunkTask.process(0, numFrames);
+
+            return;
+        }
+
+        int chunkFrames = Math.max(MINIMUM_CHUNK_FRAMES, numFrames / (pool.getParallelism() * CHUNKS_PER_WORKER));
+
+        pool.invoke(new ChunkAction(chunkTask, 0, numFrames, chunkFrames));
+    }
+
+    /**
+     * Splits a range of frames in halves until it fits in a chunk.
+     */
+    private static class ChunkAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ChunkTask chunkTask;
+        private final int firstFrame;
+        private final int endFrame;
+        private final int chunkFrames;
+
+        private ChunkAction(ChunkTask chunkTask, int firstFrame, int endFrame, int chunkFrames) {
+            this.chunkTask = chunkTask;
+            this.firstFrame = firstFrame;
+            this.endFrame = endFrame;
+            this.chunkFrames = chunkFrames;
+        }
+
+        @Override
+        protected void compute() {
+            if (endFrame - firstFrame <= chunkFrames) {
+                chunkTask.process(firstFrame, endFrame);
+
+            } else {
+                int middleFrame = (firstFrame + endFrame) >>> 1;
+
+                invokeAll(new ChunkAction(chunkTask, firstFrame, middleFrame, chunkFrames),
+                          new ChunkAction(chunkTask, middleFrame, endFrame, chunkFrames));
+            }
+        }
+
+    }
+
+}
\ No newline at end of file
@@ -1,12 +1,12 @@
 package br.unicamp.fnjv.wasis.api.core.dsp.features;
 
-import br.unicamp.fnjv.wasis.api.core.dsp.fft.FFT;
+import br.unicamp.fnjv.wasis.api.core.dsp.fft.FFTPlan;
 import br.unicamp.fnjv.wasis.api.core.dsp.windowing.WindowFunction;
-import br.unicamp.fnjv.wasis.api.utils.transformations.RoundNumbers;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Feature extraction class used to extract Power Spectrum (PS) from audio signals.
@@ -16,17 +16,32 @@ import java.util.List;
 public class PowerSpectrum extends FeatureExtraction {
 
     /** Number of samples per frame */
-    private final int FRAME_LENGTH = 1024;
+    private final int frameLength;
 
     /** Window Function */
-    private final String WINDOW_FUNCTION = WindowFunction.HAMMING;
+    private final String windowFunctionName;
+
+    /** Number of frames transformed by each batch FFT */
+    private static final int BATCH_FRAMES = 32;
 
     /** Maximum frequency (50% of the <i>sampleRate</i>) */
     private double maximumFrequency;
 
-    /** Number of frequency samples (50% of the <i>FRAME_LENGTH</i>) */
+    /** Number of frequency samples (50% of the <i>frameLength</i>) */
     private double frequencySamples;
 
+    /** First frequency sample within the initial and final frequencies */
+    private int firstFrequencySample;
+
+    /**
+     * <pre>
+     * Direct index mapping - Position in <i>powerSpectrum</i> of each frequency sample from <i>firstFrequencySample</i>.
+     *
+     * Frequency samples truncated to the same frequency (Hz) share the position of the first of them.
+     * </pre>
+     */
+    private int[] coefficientIndices;
+
     /**
      * <pre>
      * Final Power Spectrum Coefficients
@@ -37,6 +52,13 @@ public class PowerSpectrum extends FeatureExtraction {
      */
     private double[][] powerSpectrum;
 
+    // Streaming - Buffers of the frame computations
+    private WindowFunction streamWindowFunction;
+    private double[] streamFrame;
+    private double[] streamReal;
+    private double[] streamImag;
+    private double[] streamAmplitudes;
+
     /**
      * <pre>
      * Feature extraction class used to extract Power Spectrum (PS) from audio signals.
@@ -47,7 +69,21 @@ public class PowerSpectrum extends FeatureExtraction {
      * @param sampleRate
      */
     public PowerSpectrum(double sampleRate) {
-        this(sampleRate, 0, (int) sampleRate / 2);
+        this(FeatureConfig.DEFAULT, sampleRate);
+    }
+
+    /**
+     * <pre>
+     * Feature extraction class used to extract Power Spectrum (PS) from audio signals.
+     *
+     * OBS: Assumes initial frequency = 0 and final frequency = (<i>sampleRate / 2</i>).
+     * </pre>
+     *
+     * @param config     - Feature configuration (Frame length, hop size and window function)
+     * @param sampleRate
+     */
+    public PowerSpectrum(FeatureConfig config, double sampleRate) {
+        this(config, sampleRate, 0, (int) sampleRate / 2);
     }
 
     /**
@@ -58,25 +94,58 @@ public class PowerSpectrum extends FeatureExtraction {
      * @param finalFrequency
      */
     public PowerSpectrum(double sampleRate, int initialFrequency, int finalFrequency) {
+        this(FeatureConfig.DEFAULT, sampleRate, initialFrequency, finalFrequency);
+    }
+
+    /**
+     * Feature extraction class used to extract Power Spectrum (PS) from audio signals.
+     *
+     * @param config           - Feature configuration (Frame length, hop size and window function)
+     * @param sampleRate
+     * @param initialFrequency
+     * @param finalFrequency
+     */
+    public PowerSpectrum(FeatureConfig config, double sampleRate, int initialFrequency, int finalFrequency) {
+        super(config);
+
+        this.frameLength = config.getFrameLength();
+        this.windowFunctionName = config.getWindowFunction();
+
         // ******************************************************************************************8
         // Initiliaze matrix of frequency (Hz) and intensity (dBFS)
         maximumFrequency = sampleRate / 2;          // Divides by 2: Nyquist-Shannon - Default Value = 22050Hz
-        frequencySamples = FRAME_LENGTH / 2;        // Default value = 512
+        frequencySamples = frameLength / 2;        // Default value = 512
 
         // Computes the final number of coefficients filtering initial and final frequencies
         List<Integer> coefficients = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+
+        firstFrequencySample = -1;
 
         for (int indexFrequency = 0; indexFrequency < frequencySamples; indexFrequency++) {
             int frequency = (int) ((maximumFrequency / frequencySamples * indexFrequency) + (maximumFrequency / frequencySamples));
 
-            coefficients.add(frequency);
+            if (frequency >= initialFrequency && frequency <= finalFrequency) {
+                if (firstFrequencySample < 0) {
+                    firstFrequencySample = indexFrequency;
+                }
+
+                // Frequencies are increasing, so the same frequency can only repeat the previous one
+                boolean isRepeated = !coefficients.isEmpty() && coefficients.get(coefficients.size() - 1) == frequency;
+
+                indices.add(isRepeated ? indices.get(indices.size() - 1) : coefficients.size());
+                coefficients.add(frequency);
+            }
         }
 
         powerSpectrum = new double[2][coefficients.size()];
+        coefficientIndices = new int[indices.size()];
 
         for (int indexCoefficient = 0; indexCoefficient < coefficients.size(); indexCoefficient++) {
             powerSpectrum[0][indexCoefficient] = coefficients.get(indexCoefficient);
             powerSpectrum[1][indexCoefficient] = -1000;   // Initiate the coefficients with a very low decibel value
+
+            coefficientIndices[indexCoefficient] = indices.get(indexCoefficient);
         }
     }
 
@@ -88,7 +157,7 @@ public class PowerSpectrum extends FeatureExtraction {
     @Override
     public void process(double[] audioSignal) {
         // Step 1 - Frame Blocking
-        double[][] frames = Preprocessing.framing(audioSignal, FRAME_LENGTH);
+        FrameView frames = new FrameView(audioSignal, frameLength, config.getOverlapSamples());
 
         processFrames(frames);
     }
@@ -103,42 +172,255 @@ public class PowerSpectrum extends FeatureExtraction {
      * @param frames
      */
     @Override
-    public void processFrames(double[][] frames) {
-        WindowFunction windowFunction = new WindowFunction(WINDOW_FUNCTION);
-        FFT fft;
+    public void processFrames(FrameView frames) {
+        // Steps 2 and 3 - Windowing and Fast Fourier Transform
+        // Step 4 - Power Spectrum Coefficients
+        computeAmplitudes(frames, config, this::updatePowerSpectrum);
 
-        // Below computations are all based on individual frames
-        for (int indexFrame = 0; indexFrame < frames.length; indexFrame++) {
-            // Step 2 - Windowing - Apply Hamming Window to all frames
-            frames[indexFrame] = windowFunction.applyWindow(frames[indexFrame]);
+        // Step 5 - Normalization of the Power Spectrum Coefficients
+        normalizePowerSpectrum();
+    }
 
-            // Step 3 - Fast Fourier Transform
-            fft = new FFT(FRAME_LENGTH);
-            fft.executeFFT(frames[indexFrame]);
+    /**
+     * <pre>
+     * Computes the Power Spectrum (PS) from the amplitude spectra of the frames (see <i>amplitudeSpectra()</i>).
+     *
+     * The spectra hold all frequency samples, so the same spectra (Ex: from a <i>SpectraCache</i>) can be reused by
+     * Power Spectra of different initial and final frequencies, without computing the FFT again.
+     * </pre>
+     *
+     * @param amplitudeSpectra - Amplitudes in dBFS of each frame (<i>frameLength</i> / 2 positions each)
+     */
+    public void processSpectra(double[][] amplitudeSpectra) {
+        // Step 4 - Power Spectrum Coefficients
+        for (double[] amplitudes : amplitudeSpectra) {
+            updatePowerSpectrum(amplitudes);
+        }
 
-            double[] amplitudes = fft.getAmplitudes();
+        // Step 5 - Normalization of the Power Spectrum Coefficients
+        normalizePowerSpectrum();
+    }
 
-            // Step 4 - Power Spectrum Coefficients
-            for (int indexFrequency = 0; indexFrequency < frequencySamples; indexFrequency++) {
-                int frequency = (int) ((maximumFrequency / frequencySamples * indexFrequency) + (maximumFrequency / frequencySamples));
+    /**
+     * Computes the amplitudes in dBFS of all frequency samples of each frame of an audio signal.
+     *
+     * @param config      - Feature configuration (Frame length, hop size and window function)
+     * @param audioSignal
+     *
+     * @return amplitudeSpectra - One row per frame (<i>frameLength</i> / 2 positions each)
+     */
+    public static double[][] amplitudeSpectra(FeatureConfig config, double[] audioSignal) {
+        // Step 1 - Frame Blocking
+        FrameView frames = new FrameView(audioSignal, config.getFrameLength(), config.getOverlapSamples());
+
+        double[][] amplitudeSpectra = new double[frames.getNumFrames()][];
+        int[] indexFrame = new int[1];
+
+        // Steps 2 and 3 - Windowing and Fast Fourier Transform
+        computeAmplitudes(frames, config, amplitudes -> amplitudeSpectra[indexFrame[0]++] = amplitudes.clone());
+
+        return amplitudeSpectra;
+    }
+
+    /**
+     * Windows the frames and computes their amplitudes in dBFS (FFT), batch by batch.
+     *
+     * @param frames             - Frames
+     * @param config             - Feature configuration (Frame length and window function)
+     * @param amplitudesConsumer - Receives the amplitudes of each frame, in order - The array is reused by the next frame
+     */
+    private static void computeAmplitudes(FrameView frames, FeatureConfig config, Consumer<double[]> amplitudesConsumer) {
+        int frameLength = config.getFrameLength();
+
+        WindowFunction windowFunction = new WindowFunction(config.getWindowFunction());
+
+        // FFT plan, block of frames and spectrum buffers - Reused by all batches
+        FFTPlan fftPlan = FFTPlan.getPlan(frameLength, config.getFftEngine());
+        int spectrumSize = fftPlan.getSpectrumSize();
+        double[] block = new double[BATCH_FRAMES * frameLength];
+        double[] real = new double[BATCH_FRAMES * spectrumSize];
+        double[] imag = new double[BATCH_FRAMES * spectrumSize];
+        double[] amplitudes = new double[frameLength / 2];
+
+        // Frames of a different length are windowed apart and then padded or folded into the block
+        double[] frame = (frames.getFrameLength() != frameLength) ? new double[frames.getFrameLength()] : null;
+
+        for (int firstFrame = 0; firstFrame < frames.getNumFrames(); firstFrame += BATCH_FRAMES) {
+            int batchFrames = Math.min(BATCH_FRAMES, frames.getNumFrames() - firstFrame);
 
-                for (int indexPowerSpectrumValue = 0; indexPowerSpectrumValue < powerSpectrum[0].length; indexPowerSpectrumValue++) {
-                    if (frequency == powerSpectrum[0][indexPowerSpectrumValue]) {
-                        double decibel = amplitudes[indexFrequency];
+            // Step 2 - Windowing - Apply Hamming Window to all frames of the batch, copying them into the block
+            for (int indexBatch = 0; indexBatch < batchFrames; indexBatch++) {
+                int indexFrame = firstFrame + indexBatch;
+                int blockOffset = indexBatch * frameLength;
 
-                        if (decibel > powerSpectrum[1][indexPowerSpectrumValue]) {
-                            powerSpectrum[1][indexPowerSpectrumValue] = RoundNumbers.round(decibel, 4);
+                if (frame == null) {
+                    frames.applyWindow(indexFrame, windowFunction, block, blockOffset);
 
-                            break;
-                        }
+                } else {
+                    // Shorter frames are padded with zeros, longer frames are folded (aliasing)
+                    frames.applyWindow(indexFrame, windowFunction, frame, 0);
+
+                    Arrays.fill(block, blockOffset, blockOffset + frameLength, 0);
+
+                    for (int indexSample = 0; indexSample < frame.length; indexSample++) {
+                        block[blockOffset + indexSample % frameLength] += frame[indexSample];
                     }
                 }
             }
+
+            // Step 3 - Fast Fourier Transform of the whole batch
+            fftPlan.realTransformBatch(block, 0, frameLength, batchFrames, real, imag);
+
+            // Below computations are all based on individual frames
+            for (int indexBatch = 0; indexBatch < batchFrames; indexBatch++) {
+                fftPlan.amplitudes(real, imag, indexBatch * spectrumSize, amplitudes);
+
+                amplitudesConsumer.accept(amplitudes);
+            }
+        }
+    }
+
+    /**
+     * <pre>
+     * Take samples from an audio signal and computes the Power Spectrum (PS) in single precision.
+     *
+     * Framing, windowing and the FFT are computed in float, halving the memory traffic of the samples and spectra.
+     * The amplitudes in dBFS are computed in double. See <i>FloatPrecisionTest</i> for the deviation from <i>process(double[])</i>.
+     *
+     * The frame length must be a power of 2 (see <i>checkSinglePrecisionFrameLength()</i>).
+     * </pre>
+     *
+     * @param audioSignal
+     *
+     * @throws IllegalArgumentException - Frame length is not a power of 2
+     */
+    public void process(float[] audioSignal) {
+        checkSinglePrecisionFrameLength(frameLength);
+
+        // Step 1 - Frame Blocking
+        FloatFrameView frames = new FloatFrameView(audioSignal, frameLength, config.getOverlapSamples());
+
+        WindowFunction windowFunction = new WindowFunction(windowFunctionName);
+
+        // FFT plan and spectrum buffers - Reused by all frames
+        FFTPlan fftPlan = FFTPlan.getPlan(frameLength, config.getFftEngine());
+        float[] frame = new float[frameLength];
+        float[] real = new float[fftPlan.getSpectrumSize()];
+        float[] imag = new float[fftPlan.getSpectrumSize()];
+        double[] amplitudes = new double[frameLength / 2];
+
+        for (int indexFrame = 0; indexFrame < frames.getNumFrames(); indexFrame++) {
+            // Step 2 - Windowing - Apply Hamming Window
+            frames.applyWindow(indexFrame, windowFunction, frame, 0);
+
+            // Step 3 - Fast Fourier Transform
+            fftPlan.realTransform(frame, 0, frameLength, real, imag);
+            fftPlan.amplitudes(real, imag, amplitudes);
+
+            // Step 4 - Power Spectrum Coefficients
+            updatePowerSpectrum(amplitudes);
         }
 
         // Step 5 - Normalization of the Power Spectrum Coefficients
-        // dBFS should accept only negative values
-        // In case of positive, all the values are adjusted from the difference of the higher value
+        normalizePowerSpectrum();
+    }
+
+    @Override
+    protected boolean isPreEmphasisPerformed() {
+        return false;
+    }
+
+    @Override
+    protected void beginStream() {
+        streamWindowFunction = new WindowFunction(windowFunctionName);
+        streamFrame = new double[frameLength];
+        streamReal = new double[FFTPlan.getPlan(frameLength, config.getFftEngine()).getSpectrumSize()];
+        streamImag = new double[streamReal.length];
+        streamAmplitudes = new double[frameLength / 2];
+    }
+
+    /**
+     * <pre>
+     * Computes the spectrum of a frame, emitting its decibel values (same positions as <i>getFeature()[0]</i>).
+     *
+     * The Power Spectrum returned by <i>getFeature()</i> keeps being accumulated from all frames.
+     * </pre>
+     *
+     * @param frame
+     */
+    @Override
+    protected void processStreamFrame(double[] frame) {
+        FFTPlan fftPlan = FFTPlan.getPlan(frameLength, config.getFftEngine());
+
+        // Step 2 - Windowing
+        streamWindowFunction.applyWindow(frame, 0, frameLength, streamFrame, 0);
+
+        // Step 3 - Fast Fourier Transform
+        fftPlan.realTransform(streamFrame, streamReal, streamImag);
+        fftPlan.amplitudes(streamReal, streamImag, streamAmplitudes);
+
+        // Step 4 - Power Spectrum Coefficients
+        updatePowerSpectrum(streamAmplitudes);
+
+        double[] decibels = new double[coefficientIndices.length];
+
+        for (int indexCoefficient = 0; indexCoefficient < decibels.length; indexCoefficient++) {
+            decibels[indexCoefficient] = roundCoefficient(streamAmplitudes[firstFrequencySample + indexCoefficient]);
+        }
+
+        emitFeature(decibels);
+    }
+
+    @Override
+    protected void endStream() {
+        // Step 5 - Normalization of the Power Spectrum Coefficients
+        normalizePowerSpectrum();
+
+        streamWindowFunction = null;
+        streamFrame = null;
+        streamReal = null;
+        streamImag = null;
+        streamAmplitudes = null;
+    }
+
+    /**
+     * <pre>
+     * Keeps the highest decibel value of each coefficient.
+     *
+     * Each frequency sample within the initial and final frequencies goes straight to its coefficient (<i>coefficientIndices</i>).
+     * Frequency samples sharing a frequency fill its coefficients in order, as the first coefficient not higher than them is updated.
+     * </pre>
+     *
+     * @param amplitudes - Decibel values of a frame
+     */
+    private void updatePowerSpectrum(double[] amplitudes) {
+        double[] frequencies = powerSpectrum[0];
+        double[] decibels = powerSpectrum[1];
+
+        for (int indexCoefficient = 0; indexCoefficient < coefficientIndices.length; indexCoefficient++) {
+            double decibel = amplitudes[firstFrequencySample + indexCoefficient];
+            int indexPowerSpectrumValue = coefficientIndices[indexCoefficient];
+            double frequency = frequencies[indexPowerSpectrumValue];
+
+            for (; indexPowerSpectrumValue < frequencies.length && frequencies[indexPowerSpectrumValue] == frequency; indexPowerSpectrumValue++) {
+                if (decibel > decibels[indexPowerSpectrumValue]) {
+                    decibels[indexPowerSpectrumValue] = roundCoefficient(decibel);
+
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * <pre>
+     * Normalization of the Power Spectrum Coefficients.
+     *
+     * dBFS should accept only negative values.
+     * In case of positive, all the values are adjusted from the difference of the higher value.
+     * </pre>
+     */
+    private void normalizePowerSpectrum() {
         double higherValue = -1000;
 
         for (int indexPowerSpectrumValue = 0; indexPowerSpectrumValue < powerSpectrum[0].length; indexPowerSpectrumValue++) {
@@ -149,7 +431,7 @@ public class PowerSpectrum extends FeatureExtraction {
 
         if (higherValue >= 0) {
             for (int indexPowerSpectrumValue = 0; indexPowerSpectrumValue < powerSpectrum[0].length; indexPowerSpectrumValue++) {
-                powerSpectrum[1][indexPowerSpectrumValue] = RoundNumbers.round((powerSpectrum[1][indexPowerSpectrumValue] - higherValue), 4);
+                powerSpectrum[1][indexPowerSpectrumValue] = roundCoefficient(powerSpectrum[1][indexPowerSpectrumValue] - higherValue);
             }
         }
     }
@@ -10,17 +10,17 @@ public class Preprocessing {
     /**
      * Pre-Emphasis Alpha (Set to 0 if no pre-emphasis should be performed)
      */
-    private final static double PRE_EMPHASIS_ALPHA = 0.95;
+    final static double PRE_EMPHASIS_ALPHA = FeatureConfig.DEFAULT.getPreEmphasisAlpha();
 
     /**
      * Number of samples per frame.
      */
-    private final static int FRAME_LENGTH = 1024;
+    private final static int FRAME_LENGTH = FeatureConfig.DEFAULT.getFrameLength();
 
     /**
      * Number of overlapping samples (Usually 50% of the <i>FRAME_LENGTH</i>).
      */
-    private final static int OVERLAP_SAMPLES = FRAME_LENGTH / 2;
+    private final static int OVERLAP_SAMPLES = FeatureConfig.DEFAULT.getOverlapSamples();
 
     /**
      * Audio Feature Preprocessing.
@@ -37,10 +37,52 @@ public class Preprocessing {
      * @return preEmphasis
      */
     public static double[] preEmphasis(double[] audioSignal) {
+        return preEmphasis(audioSignal, PRE_EMPHASIS_ALPHA);
+    }
+
+    /**
+     * Perform pre-emphasis to equalize amplitude of high and low frequency.
+     *
+     * @param audioSignal      - Audio Signal
+     * @param preEmphasisAlpha - Pre-Emphasis Alpha
+     *
+     * @return preEmphasis
+     */
+    public static double[] preEmphasis(double[] audioSignal, double preEmphasisAlpha) {
         double[] preEmphasis = new double[audioSignal.length];
 
         for (int indexSignal = 1; indexSignal < audioSignal.length; indexSignal++) {
-            preEmphasis[indexSignal] = audioSignal[indexSignal] - PRE_EMPHASIS_ALPHA * audioSignal[indexSignal - 1];
+            preEmphasis[indexSignal] = audioSignal[indexSignal] - preEmphasisAlpha * audioSignal[indexSignal - 1];
+        }
+
+        return preEmphasis;
+    }
+
+    /**
+     * Perform pre-emphasis to equalize amplitude of high and low frequency (Single precision).
+     *
+     * @param audioSignal - Audio Signal
+     *
+     * @return preEmphasis
+     */
+    public static float[] preEmphasis(float[] audioSignal) {
+        return preEmphasis(audioSignal, PRE_EMPHASIS_ALPHA);
+    }
+
+    /**
+     * Perform pre-emphasis to equalize amplitude of high and low frequency (Single precision).
+     *
+     * @param audioSignal      - Audio Signal
+     * @param preEmphasisAlpha - Pre-Emphasis Alpha
+     *
+     * @return preEmphasis
+     */
+    public static float[] preEmphasis(float[] audioSignal, double preEmphasisAlpha) {
+        float[] preEmphasis = new float[audioSignal.length];
+        float alpha = (float) preEmphasisAlpha;
+
+        for (int indexSignal = 1; indexSignal < audioSignal.length; indexSignal++) {
+            preEmphasis[indexSignal] = audioSignal[indexSignal] - alpha * audioSignal[indexSignal - 1];
         }
 
         return preEmphasis;
@@ -60,6 +102,16 @@ public class Preprocessing {
         return framing(audioSignal, FRAME_LENGTH, OVERLAP_SAMPLES);
     }
 
+    /**
+     * Performs Frame Blocking to break down an audio signal into frames, with the frame length and hop size of a configuration.
+     *
+     * @param audioSignal - Audio Signal
+     * @param config      - Feature configuration
+     */
+    public static double[][] framing(double[] audioSignal, FeatureConfig config) {
+        return framing(audioSignal, config.getFrameLength(), config.getOverlapSamples());
+    }
+
     /**
      * <pre>
      * Performs Frame Blocking to break down an audio signal into frames.
@@ -0,0 +1,114 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.features;
+
+/**
+ * <pre>
+ * Filter bank stored as a sparse band matrix - For each filter, the index of its first non-zero weight plus the
+ * weights up to its last non-zero weight.
+ *
+ * Filters such as the Mel and Bark ones are non-zero only on a small band of the spectrum, so the output of a filter is
+ * a short dot product. The weights are summed in the same order as the dense ones and the zero weights left out add
+ * exactly zero, hence the outputs are bit-identical to the dense dot product.
+ * </pre>
+ *
+ * @author Leandro Tacioli
+ */
+class SparseFilterBank {
+
+    /** Index of the first non-zero weight of each filter. */
+    private final int[] start;
+
+    /** Weights of each filter, from its first to its last non-zero weight. */
+    private final double[][] weights;
+
+    /** Weights of each filter in single precision - Used by the float pipeline. */
+    private final float[][] floatWeights;
+
+    /**
+     * Filter bank stored as a sparse band matrix.
+     *
+     * @param denseWeights - Weights of each filter (Rows) for each spectrum bin (Columns)
+     */
+    SparseFilterBank(double[][] denseWeights) {
+        start = new int[denseWeights.length];
+        weights = new double[denseWeights.length][];
+        floatWeights = new float[denseWeights.length][];
+
+        for (int indexFilter = 0; indexFilter < denseWeights.length; indexFilter++) {
+            double[] filter = denseWeights[indexFilter];
+
+            int first = 0;
+            int end = filter.length;
+
+            while (first < end && filter[first] == 0) {
+                first++;
+            }
+
+            while (end > first && filter[end - 1] == 0) {
+                end--;
+            }
+
+            start[indexFilter] = first;
+            weights[indexFilter] = new double[end - first];
+
+            System.arraycopy(filter, first, weights[indexFilter], 0, end - first);
+
+            floatWeights[indexFilter] = new float[end - first];
+
+            for (int i = 0; i < end - first; i++) {
+                floatWeights[indexFilter][i] = (float) filter[first + i];
+            }
+        }
+    }
+
+    /**
+     * Returns the number of filters.
+     *
+     * @return numFilters
+     */
+    int getNumFilters() {
+        return weights.length;
+    }
+
+    /**
+     * Returns the output of a filter for a given spectrum.
+     *
+     * @param indexFilter - Index of the filter
+     * @param spectrum    - Input spectrum
+     *
+     * @return output
+     */
+    double filterOutput(int indexFilter, double[] spectrum) {
+        double[] filterWeights = weights[indexFilter];
+        int offset = start[indexFilter];
+
+        double output = 0.0;
+
+        for (int i = 0; i < filterWeights.length; i++) {
+            output += spectrum[offset + i] * filterWeights[i];
+        }
+
+        return output;
+    }
+
+    /**
+     * Returns the output of a filter for a given spectrum in single precision.
+     *
+     * @param indexFilter - Index of the filter
+     * @param spectrum    - Input spectrum
+     *
+     * @return output
+     */
+    float filterOutput(int indexFilter, float[] spectrum) {
+        float[] filterWeights = floatWeights[indexFilter];
+        int offset = start[indexFilter];
+
+        float output = 0.0f;
+
+        for (int i = 0; i < filterWeights.length; i++) {
+            output += spectrum[offset + i] * filterWeights[i];
+        }
+
+        return output;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,214 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.features;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * <pre>
+ * Cache of the amplitude spectra of audio segments - By audio hash, time range and configuration.
+ *
+ * The spectra of a segment hold all frequency samples of each frame (see <i>PowerSpectrum.amplitudeSpectra()</i>),
+ * so querying different frequency bands of the same segment reuses the FFT work:
+ *
+ * double[][] spectra = spectraCache.getSpectra(audioHash, timeInitial, timeFinal, config, () -> audioSignal);
+ * powerSpectrum.processSpectra(spectra);
+ *
+ * The least recently used spectra are discarded when the total size exceeds the maximum size of the cache.
+ * The returned spectra are shared by all callers, hence they must not be changed.
+ * </pre>
+ *
+ * @author Leandro Tacioli
+ */
+public class SpectraCache {
+
+    /** Maximum total size of the spectra (bytes). */
+    private final long maximumBytes;
+
+    /** Spectra in access order - Least recently used first. */
+    private final LinkedHashMap<Key, double[][]> spectra = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Total size of the spectra (bytes). */
+    private long totalBytes;
+
+    /**
+     * Cache of the amplitude spectra of audio segments.
+     *
+     * @param maximumBytes - Maximum total size of the spectra (bytes)
+     */
+    public SpectraCache(long maximumBytes) {
+        if (maximumBytes <= 0) {
+            throw new IllegalArgumentException("Maximum size of the cache must be greater than zero");
+        }
+
+        this.maximumBytes = maximumBytes;
+    }
+
+    /**
+     * <pre>
+     * Returns the amplitude spectra of an audio segment, computing them on the first query.
+     *
+     * The audio signal is only requested when the spectra are not in the cache.
+     * </pre>
+     *
+     * @param audioHash   - Hash of the audio file (SHA-256)
+     * @param timeInitial - Initial time of the segment
+     * @param timeFinal   - Final time of the segment
+     * @param config      - Feature configuration (Frame length, hop size and window function)
+     * @param audioSignal - Supplies the samples of the segment
+     *
+     * @return amplitudeSpectra - One row per frame (<i>frameLength</i> / 2 positions each) - Must not be changed
+     */
+    public double[][] getSpectra(String audioHash, int timeInitial, int timeFinal, FeatureConfig config, Supplier<double[]> audioSignal) {
+        Key key = new Key(audioHash, timeInitial, timeFinal, config);
+
+        synchronized (this) {
+            double[][] cachedSpectra = spectra.get(key);
+
+            if (cachedSpectra != null) {
+                return cachedSpectra;
+            }
+        }
+
+        // Computed outside the lock - Concurrent queries of the same segment may compute it twice, keeping the first
+        double[][] amplitudeSpectra = PowerSpectrum.amplitudeSpectra(config, audioSignal.get());
+
+        synchronized (this) {
+            double[][] cachedSpectra = spectra.putIfAbsent(key, amplitudeSpectra);
+
+            if (cachedSpectra != null) {
+                return cachedSpectra;
+            }
+
+            totalBytes += sizeOf(amplitudeSpectra);
+
+            evict(key);
+        }
+
+        return amplitudeSpectra;
+    }
+
+    /**
+     * Discards all spectra of an audio file (Ex: when the file is removed).
+     *
+     * @param audioHash - Hash of the audio file (SHA-256)
+     */
+    public synchronized void invalidate(String audioHash) {
+        Iterator<Map.Entry<Key, double[][]>> iterator = spectra.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            Map.Entry<Key, double[][]> entry = iterator.next();
+
+            if (entry.getKey().audioHash.equals(audioHash)) {
+                totalBytes -= sizeOf(entry.getValue());
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Discards all spectra.
+     */
+    public synchronized void clear() {
+        spectra.clear();
+        totalBytes = 0;
+    }
+
+    /**
+     * Returns the number of segments in the cache.
+     *
+     * @return size
+     */
+    public synchronized int size() {
+        return spectra.size();
+    }
+
+    /**
+     * Returns the total size of the spectra in the cache (bytes).
+     *
+     * @return totalBytes
+     */
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Discards the least recently used spectra until the total size fits the cache - The newest spectra are always kept.
+     *
+     * @param newestKey - Key of the spectra just added
+     */
+    private void evict(Key newestKey) {
+        Iterator<Map.Entry<Key, double[][]>> iterator = spectra.entrySet().iterator();
+
+        while (totalBytes > maximumBytes && iterator.hasNext()) {
+            Map.Entry<Key, double[][]> entry = iterator.next();
+
+            if (!entry.getKey().equals(newestKey)) {
+                totalBytes -= sizeOf(entry.getValue());
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the approximate size of spectra (bytes).
+     *
+     * @param amplitudeSpectra
+     *
+     * @return size
+     */
+    private static long sizeOf(double[][] amplitudeSpectra) {
+        long size = 16L + 8L * amplitudeSpectra.length;
+
+        for (double[] amplitudes : amplitudeSpectra) {
+            size += 16L + (long) Double.BYTES * amplitudes.length;
+        }
+
+        return size;
+    }
+
+    /**
+     * Audio hash, time range and configuration of the spectra.
+     */
+    private static final class Key {
+
+        private final String audioHash;
+        private final int timeInitial;
+        private final int timeFinal;
+        private final FeatureConfig config;
+
+        private Key(String audioHash, int timeInitial, int timeFinal, FeatureConfig config) {
+            this.audioHash = audioHash;
+            this.timeInitial = timeInitial;
+            this.timeFinal = timeFinal;
+            this.config = config;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) {
+                return true;
+            }
+
+            if (!(object instanceof Key)) {
+                return false;
+            }
+
+            Key key = (Key) object;
+
+            return timeInitial == key.timeInitial
+                && timeFinal == key.timeFinal
+                && audioHash.equals(key.audioHash)
+                && config.equals(key.config);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(audioHash, timeInitial, timeFinal, config);
+        }
+
+    }
+
+}
\ No newline at end of file
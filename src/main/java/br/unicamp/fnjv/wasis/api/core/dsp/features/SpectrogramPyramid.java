@@ -0,0 +1,348 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.features;
+
+import br.unicamp.fnjv.wasis.api.core.dsp.fft.FFT;
+import br.unicamp.fnjv.wasis.api.core.dsp.windowing.WindowFunction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <pre>
+ * Spectrogram of an audio signal split into tiles at several zoom levels (Mipmap pyramid).
+ *
+ * Zoom level 0 has one column per frame and one row per frequency sample (<i>frameLength</i> / 2 rows).
+ * Each following zoom level merges pairs of consecutive columns (Keeping the loudest intensity), up to the level
+ * whose columns fit in a single tile. The frequency axis is the same in all zoom levels.
+ *
+ * The signal is received in pieces (<i>accept()</i>), so the spectrogram of long recordings is computed with only
+ * one strip of tiles per zoom level in memory. Each tile is handed to the <i>TileSink</i> as soon as it is complete:
+ *
+ * SpectrogramPyramid pyramid = new SpectrogramPyramid(FeatureConfig.DEFAULT, tileSink);
+ * pyramid.accept(samples, 0, samples.length);
+ * pyramid.end();
+ * </pre>
+ *
+ * @author Leandro Tacioli
+ */
+public class SpectrogramPyramid {
+
+    /** Width and height of the tiles (Pixels). */
+    public static final int TILE_SIZE = 256;
+
+    /** Default amplitude mapped to intensity 0 (dBFS - See <i>FFT.getAmplitudes()</i>). */
+    public static final double MINIMUM_DECIBELS = -70.0;
+
+    /** Default amplitude mapped to intensity 255 (dBFS - See <i>FFT.getAmplitudes()</i>). */
+    public static final double MAXIMUM_DECIBELS = 20.0;
+
+    /** Amplitude mapped to intensity 0 (dBFS). */
+    private final double minimumDecibels;
+
+    /** Amplitude mapped to intensity 255 (dBFS). */
+    private final double maximumDecibels;
+
+    /** Receives the tiles. */
+    private final TileSink tileSink;
+
+    /** Number of samples per frame. */
+    private final int frameLength;
+
+    /** Number of frequency samples (Rows) of each column. */
+    private final int frequencySamples;
+
+    /** Number of tiles of each column of tiles. */
+    private final int verticalTiles;
+
+    private final WindowFunction windowFunction;
+    private final FFT fft;
+
+    /** Windowed frame. */
+    private final double[] windowedFrame;
+
+    /** Amplitudes of the current frame (dBFS). */
+    private final double[] amplitudes;
+
+    /** Zoom levels already receiving columns. */
+    private final List<ZoomLevel> zoomLevels = new ArrayList<>();
+
+    private FrameStream frameStream;
+
+    /** Number of zoom levels - Known after <i>end()</i>. */
+    private int numZoomLevels;
+
+    /**
+     * Spectrogram of an audio signal split into tiles at several zoom levels.
+     *
+     * @param config   - Feature configuration (Frame length, hop size and window function)
+     * @param tileSink - Receives the tiles
+     */
+    public SpectrogramPyramid(FeatureConfig config, TileSink tileSink) {
+        this(config, MINIMUM_DECIBELS, MAXIMUM_DECIBELS, tileSink);
+    }
+
+    /**
+     * Spectrogram of an audio signal split into tiles at several zoom levels.
+     *
+     * @param config          - Feature configuration (Frame length, hop size and window function)
+     * @param minimumDecibels - Amplitude mapped to intensity 0 (dBFS)
+     * @param maximumDecibels - Amplitude mapped to intensity 255 (dBFS)
+     * @param tileSink        - Receives the tiles
+     */
+    public SpectrogramPyramid(FeatureConfig config, double minimumDecibels, double maximumDecibels, TileSink tileSink) {
+        if (config == null) {
+            throw new IllegalArgumentException("Feature configuration must not be null");
+        }
+
+        if (tileSink == null) {
+            throw new IllegalArgumentException("Tile sink must not be null");
+        }
+
+        if (!(minimumDecibels < maximumDecibels)) {
+            throw new IllegalArgumentException("Minimum decibels must be lesser than maximum decibels");
+        }
+
+        this.minimumDecibels = minimumDecibels;
+        this.maximumDecibels = maximumDecibels;
+        this.tileSink = tileSink;
+
+        this.frameLength = config.getFrameLength();
+        this.frequencySamples = frameLength / 2;
+        this.verticalTiles = (frequencySamples + TILE_SIZE - 1) / TILE_SIZE;
+
+        this.windowFunction = new WindowFunction(config.getWindowFunction());
+        this.fft = new FFT(frameLength);
+        this.windowedFrame = new double[frameLength];
+        this.amplitudes = new double[frequencySamples];
+
+        this.frameStream = new FrameStream(frameLength, config.getOverlapSamples(), false, 0, this::processFrame);
+    }
+
+    /**
+     * Receives samples of the audio signal, emitting the tiles completed by them.
+     *
+     * @param samples - Samples
+     * @param offset  - Position of the first sample
+     * @param length  - Number of samples
+     */
+    public void accept(double[] samples, int offset, int length) {
+        if (frameStream == null) {
+            throw new IllegalStateException("Spectrogram already finished");
+        }
+
+        frameStream.accept(samples, offset, length);
+    }
+
+    /**
+     * Processes the remaining frames and emits the remaining tiles of all zoom levels.
+     */
+    public void end() {
+        if (frameStream == null) {
+            throw new IllegalStateException("Spectrogram already finished");
+        }
+
+        frameStream.end();
+        frameStream = null;
+
+        // Last zoom level - The first one whose columns fit in a single tile
+        numZoomLevels = 1;
+
+        for (long columns = zoomLevels.get(0).columns; columns > TILE_SIZE; columns = (columns + 1) / 2) {
+            numZoomLevels++;
+        }
+
+        for (int zoom = 0; zoom < numZoomLevels; zoom++) {
+            ZoomLevel zoomLevel = zoomLevels.get(zoom);
+
+            // A remaining unpaired column becomes the last column of the next zoom level
+            if (zoom < numZoomLevels - 1 && zoomLevel.unpairedColumn != null) {
+                addColumn(zoom + 1, zoomLevel.unpairedColumn);
+                zoomLevel.unpairedColumn = null;
+            }
+
+            if (zoomLevel.stripColumns > 0) {
+                emitStrip(zoom, zoomLevel);
+            }
+        }
+
+        // Zoom levels beyond the last one are discarded
+        while (zoomLevels.size() > numZoomLevels) {
+            zoomLevels.remove(zoomLevels.size() - 1);
+        }
+    }
+
+    /**
+     * Returns the number of zoom levels - Available after <i>end()</i>.
+     *
+     * @return numZoomLevels
+     */
+    public int getZoomLevels() {
+        return numZoomLevels;
+    }
+
+    /**
+     * Returns the number of columns of a zoom level - Available after <i>end()</i>.
+     *
+     * @param zoom - Zoom level
+     *
+     * @return columns
+     */
+    public long getColumns(int zoom) {
+        return zoomLevels.get(zoom).columns;
+    }
+
+    /**
+     * Returns the number of tiles in the time axis of a zoom level - Available after <i>end()</i>.
+     *
+     * @param zoom - Zoom level
+     *
+     * @return horizontalTiles
+     */
+    public int getHorizontalTiles(int zoom) {
+        return zoomLevels.get(zoom).emittedStrips;
+    }
+
+    /**
+     * Returns the number of tiles in the frequency axis (The same in all zoom levels).
+     *
+     * @return verticalTiles
+     */
+    public int getVerticalTiles() {
+        return verticalTiles;
+    }
+
+    /**
+     * Returns the number of frequency samples (Rows) of each column.
+     *
+     * @return frequencySamples
+     */
+    public int getFrequencySamples() {
+        return frequencySamples;
+    }
+
+    /**
+     * Computes the column of a frame and adds it to zoom level 0.
+     *
+     * @param frame
+     */
+    private void processFrame(double[] frame) {
+        windowFunction.applyWindow(frame, 0, frameLength, windowedFrame, 0);
+
+        fft.executeRealFFT(windowedFrame);
+        fft.getAmplitudes(amplitudes);
+
+        byte[] column = new byte[frequencySamples];
+
+        for (int indexFrequency = 0; indexFrequency < frequencySamples; indexFrequency++) {
+            column[indexFrequency] = getIntensity(amplitudes[indexFrequency]);
+        }
+
+        addColumn(0, column);
+    }
+
+    /**
+     * Maps an amplitude (dBFS) to an intensity from 0 to 255.
+     *
+     * @param amplitude
+     *
+     * @return intensity
+     */
+    private byte getIntensity(double amplitude) {
+        double intensity = (amplitude - minimumDecibels) * 255.0 / (maximumDecibels - minimumDecibels);
+
+        // Silent frequencies (-Infinity) are also mapped to 0
+        if (!(intensity > 0)) {
+            return 0;
+        } else if (intensity >= 255) {
+            return (byte) 255;
+        }
+
+        return (byte) Math.round(intensity);
+    }
+
+    /**
+     * Adds a column to a zoom level, emitting its strip of tiles when complete and merging each pair of columns into the next zoom level.
+     *
+     * @param zoom   - Zoom level
+     * @param column - Intensities of the column
+     */
+    private void addColumn(int zoom, byte[] column) {
+        if (zoom == zoomLevels.size()) {
+            zoomLevels.add(new ZoomLevel());
+        }
+
+        ZoomLevel zoomLevel = zoomLevels.get(zoom);
+        zoomLevel.strip[zoomLevel.stripColumns++] = column;
+        zoomLevel.columns++;
+
+        if (zoomLevel.stripColumns == TILE_SIZE) {
+            emitStrip(zoom, zoomLevel);
+        }
+
+        if (zoomLevel.unpairedColumn == null) {
+            zoomLevel.unpairedColumn = column;
+        } else {
+            byte[] mergedColumn = new byte[frequencySamples];
+
+            for (int indexFrequency = 0; indexFrequency < frequencySamples; indexFrequency++) {
+                mergedColumn[indexFrequency] = (byte) Math.max(zoomLevel.unpairedColumn[indexFrequency] & 0xff, column[indexFrequency] & 0xff);
+            }
+
+            zoomLevel.unpairedColumn = null;
+
+            addColumn(zoom + 1, mergedColumn);
+        }
+    }
+
+    /**
+     * Emits the tiles of the current strip of a zoom level - Columns missing in the last strip are left as 0.
+     *
+     * @param zoom      - Zoom level
+     * @param zoomLevel
+     */
+    private void emitStrip(int zoom, ZoomLevel zoomLevel) {
+        for (int y = 0; y < verticalTiles; y++) {
+            byte[] pixels = new byte[TILE_SIZE * TILE_SIZE];
+
+            for (int row = 0; row < TILE_SIZE; row++) {
+                // Highest frequencies at the top
+                int indexFrequency = frequencySamples - 1 - (y * TILE_SIZE + row);
+
+                if (indexFrequency < 0) {
+                    break;
+                }
+
+                for (int indexColumn = 0; indexColumn < zoomLevel.stripColumns; indexColumn++) {
+                    pixels[row * TILE_SIZE + indexColumn] = zoomLevel.strip[indexColumn][indexFrequency];
+                }
+            }
+
+            tileSink.accept(zoom, zoomLevel.emittedStrips, y, pixels);
+        }
+
+        zoomLevel.emittedStrips++;
+        zoomLevel.stripColumns = 0;
+    }
+
+    /**
+     * Columns of a zoom level not yet emitted.
+     */
+    private static final class ZoomLevel {
+
+        /** Columns of the current strip of tiles. */
+        private final byte[][] strip = new byte[TILE_SIZE][];
+
+        /** Number of columns in the current strip. */
+        private int stripColumns;
+
+        /** Number of strips already emitted. */
+        private int emittedStrips;
+
+        /** Number of columns received. */
+        private long columns;
+
+        /** Column waiting for its pair to be merged into the next zoom level. */
+        private byte[] unpairedColumn;
+
+    }
+
+}
\ No newline at end of file
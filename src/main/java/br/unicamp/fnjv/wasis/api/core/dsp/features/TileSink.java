@@ -0,0 +1,23 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.features;
+
+/**
+ * Receives the tiles emitted by a spectrogram pyramid (see <i>SpectrogramPyramid</i>).
+ *
+ * @author Leandro Tacioli
+ */
+@FunctionalInterface
+public interface TileSink {
+
+    /**
+     * Receives a tile, as soon as all of its columns are complete.
+     * <br>
+     * The tiles of a zoom level are emitted in order of <i>x</i>. The pixels are not reused by the pyramid.
+     *
+     * @param zoom   - Zoom level (0 = one column per frame)
+     * @param x      - Horizontal position of the tile (Time)
+     * @param y      - Vertical position of the tile (Frequency - 0 = highest frequencies)
+     * @param pixels - Intensities (0 to 255) of <i>TILE_SIZE</i> x <i>TILE_SIZE</i> pixels, row by row
+     */
+    void accept(int zoom, int x, int y, byte[] pixels);
+
+}
\ No newline at end of file
@@ -7,15 +7,33 @@ package br.unicamp.fnjv.wasis.api.core.dsp.fft;
  */
 public class FFT {
 
-    private FFTColumbia fftColumbia;
+    private FFTPlan fftPlan;
+
+    /** Parte real. */
+    private double[] real;
+
+    /** Parte imaginária. */
+    private double[] imag;
 
     /**
      * Transforma amostra do domínio de tempo para o domínio de frequência.
+     * <br>
+     * Utiliza o motor de FFT padrão (<i>FFTPlan.getDefaultEngine()</i>).
      *
-     * @param fftSampleSize  - Número de amostras da FFT (Potência de 2)
+     * @param fftSampleSize  - Número de amostras da FFT (Potência de 2 para o motor <i>COLUMBIA</i>)
      */
     public FFT(int fftSampleSize) {
-        this.fftColumbia = new FFTColumbia(fftSampleSize);
+        this(fftSampleSize, FFTPlan.getDefaultEngine());
+    }
+
+    /**
+     * Transforma amostra do domínio de tempo para o domínio de frequência.
+     *
+     * @param fftSampleSize  - Número de amostras da FFT (Potência de 2 para o motor <i>COLUMBIA</i>)
+     * @param engine         - Motor da FFT
+     */
+    public FFT(int fftSampleSize, FFTEngine engine) {
+        this.fftPlan = FFTPlan.getPlan(fftSampleSize, engine);
     }
 
     /**
@@ -28,7 +46,67 @@ public class FFT {
      * @param timeData - Amostra no domínio de tempo
      */
     public void executeFFT(double[] timeData) {
-        fftColumbia.fft(timeData);
+        int fftSampleSize = fftPlan.getSize();
+
+        if (real == null || real.length != fftSampleSize) {
+            real = new double[fftSampleSize];
+            imag = new double[fftSampleSize];
+        }
+
+        // Completa a amostra com zeros ou, se ela for maior que a FFT, sobrepõe as amostras excedentes (aliasing)
+        for (int index = 0; index < fftSampleSize; index++) {
+            real[index] = (index < timeData.length) ? timeData[index] : 0;
+            imag[index] = 0;
+        }
+
+        for (int index = fftSampleSize; index < timeData.length; index++) {
+            real[index % fftSampleSize] += timeData[index];
+        }
+
+        fftPlan.transform(real, imag);
+    }
+
+    /**
+     * <pre>
+     * Executa a FFT de uma amostra real, transformando amostra no domínio de tempo para o domínio de frequência.
+     *
+     * As N amostras reais são empacotadas em uma FFT complexa de N/2 pontos, reduzindo o custo pela metade.
+     * Após esta operação, <i>getReal()</i> e <i>getImag()</i> retornam apenas os N/2+1 valores não redundantes do espectro.
+     *
+     * <b>IMPORTANTE:</b> Desejável executar a função de janelamento <i>applyWindow()</i> antes desta operação.
+     * </pre>
+     *
+     * @param timeData - Amostra real no domínio de tempo
+     */
+    public void executeRealFFT(double[] timeData) {
+        if (real == null || real.length != fftPlan.getSpectrumSize()) {
+            real = new double[fftPlan.getSpectrumSize()];
+            imag = new double[fftPlan.getSpectrumSize()];
+        }
+
+        fftPlan.realTransform(timeData, real, imag);
+    }
+
+    /**
+     * <pre>
+     * Executa a FFT real de um bloco de frames armazenados em um único array.
+     *
+     * O frame <i>f</i> inicia na posição <i>offset + f * stride</i> e é completado com zeros além do final do array.
+     * O espectro do frame <i>f</i> (N/2+1 valores) é gravado a partir da posição <i>f * (N/2+1)</i> de <i>real</i> e <i>imag</i>.
+     * Os frames são transformados em grupos, reduzindo o custo por frame.
+     *
+     * <b>IMPORTANTE:</b> Não altera os valores retornados por <i>getReal()</i> e <i>getImag()</i>.
+     * </pre>
+     *
+     * @param frames    - Frames no domínio de tempo
+     * @param offset    - Posição da primeira amostra do primeiro frame
+     * @param stride    - Distância entre as primeiras amostras de frames consecutivos
+     * @param numFrames - Número de frames
+     * @param real      - Parte real dos espectros (<i>numFrames * (N/2+1)</i> posições)
+     * @param imag      - Parte imaginária dos espectros (<i>numFrames * (N/2+1)</i> posições)
+     */
+    public void executeRealFFTBatch(double[] frames, int offset, int stride, int numFrames, double[] real, double[] imag) {
+        fftPlan.realTransformBatch(frames, offset, stride, numFrames, real, imag);
     }
 
     /**
@@ -41,7 +119,7 @@ public class FFT {
      * @return real
      */
     public double[] getReal() {
-        return fftColumbia.getReal();
+        return real;
     }
 
     /**
@@ -54,7 +132,7 @@ public class FFT {
      * @return imag
      */
     public double[] getImag() {
-        return fftColumbia.getImag();
+        return imag;
     }
 
     /**
@@ -67,7 +145,24 @@ public class FFT {
      * @return amplitude
      */
     public double[] getAmplitudes() {
-        return fftColumbia.getAmplitudes();
+        return getAmplitudes(new double[fftPlan.getSize() / 2]);
+    }
+
+    /**
+     * <pre>
+     * Retorna as amplitudes em dBFS no array informado, evitando a alocação de um novo array a cada frame.
+     *
+     * <b>IMPORTANTE:</b> Os primeiros valores são correspondentes às frequências mais baixas, enquanto os últimos valores são correspondentes às frequências mais altas.
+     * </pre>
+     *
+     * @param amplitudes - Array de saída (N/2 posições)
+     *
+     * @return amplitude
+     */
+    public double[] getAmplitudes(double[] amplitudes) {
+        fftPlan.amplitudes(real, imag, amplitudes);
+
+        return amplitudes;
     }
 
 }
\ No newline at end of file
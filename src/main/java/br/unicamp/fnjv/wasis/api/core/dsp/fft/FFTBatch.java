@@ -0,0 +1,333 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.fft;
+
+/**
+ * <pre>
+ * FFT of blocks of real frames stored in a single array.
+ *
+ * The frames are transformed in groups of <i>GROUP_FRAMES</i>, transposed into the work buffers: one row per sample,
+ * holding that sample of every frame of the group (row[sample][frame]). Every butterfly of the packed size/2 points
+ * mixed radix-4/2 FFT is then applied to all frames of the group in the innermost loop, which accesses the same
+ * position of each row and can be auto-vectorized by the JIT compiler. The lookup tables are loaded once per butterfly
+ * instead of once per frame, and the bit-reversal permutation only swaps row references.
+ * </pre>
+ *
+ * @author Leandro Tacioli
+ */
+final class FFTBatch {
+
+    /** Number of frames transformed together. */
+    static final int GROUP_FRAMES = 16;
+
+    /** Number of samples of the real frames (Power of 2, at least 2). */
+    private final int size;
+
+    /** Number of points of the packed complex FFT (size/2). */
+    private final int half;
+
+    /** half = 2**log2Half. */
+    private final int log2Half;
+
+    // Lookup tables of the packed FFT - e^(-2*pi*i*k/half) for k < half
+    private final double[] halfCos;
+    private final double[] halfSin;
+
+    // Lookup tables of the unpacking - e^(-2*pi*i*k/size) for k < size/2
+    private final double[] cos;
+    private final double[] sin;
+
+    /** Bit-reversal permutation of the packed FFT - Pairs of rows (i, j) to be swapped, with i < j. */
+    private final int[] bitReversalSwaps;
+
+    /** Transposed work buffers (real and imaginary rows) - One pair per thread, since plans are shared by the whole process. */
+    private final ThreadLocal<double[][][]> buffers;
+
+    /**
+     * FFT of blocks of real frames stored in a single array.
+     *
+     * @param size - Number of samples of the real frames (Power of 2, at least 2)
+     * @param cos  - Cosine lookup table of the <i>size</i> points FFT
+     * @param sin  - Sine lookup table of the <i>size</i> points FFT
+     */
+    FFTBatch(int size, double[] cos, double[] sin) {
+        this.size = size;
+        this.half = size / 2;
+        this.log2Half = Integer.numberOfTrailingZeros(half);
+        this.cos = cos;
+        this.sin = sin;
+
+        halfCos = new double[half];
+        halfSin = new double[half];
+
+        for (int i = 0; i < half; i++) {
+            halfCos[i] = Math.cos(-2 * Math.PI * i / half);
+            halfSin[i] = Math.sin(-2 * Math.PI * i / half);
+        }
+
+        int totalSwaps = 0;
+
+        for (int i = 0; i < half; i++) {
+            if (i < reverseBits(i)) {
+                totalSwaps++;
+            }
+        }
+
+        bitReversalSwaps = new int[2 * totalSwaps];
+
+        for (int i = 0, indexSwap = 0; i < half; i++) {
+            int j = reverseBits(i);
+
+            if (i < j) {
+                bitReversalSwaps[indexSwap++] = i;
+                bitReversalSwaps[indexSwap++] = j;
+            }
+        }
+
+        // One extra row holds the Nyquist frequency
+        buffers = ThreadLocal.withInitial(() -> new double[][][]{new double[half + 1][GROUP_FRAMES], new double[half + 1][GROUP_FRAMES]});
+    }
+
+    /**
+     * Reverses the <i>log2Half</i> lower bits of a position.
+     *
+     * @param position
+     *
+     * @return reversedPosition
+     */
+    private int reverseBits(int position) {
+        return log2Half == 0 ? 0 : Integer.reverse(position) >>> (32 - log2Half);
+    }
+
+    /**
+     * <pre>
+     * FFT of a block of real frames stored in a single array.
+     *
+     * The frame <i>f</i> starts at <i>offset + f * stride</i> and is padded with zeros beyond the end of <i>frames</i>.
+     * The spectrum of the frame <i>f</i> is written at <i>f * (size/2+1)</i> of <i>real</i> and <i>imag</i>.
+     * </pre>
+     *
+     * @param frames    - Frames in the time domain
+     * @param offset    - Position of the first sample of the first frame
+     * @param stride    - Distance between the first samples of consecutive frames
+     * @param numFrames - Number of frames
+     * @param real      - Real part of the spectra (<i>numFrames * (size/2+1)</i> positions)
+     * @param imag      - Imaginary part of the spectra (<i>numFrames * (size/2+1)</i> positions)
+     */
+    void realTransform(double[] frames, int offset, int stride, int numFrames, double[] real, double[] imag) {
+        double[][][] buffer = buffers.get();
+        double[][] rowsReal = buffer[0];
+        double[][] rowsImag = buffer[1];
+
+        int spectrumSize = half + 1;
+
+        for (int firstFrame = 0; firstFrame < numFrames; firstFrame += GROUP_FRAMES) {
+            int groupFrames = Math.min(GROUP_FRAMES, numFrames - firstFrame);
+
+            pack(frames, offset + firstFrame * stride, stride, groupFrames, rowsReal, rowsImag);
+
+            bitReverse(rowsReal, rowsImag);
+            butterflies(rowsReal, rowsImag);
+            unpack(rowsReal, rowsImag);
+
+            // Frame-major output
+            for (int k = 0; k <= half; k++) {
+                double[] rowReal = rowsReal[k];
+                double[] rowImag = rowsImag[k];
+
+                for (int indexFrame = 0, position = firstFrame * spectrumSize + k; indexFrame < groupFrames; indexFrame++, position += spectrumSize) {
+                    real[position] = rowReal[indexFrame];
+                    imag[position] = rowImag[indexFrame];
+                }
+            }
+        }
+    }
+
+    /**
+     * Packs the frames of a group - Even samples go to the real rows, odd samples to the imaginary rows.
+     */
+    private void pack(double[] frames, int offset, int stride, int groupFrames, double[][] rowsReal, double[][] rowsImag) {
+        // Complete frames are transposed row by row, reading all frames of the group at once
+        int completeFrames = 0;
+
+        while (completeFrames < groupFrames && offset + completeFrames * stride + size <= frames.length) {
+            completeFrames++;
+        }
+
+        for (int index = 0; index < half; index++) {
+            double[] rowReal = rowsReal[index];
+            double[] rowImag = rowsImag[index];
+
+            for (int indexFrame = 0, position = offset + 2 * index; indexFrame < completeFrames; indexFrame++, position += stride) {
+                rowReal[indexFrame] = frames[position];
+                rowImag[indexFrame] = frames[position + 1];
+            }
+        }
+
+        // Frames crossing the end of the array, and the unused frames of the last group, are padded with zeros
+        for (int indexFrame = completeFrames; indexFrame < GROUP_FRAMES; indexFrame++) {
+            int frameOffset = offset + indexFrame * stride;
+            int available = (indexFrame < groupFrames) ? Math.max(0, Math.min(size, frames.length - frameOffset)) : 0;
+
+            for (int index = 0; index < half; index++) {
+                rowsReal[index][indexFrame] = (2 * index < available) ? frames[frameOffset + 2 * index] : 0;
+                rowsImag[index][indexFrame] = (2 * index + 1 < available) ? frames[frameOffset + 2 * index + 1] : 0;
+            }
+        }
+    }
+
+    /**
+     * Bit-reversal permutation of the rows - Only the row references are swapped.
+     */
+    private void bitReverse(double[][] rowsReal, double[][] rowsImag) {
+        for (int indexSwap = 0; indexSwap < bitReversalSwaps.length; indexSwap += 2) {
+            int i = bitReversalSwaps[indexSwap];
+            int j = bitReversalSwaps[indexSwap + 1];
+
+            double[] t = rowsReal[i];
+            rowsReal[i] = rowsReal[j];
+            rowsReal[j] = t;
+            t = rowsImag[i];
+            rowsImag[i] = rowsImag[j];
+            rowsImag[j] = t;
+        }
+    }
+
+    /**
+     * Mixed radix-4/2 DIT butterflies of the packed FFT (see <i>FFTMixedRadix</i>).
+     */
+    private void butterflies(double[][] rowsReal, double[][] rowsImag) {
+        // Length of the sub-transforms already computed
+        int quarter = 1;
+
+        // Radix-2 stage - Only when log2(half) is odd
+        if (log2Half % 2 == 1) {
+            for (int k = 0; k < half; k += 2) {
+                double[] topReal = rowsReal[k];
+                double[] topImag = rowsImag[k];
+                double[] bottomReal = rowsReal[k + 1];
+                double[] bottomImag = rowsImag[k + 1];
+
+                for (int indexFrame = 0; indexFrame < GROUP_FRAMES; indexFrame++) {
+                    double xr = bottomReal[indexFrame];
+                    double xi = bottomImag[indexFrame];
+
+                    bottomReal[indexFrame] = topReal[indexFrame] - xr;
+                    bottomImag[indexFrame] = topImag[indexFrame] - xi;
+                    topReal[indexFrame] = topReal[indexFrame] + xr;
+                    topImag[indexFrame] = topImag[indexFrame] + xi;
+                }
+            }
+
+            quarter = 2;
+        }
+
+        // Radix-4 stages
+        for (; quarter < half; quarter *= 4) {
+            int span = 4 * quarter;
+            int tableStride = half / span;
+
+            for (int j = 0; j < quarter; j++) {
+                int a = j * tableStride;
+
+                double c1 = halfCos[a];
+                double s1 = halfSin[a];
+                double c2 = halfCos[2 * a];
+                double s2 = halfSin[2 * a];
+                double c3 = halfCos[3 * a];
+                double s3 = halfSin[3 * a];
+
+                for (int k = j; k < half; k += span) {
+                    double[] x0r = rowsReal[k];
+                    double[] x0i = rowsImag[k];
+                    double[] x1r = rowsReal[k + quarter];
+                    double[] x1i = rowsImag[k + quarter];
+                    double[] x2r = rowsReal[k + 2 * quarter];
+                    double[] x2i = rowsImag[k + 2 * quarter];
+                    double[] x3r = rowsReal[k + 3 * quarter];
+                    double[] x3i = rowsImag[k + 3 * quarter];
+
+                    for (int indexFrame = 0; indexFrame < GROUP_FRAMES; indexFrame++) {
+                        double a0r = x0r[indexFrame];
+                        double a0i = x0i[indexFrame];
+                        double a1r = c2 * x1r[indexFrame] - s2 * x1i[indexFrame];
+                        double a1i = s2 * x1r[indexFrame] + c2 * x1i[indexFrame];
+                        double a2r = c1 * x2r[indexFrame] - s1 * x2i[indexFrame];
+                        double a2i = s1 * x2r[indexFrame] + c1 * x2i[indexFrame];
+                        double a3r = c3 * x3r[indexFrame] - s3 * x3i[indexFrame];
+                        double a3i = s3 * x3r[indexFrame] + c3 * x3i[indexFrame];
+
+                        double sum01r = a0r + a1r;
+                        double sum01i = a0i + a1i;
+                        double dif01r = a0r - a1r;
+                        double dif01i = a0i - a1i;
+                        double sum23r = a2r + a3r;
+                        double sum23i = a2i + a3i;
+                        double dif23r = a2r - a3r;
+                        double dif23i = a2i - a3i;
+
+                        x0r[indexFrame] = sum01r + sum23r;
+                        x0i[indexFrame] = sum01i + sum23i;
+                        x2r[indexFrame] = sum01r - sum23r;
+                        x2i[indexFrame] = sum01i - sum23i;
+
+                        // -i * (a2 - a3) and +i * (a2 - a3)
+                        x1r[indexFrame] = dif01r + dif23i;
+                        x1i[indexFrame] = dif01i - dif23r;
+                        x3r[indexFrame] = dif01r - dif23i;
+                        x3i[indexFrame] = dif01i + dif23r;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Unpacks the spectra of the real frames (see <i>FFTColumbia.unpackRealSpectrum</i>).
+     */
+    private void unpack(double[][] rowsReal, double[][] rowsImag) {
+        // DC and Nyquist bins
+        for (int indexFrame = 0; indexFrame < GROUP_FRAMES; indexFrame++) {
+            double x = rowsReal[0][indexFrame];
+            double y = rowsImag[0][indexFrame];
+
+            rowsReal[0][indexFrame] = x + y;
+            rowsImag[0][indexFrame] = 0;
+            rowsReal[half][indexFrame] = x - y;
+            rowsImag[half][indexFrame] = 0;
+        }
+
+        for (int k = 1; k <= half / 2; k++) {
+            double[] lowerReal = rowsReal[k];
+            double[] lowerImag = rowsImag[k];
+            double[] upperReal = rowsReal[half - k];
+            double[] upperImag = rowsImag[half - k];
+
+            double c = cos[k];
+            double s = sin[k];
+
+            for (int indexFrame = 0; indexFrame < GROUP_FRAMES; indexFrame++) {
+                double ar = lowerReal[indexFrame];
+                double ai = lowerImag[indexFrame];
+                double br = upperReal[indexFrame];
+                double bi = -upperImag[indexFrame];
+
+                // Even part
+                double er = (ar + br) / 2;
+                double ei = (ai + bi) / 2;
+
+                // Odd part
+                double or = (ai - bi) / 2;
+                double oi = -(ar - br) / 2;
+
+                // Odd part multiplied by the twiddle factor
+                double tr = c * or - s * oi;
+                double ti = c * oi + s * or;
+
+                lowerReal[indexFrame] = er + tr;
+                lowerImag[indexFrame] = ei + ti;
+                upperReal[indexFrame] = er - tr;
+                upperImag[indexFrame] = ti - ei;
+            }
+        }
+    }
+
+}
\ No newline at end of file
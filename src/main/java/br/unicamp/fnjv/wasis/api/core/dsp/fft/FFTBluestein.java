@@ -0,0 +1,128 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.fft;
+
+/**
+ * <pre>
+ * In-place FFT of a complex sequence of any size, using Bluestein's algorithm (Chirp Z-transform).
+ *
+ * Since nk = (n^2 + k^2 - (k-n)^2) / 2, the DFT is rewritten as a circular convolution with the chirp
+ * c[n] = e^(-i*pi*n^2/size):
+ *
+ * X[k] = c[k] * Sum_n {(x[n] * c[n]) * conj(c[k-n])}
+ *
+ * The convolution is computed by mixed radix-4/2 FFTs of the next power of 2 not lesser than 2*size - 1.
+ * </pre>
+ *
+ * @author Leandro Tacioli
+ */
+final class FFTBluestein implements FFTKernel {
+
+    /** Number of samples of the FFT. */
+    private final int size;
+
+    /** Number of samples of the convolution FFTs (Power of 2). */
+    private final int convolutionSize;
+
+    /** FFT used to compute the convolution. */
+    private final FFTMixedRadix convolutionKernel;
+
+    // Chirp - e^(-i*pi*n^2/size)
+    private final double[] chirpReal;
+    private final double[] chirpImag;
+
+    // FFT of the convolution filter conj(c[n]) - Already scaled by 1/convolutionSize
+    private final double[] filterReal;
+    private final double[] filterImag;
+
+    /** Work buffers - One pair per thread, since plans are shared by the whole process. */
+    private final ThreadLocal<double[][]> buffers;
+
+    /**
+     * In-place FFT of a complex sequence of any size, using Bluestein's algorithm.
+     *
+     * @param size - Number of samples of the FFT
+     */
+    FFTBluestein(int size) {
+        this.size = size;
+
+        // Next power of 2 not lesser than 2*size - 1
+        int minimumSize = 2 * size - 1;
+        this.convolutionSize = Integer.bitCount(minimumSize) == 1 ? minimumSize : Integer.highestOneBit(minimumSize) << 1;
+
+        this.convolutionKernel = new FFTMixedRadix(convolutionSize);
+
+        chirpReal = new double[size];
+        chirpImag = new double[size];
+
+        for (int n = 0; n < size; n++) {
+            // n^2 mod 2*size keeps the angle accurate for large values of n
+            long square = ((long) n * n) % (2L * size);
+            double angle = -Math.PI * square / size;
+
+            chirpReal[n] = Math.cos(angle);
+            chirpImag[n] = Math.sin(angle);
+        }
+
+        filterReal = new double[convolutionSize];
+        filterImag = new double[convolutionSize];
+
+        for (int n = 0; n < size; n++) {
+            filterReal[n] = chirpReal[n];
+            filterImag[n] = -chirpImag[n];
+
+            if (n > 0) {
+                filterReal[convolutionSize - n] = chirpReal[n];
+                filterImag[convolutionSize - n] = -chirpImag[n];
+            }
+        }
+
+        convolutionKernel.transform(filterReal, filterImag);
+
+        for (int k = 0; k < convolutionSize; k++) {
+            filterReal[k] /= convolutionSize;
+            filterImag[k] /= convolutionSize;
+        }
+
+        buffers = ThreadLocal.withInitial(() -> new double[][]{new double[convolutionSize], new double[convolutionSize]});
+    }
+
+    @Override
+    public void transform(double[] real, double[] imag) {
+        double[][] buffer = buffers.get();
+        double[] bufferReal = buffer[0];
+        double[] bufferImag = buffer[1];
+
+        // x[n] * c[n]
+        for (int n = 0; n < size; n++) {
+            bufferReal[n] = real[n] * chirpReal[n] - imag[n] * chirpImag[n];
+            bufferImag[n] = real[n] * chirpImag[n] + imag[n] * chirpReal[n];
+        }
+
+        for (int n = size; n < convolutionSize; n++) {
+            bufferReal[n] = 0;
+            bufferImag[n] = 0;
+        }
+
+        convolutionKernel.transform(bufferReal, bufferImag);
+
+        // Product with the filter - Conjugated, so the inverse FFT can be computed by a forward FFT
+        for (int k = 0; k < convolutionSize; k++) {
+            double productReal = bufferReal[k] * filterReal[k] - bufferImag[k] * filterImag[k];
+            double productImag = bufferReal[k] * filterImag[k] + bufferImag[k] * filterReal[k];
+
+            bufferReal[k] = productReal;
+            bufferImag[k] = -productImag;
+        }
+
+        convolutionKernel.transform(bufferReal, bufferImag);
+
+        // X[k] = c[k] * conj(convolution[k])
+        for (int k = 0; k < size; k++) {
+            double convolutionReal = bufferReal[k];
+            double convolutionImag = -bufferImag[k];
+
+            real[k] = convolutionReal * chirpReal[k] - convolutionImag * chirpImag[k];
+            imag[k] = convolutionReal * chirpImag[k] + convolutionImag * chirpReal[k];
+        }
+    }
+
+}
\ No newline at end of file
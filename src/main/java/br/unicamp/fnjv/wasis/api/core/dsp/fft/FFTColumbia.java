@@ -9,21 +9,31 @@ public class FFTColumbia {
 
     private int n, m;
 
-    // Lookup tables - Only need to recompute when size of FFT changes.
+    // Lookup tables - Shared by every FFT of the same size (see FFTPlan).
     private double[] cos;
     private double[] sin;
 
+    /** Plan holding the lookup tables of this FFT size. */
+    private FFTPlan plan;
+
     /** Real Part. */
     private double[] real;
 
     /** Imaginary Part. */
     private double[] imag;
 
+    // Work buffers - Allocated on the first transform and reused by the following ones.
+    private double[] complexReal;
+    private double[] complexImag;
+    private double[] halfReal;
+    private double[] halfImag;
+
     /**
      * <pre>
      * Returns the Real Part.
      *
      * <b>IMPORTANT:</b> The first values correspond to lower frequencies, while the last values correspond to higher frequencies.
+     * <b>IMPORTANT:</b> The returned array is overwritten by the next transform.
      * </pre>
      *
      * @return real
@@ -37,6 +47,7 @@ public class FFTColumbia {
      * Returns the Imaginary Part.
      *
      * <b>IMPORTANT:</b> The first values correspond to lower frequencies, while the last values correspond to higher frequencies.
+     * <b>IMPORTANT:</b> The returned array is overwritten by the next transform.
      * </pre>
      *
      * @return imag
@@ -55,16 +66,22 @@ public class FFTColumbia {
      * @return amplitudes
      */
     public double[] getAmplitudes() {
-        double[] amplitudes = new double[n / 2];
-
-        for (int index = 0; index < n / 2; index++) {
-            double squaredMagnitude = (real[index] * real[index] + imag[index] * imag[index]) / n;
-
-            double amplitudeMagnitude = 10 * Math.log10(squaredMagnitude);
-            amplitudeMagnitude = amplitudeMagnitude - 96.00d;      // 96dB range for 16 bits audio format
+        return getAmplitudes(new double[n / 2]);
+    }
 
-            amplitudes[index] = amplitudeMagnitude;
-        }
+    /**
+     * <pre>
+     * Returns the amplitudes in dBFS into a buffer supplied by the caller.
+     *
+     * <b>IMPORTANT:</b> The first values correspond to lower frequencies, while the last values correspond to higher frequencies.
+     * </pre>
+     *
+     * @param amplitudes - Output buffer (n/2 positions)
+     *
+     * @return amplitudes
+     */
+    public double[] getAmplitudes(double[] amplitudes) {
+        plan.amplitudes(real, imag, amplitudes);
 
         return amplitudes;
     }
@@ -75,22 +92,14 @@ public class FFTColumbia {
      * @param n
      */
     public FFTColumbia(int n) {
-        this.n = n;
-        this.m = (int) (Math.log(n) / Math.log(2));
-
-        // Make sure n is a power of 2
-        if (n != (1 << m)) {
-            throw new RuntimeException("FFT length must be power of 2");
-        }
+        this.plan = FFTPlan.getPlan(n, FFTEngine.COLUMBIA);
 
-        // Precompute tables
-        cos = new double[n / 2];
-        sin = new double[n / 2];
+        this.n = n;
+        this.m = plan.getLog2Size();
 
-        for (int i = 0; i < n / 2; i++) {
-            cos[i] = Math.cos(-2 * Math.PI * i / n);
-            sin[i] = Math.sin(-2 * Math.PI * i / n);
-        }
+        // Precomputed tables
+        this.cos = plan.getCos();
+        this.sin = plan.getSin();
     }
 
     /***************************************************************
@@ -117,8 +126,10 @@ public class FFTColumbia {
     }
 
     public void fft(double[] x, double[] y) {
-        int i, j, k, n1, n2, a;
-        double c, s, t1, t2;
+        if (complexReal == null) {
+            complexReal = new double[n];
+            complexImag = new double[n];
+        }
 
         /*
          * Create complex input sequence equivalent to the real
@@ -127,8 +138,8 @@ public class FFTColumbia {
          * we incur in aliasing. If it's greater, we pad the input
          * sequence with zeros.
          */
-        double[] xNew = new double[n];
-        double[] yNew = new double[n];
+        double[] xNew = complexReal;
+        double[] yNew = complexImag;
 
         if (n < x.length) {
             int index = 0;
@@ -159,11 +170,56 @@ public class FFTColumbia {
         x = xNew;
         y = yNew;
 
+        transform(x, y, n, m, cos, sin, 1);
+
+        real = x;   // Real Part
+        imag = y;   // Imaginary Part
+    }
+
+    /**
+     * <pre>
+     * Performs a Fast Fourier Transform of a real input sequence.
+     *
+     * The n real samples are packed into an n/2 complex sequence (even samples as the real part, odd samples
+     * as the imaginary part), transformed by an n/2 points FFT and then unpacked into the spectrum.
+     * Only the n/2+1 non-redundant bins are kept, since the remaining ones are their complex conjugates.
+     * </pre>
+     *
+     * @param x - Real input sequence
+     */
+    public void realFft(double[] x) {
+        if (halfReal == null) {
+            // The extra bin holds the Nyquist frequency after unpacking
+            halfReal = new double[n / 2 + 1];
+            halfImag = new double[n / 2 + 1];
+        }
+
+        plan.realTransform(x, halfReal, halfImag);
+
+        real = halfReal;   // Real Part
+        imag = halfImag;   // Imaginary Part
+    }
+
+    /**
+     * In-place radix-2 DIT FFT of a complex sequence.
+     *
+     * @param x           - Real part of the sequence
+     * @param y           - Imaginary part of the sequence
+     * @param size        - Length of the FFT (Power of 2)
+     * @param log2Size    - size = 2**log2Size
+     * @param cos         - Cosine lookup table
+     * @param sin         - Sine lookup table
+     * @param tableStride - Stride used to access the lookup tables (Lookup tables size / (size / 2))
+     */
+    static void transform(double[] x, double[] y, int size, int log2Size, double[] cos, double[] sin, int tableStride) {
+        int i, j, k, n1, n2, a;
+        double c, s, t1, t2;
+
         // Bit-reverse
         j = 0;
-        n2 = n / 2;
+        n2 = size / 2;
 
-        for (i = 1; i < n - 1; i++) {
+        for (i = 1; i < size - 1; i++) {
             n1 = n2;
 
             while (j >= n1) {
@@ -187,7 +243,7 @@ public class FFTColumbia {
         n1 = 0;
         n2 = 1;
 
-        for (i = 0; i < m; i++) {
+        for (i = 0; i < log2Size; i++) {
             n1 = n2;
             n2 = n2 + n2;
             a = 0;
@@ -195,9 +251,9 @@ public class FFTColumbia {
             for (j = 0; j < n1; j++) {
                 c = cos[a];
                 s = sin[a];
-                a += 1 << (m - i - 1);
+                a += (1 << (log2Size - i - 1)) * tableStride;
 
-                for (k = j; k < n; k = k + n2) {
+                for (k = j; k < size; k = k + n2) {
                     t1 = c * x[k + n1] - s * y[k + n1];
                     t2 = s * x[k + n1] + c * y[k + n1];
                     x[k + n1] = x[k] - t1;
@@ -207,9 +263,165 @@ public class FFTColumbia {
                 }
             }
         }
+    }
 
-        real = x;   // Real Part
-        imag = y;   // Imaginary Part
+    /**
+     * In-place radix-2 DIT FFT of a complex sequence in single precision (same butterflies as the double one).
+     *
+     * @param x           - Real part of the sequence
+     * @param y           - Imaginary part of the sequence
+     * @param size        - Length of the FFT (Power of 2)
+     * @param log2Size    - size = 2**log2Size
+     * @param cos         - Cosine lookup table
+     * @param sin         - Sine lookup table
+     * @param tableStride - Stride used to access the lookup tables (Lookup tables size / (size / 2))
+     */
+    static void transform(float[] x, float[] y, int size, int log2Size, float[] cos, float[] sin, int tableStride) {
+        int i, j, k, n1, n2, a;
+        float c, s, t1, t2;
+
+        // Bit-reverse
+        j = 0;
+        n2 = size / 2;
+
+        for (i = 1; i < size - 1; i++) {
+            n1 = n2;
+
+            while (j >= n1) {
+                j = j - n1;
+                n1 = n1 / 2;
+            }
+
+            j = j + n1;
+
+            if (i < j) {
+                t1 = x[i];
+                x[i] = x[j];
+                x[j] = t1;
+                t1 = y[i];
+                y[i] = y[j];
+                y[j] = t1;
+            }
+        }
+
+        // FFT
+        n1 = 0;
+        n2 = 1;
+
+        for (i = 0; i < log2Size; i++) {
+            n1 = n2;
+            n2 = n2 + n2;
+            a = 0;
+
+            for (j = 0; j < n1; j++) {
+                c = cos[a];
+                s = sin[a];
+                a += (1 << (log2Size - i - 1)) * tableStride;
+
+                for (k = j; k < size; k = k + n2) {
+                    t1 = c * x[k + n1] - s * y[k + n1];
+                    t2 = s * x[k + n1] + c * y[k + n1];
+                    x[k + n1] = x[k] - t1;
+                    y[k + n1] = y[k] - t2;
+                    x[k] = x[k] + t1;
+                    y[k] = y[k] + t2;
+                }
+            }
+        }
+    }
+
+    /**
+     * <pre>
+     * Unpacks the spectrum of a real sequence from the FFT of its packed n/2 complex sequence.
+     *
+     * Z[k] being the packed spectrum and W = e^(-2*pi*i/n):
+     * X[k]       = (Z[k] + conj(Z[n/2-k])) / 2 + W^k * (Z[k] - conj(Z[n/2-k])) / 2i
+     * X[n/2 - k] = conj((Z[k] + conj(Z[n/2-k])) / 2 - W^k * (Z[k] - conj(Z[n/2-k])) / 2i)
+     * </pre>
+     *
+     * @param x    - Real part (n/2 + 1 positions)
+     * @param y    - Imaginary part (n/2 + 1 positions)
+     * @param half - n/2
+     * @param cos  - Cosine lookup table of the n points FFT
+     * @param sin  - Sine lookup table of the n points FFT
+     */
+    static void unpackRealSpectrum(double[] x, double[] y, int half, double[] cos, double[] sin) {
+        // DC and Nyquist bins
+        double dc = x[0] + y[0];
+        double nyquist = x[0] - y[0];
+
+        x[0] = dc;
+        y[0] = 0;
+        x[half] = nyquist;
+        y[half] = 0;
+
+        for (int k = 1; k <= half / 2; k++) {
+            double ar = x[k];
+            double ai = y[k];
+            double br = x[half - k];
+            double bi = -y[half - k];
+
+            // Even part
+            double er = (ar + br) / 2;
+            double ei = (ai + bi) / 2;
+
+            // Odd part
+            double or = (ai - bi) / 2;
+            double oi = -(ar - br) / 2;
+
+            // Odd part multiplied by the twiddle factor
+            double tr = cos[k] * or - sin[k] * oi;
+            double ti = cos[k] * oi + sin[k] * or;
+
+            x[k] = er + tr;
+            y[k] = ei + ti;
+            x[half - k] = er - tr;
+            y[half - k] = ti - ei;
+        }
+    }
+
+    /**
+     * Unpacks the spectrum of a real sequence in single precision (see the double version).
+     *
+     * @param x    - Real part (n/2 + 1 positions)
+     * @param y    - Imaginary part (n/2 + 1 positions)
+     * @param half - n/2
+     * @param cos  - Cosine lookup table of the n points FFT
+     * @param sin  - Sine lookup table of the n points FFT
+     */
+    static void unpackRealSpectrum(float[] x, float[] y, int half, float[] cos, float[] sin) {
+        // DC and Nyquist bins
+        float dc = x[0] + y[0];
+        float nyquist = x[0] - y[0];
+
+        x[0] = dc;
+        y[0] = 0;
+        x[half] = nyquist;
+        y[half] = 0;
+
+        for (int k = 1; k <= half / 2; k++) {
+            float ar = x[k];
+            float ai = y[k];
+            float br = x[half - k];
+            float bi = -y[half - k];
+
+            // Even part
+            float er = (ar + br) / 2;
+            float ei = (ai + bi) / 2;
+
+            // Odd part
+            float or = (ai - bi) / 2;
+            float oi = -(ar - br) / 2;
+
+            // Odd part multiplied by the twiddle factor
+            float tr = cos[k] * or - sin[k] * oi;
+            float ti = cos[k] * oi + sin[k] * or;
+
+            x[k] = er + tr;
+            y[k] = ei + ti;
+            x[half - k] = er - tr;
+            y[half - k] = ti - ei;
+        }
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.fft;
+
+/**
+ * FFT engines available behind the FFT facade.
+ *
+ * @author Leandro Tacioli
+ */
+public enum FFTEngine {
+
+    /** Radix-2 DIT (Reference implementation) - Sizes must be power of 2. */
+    COLUMBIA,
+
+    /** Mixed radix-4/2 DIT with precomputed bit-reversal tables - Other sizes are handled by Bluestein's algorithm. */
+    MIXED_RADIX
+
+}
\ No newline at end of file
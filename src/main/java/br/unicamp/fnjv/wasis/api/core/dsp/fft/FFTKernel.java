@@ -0,0 +1,18 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.fft;
+
+/**
+ * In-place FFT of a complex sequence with a fixed size.
+ *
+ * @author Leandro Tacioli
+ */
+interface FFTKernel {
+
+    /**
+     * In-place FFT of a complex sequence.
+     *
+     * @param real - Real part
+     * @param imag - Imaginary part
+     */
+    void transform(double[] real, double[] imag);
+
+}
\ No newline at end of file
@@ -0,0 +1,163 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.fft;
+
+/**
+ * <pre>
+ * In-place mixed radix-4/2 DIT FFT of a complex sequence.
+ *
+ * The bit-reversal permutation is precomputed as a table of swaps. Pairs of radix-2 stages are merged into
+ * radix-4 stages, which need 3 complex multiplications per butterfly instead of 4. When log2(size) is odd,
+ * a single radix-2 stage (without twiddle factors) is performed first.
+ * </pre>
+ *
+ * @author Leandro Tacioli
+ */
+final class FFTMixedRadix implements FFTKernel {
+
+    /** Number of samples of the FFT (Power of 2). */
+    private final int size;
+
+    /** size = 2**log2Size. */
+    private final int log2Size;
+
+    // Lookup tables - e^(-2*pi*i*k/size) for k < size (Radix-4 butterflies use up to 3/4 of the circle)
+    private final double[] cos;
+    private final double[] sin;
+
+    /** Bit-reversal permutation - Pairs of positions (i, j) to be swapped, with i < j. */
+    private final int[] bitReversalSwaps;
+
+    /**
+     * In-place mixed radix-4/2 DIT FFT of a complex sequence.
+     *
+     * @param size - Number of samples of the FFT (Power of 2)
+     */
+    FFTMixedRadix(int size) {
+        this.size = size;
+        this.log2Size = Integer.numberOfTrailingZeros(size);
+
+        cos = new double[size];
+        sin = new double[size];
+
+        for (int i = 0; i < size; i++) {
+            cos[i] = Math.cos(-2 * Math.PI * i / size);
+            sin[i] = Math.sin(-2 * Math.PI * i / size);
+        }
+
+        int totalSwaps = 0;
+
+        for (int i = 0; i < size; i++) {
+            if (i < reverseBits(i)) {
+                totalSwaps++;
+            }
+        }
+
+        bitReversalSwaps = new int[2 * totalSwaps];
+
+        for (int i = 0, indexSwap = 0; i < size; i++) {
+            int j = reverseBits(i);
+
+            if (i < j) {
+                bitReversalSwaps[indexSwap++] = i;
+                bitReversalSwaps[indexSwap++] = j;
+            }
+        }
+    }
+
+    /**
+     * Reverses the <i>log2Size</i> lower bits of a position.
+     *
+     * @param position
+     *
+     * @return reversedPosition
+     */
+    private int reverseBits(int position) {
+        return log2Size == 0 ? 0 : Integer.reverse(position) >>> (32 - log2Size);
+    }
+
+    @Override
+    public void transform(double[] real, double[] imag) {
+        // Bit-reverse
+        for (int indexSwap = 0; indexSwap < bitReversalSwaps.length; indexSwap += 2) {
+            int i = bitReversalSwaps[indexSwap];
+            int j = bitReversalSwaps[indexSwap + 1];
+
+            double t = real[i];
+            real[i] = real[j];
+            real[j] = t;
+            t = imag[i];
+            imag[i] = imag[j];
+            imag[j] = t;
+        }
+
+        // Length of the sub-transforms already computed
+        int quarter = 1;
+
+        // Radix-2 stage - Only when log2(size) is odd
+        if (log2Size % 2 == 1) {
+            for (int k = 0; k < size; k += 2) {
+                double xr = real[k + 1];
+                double xi = imag[k + 1];
+
+                real[k + 1] = real[k] - xr;
+                imag[k + 1] = imag[k] - xi;
+                real[k] = real[k] + xr;
+                imag[k] = imag[k] + xi;
+            }
+
+            quarter = 2;
+        }
+
+        // Radix-4 stages
+        for (; quarter < size; quarter *= 4) {
+            int span = 4 * quarter;
+            int tableStride = size / span;
+
+            for (int j = 0; j < quarter; j++) {
+                int a = j * tableStride;
+
+                double c1 = cos[a];
+                double s1 = sin[a];
+                double c2 = cos[2 * a];
+                double s2 = sin[2 * a];
+                double c3 = cos[3 * a];
+                double s3 = sin[3 * a];
+
+                for (int k = j; k < size; k += span) {
+                    int i1 = k + quarter;
+                    int i2 = i1 + quarter;
+                    int i3 = i2 + quarter;
+
+                    double a0r = real[k];
+                    double a0i = imag[k];
+                    double a1r = c2 * real[i1] - s2 * imag[i1];
+                    double a1i = s2 * real[i1] + c2 * imag[i1];
+                    double a2r = c1 * real[i2] - s1 * imag[i2];
+                    double a2i = s1 * real[i2] + c1 * imag[i2];
+                    double a3r = c3 * real[i3] - s3 * imag[i3];
+                    double a3i = s3 * real[i3] + c3 * imag[i3];
+
+                    double sum01r = a0r + a1r;
+                    double sum01i = a0i + a1i;
+                    double dif01r = a0r - a1r;
+                    double dif01i = a0i - a1i;
+                    double sum23r = a2r + a3r;
+                    double sum23i = a2i + a3i;
+                    double dif23r = a2r - a3r;
+                    double dif23i = a2i - a3i;
+
+                    real[k] = sum01r + sum23r;
+                    imag[k] = sum01i + sum23i;
+                    real[i2] = sum01r - sum23r;
+                    imag[i2] = sum01i - sum23i;
+
+                    // -i * (a2 - a3) and +i * (a2 - a3)
+                    real[i1] = dif01r + dif23i;
+                    imag[i1] = dif01i - dif23r;
+                    real[i3] = dif01r - dif23i;
+                    imag[i3] = dif01i + dif23r;
+                }
+            }
+        }
+    }
+
+}
\ No newline at end of file
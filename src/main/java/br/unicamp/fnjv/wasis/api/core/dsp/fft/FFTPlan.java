@@ -0,0 +1,466 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.fft;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <pre>
+ * FFT plan - Holds the lookup tables of an FFT size.
+ *
+ * Plans are immutable and shared by the whole process, so the lookup tables are computed only once per FFT size and engine.
+ * The transforms write their results into buffers supplied by the caller, hence transforming a frame does not allocate any memory.
+ * </pre>
+ *
+ * @author Leandro Tacioli
+ */
+public final class FFTPlan {
+
+    /** Plans already created - One per engine and FFT size. */
+    private static final Map<FFTEngine, Map<Integer, FFTPlan>> PLANS = new EnumMap<>(FFTEngine.class);
+
+    static {
+        for (FFTEngine engine : FFTEngine.values()) {
+            PLANS.put(engine, new ConcurrentHashMap<>());
+        }
+    }
+
+    /** Engine used when none is informed. */
+    private static volatile FFTEngine defaultEngine = FFTEngine.COLUMBIA;
+
+    /** Number of samples of the FFT. */
+    private final int size;
+
+    /** size = 2**log2Size (-1 when size is not a power of 2). */
+    private final int log2Size;
+
+    /** FFT engine. */
+    private final FFTEngine engine;
+
+    // Lookup tables - e^(-2*pi*i*k/size) for k < size/2
+    private final double[] cos;
+    private final double[] sin;
+
+    // Lookup tables in single precision - Rounded from the double ones
+    private final float[] cosFloat;
+    private final float[] sinFloat;
+
+    /** FFT of complex sequences with <i>size</i> samples. */
+    private final FFTKernel kernel;
+
+    /** FFT of complex sequences with <i>size</i>/2 samples - Used by real sequences (null when size is odd). */
+    private final FFTKernel halfKernel;
+
+    /** Work buffers of real sequences with odd size - One pair per thread, since plans are shared by the whole process. */
+    private final ThreadLocal<double[][]> oddSizeBuffers;
+
+    /** FFT of blocks of frames (null when size is not a power of 2 greater than 1). */
+    private final FFTBatch batch;
+
+    /** Spectrum buffers of the batches transformed one frame at a time (null when <i>batch</i> is used) - One pair per thread. */
+    private final ThreadLocal<double[][]> batchFallbackBuffers;
+
+    /**
+     * Returns the plan of an FFT size, using the default engine.
+     *
+     * @param size - Number of samples of the FFT
+     *
+     * @return plan
+     */
+    public static FFTPlan getPlan(int size) {
+        return getPlan(size, defaultEngine);
+    }
+
+    /**
+     * Returns the plan of an FFT size.
+     *
+     * @param size   - Number of samples of the FFT (Power of 2 for the <i>COLUMBIA</i> engine)
+     * @param engine - FFT engine
+     *
+     * @return plan
+     */
+    public static FFTPlan getPlan(int size, FFTEngine engine) {
+        return PLANS.get(engine).computeIfAbsent(size, planSize -> new FFTPlan(planSize, engine));
+    }
+
+    /**
+     * Returns the engine used when none is informed.
+     *
+     * @return defaultEngine
+     */
+    public static FFTEngine getDefaultEngine() {
+        return defaultEngine;
+    }
+
+    /**
+     * Changes the engine used when none is informed.
+     *
+     * @param engine - FFT engine
+     */
+    public static void setDefaultEngine(FFTEngine engine) {
+        defaultEngine = engine;
+    }
+
+    /**
+     * FFT plan - Holds the lookup tables of an FFT size.
+     *
+     * @param size   - Number of samples of the FFT
+     * @param engine - FFT engine
+     */
+    private FFTPlan(int size, FFTEngine engine) {
+        boolean isPowerOf2 = size >= 1 && Integer.bitCount(size) == 1;
+
+        if (size < 1 || (engine == FFTEngine.COLUMBIA && !isPowerOf2)) {
+            throw new IllegalArgumentException("FFT length must be power of 2");
+        }
+
+        this.size = size;
+        this.log2Size = isPowerOf2 ? Integer.numberOfTrailingZeros(size) : -1;
+        this.engine = engine;
+
+        // Precompute tables
+        double[] cos = new double[size / 2];
+        double[] sin = new double[size / 2];
+
+        for (int i = 0; i < size / 2; i++) {
+            cos[i] = Math.cos(-2 * Math.PI * i / size);
+            sin[i] = Math.sin(-2 * Math.PI * i / size);
+        }
+
+        this.cos = cos;
+        this.sin = sin;
+
+        this.cosFloat = new float[size / 2];
+        this.sinFloat = new float[size / 2];
+
+        for (int i = 0; i < size / 2; i++) {
+            this.cosFloat[i] = (float) cos[i];
+            this.sinFloat[i] = (float) sin[i];
+        }
+
+        if (engine == FFTEngine.COLUMBIA) {
+            int log2Size = this.log2Size;
+
+            // The half size FFT uses every other entry of the lookup tables
+            this.kernel = (real, imag) -> FFTColumbia.transform(real, imag, size, log2Size, cos, sin, 1);
+            this.halfKernel = (real, imag) -> FFTColumbia.transform(real, imag, size / 2, log2Size - 1, cos, sin, 2);
+
+        } else {
+            this.kernel = createKernel(size);
+            this.halfKernel = (size % 2 == 0) ? createKernel(size / 2) : null;
+        }
+
+        this.oddSizeBuffers = (halfKernel == null) ? ThreadLocal.withInitial(() -> new double[][]{new double[size], new double[size]}) : null;
+        this.batch = (log2Size >= 1) ? new FFTBatch(size, cos, sin) : null;
+        this.batchFallbackBuffers = (batch == null) ? ThreadLocal.withInitial(() -> new double[][]{new double[size / 2 + 1], new double[size / 2 + 1]}) : null;
+    }
+
+    /**
+     * Creates the mixed radix-4/2 FFT for powers of 2, or Bluestein's FFT for the other sizes.
+     *
+     * @param size - Number of samples of the FFT
+     *
+     * @return kernel
+     */
+    private static FFTKernel createKernel(int size) {
+        if (Integer.bitCount(size) == 1) {
+            return new FFTMixedRadix(size);
+        } else {
+            return new FFTBluestein(size);
+        }
+    }
+
+    /**
+     * Returns the number of samples of the FFT.
+     *
+     * @return size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of non-redundant bins of the spectrum of a real sequence (size/2 + 1).
+     *
+     * @return spectrumSize
+     */
+    public int getSpectrumSize() {
+        return size / 2 + 1;
+    }
+
+    /**
+     * Returns the FFT engine.
+     *
+     * @return engine
+     */
+    public FFTEngine getEngine() {
+        return engine;
+    }
+
+    int getLog2Size() {
+        return log2Size;
+    }
+
+    double[] getCos() {
+        return cos;
+    }
+
+    double[] getSin() {
+        return sin;
+    }
+
+    /**
+     * In-place FFT of a complex sequence.
+     *
+     * @param real - Real part (<i>size</i> positions)
+     * @param imag - Imaginary part (<i>size</i> positions)
+     */
+    public void transform(double[] real, double[] imag) {
+        kernel.transform(real, imag);
+    }
+
+    /**
+     * <pre>
+     * FFT of a real sequence, writing the <i>size</i>/2+1 non-redundant bins into the buffers supplied by the caller.
+     *
+     * If the number of samples is greater than the FFT size, we incur in aliasing. If it's lesser, the sequence is padded with zeros.
+     * </pre>
+     *
+     * @param timeData - Real sequence in the time domain
+     * @param real     - Real part of the spectrum (<i>size</i>/2+1 positions)
+     * @param imag     - Imaginary part of the spectrum (<i>size</i>/2+1 positions)
+     */
+    public void realTransform(double[] timeData, double[] real, double[] imag) {
+        realTransform(timeData, 0, timeData.length, real, imag);
+    }
+
+    /**
+     * FFT of a real sequence, writing the <i>size</i>/2+1 non-redundant bins into the buffers supplied by the caller.
+     *
+     * @param timeData - Real sequence in the time domain
+     * @param offset   - Position of the first sample in <i>timeData</i>
+     * @param length   - Number of samples
+     * @param real     - Real part of the spectrum (<i>size</i>/2+1 positions)
+     * @param imag     - Imaginary part of the spectrum (<i>size</i>/2+1 positions)
+     */
+    public void realTransform(double[] timeData, int offset, int length, double[] real, double[] imag) {
+        if (halfKernel == null) {
+            realTransformOddSize(timeData, offset, length, real, imag);
+            return;
+        }
+
+        int half = size / 2;
+
+        // Even samples go to the real part, odd samples to the imaginary part
+        int packedLength = Math.min(length, size);
+
+        for (int index = 0; index < packedLength / 2; index++) {
+            real[index] = timeData[offset + 2 * index];
+            imag[index] = timeData[offset + 2 * index + 1];
+        }
+
+        for (int index = packedLength / 2; index <= half; index++) {
+            real[index] = 0;
+            imag[index] = 0;
+        }
+
+        if (packedLength % 2 == 1) {
+            real[packedLength / 2] = timeData[offset + packedLength - 1];
+        }
+
+        // Aliasing of the samples beyond the FFT size
+        for (int index = size; index < length; index++) {
+            int position = index % size;
+
+            if (position % 2 == 0) {
+                real[position / 2] += timeData[offset + index];
+            } else {
+                imag[position / 2] += timeData[offset + index];
+            }
+        }
+
+        // size/2 points FFT
+        halfKernel.transform(real, imag);
+
+        FFTColumbia.unpackRealSpectrum(real, imag, half, cos, sin);
+    }
+
+    /**
+     * <pre>
+     * FFT of a real sequence in single precision, writing the <i>size</i>/2+1 non-redundant bins into the buffers supplied by the caller.
+     *
+     * The samples are packed as in the double version and transformed by the radix-2 FFT, whatever the engine of the plan.
+     * Only sizes power of 2 (greater than 1) are supported.
+     * </pre>
+     *
+     * @param timeData - Real sequence in the time domain
+     * @param offset   - Position of the first sample in <i>timeData</i>
+     * @param length   - Number of samples
+     * @param real     - Real part of the spectrum (<i>size</i>/2+1 positions)
+     * @param imag     - Imaginary part of the spectrum (<i>size</i>/2+1 positions)
+     */
+    public void realTransform(float[] timeData, int offset, int length, float[] real, float[] imag) {
+        if (log2Size < 1) {
+            throw new IllegalArgumentException("FFT length must be power of 2");
+        }
+
+        int half = size / 2;
+
+        // Even samples go to the real part, odd samples to the imaginary part
+        int packedLength = Math.min(length, size);
+
+        for (int index = 0; index < packedLength / 2; index++) {
+            real[index] = timeData[offset + 2 * index];
+            imag[index] = timeData[offset + 2 * index + 1];
+        }
+
+        for (int index = packedLength / 2; index <= half; index++) {
+            real[index] = 0;
+            imag[index] = 0;
+        }
+
+        if (packedLength % 2 == 1) {
+            real[packedLength / 2] = timeData[offset + packedLength - 1];
+        }
+
+        // Aliasing of the samples beyond the FFT size
+        for (int index = size; index < length; index++) {
+            int position = index % size;
+
+            if (position % 2 == 0) {
+                real[position / 2] += timeData[offset + index];
+            } else {
+                imag[position / 2] += timeData[offset + index];
+            }
+        }
+
+        // size/2 points FFT - Every other entry of the lookup tables
+        FFTColumbia.transform(real, imag, half, log2Size - 1, cosFloat, sinFloat, 2);
+
+        FFTColumbia.unpackRealSpectrum(real, imag, half, cosFloat, sinFloat);
+    }
+
+    /**
+     * <pre>
+     * FFT of a block of real frames stored in a single array, writing the <i>size</i>/2+1 non-redundant bins of each frame.
+     *
+     * The frame <i>f</i> starts at <i>offset + f * stride</i> - Overlapping frames (stride lesser than size) are read in place.
+     * Frames crossing the end of <i>frames</i> are padded with zeros.
+     * The spectrum of the frame <i>f</i> is written at <i>f * spectrumSize</i> of <i>real</i> and <i>imag</i>.
+     *
+     * For powers of 2 the frames are transformed in groups by a mixed radix-4/2 FFT, whatever the engine of the plan,
+     * each butterfly being applied to every frame of the group at once. Other sizes transform one frame at a time.
+     * </pre>
+     *
+     * @param frames    - Frames in the time domain
+     * @param offset    - Position of the first sample of the first frame
+     * @param stride    - Distance between the first samples of consecutive frames
+     * @param numFrames - Number of frames
+     * @param real      - Real part of the spectra (<i>numFrames * spectrumSize</i> positions)
+     * @param imag      - Imaginary part of the spectra (<i>numFrames * spectrumSize</i> positions)
+     */
+    public void realTransformBatch(double[] frames, int offset, int stride, int numFrames, double[] real, double[] imag) {
+        if (batch != null) {
+            batch.realTransform(frames, offset, stride, numFrames, real, imag);
+            return;
+        }
+
+        int spectrumSize = getSpectrumSize();
+        double[][] buffer = batchFallbackBuffers.get();
+        double[] frameReal = buffer[0];
+        double[] frameImag = buffer[1];
+
+        for (int indexFrame = 0; indexFrame < numFrames; indexFrame++) {
+            int frameOffset = offset + indexFrame * stride;
+            int length = Math.max(0, Math.min(size, frames.length - frameOffset));
+
+            realTransform(frames, frameOffset, length, frameReal, frameImag);
+
+            System.arraycopy(frameReal, 0, real, indexFrame * spectrumSize, spectrumSize);
+            System.arraycopy(frameImag, 0, imag, indexFrame * spectrumSize, spectrumSize);
+        }
+    }
+
+    /**
+     * FFT of a real sequence with odd size - The samples can not be packed, so a complex FFT is performed.
+     *
+     * @param timeData - Real sequence in the time domain
+     * @param offset   - Position of the first sample in <i>timeData</i>
+     * @param length   - Number of samples
+     * @param real     - Real part of the spectrum (<i>size</i>/2+1 positions)
+     * @param imag     - Imaginary part of the spectrum (<i>size</i>/2+1 positions)
+     */
+    private void realTransformOddSize(double[] timeData, int offset, int length, double[] real, double[] imag) {
+        double[][] buffer = oddSizeBuffers.get();
+        double[] bufferReal = buffer[0];
+        double[] bufferImag = buffer[1];
+
+        for (int index = 0; index < size; index++) {
+            bufferReal[index] = (index < length) ? timeData[offset + index] : 0;
+            bufferImag[index] = 0;
+        }
+
+        // Aliasing of the samples beyond the FFT size
+        for (int index = size; index < length; index++) {
+            bufferReal[index % size] += timeData[offset + index];
+        }
+
+        kernel.transform(bufferReal, bufferImag);
+
+        System.arraycopy(bufferReal, 0, real, 0, getSpectrumSize());
+        System.arraycopy(bufferImag, 0, imag, 0, getSpectrumSize());
+    }
+
+    /**
+     * <pre>
+     * Computes the amplitudes in dBFS of the first <i>size</i>/2 bins of a spectrum.
+     *
+     * <b>IMPORTANT:</b> The first values correspond to lower frequencies, while the last values correspond to higher frequencies.
+     * </pre>
+     *
+     * @param real       - Real part of the spectrum
+     * @param imag       - Imaginary part of the spectrum
+     * @param amplitudes - Output buffer (<i>size</i>/2 positions)
+     */
+    public void amplitudes(double[] real, double[] imag, double[] amplitudes) {
+        amplitudes(real, imag, 0, amplitudes);
+    }
+
+    /**
+     * Computes the amplitudes in dBFS of the first <i>size</i>/2 bins of a spectrum stored from <i>offset</i> (e.g. a spectrum of a batch).
+     *
+     * @param real       - Real part of the spectrum
+     * @param imag       - Imaginary part of the spectrum
+     * @param offset     - Position of the first bin in <i>real</i> and <i>imag</i>
+     * @param amplitudes - Output buffer (<i>size</i>/2 positions)
+     */
+    public void amplitudes(double[] real, double[] imag, int offset, double[] amplitudes) {
+        for (int index = 0; index < size / 2; index++) {
+            double squaredMagnitude = (real[offset + index] * real[offset + index] + imag[offset + index] * imag[offset + index]) / size;
+
+            double amplitudeMagnitude = 10 * Math.log10(squaredMagnitude);
+            amplitudeMagnitude = amplitudeMagnitude - 96.00d;      // 96dB range for 16 bits audio format
+
+            amplitudes[index] = amplitudeMagnitude;
+        }
+    }
+
+    /**
+     * Computes the amplitudes in dBFS of the first <i>size</i>/2 bins of a single precision spectrum (The logarithm is taken in double).
+     *
+     * @param real       - Real part of the spectrum
+     * @param imag       - Imaginary part of the spectrum
+     * @param amplitudes - Output buffer (<i>size</i>/2 positions)
+     */
+    public void amplitudes(float[] real, float[] imag, double[] amplitudes) {
+        for (int index = 0; index < size / 2; index++) {
+            float squaredMagnitude = (real[index] * real[index] + imag[index] * imag[index]) / size;
+
+            double amplitudeMagnitude = 10 * Math.log10(squaredMagnitude);
+            amplitudeMagnitude = amplitudeMagnitude - 96.00d;      // 96dB range for 16 bits audio format
+
+            amplitudes[index] = amplitudeMagnitude;
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,261 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.filters;
+
+import br.unicamp.fnjv.wasis.api.core.dsp.windowing.WindowFunction;
+
+import java.util.Arrays;
+
+/**
+ * <pre>
+ * Band-pass filtering and decimation of an audio signal - Resamples a band-limited segment to the lowest sufficient sample rate.
+ *
+ * The decimation factor is the largest integer that keeps the final frequency of the band within <i>PASSBAND</i> of
+ * the new Nyquist frequency (Ex: a segment under 4 kHz at 44.1 kHz is resampled to 11025 Hz). Two linear phase FIR
+ * filters (Windowed sinc - Blackman window) are applied:
+ *  - Low-pass, computing only the kept output samples (Polyphase decimation) - Its transition band lies between the
+ *    end of the passband and its alias, so no aliasing reaches the band;
+ *  - High-pass at the new sample rate, removing the frequencies under the initial frequency of the band - Only when
+ *    the initial frequency is at least <i>outputSampleRate</i> / <i>HIGH_PASS_RATIO</i>, which bounds its length.
+ *
+ * The delays of the filters are compensated: output sample <i>n</i> corresponds to input sample <i>n * factor</i>,
+ * and a signal of <i>N</i> samples gives <i>ceil(N / factor)</i> samples.
+ *
+ * Ex: Features of a frog call from 500 Hz to 4 kHz
+ * Decimator decimator = new Decimator(44100, 500, 4000);
+ * MFCC mfcc = new MFCC(decimator.getOutputSampleRate());
+ * mfcc.process(decimator.decimate(audioSignal));
+ * </pre>
+ *
+ * @author Leandro Tacioli
+ */
+public class Decimator {
+
+    /** Fraction of the new Nyquist frequency kept as passband. */
+    public static final double PASSBAND = 0.8;
+
+    /** Lowest initial frequency filtered by the high-pass - Output sample rate divided by this ratio. */
+    public static final int HIGH_PASS_RATIO = 64;
+
+    /** Transition band of the Blackman window (Multiple of the sample rate divided by the number of coefficients). */
+    private static final double BLACKMAN_TRANSITION = 5.5;
+
+    private final double sampleRate;
+    private final int factor;
+
+    /** Low-pass and decimation (Null = No decimation). */
+    private final PolyphaseFilter lowPassFilter;
+
+    /** High-pass at the output sample rate (Null = No high-pass). */
+    private final PolyphaseFilter highPassFilter;
+
+    private boolean isFinished;
+
+    /**
+     * Band-pass filtering and decimation of an audio signal.
+     *
+     * @param sampleRate       - Sample Rate of the signal
+     * @param initialFrequency - Lower limit of the band (Hz - 0 = Low-pass only)
+     * @param finalFrequency   - Upper limit of the band (Hz)
+     */
+    public Decimator(double sampleRate, double initialFrequency, double finalFrequency) {
+        if (!(sampleRate > 0)) {
+            throw new IllegalArgumentException("Sample rate must be greater than zero");
+        }
+
+        if (!(finalFrequency > 0) || finalFrequency > sampleRate / 2 || initialFrequency < 0 || initialFrequency >= finalFrequency) {
+            throw new IllegalArgumentException("Invalid frequency band: " + initialFrequency + " - " + finalFrequency);
+        }
+
+        this.sampleRate = sampleRate;
+        this.factor = Math.max(1, (int) Math.floor(PASSBAND * sampleRate / (2 * finalFrequency)));
+
+        double outputSampleRate = sampleRate / factor;
+
+        if (factor > 1) {
+            // Cutoff at the new Nyquist frequency - Transition band from the end of the passband to its alias
+            double transitionBand = (1 - PASSBAND) * outputSampleRate;
+
+            double[] coefficients = getLowPass(outputSampleRate / 2 / sampleRate, getWindow(BLACKMAN_TRANSITION * sampleRate / transitionBand));
+
+            this.lowPassFilter = new PolyphaseFilter(coefficients, factor);
+        } else {
+            this.lowPassFilter = null;
+        }
+
+        if (initialFrequency >= outputSampleRate / HIGH_PASS_RATIO) {
+            // Transition band right under the initial frequency
+            double transitionBand = Math.min(initialFrequency, (1 - PASSBAND) * outputSampleRate);
+
+            double[] window = getWindow(BLACKMAN_TRANSITION * outputSampleRate / transitionBand);
+            double[] coefficients = getLowPass((initialFrequency - transitionBand / 2) / outputSampleRate, window);
+
+            // High-pass = Impulse - Low-pass
+            for (int index = 0; index < coefficients.length; index++) {
+                coefficients[index] = ((index == coefficients.length / 2) ? 1 : 0) - coefficients[index];
+            }
+
+            this.highPassFilter = new PolyphaseFilter(coefficients, 1);
+        } else {
+            this.highPassFilter = null;
+        }
+    }
+
+    /**
+     * Copy of the filters of another decimator, without their state.
+     *
+     * @param decimator
+     */
+    private Decimator(Decimator decimator) {
+        this.sampleRate = decimator.sampleRate;
+        this.factor = decimator.factor;
+        this.lowPassFilter = (decimator.lowPassFilter != null) ? decimator.lowPassFilter.copy() : null;
+        this.highPassFilter = (decimator.highPassFilter != null) ? decimator.highPassFilter.copy() : null;
+    }
+
+    /**
+     * Returns a symmetric Blackman window with an odd number of coefficients.
+     *
+     * @param minimumLength - Minimum number of coefficients
+     *
+     * @return window
+     */
+    private static double[] getWindow(double minimumLength) {
+        int halfLength = (int) Math.ceil(minimumLength / 2);
+
+        double[] window = new WindowFunction(WindowFunction.BLACKMAN).getCoefficients(2 * halfLength);
+
+        // Periodic window of 2 * halfLength samples, closed by its first coefficient
+        window = Arrays.copyOf(window, 2 * halfLength + 1);
+        window[2 * halfLength] = window[0];
+
+        return window;
+    }
+
+    /**
+     * Returns the coefficients of a windowed sinc low-pass filter with unit gain at 0 Hz.
+     *
+     * @param cutoff - Cutoff frequency divided by the sample rate
+     * @param window - Window (Odd number of coefficients)
+     *
+     * @return coefficients
+     */
+    private static double[] getLowPass(double cutoff, double[] window) {
+        int center = window.length / 2;
+
+        double[] coefficients = new double[window.length];
+        double sum = 0;
+
+        for (int index = 0; index < coefficients.length; index++) {
+            int n = index - center;
+
+            double sinc = (n == 0) ? 2 * cutoff : Math.sin(2 * Math.PI * cutoff * n) / (Math.PI * n);
+
+            coefficients[index] = sinc * window[index];
+            sum += coefficients[index];
+        }
+
+        for (int index = 0; index < coefficients.length; index++) {
+            coefficients[index] /= sum;
+        }
+
+        return coefficients;
+    }
+
+    /**
+     * Returns the decimation factor.
+     *
+     * @return factor
+     */
+    public int getFactor() {
+        return factor;
+    }
+
+    /**
+     * Returns the sample rate of the decimated signal.
+     *
+     * @return outputSampleRate
+     */
+    public double getOutputSampleRate() {
+        return sampleRate / factor;
+    }
+
+    /**
+     * Returns whether the signal is changed at all (Decimation or high-pass).
+     *
+     * @return isFiltering
+     */
+    public boolean isFiltering() {
+        return lowPassFilter != null || highPassFilter != null;
+    }
+
+    /**
+     * Filters and decimates a whole signal.
+     *
+     * @param audioSignal
+     *
+     * @return decimatedSignal - <i>ceil(audioSignal.length / factor)</i> samples
+     */
+    public double[] decimate(double[] audioSignal) {
+        if (!isFiltering()) {
+            return audioSignal.clone();
+        }
+
+        Decimator decimator = new Decimator(this);
+
+        double[] outputs = decimator.accept(audioSignal, 0, audioSignal.length);
+        double[] lastOutputs = decimator.end();
+
+        double[] decimatedSignal = Arrays.copyOf(outputs, outputs.length + lastOutputs.length);
+        System.arraycopy(lastOutputs, 0, decimatedSignal, outputs.length, lastOutputs.length);
+
+        return decimatedSignal;
+    }
+
+    /**
+     * Receives samples of the signal, returning the output samples completed by them.
+     *
+     * @param samples - Samples
+     * @param offset  - Position of the first sample
+     * @param length  - Number of samples
+     *
+     * @return outputs - Decimated samples (Possibly empty)
+     */
+    public double[] accept(double[] samples, int offset, int length) {
+        if (isFinished) {
+            throw new IllegalStateException("Decimation already finished");
+        }
+
+        double[] outputs = (lowPassFilter != null) ? lowPassFilter.accept(samples, offset, length) : Arrays.copyOfRange(samples, offset, offset + length);
+
+        if (highPassFilter != null) {
+            outputs = highPassFilter.accept(outputs, 0, outputs.length);
+        }
+
+        return outputs;
+    }
+
+    /**
+     * Returns the remaining output samples, considering zeros after the end of the signal.
+     *
+     * @return outputs - Decimated samples (Possibly empty)
+     */
+    public double[] end() {
+        if (isFinished) {
+            throw new IllegalStateException("Decimation already finished");
+        }
+
+        isFinished = true;
+
+        double[] outputs = (lowPassFilter != null) ? lowPassFilter.end() : new double[0];
+
+        if (highPassFilter != null) {
+            double[] filteredOutputs = highPassFilter.accept(outputs, 0, outputs.length);
+            double[] lastOutputs = highPassFilter.end();
+
+            outputs = Arrays.copyOf(filteredOutputs, filteredOutputs.length + lastOutputs.length);
+            System.arraycopy(lastOutputs, 0, outputs, filteredOutputs.length, lastOutputs.length);
+        }
+
+        return outputs;
+    }
+
+}
\ No newline at end of file
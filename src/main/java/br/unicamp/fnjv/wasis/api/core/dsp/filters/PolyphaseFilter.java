@@ -0,0 +1,129 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.filters;
+
+/**
+ * <pre>
+ * Linear phase FIR filter followed by decimation, computing only the kept output samples (Polyphase decimation).
+ *
+ * The delay of the filter is compensated: output sample <i>n</i> is centered on input sample <i>n * factor</i>,
+ * and a signal of <i>N</i> samples gives <i>ceil(N / factor)</i> samples. Input samples before the beginning
+ * or after the end of the signal are zero.
+ * </pre>
+ *
+ * @author Leandro Tacioli
+ */
+class PolyphaseFilter {
+
+    /** Coefficients of the filter (Symmetric - Odd number) - Shared by the copies of the filter. */
+    private final double[] coefficients;
+
+    /** Decimation factor. */
+    private final int factor;
+
+    /** Delay of the filter (Samples). */
+    private final int delay;
+
+    /** Last input samples (Circular buffer). */
+    private final double[] history;
+    private final int historyMask;
+
+    /** Number of input samples received. */
+    private long totalSamples;
+
+    /** Number of output samples emitted. */
+    private long totalOutputs;
+
+    /**
+     * Linear phase FIR filter followed by decimation.
+     *
+     * @param coefficients - Coefficients of the filter (Symmetric - Odd number)
+     * @param factor       - Decimation factor (1 = No decimation)
+     */
+    PolyphaseFilter(double[] coefficients, int factor) {
+        this.coefficients = coefficients;
+        this.factor = factor;
+        this.delay = coefficients.length / 2;
+        this.history = new double[Integer.highestOneBit(coefficients.length) << 1];
+        this.historyMask = history.length - 1;
+    }
+
+    /**
+     * Copy of the filter, without its state.
+     *
+     * @return polyphaseFilter
+     */
+    PolyphaseFilter copy() {
+        return new PolyphaseFilter(coefficients, factor);
+    }
+
+    int getNumCoefficients() {
+        return coefficients.length;
+    }
+
+    /**
+     * Receives samples of the signal, returning the output samples completed by them.
+     *
+     * @param samples - Samples
+     * @param offset  - Position of the first sample
+     * @param length  - Number of samples
+     *
+     * @return outputs - Possibly empty
+     */
+    double[] accept(double[] samples, int offset, int length) {
+        long availableOutputs = (totalSamples + length > delay) ? (totalSamples + length - delay - 1) / factor + 1 : 0;
+
+        double[] outputs = new double[(int) (availableOutputs - totalOutputs)];
+        int numOutputs = 0;
+
+        for (int index = offset; index < offset + length; index++) {
+            history[(int) (totalSamples & historyMask)] = samples[index];
+            totalSamples++;
+
+            // Output sample 'n' is complete when the input sample 'n * factor + delay' arrives
+            if (totalOutputs * factor + delay == totalSamples - 1) {
+                outputs[numOutputs++] = computeOutput(totalOutputs * factor + delay);
+                totalOutputs++;
+            }
+        }
+
+        return outputs;
+    }
+
+    /**
+     * Returns the remaining output samples.
+     *
+     * @return outputs - Possibly empty
+     */
+    double[] end() {
+        long numOutputs = (totalSamples + factor - 1) / factor;
+
+        double[] outputs = new double[(int) (numOutputs - totalOutputs)];
+
+        for (int index = 0; index < outputs.length; index++) {
+            outputs[index] = computeOutput(totalOutputs * factor + delay);
+            totalOutputs++;
+        }
+
+        return outputs;
+    }
+
+    /**
+     * Computes an output sample, skipping the input samples after the end of the signal and before its beginning.
+     *
+     * @param lastSample - Position of the newest input sample covered by the filter
+     *
+     * @return output
+     */
+    private double computeOutput(long lastSample) {
+        int firstCoefficient = (int) Math.max(0, lastSample - (totalSamples - 1));
+        int lastCoefficient = (int) Math.min(coefficients.length - 1, lastSample);
+
+        double output = 0;
+
+        for (int indexCoefficient = firstCoefficient; indexCoefficient <= lastCoefficient; indexCoefficient++) {
+            output += coefficients[indexCoefficient] * history[(int) ((lastSample - indexCoefficient) & historyMask)];
+        }
+
+        return output;
+    }
+
+}
\ No newline at end of file
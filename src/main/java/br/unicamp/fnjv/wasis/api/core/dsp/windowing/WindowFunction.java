@@ -1,5 +1,8 @@
 package br.unicamp.fnjv.wasis.api.core.dsp.windowing;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Funções de janelamento - Aprimora as características espectrais de uma amostra de sinal.
  *
@@ -22,8 +25,20 @@ public class WindowFunction {
     public static final Object[][] WINDOW_FUNCTIONS = new Object[][]{{BARTLETT,        BLACKMAN,        HAMMING,        HANNING,        RECTANGULAR},
                                                                      {BARTLETT_WINDOW, BLACKMAN_WINDOW, HAMMING_WINDOW, HANNING_WINDOW, RECTANGULAR_WINDOW}};
 
+    /** Janelas já calculadas - Uma tabela imutável por tipo de janela e tamanho, compartilhada por todas as threads. */
+    private static final Map<Integer, Map<Integer, double[]>> WINDOWS = new ConcurrentHashMap<>();
+
+    /** Janelas já calculadas em precisão simples (float) - Arredondadas a partir das tabelas em double. */
+    private static final Map<Integer, Map<Integer, float[]>> FLOAT_WINDOWS = new ConcurrentHashMap<>();
+
     private int windowType = HANNING_WINDOW;     // Padrão = HANNING
 
+    /** Última janela utilizada - Evita consultar o cache a cada frame. */
+    private double[] window;
+
+    /** Última janela em precisão simples utilizada. */
+    private float[] floatWindow;
+
     /**
      * Funções de janelamento - Aprimora as características espectrais de uma amostra de sinal.
      *
@@ -42,10 +57,72 @@ public class WindowFunction {
         for (int index = 0; index < WINDOW_FUNCTIONS[0].length; index++) {
             if (window.toUpperCase().equals(WINDOW_FUNCTIONS[0][index])) {
                 windowType = (int) WINDOW_FUNCTIONS[1][index];
+                this.window = null;
+                this.floatWindow = null;
             }
         }
     }
 
+    /**
+     * Retorna os coeficientes da janela.
+     *
+     * @param sampleSize - Tamanho da janela
+     *
+     * @return coefficients - Cópia da tabela de coeficientes
+     */
+    public double[] getCoefficients(int sampleSize) {
+        return getWindow(sampleSize).clone();
+    }
+
+    /**
+     * Retorna a tabela de coeficientes da janela, calculando-a apenas na primeira utilização de cada tipo e tamanho.
+     *
+     * @param sampleSize - Tamanho da janela
+     *
+     * @return window - Tabela compartilhada (não deve ser alterada)
+     */
+    private double[] getWindow(int sampleSize) {
+        double[] window = this.window;
+
+        if (window == null || window.length != sampleSize) {
+            window = WINDOWS.computeIfAbsent(windowType, type -> new ConcurrentHashMap<>())
+                            .computeIfAbsent(sampleSize, size -> createWindow(windowType, size));
+
+            this.window = window;
+        }
+
+        return window;
+    }
+
+    /**
+     * Retorna a tabela de coeficientes da janela em precisão simples, calculando-a apenas na primeira utilização de cada tipo e tamanho.
+     *
+     * @param sampleSize - Tamanho da janela
+     *
+     * @return floatWindow - Tabela compartilhada (não deve ser alterada)
+     */
+    private float[] getFloatWindow(int sampleSize) {
+        float[] floatWindow = this.floatWindow;
+
+        if (floatWindow == null || floatWindow.length != sampleSize) {
+            floatWindow = FLOAT_WINDOWS.computeIfAbsent(windowType, type -> new ConcurrentHashMap<>())
+                                       .computeIfAbsent(sampleSize, size -> {
+                                           double[] window = getWindow(size);
+                                           float[] coefficients = new float[size];
+
+                                           for (int i = 0; i < size; i++) {
+                                               coefficients[i] = (float) window[i];
+                                           }
+
+                                           return coefficients;
+                                       });
+
+            this.floatWindow = floatWindow;
+        }
+
+        return floatWindow;
+    }
+
     /**
      * Aprimora as características espectrais de frames de sinal.
      *
@@ -69,7 +146,76 @@ public class WindowFunction {
      * @return data - Amostra com função de janelamento aplicada
      */
     public double[] applyWindow(double[] data) {
-        int sampleSize = data.length;
+        double[] window = getWindow(data.length);
+
+        // Processes data
+        for (int i = 0; i < data.length; i++) {
+            data[i] *= window[i];
+        }
+
+        return data;
+    }
+
+    /**
+     * <pre>
+     * Aplica a função de janelamento copiando a amostra para outro array (ex: buffer da FFT) em uma única passagem.
+     *
+     * As posições além do final de <i>source</i> são consideradas zero.
+     * <i>source</i> e <i>destination</i> podem ser o mesmo array, desde que <i>sourceOffset</i> = <i>destinationOffset</i>.
+     * </pre>
+     *
+     * @param source            - Sinal de origem
+     * @param sourceOffset      - Posição da primeira amostra em <i>source</i>
+     * @param sampleSize        - Tamanho da janela
+     * @param destination       - Array de destino
+     * @param destinationOffset - Posição da primeira amostra em <i>destination</i>
+     */
+    public void applyWindow(double[] source, int sourceOffset, int sampleSize, double[] destination, int destinationOffset) {
+        double[] window = getWindow(sampleSize);
+
+        int available = Math.max(0, Math.min(sampleSize, source.length - sourceOffset));
+
+        for (int i = 0; i < available; i++) {
+            destination[destinationOffset + i] = source[sourceOffset + i] * window[i];
+        }
+
+        for (int i = available; i < sampleSize; i++) {
+            destination[destinationOffset + i] = 0;
+        }
+    }
+
+    /**
+     * Aplica a função de janelamento em precisão simples (float), copiando a amostra para outro array (ex: buffer da FFT).
+     *
+     * @param source            - Sinal de origem
+     * @param sourceOffset      - Posição da primeira amostra em <i>source</i>
+     * @param sampleSize        - Tamanho da janela
+     * @param destination       - Array de destino
+     * @param destinationOffset - Posição da primeira amostra em <i>destination</i>
+     */
+    public void applyWindow(float[] source, int sourceOffset, int sampleSize, float[] destination, int destinationOffset) {
+        float[] window = getFloatWindow(sampleSize);
+
+        int available = Math.max(0, Math.min(sampleSize, source.length - sourceOffset));
+
+        for (int i = 0; i < available; i++) {
+            destination[destinationOffset + i] = source[sourceOffset + i] * window[i];
+        }
+
+        for (int i = available; i < sampleSize; i++) {
+            destination[destinationOffset + i] = 0;
+        }
+    }
+
+    /**
+     * Calcula os coeficientes de uma janela.
+     *
+     * @param windowType - Tipo da janela
+     * @param sampleSize - Tamanho da janela
+     *
+     * @return window
+     */
+    private static double[] createWindow(int windowType, int sampleSize) {
         int m = sampleSize / 2;
 
         double r;
@@ -125,12 +271,7 @@ public class WindowFunction {
 
         }
 
-        // Processes data
-        for (int i = 0; i < data.length; i++) {
-            data[i] *= window[i];
-        }
-
-        return data;
+        return window;
     }
 
 }
\ No newline at end of file
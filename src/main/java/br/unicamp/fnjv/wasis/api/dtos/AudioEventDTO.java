@@ -0,0 +1,14 @@
+package br.unicamp.fnjv.wasis.api.dtos;
+
+import lombok.Data;
+
+@Data
+public class AudioEventDTO {
+
+    private int timeInitial;
+    private int timeFinal;
+    private int frequencyInitial;
+    private int frequencyFinal;
+    private double peakEnergy;
+
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package br.unicamp.fnjv.wasis.api.dtos;
+
+import lombok.Data;
+
+@Data
+public class PowerSpectrumDTO {
+
+    private int timeInitial;
+    private int timeFinal;
+    private int frequencyInitial;
+    private int frequencyFinal;
+    private double[] frequencies;
+    private double[] decibels;
+
+}
\ No newline at end of file
@@ -0,0 +1,25 @@
+package br.unicamp.fnjv.wasis.api.dtos;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class SpectrogramDTO {
+
+    private String hash;
+    private int sampleRate;
+    private long durationMilliseconds;
+    private int frameLength;
+    private int hopSize;
+    private String windowFunction;
+    private double minimumDecibels;
+    private double maximumDecibels;
+    private int tileSize;
+    private int frequencySamples;
+    private int verticalTiles;
+    private int zoomLevels;
+    private List<Long> columns;
+    private List<Integer> horizontalTiles;
+
+}
\ No newline at end of file
@@ -0,0 +1,95 @@
+package br.unicamp.fnjv.wasis.api.services;
+
+import br.unicamp.fnjv.wasis.api.core.dsp.features.AcousticEvent;
+import br.unicamp.fnjv.wasis.api.core.dsp.features.AcousticEventDetector;
+import br.unicamp.fnjv.wasis.api.core.dsp.features.FeatureConfig;
+import br.unicamp.fnjv.wasis.api.dtos.AudioEventDTO;
+import br.unicamp.fnjv.wasis.api.utils.exceptions.GeneralException;
+import br.unicamp.fnjv.wasis.api.utils.multimidia.wav.AudioWav;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <pre>
+ * Detecção automática de eventos acústicos dos arquivos de áudio armazenados.
+ *
+ * Os eventos são segmentos candidatos (Tempo e frequência inicial/final, como em <i>AudioFileSegment</i>),
+ * permitindo que a extração de características ignore os trechos de silêncio ou apenas com ruído de fundo.
+ * </pre>
+ *
+ * @author Leandro Tacioli
+ */
+@Service
+public class AudioEventService {
+
+    /** Número de amostras lidas do arquivo WAV por vez. */
+    private static final int READ_BLOCK_SAMPLES = 65536;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    /** Configuração dos frames da detecção (Inclui o motor de FFT configurado). */
+    @Autowired
+    private FeatureConfig featureConfig;
+
+    /**
+     * Detecta os eventos acústicos de um arquivo de áudio em uma única leitura do arquivo.
+     *
+     * @param hash - Hash SHA-256 do arquivo de áudio
+     *
+     * @return audioEventDTOs
+     */
+    public List<AudioEventDTO> getAudioEvents(String hash) {
+        AudioWav audioWav = new AudioWav(fileStorageService.getFilePathByHash(hash).toString(), hash);
+
+        try {
+            audioWav.loadAudio();
+
+            int sampleRate = audioWav.getAudioWavHeader().getSampleRate();
+
+            AcousticEventDetector acousticEventDetector = new AcousticEventDetector(featureConfig, sampleRate);
+
+            int numSamples = audioWav.getNumSamplesPerChannel();
+
+            double[] samples = new double[READ_BLOCK_SAMPLES];
+
+            for (int initialSample = 0; initialSample < numSamples; initialSample += READ_BLOCK_SAMPLES) {
+                int finalSample = Math.min(numSamples, initialSample + READ_BLOCK_SAMPLES) - 1;
+
+                audioWav.getAmplitudesChunk(initialSample, finalSample, samples);
+                acousticEventDetector.accept(samples, 0, finalSample - initialSample + 1);
+            }
+
+            acousticEventDetector.end();
+
+            List<AudioEventDTO> audioEventDTOs = new ArrayList<>();
+
+            for (AcousticEvent acousticEvent : acousticEventDetector.getEvents()) {
+                AudioEventDTO audioEventDTO = new AudioEventDTO();
+                audioEventDTO.setTimeInitial(acousticEvent.getTimeInitial(sampleRate));
+                audioEventDTO.setTimeFinal(acousticEvent.getTimeFinal(sampleRate));
+                audioEventDTO.setFrequencyInitial(acousticEvent.getInitialFrequency());
+                audioEventDTO.setFrequencyFinal(acousticEvent.getFinalFrequency());
+                audioEventDTO.setPeakEnergy(acousticEvent.getPeakEnergy());
+
+                audioEventDTOs.add(audioEventDTO);
+            }
+
+            return audioEventDTOs;
+
+        } catch (GeneralException e) {
+            throw e;
+
+        } catch (Exception e) {
+            throw new GeneralException(HttpStatus.INTERNAL_SERVER_ERROR, "Erro ao detectar os eventos do arquivo de áudio.", e.getMessage());
+
+        } finally {
+            audioWav.closeAudio();
+        }
+    }
+
+}
\ No newline at end of file
@@ -16,6 +16,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
@@ -32,24 +33,26 @@ public class AudioService {
 
     public AudioDTO loadAudio(MultipartFile file) {
         try {
-            AudioWavHeader header = new AudioWavHeader(file.getInputStream());
-            String filePathNameHashed = "";
+            // Armazena o arquivo lendo-o uma única vez - O hash e o início do arquivo (Header) são obtidos durante a cópia
+            FileStorageService.StoredFile storedFile = fileStorageService.storeFile(file, AudioWavHeader.HEADER_BYTE_LENGTH);
+
+            AudioWavHeader header = new AudioWavHeader(new ByteArrayInputStream(storedFile.getHeader()));
+            AudioWav audioWav;
 
             // Verifica se o Header do arquivo é válido
             if (header.loadHeader()) {
 
                 // Verifica se o arquivo WAV possui a configuração padrão utilizado pelo WASIS
                 if (header.getSampleRate() == AudioWavFormat.TARGET_SAMPLE_RATE && header.getBitsPerSample() == AudioWavFormat.TARGET_BIT_RATE) {
-                    filePathNameHashed = fileStorageService.storeFile(file);
+                    audioWav = new AudioWav(storedFile.getFilePath(), storedFile.getHash());
                 } else {
-                    filePathNameHashed = convertAudioFileToDefaultWav(file);
+                    audioWav = convertAudioFileToDefaultWav(storedFile.getFilePath());
                 }
 
             } else {
-                filePathNameHashed = convertAudioFileToDefaultWav(file);
+                audioWav = convertAudioFileToDefaultWav(storedFile.getFilePath());
             }
 
-            AudioWav audioWav = new AudioWav(filePathNameHashed);
             audioWav.loadAudio();
 
             AudioDTO audioDTO = new AudioDTO();
@@ -72,15 +75,16 @@ public class AudioService {
     }
 
     /**
-     * Converte o arquivo para um formato padrão WAV utilizado pelo WASIS.
+     * Converte um arquivo já armazenado para um formato padrão WAV utilizado pelo WASIS.
+     * <br>
+     * O hash do arquivo convertido, já calculado para nomeá-lo, é repassado ao <i>AudioWav</i> sem ler o arquivo novamente.
      *
-     * @param file
+     * @param filePathNameSource - Caminho do arquivo armazenado
      *
-     * @return filePathNameTargetHashed
+     * @return audioWav - Arquivo convertido (Caminho e hash), ainda não carregado
      */
-    public String convertAudioFileToDefaultWav(MultipartFile file) {
+    public AudioWav convertAudioFileToDefaultWav(String filePathNameSource) {
         try {
-            String filePathNameSource = fileStorageService.storeFile(file);
             String filePathNameTarget = fileStorageConfig.getFileStorageLocation() + File.separator + RandomStringUtils.randomAlphanumeric(10) + ".wav";
 
             File fileSource = new File(filePathNameSource);
@@ -104,7 +108,7 @@ public class AudioService {
                 System.out.println("Não foi possível excluir o arquivo - : " + filePathNameTarget);
             }
 
-            return filePathNameHashed;
+            return new AudioWav(filePathNameHashed, hashedFileTarget);
 
         } catch (Exception e) {
             throw new GeneralException(HttpStatus.INTERNAL_SERVER_ERROR, "Erro ao converter arquivo de áudio para o formato padrão WAV do WASIS.", e.getMessage());
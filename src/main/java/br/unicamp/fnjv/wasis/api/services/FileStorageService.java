@@ -11,11 +11,17 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
-import java.nio.file.FileAlreadyExistsException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.Optional;
 
 @Service
@@ -34,30 +40,78 @@ public class FileStorageService {
     }
 
     public String storeFile(MultipartFile file) {
+        return storeFile(file, 0).getFilePath();
+    }
+
+    /**
+     * Stores an uploaded file under its SHA-256 Checksum name (<i>{hash}.{extension}</i>), reading the upload only once:
+     * the file is copied to a temporary location while being hashed and while its first bytes are kept,
+     * and then atomically moved to its final name.
+     *
+     * @param file
+     * @param headerLength - Number of bytes kept from the beginning of the file (Ex: To parse its header without reading it again)
+     *
+     * @return storedFile
+     */
+    public StoredFile storeFile(MultipartFile file, int headerLength) {
         String storedFileName = "";
+        String hashedFileName = "";
         String originalFileName = StringUtils.cleanPath(file.getOriginalFilename());
 
+        Path temporaryLocation = null;
+
         try {
             String fileNameExtension = getFileExtension(file.getOriginalFilename());
-            String hashedFileName = SHA256.getHashFromFile(file);
+
+            // Copy file to a temporary location, hashing it in the same pass
+            temporaryLocation = Files.createTempFile(fileStorageLocation, "upload-", ".tmp");
+
+            HeaderCaptureChannel target;
+
+            try (InputStream inputStream = file.getInputStream();
+                 FileChannel fileChannel = FileChannel.open(temporaryLocation, StandardOpenOption.WRITE)) {
+                target = new HeaderCaptureChannel(fileChannel, headerLength);
+                hashedFileName = SHA256.getHashFromStream(inputStream, target);
+            }
+
             storedFileName = hashedFileName + ((fileNameExtension != null || !fileNameExtension.equals("")) ? ("." + fileNameExtension) : "");
 
-            // Copy file to the target location (Replacing with the SHA-256 Checksum name)
+            // Move file to the target location (Replacing with the SHA-256 Checksum name)
             Path targetLocation = fileStorageLocation.resolve(storedFileName);
 
-            try {
-                Files.copy(file.getInputStream(), targetLocation);
-            } catch (FileAlreadyExistsException ex) {
+            if (Files.exists(targetLocation)) {
                 System.out.println("Could not copy file - Hash: " + hashedFileName + " - File already exists.");
+            } else {
+                Files.move(temporaryLocation, targetLocation, StandardCopyOption.ATOMIC_MOVE);
             }
 
             storedFileName = targetLocation.toFile().getPath();
 
+            return new StoredFile(hashedFileName, storedFileName, target.getHeader());
+
         } catch (Exception ex) {
             throw new GeneralException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not store file '" + originalFileName + "'. Please try again!", ex.getMessage());
+
+        } finally {
+            deleteTemporaryFile(temporaryLocation);
         }
+    }
 
-        return storedFileName;
+    /**
+     * Deletes a temporary file, if it still exists.
+     *
+     * @param temporaryLocation
+     */
+    private void deleteTemporaryFile(Path temporaryLocation) {
+        if (temporaryLocation == null) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(temporaryLocation);
+        } catch (IOException ex) {
+            System.out.println("Could not delete temporary file - " + temporaryLocation);
+        }
     }
 
     public Resource loadFileAsResource(String fileName) {
@@ -78,6 +132,33 @@ public class FileStorageService {
         return resource;
     }
 
+    /**
+     * Returns the path of a stored file from its SHA-256 Checksum name (<i>{hash}.{extension}</i>).
+     *
+     * @param hash - SHA-256 Checksum of the file
+     *
+     * @return filePath
+     */
+    public Path getFilePathByHash(String hash) {
+        // The hash is part of the file name - Only hexadecimal characters
+        if (hash == null || !hash.matches("[0-9a-fA-F]{64}")) {
+            throw new GeneralException(HttpStatus.BAD_REQUEST, "Invalid file hash.");
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(fileStorageLocation, hash + ".*")) {
+            for (Path file : files) {
+                if (Files.isRegularFile(file)) {
+                    return file;
+                }
+            }
+
+        } catch (IOException ex) {
+            throw new GeneralException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not find file - Hash: " + hash, ex.getMessage());
+        }
+
+        throw new GeneralException(HttpStatus.NOT_FOUND, "File not found - Hash: " + hash);
+    }
+
     public String getFileExtension(String filename) {
         try {
             Optional<String> fileExtension = Optional.ofNullable(filename)
@@ -90,4 +171,97 @@ public class FileStorageService {
         }
     }
 
+    /**
+     * File stored by <i>storeFile</i>.
+     */
+    public static class StoredFile {
+
+        private final String hash;
+        private final String filePath;
+        private final byte[] header;
+
+        StoredFile(String hash, String filePath, byte[] header) {
+            this.hash = hash;
+            this.filePath = filePath;
+            this.header = header;
+        }
+
+        /**
+         * SHA-256 Checksum of the file.
+         *
+         * @return hash
+         */
+        public String getHash() {
+            return hash;
+        }
+
+        /**
+         * Path of the stored file.
+         *
+         * @return filePath
+         */
+        public String getFilePath() {
+            return filePath;
+        }
+
+        /**
+         * First bytes of the file - Shorter than requested when the file itself is shorter.
+         *
+         * @return header
+         */
+        public byte[] getHeader() {
+            return header;
+        }
+
+    }
+
+    /**
+     * Writes to a file channel, keeping a copy of the first bytes written.
+     */
+    private static class HeaderCaptureChannel implements WritableByteChannel {
+
+        private final WritableByteChannel channel;
+        private final byte[] header;
+        private int headerSize;
+
+        HeaderCaptureChannel(WritableByteChannel channel, int headerLength) {
+            this.channel = channel;
+            this.header = new byte[headerLength];
+        }
+
+        @Override
+        public int write(ByteBuffer source) throws IOException {
+            int position = source.position();
+            int bytesWritten = channel.write(source);
+
+            // Only the bytes actually written are kept, so a partial write is not copied twice
+            if (headerSize < header.length) {
+                int length = Math.min(header.length - headerSize, bytesWritten);
+
+                ByteBuffer writtenBytes = source.duplicate();
+                writtenBytes.position(position);
+                writtenBytes.get(header, headerSize, length);
+
+                headerSize += length;
+            }
+
+            return bytesWritten;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        byte[] getHeader() {
+            return Arrays.copyOf(header, headerSize);
+        }
+
+    }
+
 }
\ No newline at end of file
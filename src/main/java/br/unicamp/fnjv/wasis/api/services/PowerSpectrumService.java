@@ -0,0 +1,113 @@
+package br.unicamp.fnjv.wasis.api.services;
+
+import br.unicamp.fnjv.wasis.api.core.dsp.features.FeatureConfig;
+import br.unicamp.fnjv.wasis.api.core.dsp.features.PowerSpectrum;
+import br.unicamp.fnjv.wasis.api.core.dsp.features.SpectraCache;
+import br.unicamp.fnjv.wasis.api.dtos.PowerSpectrumDTO;
+import br.unicamp.fnjv.wasis.api.utils.exceptions.GeneralException;
+import br.unicamp.fnjv.wasis.api.utils.multimidia.wav.AudioWav;
+import br.unicamp.fnjv.wasis.api.utils.multimidia.wav.AudioWavFormat;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+/**
+ * <pre>
+ * Power Spectrum dos segmentos dos arquivos de áudio armazenados (Tempo e frequência inicial/final, como em <i>AudioFileSegment</i>).
+ *
+ * Os espectros de amplitude de um segmento são mantidos no <i>SpectraCache</i>, então consultas de outras faixas
+ * de frequência do mesmo segmento não leem o arquivo nem calculam a FFT novamente.
+ * </pre>
+ *
+ * @author Leandro Tacioli
+ */
+@Service
+public class PowerSpectrumService {
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    /** Configuração dos frames do Power Spectrum (Inclui o motor de FFT configurado). */
+    @Autowired
+    private FeatureConfig featureConfig;
+
+    @Autowired
+    private SpectraCache spectraCache;
+
+    /**
+     * Retorna o Power Spectrum de um segmento de um arquivo de áudio.
+     *
+     * @param hash             - Hash SHA-256 do arquivo de áudio
+     * @param timeInitial      - Tempo inicial do segmento (Milisegundos)
+     * @param timeFinal        - Tempo final do segmento (Milisegundos)
+     * @param frequencyInitial - Frequência inicial do segmento (Hz)
+     * @param frequencyFinal   - Frequência final do segmento (Hz)
+     *
+     * @return powerSpectrumDTO
+     */
+    public PowerSpectrumDTO getPowerSpectrum(String hash, int timeInitial, int timeFinal, int frequencyInitial, int frequencyFinal) {
+        if (timeInitial < 0 || timeFinal <= timeInitial) {
+            throw new GeneralException(HttpStatus.BAD_REQUEST, "Tempo inicial/final do segmento inválido.");
+        }
+
+        if (frequencyInitial < 0 || frequencyFinal <= frequencyInitial) {
+            throw new GeneralException(HttpStatus.BAD_REQUEST, "Frequência inicial/final do segmento inválida.");
+        }
+
+        String audioFilePath = fileStorageService.getFilePathByHash(hash).toString();
+
+        double[][] amplitudeSpectra = spectraCache.getSpectra(hash, timeInitial, timeFinal, featureConfig,
+                () -> readSegment(new AudioWav(audioFilePath, hash), timeInitial, timeFinal));
+
+        // Todos os arquivos armazenados são convertidos para a taxa de amostragem padrão
+        PowerSpectrum powerSpectrum = new PowerSpectrum(featureConfig, AudioWavFormat.TARGET_SAMPLE_RATE, frequencyInitial, frequencyFinal);
+        powerSpectrum.processSpectra(amplitudeSpectra);
+
+        PowerSpectrumDTO powerSpectrumDTO = new PowerSpectrumDTO();
+        powerSpectrumDTO.setTimeInitial(timeInitial);
+        powerSpectrumDTO.setTimeFinal(timeFinal);
+        powerSpectrumDTO.setFrequencyInitial(frequencyInitial);
+        powerSpectrumDTO.setFrequencyFinal(frequencyFinal);
+        powerSpectrumDTO.setFrequencies(powerSpectrum.getFeature()[0]);
+        powerSpectrumDTO.setDecibels(powerSpectrum.getFeature()[1]);
+
+        return powerSpectrumDTO;
+    }
+
+    /**
+     * Lê as amostras de um segmento do arquivo de áudio - Somente quando os espectros não estão no cache.
+     *
+     * @param audioWav    - Arquivo de áudio
+     * @param timeInitial - Tempo inicial do segmento (Milisegundos)
+     * @param timeFinal   - Tempo final do segmento (Milisegundos)
+     *
+     * @return amplitudes
+     */
+    private double[] readSegment(AudioWav audioWav, int timeInitial, int timeFinal) {
+        try {
+            audioWav.loadAudio();
+
+            int sampleRate = audioWav.getAudioWavHeader().getSampleRate();
+            int numSamples = audioWav.getNumSamplesPerChannel();
+
+            int initialSample = (int) ((long) timeInitial * sampleRate / 1000);
+            int finalSample = (int) Math.min(numSamples, (long) timeFinal * sampleRate / 1000) - 1;
+
+            if (initialSample > finalSample) {
+                throw new GeneralException(HttpStatus.BAD_REQUEST, "Segmento fora da duração do arquivo de áudio.");
+            }
+
+            return audioWav.getAmplitudesChunk(initialSample, finalSample);
+
+        } catch (GeneralException e) {
+            throw e;
+
+        } catch (Exception e) {
+            throw new GeneralException(HttpStatus.INTERNAL_SERVER_ERROR, "Erro ao ler o segmento do arquivo de áudio.", e.getMessage());
+
+        } finally {
+            audioWav.closeAudio();
+        }
+    }
+
+}
\ No newline at end of file
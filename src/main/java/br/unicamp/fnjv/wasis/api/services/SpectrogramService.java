@@ -0,0 +1,271 @@
+package br.unicamp.fnjv.wasis.api.services;
+
+import br.unicamp.fnjv.wasis.api.config.FileStorageConfig;
+import br.unicamp.fnjv.wasis.api.core.dsp.features.FeatureConfig;
+import br.unicamp.fnjv.wasis.api.core.dsp.features.SpectrogramPyramid;
+import br.unicamp.fnjv.wasis.api.dtos.SpectrogramDTO;
+import br.unicamp.fnjv.wasis.api.utils.exceptions.GeneralException;
+import br.unicamp.fnjv.wasis.api.utils.multimidia.wav.AudioWav;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * <pre>
+ * Espectrogramas dos arquivos de áudio armazenados, divididos em tiles PNG em vários níveis de zoom.
+ *
+ * Os tiles de um arquivo são calculados na primeira requisição e gravados em disco
+ * (<i>{file.upload-dir}/spectrograms/{hash}/{zoom}/{x}_{y}.png</i>), sendo reutilizados pelas requisições seguintes.
+ * </pre>
+ *
+ * @author Leandro Tacioli
+ */
+@Service
+public class SpectrogramService {
+
+    /** Diretório dos espectrogramas, dentro do diretório de armazenamento. */
+    private static final String SPECTROGRAMS_DIRECTORY = "spectrograms";
+
+    /** Arquivo com as especificações do espectrograma - Gravado por último, indica que todos os tiles estão prontos. */
+    private static final String SPECTROGRAM_FILE = "spectrogram.json";
+
+    /** Número de amostras lidas do arquivo WAV por vez. */
+    private static final int READ_BLOCK_SAMPLES = 65536;
+
+    @Autowired
+    private FileStorageConfig fileStorageConfig;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    /** Configuração dos frames do espectrograma (Inclui o motor de FFT configurado). */
+    @Autowired
+    private FeatureConfig featureConfig;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /** Número de bloqueios dos espectrogramas (Potência de 2). */
+    private static final int SPECTROGRAM_LOCKS = 64;
+
+    /**
+     * Bloqueios indexados pelo hash - Evitam que o mesmo espectrograma seja calculado por várias requisições simultâneas.
+     * O número de bloqueios é fixo, então não cresce com o número de arquivos de áudio.
+     */
+    private final Object[] spectrogramLocks = Stream.generate(Object::new).limit(SPECTROGRAM_LOCKS).toArray();
+
+    /**
+     * Retorna as especificações do espectrograma de um arquivo de áudio (Níveis de zoom, número de tiles, etc.).
+     *
+     * @param hash - Hash SHA-256 do arquivo de áudio
+     *
+     * @return spectrogramDTO
+     */
+    public SpectrogramDTO getSpectrogram(String hash) {
+        Path spectrogramLocation = loadSpectrogram(hash);
+
+        try {
+            return objectMapper.readValue(spectrogramLocation.resolve(SPECTROGRAM_FILE).toFile(), SpectrogramDTO.class);
+
+        } catch (IOException e) {
+            throw new GeneralException(HttpStatus.INTERNAL_SERVER_ERROR, "Erro ao carregar o espectrograma.", e.getMessage());
+        }
+    }
+
+    /**
+     * Retorna um tile do espectrograma de um arquivo de áudio (PNG em tons de cinza - Intensidades de 0 a 255).
+     *
+     * @param hash - Hash SHA-256 do arquivo de áudio
+     * @param zoom - Nível de zoom (0 = Uma coluna por frame)
+     * @param x    - Posição horizontal do tile (Tempo)
+     * @param y    - Posição vertical do tile (Frequência - 0 = Frequências mais altas)
+     *
+     * @return tile
+     */
+    public byte[] getTile(String hash, int zoom, int x, int y) {
+        Path tilePath = loadSpectrogram(hash).resolve(String.valueOf(zoom)).resolve(x + "_" + y + ".png");
+
+        if (zoom < 0 || x < 0 || y < 0 || !Files.isRegularFile(tilePath)) {
+            throw new GeneralException(HttpStatus.NOT_FOUND, "Tile do espectrograma não encontrado.");
+        }
+
+        try {
+            return Files.readAllBytes(tilePath);
+
+        } catch (IOException e) {
+            throw new GeneralException(HttpStatus.INTERNAL_SERVER_ERROR, "Erro ao carregar o tile do espectrograma.", e.getMessage());
+        }
+    }
+
+    /**
+     * Retorna o diretório do espectrograma de um arquivo de áudio, calculando-o caso ainda não exista.
+     *
+     * @param hash - Hash SHA-256 do arquivo de áudio
+     *
+     * @return spectrogramLocation
+     */
+    private Path loadSpectrogram(String hash) {
+        // Hash utilizado como nome de diretório - Apenas caracteres hexadecimais
+        if (hash == null || !hash.matches("[0-9a-fA-F]{64}")) {
+            throw new GeneralException(HttpStatus.BAD_REQUEST, "Hash do arquivo de áudio inválido.");
+        }
+
+        Path spectrogramLocation = getSpectrogramsLocation().resolve(hash);
+
+        if (Files.exists(spectrogramLocation.resolve(SPECTROGRAM_FILE))) {
+            return spectrogramLocation;
+        }
+
+        // Primeiros dígitos do hash (Hexadecimal) - Distribuição uniforme entre os bloqueios
+        Object spectrogramLock = spectrogramLocks[Integer.parseInt(hash.substring(0, 4), 16) & (SPECTROGRAM_LOCKS - 1)];
+
+        synchronized (spectrogramLock) {
+            if (!Files.exists(spectrogramLocation.resolve(SPECTROGRAM_FILE))) {
+                createSpectrogram(hash, spectrogramLocation);
+            }
+        }
+
+        return spectrogramLocation;
+    }
+
+    /**
+     * Calcula e grava os tiles do espectrograma de um arquivo de áudio.
+     * <br>
+     * Os tiles são gravados em um diretório temporário, movido para <i>spectrogramLocation</i> apenas ao final,
+     * para que um espectrograma incompleto nunca seja utilizado.
+     *
+     * @param hash                - Hash SHA-256 do arquivo de áudio
+     * @param spectrogramLocation - Diretório do espectrograma
+     */
+    private void createSpectrogram(String hash, Path spectrogramLocation) {
+        Path audioFilePath = fileStorageService.getFilePathByHash(hash);
+        Path temporaryLocation = getSpectrogramsLocation().resolve(hash + "-" + RandomStringUtils.randomAlphanumeric(10));
+
+        AudioWav audioWav = new AudioWav(audioFilePath.toString(), hash);
+
+        try {
+            audioWav.loadAudio();
+
+            Files.createDirectories(temporaryLocation);
+
+            SpectrogramPyramid spectrogramPyramid = new SpectrogramPyramid(featureConfig, (zoom, x, y, pixels) -> writeTile(temporaryLocation, zoom, x, y, pixels));
+
+            int numSamples = audioWav.getNumSamplesPerChannel();
+
+            double[] samples = new double[READ_BLOCK_SAMPLES];
+
+            for (int initialSample = 0; initialSample < numSamples; initialSample += READ_BLOCK_SAMPLES) {
+                int finalSample = Math.min(numSamples, initialSample + READ_BLOCK_SAMPLES) - 1;
+
+                audioWav.getAmplitudesChunk(initialSample, finalSample, samples);
+                spectrogramPyramid.accept(samples, 0, finalSample - initialSample + 1);
+            }
+
+            spectrogramPyramid.end();
+
+            SpectrogramDTO spectrogramDTO = new SpectrogramDTO();
+            spectrogramDTO.setHash(hash);
+            spectrogramDTO.setSampleRate(audioWav.getAudioWavHeader().getSampleRate());
+            spectrogramDTO.setDurationMilliseconds(audioWav.getTotalTimeInMilliseconds());
+            spectrogramDTO.setFrameLength(featureConfig.getFrameLength());
+            spectrogramDTO.setHopSize(featureConfig.getHopSize());
+            spectrogramDTO.setWindowFunction(featureConfig.getWindowFunction());
+            spectrogramDTO.setMinimumDecibels(SpectrogramPyramid.MINIMUM_DECIBELS);
+            spectrogramDTO.setMaximumDecibels(SpectrogramPyramid.MAXIMUM_DECIBELS);
+            spectrogramDTO.setTileSize(SpectrogramPyramid.TILE_SIZE);
+            spectrogramDTO.setFrequencySamples(spectrogramPyramid.getFrequencySamples());
+            spectrogramDTO.setVerticalTiles(spectrogramPyramid.getVerticalTiles());
+            spectrogramDTO.setZoomLevels(spectrogramPyramid.getZoomLevels());
+
+            List<Long> columns = new ArrayList<>();
+            List<Integer> horizontalTiles = new ArrayList<>();
+
+            for (int zoom = 0; zoom < spectrogramPyramid.getZoomLevels(); zoom++) {
+                columns.add(spectrogramPyramid.getColumns(zoom));
+                horizontalTiles.add(spectrogramPyramid.getHorizontalTiles(zoom));
+            }
+
+            spectrogramDTO.setColumns(columns);
+            spectrogramDTO.setHorizontalTiles(horizontalTiles);
+
+            objectMapper.writeValue(temporaryLocation.resolve(SPECTROGRAM_FILE).toFile(), spectrogramDTO);
+
+            try {
+                Files.move(temporaryLocation, spectrogramLocation, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                System.out.println("Não foi possível mover o espectrograma - Hash: " + hash + " - Diretório já existente.");
+            }
+
+        } catch (GeneralException e) {
+            throw e;
+
+        } catch (Exception e) {
+            throw new GeneralException(HttpStatus.INTERNAL_SERVER_ERROR, "Erro ao calcular o espectrograma do arquivo de áudio.", e.getMessage());
+
+        } finally {
+            audioWav.closeAudio();
+
+            deleteDirectory(temporaryLocation);
+        }
+    }
+
+    /**
+     * Grava um tile em PNG (Tons de cinza).
+     *
+     * @param location - Diretório do espectrograma
+     * @param zoom     - Nível de zoom
+     * @param x        - Posição horizontal do tile
+     * @param y        - Posição vertical do tile
+     * @param pixels   - Intensidades dos pixels, linha por linha
+     */
+    private void writeTile(Path location, int zoom, int x, int y, byte[] pixels) {
+        try {
+            Path zoomLocation = Files.createDirectories(location.resolve(String.valueOf(zoom)));
+
+            BufferedImage image = new BufferedImage(SpectrogramPyramid.TILE_SIZE, SpectrogramPyramid.TILE_SIZE, BufferedImage.TYPE_BYTE_GRAY);
+            image.getRaster().setDataElements(0, 0, SpectrogramPyramid.TILE_SIZE, SpectrogramPyramid.TILE_SIZE, pixels);
+
+            ImageIO.write(image, "png", zoomLocation.resolve(x + "_" + y + ".png").toFile());
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path getSpectrogramsLocation() {
+        return fileStorageConfig.getFileStorageLocation().resolve(SPECTROGRAMS_DIRECTORY);
+    }
+
+    /**
+     * Exclui um diretório e todo o seu conteúdo, caso exista.
+     *
+     * @param location
+     */
+    private void deleteDirectory(Path location) {
+        if (!Files.exists(location)) {
+            return;
+        }
+
+        try (Stream<Path> paths = Files.walk(location)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+
+        } catch (IOException e) {
+            System.out.println("Não foi possível excluir o diretório - : " + location);
+        }
+    }
+
+}
\ No newline at end of file
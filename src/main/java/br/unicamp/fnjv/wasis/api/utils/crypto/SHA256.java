@@ -4,29 +4,58 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
 /**
  * SHA-256 Cryptographic Hash Algorithm
+ * <br>
+ * Files and streams are hashed in blocks, never loaded whole into memory.
+ * Each thread has its own digest and read buffer, so concurrent uploads can be hashed safely.
  */
 public class SHA256 {
 
-    private static MessageDigest algorithmDigest;
-    private static Charset defaultCharset;
+    /** Size of the read buffer (64 KB). */
+    private static final int BUFFER_SIZE = 65536;
 
-    static {
+    private static final ThreadLocal<MessageDigest> algorithmDigest = ThreadLocal.withInitial(SHA256::createDigest);
+    private static final ThreadLocal<ByteBuffer> readBuffer = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+    private static final Charset defaultCharset = StandardCharsets.UTF_8;
+
+    private SHA256() {
+
+    }
+
+    private static MessageDigest createDigest() {
         try {
-            algorithmDigest = MessageDigest.getInstance("SHA-256");
-            defaultCharset = StandardCharsets.UTF_8;
+            return MessageDigest.getInstance("SHA-256");
         } catch (NoSuchAlgorithmException e) {
-            e.printStackTrace();
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
         }
     }
 
+    /**
+     * Get the SHA-256 digest of the current thread, ready for a new hash.
+     *
+     * @return algorithmDigest
+     */
+    public static MessageDigest getDigest() {
+        MessageDigest digest = algorithmDigest.get();
+        digest.reset();
+
+        return digest;
+    }
+
     /**
      * Get the SHA-256 hash from a file.
      *
@@ -35,10 +64,9 @@ public class SHA256 {
      * @return hashedFile
      */
     public static String getHashFromFile(File file) throws IOException {
-        byte[] fileContent = Files.readAllBytes(file.toPath());
-        byte[] encodedHash = algorithmDigest.digest(fileContent);
-
-        return bytesToHex(encodedHash);
+        try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return getHashFromChannel(fileChannel, null);
+        }
     }
 
     /**
@@ -49,9 +77,68 @@ public class SHA256 {
      * @return hashedFile
      */
     public static String getHashFromFile(MultipartFile file) throws IOException {
-        byte[] encodedHash = algorithmDigest.digest(file.getBytes());
+        try (InputStream inputStream = file.getInputStream()) {
+            return getHashFromStream(inputStream);
+        }
+    }
 
-        return bytesToHex(encodedHash);
+    /**
+     * Get the SHA-256 hash from a stream, reading it until the end.
+     *
+     * @param inputStream
+     *
+     * @return hashedStream
+     */
+    public static String getHashFromStream(InputStream inputStream) throws IOException {
+        return getHashFromChannel(Channels.newChannel(inputStream), null);
+    }
+
+    /**
+     * Get the SHA-256 hash from a stream while copying it to a target (Hashing and copying in a single pass).
+     *
+     * @param inputStream
+     * @param target      - Receives every byte read from the stream
+     *
+     * @return hashedStream
+     */
+    public static String getHashFromStream(InputStream inputStream, WritableByteChannel target) throws IOException {
+        return getHashFromChannel(Channels.newChannel(inputStream), target);
+    }
+
+    /**
+     * Get the SHA-256 hash from a channel, reading it through the direct buffer of the current thread.
+     *
+     * @param source
+     * @param target - Receives every byte read from the source (Null = No copy)
+     *
+     * @return hashedChannel
+     */
+    private static String getHashFromChannel(ReadableByteChannel source, WritableByteChannel target) throws IOException {
+        MessageDigest digest = getDigest();
+        ByteBuffer buffer = readBuffer.get();
+
+        buffer.clear();
+
+        while (source.read(buffer) != -1) {
+            buffer.flip();
+
+            if (target != null) {
+                // The same bytes are written after being hashed
+                buffer.mark();
+                digest.update(buffer);
+                buffer.reset();
+
+                while (buffer.hasRemaining()) {
+                    target.write(buffer);
+                }
+            } else {
+                digest.update(buffer);
+            }
+
+            buffer.clear();
+        }
+
+        return bytesToHex(digest.digest());
     }
 
     /**
@@ -62,7 +149,7 @@ public class SHA256 {
      * @return hashedMessage
      */
     public static String getHashFromMessage(String message) {
-        byte[] encodedHash = algorithmDigest.digest(message.getBytes(defaultCharset));
+        byte[] encodedHash = getDigest().digest(message.getBytes(defaultCharset));
 
         return bytesToHex(encodedHash);
     }
@@ -74,7 +161,7 @@ public class SHA256 {
      *
      * @return hexString
      */
-    private static String bytesToHex(byte[] hash) {
+    public static String bytesToHex(byte[] hash) {
         StringBuilder hexString = new StringBuilder(2 * hash.length);
 
         for (int i = 0; i < hash.length; i++) {
@@ -5,10 +5,13 @@ import br.unicamp.fnjv.wasis.api.utils.exceptions.GeneralException;
 import lombok.Getter;
 import org.springframework.http.HttpStatus;
 
-import javax.sound.sampled.AudioInputStream;
-import javax.sound.sampled.AudioSystem;
-import javax.sound.sampled.UnsupportedAudioFileException;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 
 /**
  * Carrega e processa os dados de um arquivo de áudio.
@@ -17,16 +20,17 @@ import java.io.*;
  */
 public class AudioWav {
 
+    /** Tamanho do pedaço 'DATA' desconhecido - Gravado por fluxo, antes de conhecer o tamanho final. */
+    private static final long UNKNOWN_DATA_CHUNK_SIZE = 0xFFFFFFFFL;
+
     @Getter
     private AudioWavHeader audioWavHeader;       // Especificações do header do arquivo WAV
 
-    private AudioInputStream audioInputStream;   // Fluxo do áudio
+    private FileChannel fileChannel;             // Canal do arquivo de áudio
 
-    private byte[] wavData;                      // Array dos dados do arquivo WAV
+    private ByteBuffer wavData;                  // Dados do arquivo WAV mapeados em memória (Sem o Header)
 
     private int wavDataSize;                     // Tamanho total dos dados do arquivo WAV
-    private int wavDataInitialPosition;          // Mostra a posição inicial que o array dos dados está ocupando
-    private int wavDataFinalPosition;            // Mostra a posição final que o array dos dados está ocupando
 
     private boolean isEndOfFile = false;         // True = Todos os dados do arquivo foram lidos
 
@@ -42,16 +46,6 @@ public class AudioWav {
     @Getter
     private int numSamplesPerChannel;            // Número de amostras por canal do arquivo WAV
 
-    /**
-     * Tamanho máximo do array para não sobrecarregar a memória (16,777,216).
-     */
-    private final int BYTE_ARRAY_MAX_SIZE = (int) Math.pow(2, 24);
-
-    /**
-     * Comprimento do buffer (4096).
-     */
-    private final int BUFFER_LENGTH = (int) Math.pow(2, 12);
-
     /**
      * Carrega e processa os dados de um arquivo de áudio.
      *
@@ -66,6 +60,18 @@ public class AudioWav {
         }
     }
 
+    /**
+     * Carrega e processa os dados de um arquivo de áudio cujo hash já é conhecido (Ex: Calculado durante o armazenamento),
+     * sem ler o arquivo novamente para calculá-lo.
+     *
+     * @param audioFilePath - Caminho do arquivo de áudio
+     * @param audioFileHash - Hash SHA-256 do arquivo de áudio
+     */
+    public AudioWav(String audioFilePath, String audioFileHash) {
+        this.audioFilePath = audioFilePath;
+        this.audioFileHash = audioFileHash;
+    }
+
     /**
      * Carrega header e dados do arquivo WAV.
      * Confirma se o arquivo tem o formato WAV correto, e se necessária é feita a conversão do arquivo para WAV padrão.
@@ -83,7 +89,7 @@ public class AudioWav {
                     throw new GeneralException(HttpStatus.BAD_REQUEST, "Especificações incorretas para carregamento do arquivo de áudio.");
 
                 } else {
-                    extractWavData();
+                    mapWavData();
 
                     numSamples = wavDataSize / audioWavHeader.getBytesPerSample();
                     numSamplesPerChannel = numSamples / audioWavHeader.getChannels();
@@ -106,8 +112,10 @@ public class AudioWav {
      */
     public void closeAudio() {
         try {
-            if (audioInputStream != null) {
-                audioInputStream.close();
+            wavData = null;
+
+            if (fileChannel != null) {
+                fileChannel.close();
             }
         } catch (IOException e) {
             e.printStackTrace();
@@ -115,150 +123,55 @@ public class AudioWav {
     }
 
     /**
-     * Extrai dados do arquivo WAV e armazena no array de bytes 'wavData'.
+     * Mapeia em memória os dados do arquivo WAV, a partir da posição do pedaço 'DATA' localizada pelo Header.
+     * <br>
+     * As páginas do arquivo são carregadas pelo sistema operacional apenas quando acessadas,
+     * então qualquer trecho do áudio é lido diretamente, sem percorrer os dados anteriores a ele.
+     *
+     * @throws IOException
      */
-    private void extractWavData() {
-        try {
-            audioInputStream = AudioSystem.getAudioInputStream(new File(audioFilePath));
-            wavDataSize = getWavDataSize();
-
-            // Em caso de um arquivo WAV muito longo, 'intWavDataCurrentMaxPosition'
-            // é alterado para 'BYTE_ARRAY_MAX_SIZE' para não sobrecarregar a memória
-            // É necessário carregar o método 'extractWavDataChunk' para pegar os dados restantes.
-            wavDataInitialPosition = 0;
-            wavDataFinalPosition = wavDataSize;
-            if (wavDataFinalPosition > BYTE_ARRAY_MAX_SIZE) {
-                wavDataFinalPosition = BYTE_ARRAY_MAX_SIZE;
-            }
+    private void mapWavData() throws IOException {
+        fileChannel = FileChannel.open(Paths.get(audioFilePath), StandardOpenOption.READ);
 
-            wavData = new byte[wavDataFinalPosition];
+        wavDataSize = calculateWavDataSize(fileChannel.size());
 
-            byte[] arrayBuffer = new byte[BUFFER_LENGTH];
-
-            int index = 0;
-
-            while (true) {
-                int bytesRead = audioInputStream.read(arrayBuffer);
-
-                if (bytesRead == -1) {
-                    break;
-                } else {
-                    for (int indexBytesRead = 0; indexBytesRead < bytesRead; indexBytesRead++) {
-                        if (index >= wavDataFinalPosition) {
-                            break;
-                        }
-
-                        wavData[index] = arrayBuffer[indexBytesRead];
-                        index++;
-                    }
-                }
-            }
-
-        } catch (IOException | UnsupportedAudioFileException e) {
-            e.printStackTrace();
-        }
+        wavData = fileChannel.map(FileChannel.MapMode.READ_ONLY, audioWavHeader.getDataChunkOffset(), wavDataSize).order(ByteOrder.LITTLE_ENDIAN);
     }
 
     /**
-     * Extrai dados a partir de um pedaço específico do arquivo WAV e armazena no array de bytes 'wavData'.
-     * Esse método é utilizado em caso de um arquivo WAV muito grande,
-     * então o arquivo é processado em diferentes partes para não sobrecarregar a CPU e memória.
+     * Calcula o tamanho total (em bytes) dos dados do arquivo WAV a partir do tamanho do pedaço 'DATA' do Header,
+     * sem percorrer o arquivo.<br>
+     * <br>
+     * Caso o tamanho do Header seja inválido (Arquivo gravado por fluxo - <i>0xFFFFFFFF</i> - ou truncado),
+     * é utilizado o tamanho do arquivo descontando a posição inicial dos dados.
+     * Um tamanho 0 é válido (Arquivo sem amostras) e é mantido.
+     * O tamanho é arredondado para um número inteiro de frames (Amostras de todos os canais).
+     *
+     * @param fileSize - Tamanho do arquivo
      *
-     * @param initialChunk - Ponto inicial do pedaço específico do arquivo WAV
+     * @return wavDataSize
      */
-    public void extractWavDataChunk(int initialChunk) {
-        try {
-            isEndOfFile = false;
-
-            audioInputStream = AudioSystem.getAudioInputStream(new File(audioFilePath));
-
-            initialChunk = getChunkDataPosition(initialChunk);
-
-            int arraySize = BYTE_ARRAY_MAX_SIZE;
+    private int calculateWavDataSize(long fileSize) {
+        long availableSize = Math.max(0, fileSize - audioWavHeader.getDataChunkOffset());
+        long dataChunkSize = audioWavHeader.getDataChunkSize();
 
-            wavDataInitialPosition = initialChunk;
-            wavDataFinalPosition = initialChunk + BYTE_ARRAY_MAX_SIZE;
-
-            if (wavDataFinalPosition > wavDataSize) {
-                wavDataFinalPosition = wavDataSize;
-                arraySize = wavDataFinalPosition - wavDataInitialPosition;
-            }
-
-            wavData = new byte[arraySize];
-
-            byte[] arrayBuffer = new byte[BUFFER_LENGTH];
-
-            boolean isDataExtracted = false;
-
-            int index = 0;
-            int totalBytesRead = 0;
-
-            while (true) {
-                int bytesRead = audioInputStream.read(arrayBuffer);
+        if (dataChunkSize == UNKNOWN_DATA_CHUNK_SIZE || dataChunkSize > availableSize) {
+            dataChunkSize = availableSize;
+        }
 
-                if (bytesRead == -1) {
-                    break;
+        int bytesPerFrame = Math.max(1, audioWavHeader.getChannels() * audioWavHeader.getBytesPerSample());
 
-                } else {
-                    if (totalBytesRead + bytesRead < initialChunk) {
-                        totalBytesRead += bytesRead;
-
-                    } else {
-                        for (int indexBytesRead = 0; indexBytesRead < bytesRead; indexBytesRead++) {
-                            if (totalBytesRead >= initialChunk) {
-                                if (index < arraySize) {
-                                    wavData[index] = arrayBuffer[indexBytesRead];
-                                    index++;
-                                } else {
-                                    isDataExtracted = true;
-                                    break;       // Finishes FOR loop
-                                }
-                            }
-
-                            totalBytesRead++;
-                        }
-
-                        if (isDataExtracted) {
-                            break;               // Finishes WHILE loop
-                        }
-                    }
-                }
-            }
-
-        } catch (IOException | UnsupportedAudioFileException e) {
-            e.printStackTrace();
-        }
+        return (int) (Math.min(dataChunkSize, Integer.MAX_VALUE) / bytesPerFrame * bytesPerFrame);
     }
 
     /**
-     * Retorna o tamanho total (em bytes) do arquivo WAV a ser processado.<br>
+     * Retorna o tamanho total (em bytes) dos dados do arquivo WAV.<br>
      * <br>
      * O tamanho do <i>Header</i> do arquivo é desconsiderado.
      *
      * @return wavDataSize
      */
     public int getWavDataSize() {
-        int wavDataSize = 0;
-
-        try {
-            AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(new File(audioFilePath));
-
-            byte[] arrayBuffer = new byte[BUFFER_LENGTH];
-
-            while (true) {
-                int bytesRead = audioInputStream.read(arrayBuffer);
-
-                if (bytesRead == -1) {
-                    break;
-                } else {
-                    wavDataSize += bytesRead;
-                }
-            }
-
-        } catch (IOException | UnsupportedAudioFileException e) {
-            e.printStackTrace();
-        }
-
         return wavDataSize;
     }
 
@@ -291,94 +204,88 @@ public class AudioWav {
      * @return amplitudes[]
      */
     public double[] getAmplitudesChunk(int initialChunk, int finalChunk) {
-        return getAmplitudesChunk(1, initialChunk, finalChunk);
+        double[] amplitudes = new double[finalChunk - initialChunk + 1];
+
+        getAmplitudesChunk(initialChunk, finalChunk, amplitudes);
+
+        return amplitudes;
     }
 
     /**
-     * Retorna as amplitudes do arquivo WAV, separando elas entre os diferentes canais
+     * Retorna as amplitudes do arquivo WAV em precisão simples (float), separando elas entre os diferentes canais
      * e retornando apenas as amplitudes do canal parametrizado.
      * Extrai apenas as amplitudes entre os pedaços inicial e final.
      *
-     * @param channel      - Canal do áudio
+     * Mesmos valores de <i>getAmplitudesChunk()</i> - Amostras de até 24 bits são representadas exatamente em float.
+     *
      * @param initialChunk - Pedaço inicial (valor da amostra 'sample' baseado no tempo do áudio)
      * @param finalChunk   - Pedaço final (valor da amostra 'sample' baseado no tempo do áudio)
      * @return amplitudes[]
      */
-    private double[] getAmplitudesChunk(int channel, int initialChunk, int finalChunk) {
-        int initialChunkData = getChunkDataPosition(initialChunk);
-        int finalChunkData = getChunkDataPosition(finalChunk);
+    public float[] getAmplitudesChunkFloat(int initialChunk, int finalChunk) {
+        float[] amplitudes = new float[finalChunk - initialChunk + 1];
+
+        getAmplitudesChunk(initialChunk, finalChunk, amplitudes);
+
+        return amplitudes;
+    }
+
+    /**
+     * Decodifica as amplitudes do arquivo WAV entre os pedaços inicial e final em um array já existente,
+     * a partir da posição 0 - Permite reutilizar o mesmo array na leitura de trechos consecutivos.
+     *
+     * @param initialChunk - Pedaço inicial (valor da amostra 'sample' baseado no tempo do áudio)
+     * @param finalChunk   - Pedaço final (valor da amostra 'sample' baseado no tempo do áudio)
+     * @param amplitudes   - Array com pelo menos <i>finalChunk - initialChunk + 1</i> posições
+     */
+    public void getAmplitudesChunk(int initialChunk, int finalChunk, double[] amplitudes) {
+        int length = finalChunk - initialChunk + 1;
+
+        // Amostras fora dos dados do arquivo WAV recebem o valor mínimo
+        int initialData = Math.max(initialChunk, 0);
+        int finalData = Math.min(finalChunk, numSamplesPerChannel - 1);
 
-        int pointerAmplitudeChunk = initialChunkData - wavDataInitialPosition;
+        if (initialData > finalData) {
+            Arrays.fill(amplitudes, 0, length, 1);
+        } else {
+            Arrays.fill(amplitudes, 0, initialData - initialChunk, 1);
+            Arrays.fill(amplitudes, finalData - initialChunk + 1, length, 1);
 
-        // Se 'finalChunkData' for maior que 'wavDataFinalPosition' e menor que 'wavDataSize',
-        // temos que extrair novamente os dados do arquivo WAV utilizando o método 'extractWavDataChunk' a partir do 'initialChunk'
-        if (finalChunkData > wavDataFinalPosition && finalChunkData < wavDataSize) {
-            extractWavDataChunk(initialChunk);
+            AudioWavDecoder.decode(audioWavHeader, wavData, getChunkDataPosition(initialData), amplitudes, initialData - initialChunk, finalData - initialData + 1);
         }
 
-        int amplitude = 0;
-        int arrayIndex = 0;
-
-        int chunkSize = finalChunk - initialChunk + 1;
-        int numChannels = audioWavHeader.getChannels();
-
-        double[] amplitudes = new double[chunkSize];
-
-        for (int indexChunk = initialChunk; indexChunk <= finalChunk; indexChunk++) {
-            for (int indexChannel = 1; indexChannel <= numChannels; indexChannel++) {
-                // Apenas o canal parametrizado é processado
-                if (channel == indexChannel) {
-                    try {
-                        // 8 bits
-                        if (audioWavHeader.getBitsPerSample() == 8) {
-                            amplitude = (short) (wavData[pointerAmplitudeChunk] & 0xff);
-                            amplitude = amplitude - 128;
-
-                            // 16 bits
-                        } else if (audioWavHeader.getBitsPerSample() == 16) {
-                            amplitude = (short) (wavData[pointerAmplitudeChunk + 0] & 0xff)
-                                      | (short) ((wavData[pointerAmplitudeChunk + 1] & 0xff) << 8);
-
-                            // 24 bits
-                        } else if (audioWavHeader.getBitsPerSample() == 24) {
-                            amplitude = (int) (wavData[pointerAmplitudeChunk + 0] & 0xff)
-                                      | (int) ((wavData[pointerAmplitudeChunk + 1] & 0xff) << 8)
-                                      | (int) ((wavData[pointerAmplitudeChunk + 2]) << 16);
-
-                            // 32 bits
-                        } else if (audioWavHeader.getBitsPerSample() == 32) {
-                            amplitude = (int) (wavData[pointerAmplitudeChunk + 0] & 0xff)
-                                      | (int) ((wavData[pointerAmplitudeChunk + 1] & 0xff) << 8)
-                                      | (int) ((wavData[pointerAmplitudeChunk + 2] & 0xff) << 16)
-                                      | (int) ((wavData[pointerAmplitudeChunk + 3]) << 24);
-
-                            // 32 bits - IEEE Float (0.24 Float Type 3)
-                            if (audioWavHeader.getAudioFormat() == AudioWavFormat.WAVE_FORMAT_IEEE_FLOAT) {
-                                float fltAmplitude = Float.intBitsToFloat(amplitude);
-                                amplitude = (int) (fltAmplitude * 2147483647F);
-                            }
-                        }
-
-                        if (amplitude == 0) {
-                            amplitude = 1;   // Atribui valor mínimo à amplitude
-                        }
-
-                    // Exceção chamada quando 'pointerAmplitudeChunk' exceder a posição máxima do array 'wavData'
-                    } catch (Exception e) {
-                        amplitude = 1;       // Atribui valores mínimos às amplitudes restantes
-                        isEndOfFile = true;
-                    }
-
-                    amplitudes[arrayIndex] = amplitude;
-                }
+        if (initialData != initialChunk || finalData != finalChunk) {
+            isEndOfFile = true;
+        }
+    }
 
-                pointerAmplitudeChunk += audioWavHeader.getBytesPerSample();
-            }
+    /**
+     * Decodifica as amplitudes do arquivo WAV em precisão simples (float) entre os pedaços inicial e final
+     * em um array já existente, a partir da posição 0.
+     *
+     * @param initialChunk - Pedaço inicial (valor da amostra 'sample' baseado no tempo do áudio)
+     * @param finalChunk   - Pedaço final (valor da amostra 'sample' baseado no tempo do áudio)
+     * @param amplitudes   - Array com pelo menos <i>finalChunk - initialChunk + 1</i> posições
+     */
+    public void getAmplitudesChunk(int initialChunk, int finalChunk, float[] amplitudes) {
+        int length = finalChunk - initialChunk + 1;
+
+        // Amostras fora dos dados do arquivo WAV recebem o valor mínimo
+        int initialData = Math.max(initialChunk, 0);
+        int finalData = Math.min(finalChunk, numSamplesPerChannel - 1);
+
+        if (initialData > finalData) {
+            Arrays.fill(amplitudes, 0, length, 1);
+        } else {
+            Arrays.fill(amplitudes, 0, initialData - initialChunk, 1);
+            Arrays.fill(amplitudes, finalData - initialChunk + 1, length, 1);
 
-            arrayIndex++;
+            AudioWavDecoder.decode(audioWavHeader, wavData, getChunkDataPosition(initialData), amplitudes, initialData - initialChunk, finalData - initialData + 1);
         }
 
-        return amplitudes;
+        if (initialData != initialChunk || finalData != finalChunk) {
+            isEndOfFile = true;
+        }
     }
 
     /**
@@ -0,0 +1,182 @@
+package br.unicamp.fnjv.wasis.api.utils.multimidia.wav;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * <pre>
+ * Decodifica as amplitudes de um trecho dos dados de um arquivo WAV de uma só vez.
+ *
+ * O formato das amostras é verificado uma única vez por trecho, sendo utilizado um decodificador específico
+ * para cada formato (PCM 8, 16, 24 e 32 bits e IEEE Float). As amostras de um canal são lidas diretamente
+ * de <i>wavData</i> (Little endian), avançando o número de bytes de um frame (Amostras de todos os canais) a cada amostra.
+ *
+ * Amplitudes iguais a 0 recebem o valor mínimo 1.
+ * </pre>
+ *
+ * @author Leandro Tacioli
+ */
+final class AudioWavDecoder {
+
+    private AudioWavDecoder() {
+
+    }
+
+    /**
+     * Decodifica as amplitudes de um canal.
+     *
+     * @param audioWavHeader - Especificações do header do arquivo WAV
+     * @param wavData        - Dados do arquivo WAV (Little endian)
+     * @param position       - Posição em 'wavData' da primeira amostra do canal
+     * @param amplitudes     - Amplitudes decodificadas
+     * @param offset         - Posição da primeira amplitude em 'amplitudes'
+     * @param length         - Número de amplitudes
+     */
+    static void decode(AudioWavHeader audioWavHeader, ByteBuffer wavData, int position, double[] amplitudes, int offset, int length) {
+        int stride = audioWavHeader.getChannels() * audioWavHeader.getBytesPerSample();
+
+        switch (audioWavHeader.getBitsPerSample()) {
+            case 8:
+                decodePcm8(wavData, position, stride, amplitudes, offset, length);
+                break;
+
+            case 16:
+                decodePcm16(wavData, position, stride, amplitudes, offset, length);
+                break;
+
+            case 24:
+                decodePcm24(wavData, position, stride, amplitudes, offset, length);
+                break;
+
+            case 32:
+                if (audioWavHeader.getAudioFormat() == AudioWavFormat.WAVE_FORMAT_IEEE_FLOAT) {
+                    decodeIeeeFloat(wavData, position, stride, amplitudes, offset, length);
+                } else {
+                    decodePcm32(wavData, position, stride, amplitudes, offset, length);
+                }
+                break;
+
+            default:
+                Arrays.fill(amplitudes, offset, offset + length, 1);
+        }
+    }
+
+    /**
+     * Decodifica as amplitudes de um canal em precisão simples (float).
+     *
+     * @param audioWavHeader - Especificações do header do arquivo WAV
+     * @param wavData        - Dados do arquivo WAV (Little endian)
+     * @param position       - Posição em 'wavData' da primeira amostra do canal
+     * @param amplitudes     - Amplitudes decodificadas
+     * @param offset         - Posição da primeira amplitude em 'amplitudes'
+     * @param length         - Número de amplitudes
+     */
+    static void decode(AudioWavHeader audioWavHeader, ByteBuffer wavData, int position, float[] amplitudes, int offset, int length) {
+        int stride = audioWavHeader.getChannels() * audioWavHeader.getBytesPerSample();
+
+        switch (audioWavHeader.getBitsPerSample()) {
+            case 8:
+                decodePcm8(wavData, position, stride, amplitudes, offset, length);
+                break;
+
+            case 16:
+                decodePcm16(wavData, position, stride, amplitudes, offset, length);
+                break;
+
+            case 24:
+                decodePcm24(wavData, position, stride, amplitudes, offset, length);
+                break;
+
+            case 32:
+                if (audioWavHeader.getAudioFormat() == AudioWavFormat.WAVE_FORMAT_IEEE_FLOAT) {
+                    decodeIeeeFloat(wavData, position, stride, amplitudes, offset, length);
+                } else {
+                    decodePcm32(wavData, position, stride, amplitudes, offset, length);
+                }
+                break;
+
+            default:
+                Arrays.fill(amplitudes, offset, offset + length, 1);
+        }
+    }
+
+    // 8 bits - Sem sinal
+    private static void decodePcm8(ByteBuffer wavData, int position, int stride, double[] amplitudes, int offset, int length) {
+        for (int index = offset; index < offset + length; index++, position += stride) {
+            int amplitude = (wavData.get(position) & 0xff) - 128;
+            amplitudes[index] = (amplitude == 0) ? 1 : amplitude;
+        }
+    }
+
+    private static void decodePcm8(ByteBuffer wavData, int position, int stride, float[] amplitudes, int offset, int length) {
+        for (int index = offset; index < offset + length; index++, position += stride) {
+            int amplitude = (wavData.get(position) & 0xff) - 128;
+            amplitudes[index] = (amplitude == 0) ? 1 : amplitude;
+        }
+    }
+
+    // 16 bits
+    private static void decodePcm16(ByteBuffer wavData, int position, int stride, double[] amplitudes, int offset, int length) {
+        for (int index = offset; index < offset + length; index++, position += stride) {
+            int amplitude = wavData.getShort(position);
+            amplitudes[index] = (amplitude == 0) ? 1 : amplitude;
+        }
+    }
+
+    private static void decodePcm16(ByteBuffer wavData, int position, int stride, float[] amplitudes, int offset, int length) {
+        for (int index = offset; index < offset + length; index++, position += stride) {
+            int amplitude = wavData.getShort(position);
+            amplitudes[index] = (amplitude == 0) ? 1 : amplitude;
+        }
+    }
+
+    // 24 bits
+    private static void decodePcm24(ByteBuffer wavData, int position, int stride, double[] amplitudes, int offset, int length) {
+        for (int index = offset; index < offset + length; index++, position += stride) {
+            int amplitude = (wavData.get(position) & 0xff)
+                          | (wavData.get(position + 1) & 0xff) << 8
+                          | wavData.get(position + 2) << 16;
+            amplitudes[index] = (amplitude == 0) ? 1 : amplitude;
+        }
+    }
+
+    private static void decodePcm24(ByteBuffer wavData, int position, int stride, float[] amplitudes, int offset, int length) {
+        for (int index = offset; index < offset + length; index++, position += stride) {
+            int amplitude = (wavData.get(position) & 0xff)
+                          | (wavData.get(position + 1) & 0xff) << 8
+                          | wavData.get(position + 2) << 16;
+            amplitudes[index] = (amplitude == 0) ? 1 : amplitude;
+        }
+    }
+
+    // 32 bits
+    private static void decodePcm32(ByteBuffer wavData, int position, int stride, double[] amplitudes, int offset, int length) {
+        for (int index = offset; index < offset + length; index++, position += stride) {
+            int amplitude = wavData.getInt(position);
+            amplitudes[index] = (amplitude == 0) ? 1 : amplitude;
+        }
+    }
+
+    private static void decodePcm32(ByteBuffer wavData, int position, int stride, float[] amplitudes, int offset, int length) {
+        for (int index = offset; index < offset + length; index++, position += stride) {
+            int amplitude = wavData.getInt(position);
+            amplitudes[index] = (amplitude == 0) ? 1 : amplitude;
+        }
+    }
+
+    // 32 bits - IEEE Float (0.24 Float Type 3) - Escalado para a faixa de 32 bits
+    private static void decodeIeeeFloat(ByteBuffer wavData, int position, int stride, double[] amplitudes, int offset, int length) {
+        for (int index = offset; index < offset + length; index++, position += stride) {
+            int amplitude = (int) (wavData.getFloat(position) * 2147483647F);
+            amplitudes[index] = (amplitude == 0) ? 1 : amplitude;
+        }
+    }
+
+    private static void decodeIeeeFloat(ByteBuffer wavData, int position, int stride, float[] amplitudes, int offset, int length) {
+        for (int index = offset; index < offset + length; index++, position += stride) {
+            int amplitude = (int) (wavData.getFloat(position) * 2147483647F);
+            amplitudes[index] = (amplitude == 0) ? 1 : amplitude;
+        }
+    }
+
+}
\ No newline at end of file
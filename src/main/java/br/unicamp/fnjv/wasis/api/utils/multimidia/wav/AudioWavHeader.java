@@ -15,7 +15,9 @@ public class AudioWavHeader {
 
     private String headerError;
 
-    private final int HEADER_BYTE_LENGTH = 65536;
+    /** Número máximo de bytes lidos do início do arquivo para carregar o Header. */
+    public static final int HEADER_BYTE_LENGTH = 65536;
+
     private byte[] headerBuffer = new byte[HEADER_BYTE_LENGTH];
 
     private final String RIFF_HEADER = "RIFF";
@@ -39,6 +41,8 @@ public class AudioWavHeader {
     private String subChunk2Id;   // 4 bytes, big endian
     private int subChunk2Size;    // 4 bytes, little endian
 
+    private int dataChunkOffset;  // Posição (em bytes) do início dos dados no arquivo
+
     private int pointer = 0;
 
     /**
@@ -203,6 +207,9 @@ public class AudioWavHeader {
                 }
             }
 
+            // Os dados começam logo após o ID e o tamanho do pedaço 'DATA'
+            dataChunkOffset = pointer;
+
         } catch (Exception e) {
             headerError = e.getMessage();
 
@@ -310,6 +317,26 @@ public class AudioWavHeader {
         return bytesPerSample;
     }
 
+    /**
+     * Retorna a posição (em bytes) do início dos dados no arquivo WAV, logo após o Header.
+     *
+     * @return dataChunkOffset
+     */
+    public int getDataChunkOffset() {
+        return dataChunkOffset;
+    }
+
+    /**
+     * Retorna o tamanho (em bytes) dos dados informado pelo pedaço 'DATA' do Header.
+     * <br>
+     * Pode ser inválido em arquivos gravados por fluxo (Ex: 0 ou 0xFFFFFFFF) ou truncados.
+     *
+     * @return dataChunkSize - Sem sinal
+     */
+    public long getDataChunkSize() {
+        return subChunk2Size & 0xFFFFFFFFL;
+    }
+
     /**
      * Imprime as especificações do Header do arquivo WAV.
      */
@@ -0,0 +1,95 @@
+package br.unicamp.fnjv.wasis.api.utils.statistics;
+
+/**
+ * <pre>
+ * Mean and standard deviation of each column of a sequence of vectors, accumulated one vector at a time.
+ *
+ * Only the running sums are kept, so the memory does not grow with the number of vectors.
+ * The mean is the plain sum divided by the number of vectors (as in <i>BasicStatistics.mean()</i>).
+ * The sample variance uses Welford's algorithm.
+ * </pre>
+ *
+ * @author Leandro Tacioli
+ */
+public class RunningStatistics {
+
+    /** Number of vectors accumulated. */
+    private long count;
+
+    /** Sum of the values of each column. */
+    private final double[] sum;
+
+    /** Running mean of each column (Welford). */
+    private final double[] runningMean;
+
+    /** Sum of squared deviations from the running mean of each column (Welford). */
+    private final double[] squaredDeviations;
+
+    /**
+     * Mean and standard deviation of each column of a sequence of vectors, accumulated one vector at a time.
+     *
+     * @param columns - Number of columns of the vectors
+     */
+    public RunningStatistics(int columns) {
+        this.sum = new double[columns];
+        this.runningMean = new double[columns];
+        this.squaredDeviations = new double[columns];
+    }
+
+    /**
+     * Accumulates a vector.
+     *
+     * @param values
+     */
+    public void accept(double[] values) {
+        count++;
+
+        for (int i = 0; i < sum.length; i++) {
+            sum[i] += values[i];
+
+            double deviation = values[i] - runningMean[i];
+            runningMean[i] += deviation / count;
+            squaredDeviations[i] += deviation * (values[i] - runningMean[i]);
+        }
+    }
+
+    /**
+     * Returns the number of vectors accumulated.
+     *
+     * @return count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the mean of each column.
+     *
+     * @return mean
+     */
+    public double[] getMean() {
+        double[] mean = new double[sum.length];
+
+        for (int i = 0; i < sum.length; i++) {
+            mean[i] = (count == 0) ? Double.NaN : sum[i] / count;
+        }
+
+        return mean;
+    }
+
+    /**
+     * Returns the standard deviation (from the sample variance) of each column.
+     *
+     * @return standardDeviation
+     */
+    public double[] getStandardDeviation() {
+        double[] standardDeviation = new double[sum.length];
+
+        for (int i = 0; i < sum.length; i++) {
+            standardDeviation[i] = (count == 0) ? Double.NaN : Math.sqrt(squaredDeviations[i] / (count - 1));
+        }
+
+        return standardDeviation;
+    }
+
+}
\ No newline at end of file
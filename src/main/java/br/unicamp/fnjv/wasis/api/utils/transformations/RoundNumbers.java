@@ -5,6 +5,15 @@ import java.math.RoundingMode;
 
 public class RoundNumbers {
 
+	/** Powers of ten used by <i>roundHalfUp()</i> - Exact in double precision. */
+	private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8 };
+
+	/** Largest scaled value handled by <i>roundHalfUp()</i> without falling back to BigDecimal. */
+	private static final double MAXIMUM_SCALED_VALUE = 1e9;
+
+	/** Distance from a tie (x.5) below which <i>roundHalfUp()</i> falls back to BigDecimal. */
+	private static final double TIE_TOLERANCE = 1e-6;
+
 	/**
 	 * Round a number to N decimal places.
 	 *
@@ -14,9 +23,93 @@ public class RoundNumbers {
 	 * @return roundedValue
 	 */
 	public static double round(double value, int decimalPlaces) {
+		return roundHalfUp(value, decimalPlaces);
+	}
+
+	/**
+	 * <pre>
+	 * Round a number to N decimal places (HALF_UP) without allocating any object.
+	 *
+	 * The result is the same as <i>round(value, decimalPlaces, RoundingMode.HALF_UP)</i>:
+	 * - The scaled value (<i>value * 10^N</i>) is rounded to an integer, which is exact unless the scaled value is too
+	 *   close to a tie (x.5) to tell the side of the decimal representation of <i>value</i>.
+	 * - The integer divided by <i>10^N</i> is the double nearest to the rounded decimal, as <i>BigDecimal.doubleValue()</i>.
+	 * Ties, large values, NaN / Infinity and more than 8 decimal places fall back to BigDecimal.
+	 * </pre>
+	 *
+	 * @param value - Value to be rounded
+	 * @param decimalPlaces - Number of decimal places
+	 *
+	 * @return roundedValue
+	 */
+	public static double roundHalfUp(double value, int decimalPlaces) {
+		if (decimalPlaces >= 0 && decimalPlaces < POWERS_OF_TEN.length) {
+			double powerOfTen = POWERS_OF_TEN[decimalPlaces];
+			double scaledValue = Math.abs(value) * powerOfTen;
+
+			if (scaledValue < MAXIMUM_SCALED_VALUE) {
+				double integerPart = Math.floor(scaledValue);
+				double fraction = scaledValue - integerPart;
+
+				if (Math.abs(fraction - 0.5) > TIE_TOLERANCE) {
+					double roundedValue = (fraction > 0.5) ? integerPart + 1 : integerPart;
+
+					if (roundedValue == 0) {
+						return 0.0;   // BigDecimal has no negative zero
+					}
+
+					return (value < 0) ? -roundedValue / powerOfTen : roundedValue / powerOfTen;
+				}
+			}
+		}
+
 		return round(value, decimalPlaces, RoundingMode.HALF_UP);
 	}
 
+	/**
+	 * Round all numbers of an array to N decimal places (HALF_UP) - Ex: When serializing features computed without rounding.
+	 *
+	 * @param values - Values to be rounded
+	 * @param decimalPlaces - Number of decimal places
+	 *
+	 * @return roundedValues - New array
+	 */
+	public static double[] round(double[] values, int decimalPlaces) {
+		if (values == null) {
+			return null;
+		}
+
+		double[] roundedValues = new double[values.length];
+
+		for (int i = 0; i < values.length; i++) {
+			roundedValues[i] = roundHalfUp(values[i], decimalPlaces);
+		}
+
+		return roundedValues;
+	}
+
+	/**
+	 * Round all numbers of a matrix to N decimal places (HALF_UP) - Ex: When serializing features computed without rounding.
+	 *
+	 * @param values - Values to be rounded
+	 * @param decimalPlaces - Number of decimal places
+	 *
+	 * @return roundedValues - New matrix
+	 */
+	public static double[][] round(double[][] values, int decimalPlaces) {
+		if (values == null) {
+			return null;
+		}
+
+		double[][] roundedValues = new double[values.length][];
+
+		for (int i = 0; i < values.length; i++) {
+			roundedValues[i] = round(values[i], decimalPlaces);
+		}
+
+		return roundedValues;
+	}
+
 	/**
 	 * Round a number to N decimal places.
 	 *
@@ -0,0 +1,259 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.features;
+
+import br.unicamp.fnjv.wasis.api.utils.multimidia.wav.AudioWavFormat;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <pre>
+ * Events proposed by <i>AcousticEventDetector</i> for tone bursts over low background noise.
+ *
+ * An event starts at the first frame that overlaps its burst and ends at the end of the last one, so its samples must
+ * hold the burst and not exceed it by more than one frame on each side.
+ * </pre>
+ */
+class AcousticEventDetectorTest {
+
+    private static final double SAMPLE_RATE = AudioWavFormat.TARGET_SAMPLE_RATE;
+
+    /** Standard deviation of the background noise (About -60 dBFS). */
+    private static final double NOISE_DEVIATION = 0.001;
+
+    /** Amplitude of the tone bursts. */
+    private static final double BURST_AMPLITUDE = 0.5;
+
+    /** Fade in and fade out of the tone bursts (Milliseconds). */
+    private static final int BURST_FADE = 5;
+
+    /** Widest frequency band accepted for a pure tone (Hz). */
+    private static final int MAXIMUM_TONE_BAND = 400;
+
+    private final FeatureConfig config = FeatureConfig.builder().build();
+
+    private final int frameLength = config.getFrameLength();
+
+    @Test
+    void toneBurstsInSilenceAndNoise() {
+        for (double noiseDeviation : new double[] {0, NOISE_DEVIATION}) {
+            double[] signal = background(3000, noiseDeviation);
+
+            int[] firstBurst = addBurst(signal, 500, 300, 3000);
+            int[] secondBurst = addBurst(signal, 1800, 400, 8000);
+
+            List<AcousticEvent> events = AcousticEventDetector.detect(config, SAMPLE_RATE, signal);
+
+            assertEquals(2, events.size(), "Noise " + noiseDeviation + " - events " + events);
+
+            assertEvent(events.get(0), firstBurst, 3000);
+            assertEvent(events.get(1), secondBurst, 8000);
+        }
+    }
+
+    @Test
+    void burstsCloserThanMinimumGapAreMerged() {
+        double[] signal = background(2000, NOISE_DEVIATION);
+
+        int[] firstBurst = addBurst(signal, 400, 200, 4000);
+        int[] secondBurst = addBurst(signal, 640, 200, 4000);     // 40 ms after the first burst
+        int[] thirdBurst = addBurst(signal, 1140, 200, 4000);     // 300 ms after the second burst
+
+        AcousticEventDetector detector = new AcousticEventDetector(config, SAMPLE_RATE);
+        detector.setMinimumGap(100);
+        detector.accept(signal, 0, signal.length);
+        detector.end();
+
+        List<AcousticEvent> events = detector.getEvents();
+
+        assertEquals(2, events.size(), "Events " + events);
+
+        assertEvent(events.get(0), new int[] {firstBurst[0], secondBurst[1]}, 4000);
+        assertEvent(events.get(1), thirdBurst, 4000);
+
+        // Without the gap the bursts are not merged
+        detector = new AcousticEventDetector(config, SAMPLE_RATE);
+        detector.setMinimumGap(0);
+        detector.accept(signal, 0, signal.length);
+        detector.end();
+
+        assertEquals(3, detector.getEvents().size(), "Events " + detector.getEvents());
+    }
+
+    @Test
+    void eventsShorterThanMinimumDurationAreDiscarded() {
+        double[] signal = background(2000, NOISE_DEVIATION);
+
+        addBurst(signal, 400, 20, 5000);
+        int[] longBurst = addBurst(signal, 1000, 300, 5000);
+
+        AcousticEventDetector detector = new AcousticEventDetector(config, SAMPLE_RATE);
+        detector.setMinimumDuration(150);
+        detector.accept(signal, 0, signal.length);
+        detector.end();
+
+        List<AcousticEvent> events = detector.getEvents();
+
+        assertEquals(1, events.size(), "Events " + events);
+        assertEvent(events.get(0), longBurst, 5000);
+
+        // The short burst is an event without the minimum duration
+        detector = new AcousticEventDetector(config, SAMPLE_RATE);
+        detector.setMinimumDuration(0);
+        detector.accept(signal, 0, signal.length);
+        detector.end();
+
+        assertEquals(2, detector.getEvents().size(), "Events " + detector.getEvents());
+    }
+
+    @Test
+    void chunkedInputMatchesSingleInput() {
+        double[] signal = background(4000, NOISE_DEVIATION);
+
+        addBurst(signal, 300, 20, 2000);       // Discarded
+        addBurst(signal, 700, 250, 3000);
+        addBurst(signal, 990, 150, 3000);      // Merged with the previous burst
+        addBurst(signal, 2000, 600, 10000);
+        addBurst(signal, 3500, 300, 6000);
+
+        AcousticEventDetector single = new AcousticEventDetector(config, SAMPLE_RATE);
+        single.setMinimumDuration(100);
+        single.accept(signal, 0, signal.length);
+        single.end();
+
+        List<AcousticEvent> expected = single.getEvents();
+
+        assertEquals(3, expected.size(), "Events " + expected);
+
+        Random random = new Random(19);
+
+        for (int maximumChunk : new int[] {1, 7, frameLength - 1, frameLength + 1, 65536}) {
+            AcousticEventDetector chunked = new AcousticEventDetector(config, SAMPLE_RATE);
+            chunked.setMinimumDuration(100);
+
+            // Events split across the chunks - Sizes from 1 to maximumChunk samples
+            for (int offset = 0; offset < signal.length; ) {
+                int length = Math.min(signal.length - offset, 1 + random.nextInt(maximumChunk));
+
+                chunked.accept(signal, offset, length);
+                offset += length;
+            }
+
+            chunked.end();
+
+            assertEvents(expected, chunked.getEvents(), "Chunks up to " + maximumChunk);
+        }
+    }
+
+    @Test
+    void eventsAreClosedBeforeTheEnd() {
+        double[] signal = background(2000, NOISE_DEVIATION);
+
+        int[] burst = addBurst(signal, 300, 200, 3000);
+
+        AcousticEventDetector detector = new AcousticEventDetector(config, SAMPLE_RATE);
+
+        // Burst and more than minimumGap of silence
+        int firstPart = burst[1] + (int) (0.5 * SAMPLE_RATE);
+
+        detector.accept(signal, 0, firstPart);
+
+        assertEquals(1, detector.getEvents().size(), "Events " + detector.getEvents());
+        assertEvent(detector.getEvents().get(0), burst, 3000);
+
+        detector.accept(signal, firstPart, signal.length - firstPart);
+        detector.end();
+
+        assertEquals(1, detector.getEvents().size(), "Events " + detector.getEvents());
+        assertThrows(IllegalStateException.class, () -> detector.accept(signal, 0, 1));
+        assertThrows(IllegalStateException.class, detector::end);
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new AcousticEventDetector(null, SAMPLE_RATE));
+        assertThrows(IllegalArgumentException.class, () -> new AcousticEventDetector(config, 0));
+
+        AcousticEventDetector detector = new AcousticEventDetector(config, SAMPLE_RATE);
+
+        assertThrows(IllegalArgumentException.class, () -> detector.setEnergyThreshold(0));
+        assertThrows(IllegalArgumentException.class, () -> detector.setFluxThreshold(-1));
+        assertThrows(IllegalArgumentException.class, () -> detector.setMinimumDuration(-1));
+        assertThrows(IllegalArgumentException.class, () -> detector.setMinimumGap(-1));
+    }
+
+    /**
+     * The event must hold the burst, starting and ending less than a frame away from it, and its band must hold the tone.
+     *
+     * @param event
+     * @param burst     - First and last samples of the burst
+     * @param frequency - Frequency of the tone (Hz)
+     */
+    private void assertEvent(AcousticEvent event, int[] burst, int frequency) {
+        assertTrue(event.getInitialSample() <= burst[0] && event.getInitialSample() > burst[0] - frameLength,
+                "Initial sample " + event.getInitialSample() + " - burst " + burst[0]);
+        assertTrue(event.getFinalSample() >= burst[1] && event.getFinalSample() < burst[1] + frameLength,
+                "Final sample " + event.getFinalSample() + " - burst " + burst[1]);
+
+        assertTrue(event.getInitialFrequency() <= frequency && event.getFinalFrequency() >= frequency,
+                "Band " + event.getInitialFrequency() + " - " + event.getFinalFrequency() + " - tone " + frequency);
+        assertTrue(event.getFinalFrequency() - event.getInitialFrequency() <= MAXIMUM_TONE_BAND,
+                "Band " + event.getInitialFrequency() + " - " + event.getFinalFrequency() + " - tone " + frequency);
+    }
+
+    private static void assertEvents(List<AcousticEvent> expected, List<AcousticEvent> actual, String message) {
+        assertEquals(expected.size(), actual.size(), message + " - events " + actual);
+
+        for (int index = 0; index < expected.size(); index++) {
+            assertEquals(expected.get(index).toString(), actual.get(index).toString(), message + " - event " + index);
+        }
+    }
+
+    /**
+     * White noise (Or silence when the deviation is zero).
+     *
+     * @param milliseconds   - Duration
+     * @param noiseDeviation - Standard deviation of the noise
+     *
+     * @return signal
+     */
+    private static double[] background(int milliseconds, double noiseDeviation) {
+        Random random = new Random(23);
+        double[] signal = new double[(int) (milliseconds * SAMPLE_RATE / 1000)];
+
+        for (int index = 0; index < signal.length; index++) {
+            signal[index] = noiseDeviation * random.nextGaussian();
+        }
+
+        return signal;
+    }
+
+    /**
+     * Adds a tone burst with fade in and fade out to the signal.
+     *
+     * @param signal
+     * @param start     - Milliseconds
+     * @param duration  - Milliseconds
+     * @param frequency - Hz
+     *
+     * @return burst - First and last samples of the burst
+     */
+    private static int[] addBurst(double[] signal, int start, int duration, int frequency) {
+        int initialSample = (int) (start * SAMPLE_RATE / 1000);
+        int numSamples = (int) (duration * SAMPLE_RATE / 1000);
+        int fadeSamples = (int) (BURST_FADE * SAMPLE_RATE / 1000);
+
+        for (int index = 0; index < numSamples; index++) {
+            double fade = Math.min(1, Math.min(index + 1, numSamples - index) / (double) fadeSamples);
+
+            signal[initialSample + index] += BURST_AMPLITUDE * fade * Math.sin(2 * Math.PI * frequency * index / SAMPLE_RATE);
+        }
+
+        return new int[] {initialSample, initialSample + numSamples - 1};
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,89 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.features;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the <i>DIRECT</i> and <i>FFT</i> autocorrelation methods and checks the crossover chosen by <i>AUTOMATIC</i>.
+ */
+class AutoCorrelationTest {
+
+    /** Maximum error allowed, relative to the energy of the frame (Lag 0). */
+    private static final double TOLERANCE = 1e-12;
+
+    private static final int[] FRAME_LENGTHS = {1, 2, 7, 64, 256, 1000, 1024, 2048};
+
+    private static final int[] ORDERS = {1, 2, 12, 24, 48, 64, 128};
+
+    private final Random random = new Random(14L);
+
+    @Test
+    void fftMatchesDirect() {
+        for (int frameLength : FRAME_LENGTHS) {
+            for (int order : ORDERS) {
+                double[] samples = new double[frameLength];
+
+                for (int i = 0; i < frameLength; i++) {
+                    samples[i] = random.nextInt(65536) - 32768;
+                }
+
+                double[] direct = new double[order + 1];
+                double[] fft = new double[order + 1];
+
+                AutoCorrelation.direct(samples, order, direct);
+                AutoCorrelation.fft(samples, order, fft);
+
+                for (int i = 0; i <= order; i++) {
+                    assertTrue(Math.abs(direct[i] - fft[i]) <= TOLERANCE * Math.max(1, direct[0]),
+                            "frame " + frameLength + " - order " + order + " - lag " + i + " - direct " + direct[i] + " - fft " + fft[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void directIsBitIdenticalToLaggedSum() {
+        double[] samples = new double[1024];
+
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = random.nextGaussian();
+        }
+
+        double[] autoCorrelation = new double[25];
+        AutoCorrelation.compute(samples, 24, AutoCorrelationMethod.AUTOMATIC, autoCorrelation);
+
+        for (int i = 0; i <= 24; i++) {
+            double sum = 0;
+
+            for (int k = i; k < samples.length; k++) {
+                sum += samples[k - i] * samples[k];
+            }
+
+            assertEquals(sum, autoCorrelation[i]);
+        }
+    }
+
+    @Test
+    void fftOnlyWinsAboveOrder56WithFramesOf1024() {
+        for (int order = 1; order <= 56; order++) {
+            assertEquals(AutoCorrelationMethod.DIRECT, AutoCorrelation.chooseMethod(1024, order), "order " + order);
+        }
+
+        for (int order = 64; order <= 256; order++) {
+            assertEquals(AutoCorrelationMethod.FFT, AutoCorrelation.chooseMethod(1024, order), "order " + order);
+        }
+    }
+
+    @Test
+    void fftSizeAvoidsCircularAliasing() {
+        assertEquals(2, AutoCorrelation.fftSize(1, 1));
+        assertEquals(1024, AutoCorrelation.fftSize(1000, 24));
+        assertEquals(2048, AutoCorrelation.fftSize(1024, 1));
+        assertEquals(2048, AutoCorrelation.fftSize(1024, 1024));
+    }
+
+}
\ No newline at end of file
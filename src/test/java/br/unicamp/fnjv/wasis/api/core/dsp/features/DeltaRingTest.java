@@ -0,0 +1,121 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.features;
+
+import br.unicamp.fnjv.wasis.api.utils.mathematics.MatrixOperations;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares <i>DeltaRing</i> with the former Delta of <i>MFCC</i> (Padded matrix, one regression per frame).
+ */
+class DeltaRingTest {
+
+    private static final int COLUMNS = 13;
+
+    /** Fewer frames than Delta N, fewer than 2 * Delta N + 1, and long inputs. */
+    private static final int[] NUM_FRAMES = {1, 2, 3, 4, 5, 6, 7, 10, 100, 1000};
+
+    private final Random random = new Random(13L);
+
+    @Test
+    void deltaAndDeltaDeltaAreBitIdenticalToPaddedMatrix() {
+        for (int deltaN = 1; deltaN <= 4; deltaN++) {
+            for (int numFrames : NUM_FRAMES) {
+                double[][] coefficients = new double[numFrames][COLUMNS];
+
+                for (double[] frame : coefficients) {
+                    for (int indexColumn = 0; indexColumn < COLUMNS; indexColumn++) {
+                        frame[indexColumn] = random.nextGaussian() * 100;
+                    }
+                }
+
+                double[][] expectedDelta = paddedMatrixDelta(coefficients, deltaN);
+                double[][] expectedDeltaDelta = paddedMatrixDelta(expectedDelta, deltaN);
+
+                double[][] delta = new double[numFrames][];
+                double[][] deltaDelta = new double[numFrames][];
+                double[][] emittedCoefficients = new double[numFrames][];
+                int[] emittedFrames = new int[1];
+
+                DeltaRing deltaRing = new DeltaRing(deltaN, COLUMNS, (indexFrame, frameCoefficients, frameDelta, frameDeltaDelta) -> {
+                    assertEquals(emittedFrames[0]++, indexFrame);
+
+                    emittedCoefficients[indexFrame] = frameCoefficients.clone();
+                    delta[indexFrame] = frameDelta.clone();
+                    deltaDelta[indexFrame] = frameDeltaDelta.clone();
+                });
+
+                for (double[] frame : coefficients) {
+                    deltaRing.push(frame);
+                }
+
+                deltaRing.end();
+
+                String message = "deltaN " + deltaN + " - frames " + numFrames;
+                assertEquals(numFrames, emittedFrames[0], message);
+
+                for (int indexFrame = 0; indexFrame < numFrames; indexFrame++) {
+                    assertArrayEquals(coefficients[indexFrame], emittedCoefficients[indexFrame], message + " - coefficients " + indexFrame);
+                    assertArrayEquals(expectedDelta[indexFrame], delta[indexFrame], message + " - delta " + indexFrame);
+                    assertArrayEquals(expectedDeltaDelta[indexFrame], deltaDelta[indexFrame], message + " - delta delta " + indexFrame);
+                }
+            }
+        }
+    }
+
+    /**
+     * Former <i>MFCC.performDelta()</i> - Pads the data by repeating the border frames and multiplies the arithmetic
+     * progression by each window of <i>2 * deltaN + 1</i> frames.
+     */
+    private static double[][] paddedMatrixDelta(double[][] data, int deltaN) {
+        double[][] deltaProgression = new double[1][2 * deltaN + 1];
+
+        for (int indexProgression = -deltaN; indexProgression <= deltaN; indexProgression++) {
+            deltaProgression[0][indexProgression + deltaN] = indexProgression;
+        }
+
+        double deltaDenominator = 0;
+
+        for (int indexDelta = 0; indexDelta <= deltaN; indexDelta++) {
+            deltaDenominator += Math.pow(indexDelta, 2);
+        }
+
+        deltaDenominator = 2 * deltaDenominator;
+
+        int totalRows = data.length;
+        double[][] paddedData = new double[totalRows + 2 * deltaN][];
+
+        for (int i = 0; i < deltaN; i++) {
+            paddedData[i] = data[0];
+            paddedData[totalRows + deltaN + i] = data[totalRows - 1];
+        }
+
+        for (int i = 0; i < totalRows; i++) {
+            paddedData[i + deltaN] = data[i];
+        }
+
+        double[][] delta = new double[totalRows][];
+
+        for (int indexFrame = 0; indexFrame < totalRows; indexFrame++) {
+            double[][] paddedToProcess = new double[2 * deltaN + 1][];
+
+            for (int indexPadded = 0; indexPadded < 2 * deltaN + 1; indexPadded++) {
+                paddedToProcess[indexPadded] = paddedData[indexFrame + indexPadded];
+            }
+
+            double[][] numerator = MatrixOperations.multiplyMatrices(deltaProgression, paddedToProcess);
+
+            for (int indexNumerator = 0; indexNumerator < numerator[0].length; indexNumerator++) {
+                numerator[0][indexNumerator] = numerator[0][indexNumerator] / deltaDenominator;
+            }
+
+            delta[indexFrame] = numerator[0];
+        }
+
+        return delta;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.features;
+
+import br.unicamp.fnjv.wasis.api.core.dsp.fft.FFTEngine;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the validation of <i>FeatureConfig</i> against what the feature extractors support.
+ */
+class FeatureConfigTest {
+
+    private static final double SAMPLE_RATE = 44100;
+
+    @Test
+    void lpccOrderMustBeAtLeast2() {
+        assertThrows(IllegalArgumentException.class, () -> FeatureConfig.builder().lpccOrder(1).build());
+        assertThrows(IllegalArgumentException.class, () -> new LPCC(24, 1));
+
+        LPCC lpcc = new LPCC(FeatureConfig.builder().lpccOrder(2).build());
+        lpcc.process(randomSignal(4096));
+
+        assertEquals(2, lpcc.getFeature()[0].length);
+    }
+
+    @Test
+    void columbiaEngineRequiresFrameLengthPowerOf2() {
+        assertThrows(IllegalArgumentException.class, () -> FeatureConfig.builder().frameLength(1000).fftEngine(FFTEngine.COLUMBIA).build());
+
+        FeatureConfig config = FeatureConfig.builder().frameLength(1000).fftEngine(FFTEngine.MIXED_RADIX).build();
+
+        assertEquals(FFTEngine.MIXED_RADIX, config.getFftEngine());
+        assertEquals(config, config.toBuilder().build());
+
+        MFCC mfcc = new MFCC(config, SAMPLE_RATE);
+        mfcc.process(randomSignal(4096));
+
+        PLP plp = new PLP(config, SAMPLE_RATE);
+        plp.process(randomSignal(4096));
+
+        PowerSpectrum powerSpectrum = new PowerSpectrum(config, SAMPLE_RATE);
+        powerSpectrum.process(randomSignal(4096));
+
+        assertEquals(config.getMfccCoefficients() - 1, mfcc.getMean().length / 3);
+        assertEquals(config.getLpccOrder(), plp.getMean().length);
+    }
+
+    @Test
+    void fftEngineIsPartOfTheConfiguration() {
+        FeatureConfig columbia = FeatureConfig.builder().fftEngine(FFTEngine.COLUMBIA).build();
+        FeatureConfig mixedRadix = FeatureConfig.builder().fftEngine(FFTEngine.MIXED_RADIX).build();
+
+        assertEquals(FFTEngine.COLUMBIA, columbia.getFftEngine());
+        assertEquals(FFTEngine.MIXED_RADIX, columbia.toBuilder().fftEngine(FFTEngine.MIXED_RADIX).build().getFftEngine());
+        assertNotEquals(columbia, mixedRadix);
+    }
+
+    private static double[] randomSignal(int length) {
+        Random random = new Random(16L);
+        double[] signal = new double[length];
+
+        for (int i = 0; i < length; i++) {
+            signal[i] = random.nextInt(65536) - 32768;
+        }
+
+        return signal;
+    }
+
+}
\ No newline at end of file
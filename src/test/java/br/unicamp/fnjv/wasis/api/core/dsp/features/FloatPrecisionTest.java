@@ -0,0 +1,131 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.features;
+
+import br.unicamp.fnjv.wasis.api.core.dsp.fft.FFTEngine;
+import br.unicamp.fnjv.wasis.api.utils.multimidia.wav.AudioWavFormat;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <pre>
+ * Maximum deviation of the single precision path (<i>process(float[])</i>) from <i>process(double[])</i>, for the features
+ * that have a float path (<i>POWER_SPECTRUM</i> and <i>MFCC</i>).
+ *
+ * The rounding of the coefficients is deferred on both paths, so the deviation is not hidden by the rounding to
+ * <i>FeatureExtraction.DECIMAL_PLACES</i>.
+ * </pre>
+ */
+class FloatPrecisionTest {
+
+    /** Half of the last decimal place kept by the features - The float path must not change a rounded coefficient by more than one unit. */
+    private static final double MAXIMUM_DEVIATION = 0.5 * Math.pow(10, -FeatureExtraction.DECIMAL_PLACES);
+
+    /** Duration of the synthetic signal (seconds). */
+    private static final int SYNTHETIC_SECONDS = 10;
+
+    private static final int[] FRAME_LENGTHS = {256, 1024, 2048};
+
+    private static final double SAMPLE_RATE = AudioWavFormat.TARGET_SAMPLE_RATE;
+
+    private final double[] audioSignal = syntheticSignal();
+
+    private final float[] floatAudioSignal = toFloat(audioSignal);
+
+    @Test
+    void powerSpectrumDeviationIsBounded() {
+        for (int frameLength : FRAME_LENGTHS) {
+            FeatureConfig config = FeatureConfig.builder().frameLength(frameLength).build();
+
+            PowerSpectrum powerSpectrum = new PowerSpectrum(config, SAMPLE_RATE);
+            PowerSpectrum floatPowerSpectrum = new PowerSpectrum(config, SAMPLE_RATE);
+
+            powerSpectrum.setRoundingDeferred(true);
+            floatPowerSpectrum.setRoundingDeferred(true);
+
+            powerSpectrum.process(audioSignal);
+            floatPowerSpectrum.process(floatAudioSignal);
+
+            assertDeviationBounded(powerSpectrum.getFeature(), floatPowerSpectrum.getFeature(), "Power Spectrum - frame " + frameLength);
+        }
+    }
+
+    @Test
+    void mfccDeviationIsBounded() {
+        for (int frameLength : FRAME_LENGTHS) {
+            FeatureConfig config = FeatureConfig.builder().frameLength(frameLength).build();
+
+            MFCC mfcc = new MFCC(config, SAMPLE_RATE);
+            MFCC floatMfcc = new MFCC(config, SAMPLE_RATE);
+
+            mfcc.setRoundingDeferred(true);
+            floatMfcc.setRoundingDeferred(true);
+
+            mfcc.process(audioSignal);
+            floatMfcc.process(floatAudioSignal);
+
+            assertDeviationBounded(mfcc.getFeature(), floatMfcc.getFeature(), "MFCC - frame " + frameLength);
+        }
+    }
+
+    @Test
+    void singlePrecisionRejectsFrameLengthsNotPowerOf2() {
+        // The double path accepts any length with the MIXED_RADIX engine - The float path does not
+        FeatureConfig config = FeatureConfig.builder().frameLength(1000).fftEngine(FFTEngine.MIXED_RADIX).build();
+
+        PowerSpectrum powerSpectrum = new PowerSpectrum(config, SAMPLE_RATE);
+        MFCC mfcc = new MFCC(config, SAMPLE_RATE);
+
+        assertThrows(IllegalArgumentException.class, () -> powerSpectrum.process(floatAudioSignal));
+        assertThrows(IllegalArgumentException.class, () -> mfcc.process(floatAudioSignal));
+    }
+
+    private static void assertDeviationBounded(double[][] expected, double[][] actual, String message) {
+        assertEquals(expected.length, actual.length, message);
+
+        double maximumDeviation = 0;
+
+        for (int indexRow = 0; indexRow < expected.length; indexRow++) {
+            assertEquals(expected[indexRow].length, actual[indexRow].length, message);
+
+            for (int indexColumn = 0; indexColumn < expected[indexRow].length; indexColumn++) {
+                maximumDeviation = Math.max(maximumDeviation, Math.abs(expected[indexRow][indexColumn] - actual[indexRow][indexColumn]));
+            }
+        }
+
+        assertTrue(maximumDeviation <= MAXIMUM_DEVIATION, message + " - Maximum deviation: " + maximumDeviation);
+    }
+
+    /**
+     * Synthetic 16 bits signal - Sum of tones and white noise, with a fixed seed.
+     */
+    private static double[] syntheticSignal() {
+        Random random = new Random(1);
+        double[] audioSignal = new double[(int) SAMPLE_RATE * SYNTHETIC_SECONDS];
+
+        for (int indexSample = 0; indexSample < audioSignal.length; indexSample++) {
+            double time = indexSample / SAMPLE_RATE;
+            double sample = 8000 * Math.sin(2 * Math.PI * 440 * time)
+                          + 4000 * Math.sin(2 * Math.PI * 3150 * time)
+                          + 2000 * random.nextGaussian();
+
+            audioSignal[indexSample] = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(sample)));
+        }
+
+        return audioSignal;
+    }
+
+    private static float[] toFloat(double[] audioSignal) {
+        float[] floatAudioSignal = new float[audioSignal.length];
+
+        for (int indexSample = 0; indexSample < audioSignal.length; indexSample++) {
+            floatAudioSignal[indexSample] = (float) audioSignal[indexSample];
+        }
+
+        return floatAudioSignal;
+    }
+
+}
\ No newline at end of file
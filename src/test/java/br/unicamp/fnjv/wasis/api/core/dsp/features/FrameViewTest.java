@@ -0,0 +1,135 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.features;
+
+import br.unicamp.fnjv.wasis.api.core.dsp.windowing.WindowFunction;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares <i>FrameView</i> and <i>FrameStream</i> with the frames copied by <i>Preprocessing.framing()</i>.
+ */
+class FrameViewTest {
+
+    private static final int FRAME_LENGTH = 16;
+
+    /** Overlaps giving hop = 1, hop = frameLength, half overlap and a hop that does not divide the frame length. */
+    private static final int[] OVERLAPS = {FRAME_LENGTH - 1, 0, FRAME_LENGTH / 2, 5};
+
+    /** Empty, shorter than one hop, exactly one frame, partial last frames and exact multiples of the hop. */
+    private static final int[] SIGNAL_LENGTHS = {0, 1, 7, 15, 16, 17, 31, 32, 33, 100, 160};
+
+    private final Random random = new Random(6L);
+
+    @Test
+    void frameViewMatchesCopiedFrames() {
+        for (int overlap : OVERLAPS) {
+            for (int length : SIGNAL_LENGTHS) {
+                double[] signal = randomSignal(length);
+                double[][] expected = Preprocessing.framing(signal, FRAME_LENGTH, overlap);
+
+                FrameView frameView = new FrameView(signal, FRAME_LENGTH, overlap);
+
+                String message = "overlap " + overlap + " - length " + length;
+                assertEquals(expected.length, frameView.getNumFrames(), message);
+                assertEquals(FRAME_LENGTH - overlap, frameView.getHopSize(), message);
+
+                double[] frame = new double[FRAME_LENGTH];
+
+                for (int indexFrame = 0; indexFrame < expected.length; indexFrame++) {
+                    // Dirty buffer - The padding must overwrite it
+                    Arrays.fill(frame, Double.NaN);
+
+                    assertArrayEquals(expected[indexFrame], frameView.copyFrame(indexFrame, frame), message + " - frame " + indexFrame);
+                }
+            }
+        }
+    }
+
+    @Test
+    void frameViewAppliesWindowAsCopiedFrames() {
+        WindowFunction windowFunction = new WindowFunction(WindowFunction.HAMMING);
+
+        for (int overlap : OVERLAPS) {
+            for (int length : SIGNAL_LENGTHS) {
+                double[] signal = randomSignal(length);
+                double[][] expected = windowFunction.applyWindow(Preprocessing.framing(signal, FRAME_LENGTH, overlap));
+
+                FrameView frameView = new FrameView(signal, FRAME_LENGTH, overlap);
+
+                // Written at an offset, as into an FFT buffer
+                double[] buffer = new double[FRAME_LENGTH + 3];
+
+                for (int indexFrame = 0; indexFrame < expected.length; indexFrame++) {
+                    Arrays.fill(buffer, Double.NaN);
+                    frameView.applyWindow(indexFrame, windowFunction, buffer, 3);
+
+                    double[] windowed = Arrays.copyOfRange(buffer, 3, buffer.length);
+
+                    assertArrayEquals(expected[indexFrame], windowed, "overlap " + overlap + " - length " + length + " - frame " + indexFrame);
+                }
+            }
+        }
+    }
+
+    @Test
+    void frameViewWrapsFrameMatrix() {
+        double[][] frames = Preprocessing.framing(randomSignal(50), FRAME_LENGTH, 4);
+        FrameView frameView = new FrameView(frames);
+
+        assertEquals(frames.length, frameView.getNumFrames());
+
+        for (int indexFrame = 0; indexFrame < frames.length; indexFrame++) {
+            assertArrayEquals(frames[indexFrame], frameView.copyFrame(indexFrame, new double[FRAME_LENGTH]));
+        }
+    }
+
+    @Test
+    void frameStreamMatchesCopiedFramesForAnySplit() {
+        int[] pieceSizes = {1, 3, FRAME_LENGTH, 1000};
+
+        for (boolean preEmphasis : new boolean[]{false, true}) {
+            for (int overlap : OVERLAPS) {
+                for (int length : SIGNAL_LENGTHS) {
+                    double[] signal = randomSignal(length);
+                    double[] source = preEmphasis ? Preprocessing.preEmphasis(signal, 0.95) : signal;
+                    double[][] expected = Preprocessing.framing(source, FRAME_LENGTH, overlap);
+
+                    for (int pieceSize : pieceSizes) {
+                        List<double[]> frames = new ArrayList<>();
+                        FrameStream frameStream = new FrameStream(FRAME_LENGTH, overlap, preEmphasis, 0.95, frame -> frames.add(frame.clone()));
+
+                        for (int offset = 0; offset < length; offset += pieceSize) {
+                            frameStream.accept(signal, offset, Math.min(pieceSize, length - offset));
+                        }
+
+                        frameStream.end();
+
+                        String message = "preEmphasis " + preEmphasis + " - overlap " + overlap + " - length " + length + " - piece " + pieceSize;
+                        assertEquals(expected.length, frames.size(), message);
+
+                        for (int indexFrame = 0; indexFrame < expected.length; indexFrame++) {
+                            assertArrayEquals(expected[indexFrame], frames.get(indexFrame), message + " - frame " + indexFrame);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private double[] randomSignal(int length) {
+        double[] signal = new double[length];
+
+        for (int i = 0; i < length; i++) {
+            signal[i] = random.nextInt(65536) - 32768;
+        }
+
+        return signal;
+    }
+
+}
\ No newline at end of file
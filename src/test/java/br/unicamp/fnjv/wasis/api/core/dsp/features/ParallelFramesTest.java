@@ -0,0 +1,98 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.features;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the parallel paths (<i>setParallel(true)</i> and <i>CompositeFeatureExtraction</i>) are bit-identical to the sequential ones.
+ */
+class ParallelFramesTest {
+
+    private static final double SAMPLE_RATE = 44100;
+
+    /** 5 seconds - About 430 frames of 1024 samples with 50% overlap, split into several chunks. */
+    private static final double[] AUDIO_SIGNAL = audioSignal((int) SAMPLE_RATE * 5);
+
+    @Test
+    void signalIsSplitIntoChunks() {
+        int numFrames = new FrameView(AUDIO_SIGNAL, FeatureConfig.DEFAULT.getFrameLength(), FeatureConfig.DEFAULT.getOverlapSamples()).getNumFrames();
+
+        assertTrue(ForkJoinPool.getCommonPoolParallelism() >= 2, "The common pool must have at least 2 workers (See maven-surefire-plugin argLine)");
+        assertTrue(numFrames >= 32, "Frames: " + numFrames);
+    }
+
+    @Test
+    void parallelMatchesSequential() {
+        for (Feature feature : new Feature[]{Feature.MFCC, Feature.LPC, Feature.LPCC, Feature.PLP}) {
+            FeatureExtraction sequential = createFeatureExtraction(feature);
+            FeatureExtraction parallel = createFeatureExtraction(feature);
+
+            parallel.setParallel(true);
+
+            sequential.process(AUDIO_SIGNAL);
+            parallel.process(AUDIO_SIGNAL);
+
+            assertSameResults(sequential, parallel, feature + " - parallel");
+        }
+    }
+
+    @Test
+    void compositeMatchesEachFeatureBySequentialAndParallel() {
+        for (boolean parallel : new boolean[]{false, true}) {
+            CompositeFeatureExtraction composite = new CompositeFeatureExtraction(Feature.MFCC_LPC_LPCC_PLP, SAMPLE_RATE);
+            composite.setParallel(parallel);
+            composite.process(AUDIO_SIGNAL);
+
+            for (Feature feature : CompositeFeatureExtraction.getComponents(Feature.MFCC_LPC_LPCC_PLP)) {
+                FeatureExtraction sequential = createFeatureExtraction(feature);
+                sequential.process(AUDIO_SIGNAL);
+
+                assertSameResults(sequential, composite.getFeatureExtraction(feature), feature + " - composite (parallel " + parallel + ")");
+            }
+        }
+    }
+
+    private static FeatureExtraction createFeatureExtraction(Feature feature) {
+        switch (feature) {
+            case MFCC:
+                return new MFCC(SAMPLE_RATE);
+            case LPC:
+                return new LPC();
+            case LPCC:
+                return new LPCC();
+            case PLP:
+                return new PLP(SAMPLE_RATE);
+            default:
+                throw new IllegalArgumentException("Feature not supported: " + feature);
+        }
+    }
+
+    private static void assertSameResults(FeatureExtraction expected, FeatureExtraction actual, String message) {
+        assertArrayEquals(expected.getFeature(), actual.getFeature(), message + " - feature");
+        assertArrayEquals(expected.getMean(), actual.getMean(), message + " - mean");
+        assertArrayEquals(expected.getStandardDeviation(), actual.getStandardDeviation(), message + " - standard deviation");
+    }
+
+    /**
+     * Tones and noise, as a 16 bits signal.
+     */
+    private static double[] audioSignal(int length) {
+        Random random = new Random(8L);
+        double[] audioSignal = new double[length];
+
+        for (int i = 0; i < length; i++) {
+            double time = i / SAMPLE_RATE;
+
+            audioSignal[i] = Math.round(6000 * Math.sin(2 * Math.PI * 880 * time) + 3000 * Math.sin(2 * Math.PI * 5000 * time * (1 + time / 10))
+                                      + 1500 * random.nextGaussian());
+        }
+
+        return audioSignal;
+    }
+
+}
\ No newline at end of file
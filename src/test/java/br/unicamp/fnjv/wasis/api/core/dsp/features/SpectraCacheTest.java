@@ -0,0 +1,161 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.features;
+
+import br.unicamp.fnjv.wasis.api.utils.multimidia.wav.AudioWavFormat;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <pre>
+ * Reuse of the amplitude spectra of a segment by <i>SpectraCache</i> - The audio signal is only read, and the FFT only
+ * computed, on the first query of a hash, time range and configuration.
+ * </pre>
+ */
+class SpectraCacheTest {
+
+    private static final String AUDIO_HASH = "e8d2656017e49aeb8b36a7f69070e219841137468570dcc5cdf73a475b1b2c65";
+
+    private static final String OTHER_AUDIO_HASH = "0f343b0931126a20f133d67c2b018a3b1e8b5d4e8e3a3c4a9b6b5e1d2c3f4a5b";
+
+    private static final double SAMPLE_RATE = AudioWavFormat.TARGET_SAMPLE_RATE;
+
+    /** Large enough for all spectra of the tests. */
+    private static final long MAXIMUM_BYTES = 64L * 1024 * 1024;
+
+    private final FeatureConfig config = FeatureConfig.builder().build();
+
+    private final double[] audioSignal = syntheticSignal();
+
+    @Test
+    void secondBandQueryDoesNotRecomputeSpectra() {
+        SpectraCache spectraCache = new SpectraCache(MAXIMUM_BYTES);
+        AtomicInteger reads = new AtomicInteger();
+
+        double[][] spectra = spectraCache.getSpectra(AUDIO_HASH, 0, 1000, config, countingSignal(reads));
+        double[][] otherBandSpectra = spectraCache.getSpectra(AUDIO_HASH, 0, 1000, config, countingSignal(reads));
+
+        assertEquals(1, reads.get(), "Audio signal read only once");
+        assertSame(spectra, otherBandSpectra, "Same spectra for the second query");
+
+        assertBandEqualsDirect(spectra, 500, 4000);
+        assertBandEqualsDirect(otherBandSpectra, 8000, 16000);
+    }
+
+    @Test
+    void otherSegmentsAreComputed() {
+        SpectraCache spectraCache = new SpectraCache(MAXIMUM_BYTES);
+        AtomicInteger reads = new AtomicInteger();
+
+        double[][] spectra = spectraCache.getSpectra(AUDIO_HASH, 0, 1000, config, countingSignal(reads));
+
+        assertNotSame(spectra, spectraCache.getSpectra(AUDIO_HASH, 0, 2000, config, countingSignal(reads)));
+        assertNotSame(spectra, spectraCache.getSpectra(OTHER_AUDIO_HASH, 0, 1000, config, countingSignal(reads)));
+        assertNotSame(spectra, spectraCache.getSpectra(AUDIO_HASH, 0, 1000, config.toBuilder().frameLength(2048).build(), countingSignal(reads)));
+
+        assertEquals(4, reads.get());
+        assertEquals(4, spectraCache.size());
+    }
+
+    @Test
+    void leastRecentlyUsedSpectraAreEvicted() {
+        SpectraCache measure = new SpectraCache(MAXIMUM_BYTES);
+        measure.getSpectra(AUDIO_HASH, 0, 1000, config, () -> audioSignal);
+
+        long spectraBytes = measure.getTotalBytes();
+
+        // Room for two segments only
+        SpectraCache spectraCache = new SpectraCache(2 * spectraBytes);
+        AtomicInteger reads = new AtomicInteger();
+
+        spectraCache.getSpectra(AUDIO_HASH, 0, 1000, config, countingSignal(reads));
+        spectraCache.getSpectra(AUDIO_HASH, 1000, 2000, config, countingSignal(reads));
+        spectraCache.getSpectra(AUDIO_HASH, 0, 1000, config, countingSignal(reads));      // Most recently used
+        spectraCache.getSpectra(AUDIO_HASH, 2000, 3000, config, countingSignal(reads));   // Evicts 1000 - 2000
+
+        assertEquals(3, reads.get());
+        assertEquals(2, spectraCache.size());
+        assertTrue(spectraCache.getTotalBytes() <= 2 * spectraBytes, "Total bytes " + spectraCache.getTotalBytes() + " - maximum " + 2 * spectraBytes);
+
+        spectraCache.getSpectra(AUDIO_HASH, 0, 1000, config, countingSignal(reads));
+        assertEquals(3, reads.get(), "Most recently used spectra kept");
+
+        spectraCache.getSpectra(AUDIO_HASH, 1000, 2000, config, countingSignal(reads));
+        assertEquals(4, reads.get(), "Least recently used spectra evicted");
+    }
+
+    @Test
+    void invalidateDiscardsOnlyTheAudioFile() {
+        SpectraCache spectraCache = new SpectraCache(MAXIMUM_BYTES);
+        AtomicInteger reads = new AtomicInteger();
+
+        spectraCache.getSpectra(AUDIO_HASH, 0, 1000, config, countingSignal(reads));
+        spectraCache.getSpectra(AUDIO_HASH, 1000, 2000, config, countingSignal(reads));
+        spectraCache.getSpectra(OTHER_AUDIO_HASH, 0, 1000, config, countingSignal(reads));
+
+        long otherBytes = spectraCache.getTotalBytes() / 3;
+
+        spectraCache.invalidate(AUDIO_HASH);
+
+        assertEquals(1, spectraCache.size());
+        assertEquals(otherBytes, spectraCache.getTotalBytes());
+
+        spectraCache.clear();
+
+        assertEquals(0, spectraCache.size());
+        assertEquals(0, spectraCache.getTotalBytes());
+    }
+
+    @Test
+    void rejectsNonPositiveSize() {
+        assertThrows(IllegalArgumentException.class, () -> new SpectraCache(0));
+    }
+
+    /**
+     * The Power Spectrum of a band from the cached spectra must be the same as computing it from the audio signal.
+     */
+    private void assertBandEqualsDirect(double[][] spectra, int initialFrequency, int finalFrequency) {
+        PowerSpectrum cached = new PowerSpectrum(config, SAMPLE_RATE, initialFrequency, finalFrequency);
+        PowerSpectrum direct = new PowerSpectrum(config, SAMPLE_RATE, initialFrequency, finalFrequency);
+
+        cached.processSpectra(spectra);
+        direct.process(audioSignal);
+
+        for (int index = 0; index < 2; index++) {
+            assertArrayEquals(direct.getFeature()[index], cached.getFeature()[index],
+                    "Band " + initialFrequency + " - " + finalFrequency + " - row " + index);
+        }
+    }
+
+    private Supplier<double[]> countingSignal(AtomicInteger reads) {
+        return () -> {
+            reads.incrementAndGet();
+            return audioSignal;
+        };
+    }
+
+    /**
+     * One second of two tones and white noise.
+     */
+    private static double[] syntheticSignal() {
+        Random random = new Random(17);
+        double[] signal = new double[(int) SAMPLE_RATE];
+
+        for (int i = 0; i < signal.length; i++) {
+            double time = i / SAMPLE_RATE;
+
+            signal[i] = 0.4 * Math.sin(2 * Math.PI * 2000 * time) + 0.2 * Math.sin(2 * Math.PI * 11000 * time) + 0.05 * random.nextGaussian();
+        }
+
+        return signal;
+    }
+
+}
\ No newline at end of file
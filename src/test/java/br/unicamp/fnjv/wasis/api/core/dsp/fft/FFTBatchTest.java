@@ -0,0 +1,126 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.fft;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares <i>FFTPlan.realTransformBatch()</i> (Transposed batch kernel) with <i>realTransform()</i> of each frame.
+ */
+class FFTBatchTest {
+
+    /** Maximum error allowed, relative to the largest magnitude of the reference spectra. */
+    private static final double TOLERANCE = 1e-12;
+
+    /** Powers of 2 (Batch kernel, odd and even log2) and other sizes (One frame at a time). */
+    private static final int[] SIZES = {2, 4, 8, 16, 64, 256, 1024, 2048, 6, 12, 100, 15};
+
+    /** Fewer frames than a group, exactly one group, partial last groups and several groups. */
+    private static final int[] NUM_FRAMES = {1, 3, FFTBatch.GROUP_FRAMES - 1, FFTBatch.GROUP_FRAMES, FFTBatch.GROUP_FRAMES + 1, 37, 64};
+
+    private final Random random = new Random(4L);
+
+    @Test
+    void batchMatchesFrameByFrameWithoutOverlap() {
+        for (FFTEngine engine : FFTEngine.values()) {
+            for (int size : SIZES) {
+                if (engine == FFTEngine.COLUMBIA && Integer.bitCount(size) != 1) {
+                    continue;
+                }
+
+                for (int numFrames : NUM_FRAMES) {
+                    // All frames inside the array
+                    assertBatchMatches(FFTPlan.getPlan(size, engine), 0, size, numFrames, 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    void batchMatchesFrameByFrameWithOverlap() {
+        for (int size : SIZES) {
+            int[] strides = {1, Math.max(1, size / 2), Math.max(1, size - 1)};
+
+            for (int stride : strides) {
+                for (int numFrames : NUM_FRAMES) {
+                    assertBatchMatches(FFTPlan.getPlan(size, FFTEngine.MIXED_RADIX), 3, stride, numFrames, 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    void batchPadsFramesCrossingTheEndOfTheArray() {
+        for (int size : SIZES) {
+            int[] strides = {Math.max(1, size / 2), size};
+
+            for (int stride : strides) {
+                for (int numFrames : NUM_FRAMES) {
+                    // The array ends in the middle of the last frames (Some frames may start beyond its end)
+                    int missingSamples = Math.min(size + stride, 1 + (numFrames - 1) * stride + size);
+
+                    assertBatchMatches(FFTPlan.getPlan(size, FFTEngine.MIXED_RADIX), 0, stride, numFrames, missingSamples);
+                }
+            }
+        }
+    }
+
+    /**
+     * Transforms <i>numFrames</i> frames of a random array with the batch and frame by frame, comparing the spectra.
+     *
+     * @param missingSamples - Samples removed from the end of the array holding all frames
+     */
+    private void assertBatchMatches(FFTPlan fftPlan, int offset, int stride, int numFrames, int missingSamples) {
+        int size = fftPlan.getSize();
+        int spectrumSize = fftPlan.getSpectrumSize();
+
+        double[] frames = new double[Math.max(0, offset + (numFrames - 1) * stride + size - missingSamples)];
+
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = random.nextInt(65536) - 32768;
+        }
+
+        // Dirty output buffers - Every position must be written
+        double[] real = new double[numFrames * spectrumSize];
+        double[] imag = new double[numFrames * spectrumSize];
+        Arrays.fill(real, Double.NaN);
+        Arrays.fill(imag, Double.NaN);
+
+        fftPlan.realTransformBatch(frames, offset, stride, numFrames, real, imag);
+
+        double[] frameReal = new double[spectrumSize];
+        double[] frameImag = new double[spectrumSize];
+
+        for (int indexFrame = 0; indexFrame < numFrames; indexFrame++) {
+            int frameOffset = offset + indexFrame * stride;
+            int length = Math.max(0, Math.min(size, frames.length - frameOffset));
+
+            // Frame padded with zeros, as documented by realTransformBatch()
+            double[] frame = new double[size];
+
+            if (length > 0) {
+                System.arraycopy(frames, frameOffset, frame, 0, length);
+            }
+
+            fftPlan.realTransform(frame, frameReal, frameImag);
+
+            double maxMagnitude = 0;
+            double maxError = 0;
+
+            for (int k = 0; k < spectrumSize; k++) {
+                int position = indexFrame * spectrumSize + k;
+
+                maxMagnitude = Math.max(maxMagnitude, Math.hypot(frameReal[k], frameImag[k]));
+                maxError = Math.max(maxError, Math.hypot(frameReal[k] - real[position], frameImag[k] - imag[position]));
+            }
+
+            assertTrue(maxError <= TOLERANCE * Math.max(1, maxMagnitude),
+                    fftPlan.getEngine() + " - size " + size + " - stride " + stride + " - frames " + numFrames
+                  + " - missing " + missingSamples + " - frame " + indexFrame + " - error " + maxError);
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,160 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.fft;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the <i>MIXED_RADIX</i> engine (Radix-4/2 and Bluestein) with the <i>COLUMBIA</i> reference and a naive DFT.
+ */
+class FFTEngineTest {
+
+    /** Maximum error allowed, relative to the largest magnitude of the reference spectrum. */
+    private static final double TOLERANCE = 1e-10;
+
+    /** Powers of 4 - Only radix-4 stages. */
+    private static final int[] RADIX_4_SIZES = {4, 16, 64, 256, 1024, 4096};
+
+    /** Odd powers of 2 - Radix-4 stages followed by a radix-2 stage. */
+    private static final int[] RADIX_4_MIXED_SIZES = {2, 8, 32, 128, 512, 2048};
+
+    /** Not powers of 2 - Bluestein's algorithm (Primes and composites). */
+    private static final int[] BLUESTEIN_SIZES = {3, 5, 7, 13, 97, 257, 1009, 6, 12, 100, 1000, 1500};
+
+    private final Random random = new Random(20221017L);
+
+    @Test
+    void mixedRadixMatchesColumbiaAndDftForPowersOf4() {
+        for (int size : RADIX_4_SIZES) {
+            assertMatchesColumbiaAndDft(size);
+        }
+    }
+
+    @Test
+    void mixedRadixMatchesColumbiaAndDftForOddPowersOf2() {
+        for (int size : RADIX_4_MIXED_SIZES) {
+            assertMatchesColumbiaAndDft(size);
+        }
+    }
+
+    @Test
+    void bluesteinMatchesDft() {
+        for (int size : BLUESTEIN_SIZES) {
+            double[] timeReal = randomSignal(size);
+            double[] timeImag = randomSignal(size);
+
+            double[][] expected = dft(timeReal, timeImag);
+
+            double[] real = timeReal.clone();
+            double[] imag = timeImag.clone();
+            new FFTBluestein(size).transform(real, imag);
+
+            assertClose(expected, real, imag, "Bluestein", size);
+
+            real = timeReal.clone();
+            imag = timeImag.clone();
+            FFTPlan.getPlan(size, FFTEngine.MIXED_RADIX).transform(real, imag);
+
+            assertClose(expected, real, imag, "MIXED_RADIX plan", size);
+        }
+    }
+
+    @Test
+    void realTransformMatchesDftForAllSizes() {
+        int[][] sizes = {RADIX_4_SIZES, RADIX_4_MIXED_SIZES, BLUESTEIN_SIZES};
+
+        for (int[] group : sizes) {
+            for (int size : group) {
+                double[] timeData = randomSignal(size);
+                double[][] expected = dft(timeData, new double[size]);
+
+                double[] real = new double[size / 2 + 1];
+                double[] imag = new double[size / 2 + 1];
+                FFTPlan.getPlan(size, FFTEngine.MIXED_RADIX).realTransform(timeData, real, imag);
+
+                double[][] expectedHalf = {new double[size / 2 + 1], new double[size / 2 + 1]};
+                System.arraycopy(expected[0], 0, expectedHalf[0], 0, size / 2 + 1);
+                System.arraycopy(expected[1], 0, expectedHalf[1], 0, size / 2 + 1);
+
+                assertClose(expectedHalf, real, imag, "MIXED_RADIX real transform", size);
+            }
+        }
+    }
+
+    @Test
+    void columbiaRejectsOtherSizes() {
+        assertThrows(IllegalArgumentException.class, () -> FFTPlan.getPlan(100, FFTEngine.COLUMBIA));
+    }
+
+    private void assertMatchesColumbiaAndDft(int size) {
+        double[] timeReal = randomSignal(size);
+        double[] timeImag = randomSignal(size);
+
+        double[][] expected = dft(timeReal, timeImag);
+
+        double[] columbiaReal = timeReal.clone();
+        double[] columbiaImag = timeImag.clone();
+        FFTPlan.getPlan(size, FFTEngine.COLUMBIA).transform(columbiaReal, columbiaImag);
+
+        double[] real = timeReal.clone();
+        double[] imag = timeImag.clone();
+        FFTPlan.getPlan(size, FFTEngine.MIXED_RADIX).transform(real, imag);
+
+        assertClose(expected, columbiaReal, columbiaImag, "COLUMBIA", size);
+        assertClose(expected, real, imag, "MIXED_RADIX", size);
+        assertClose(new double[][]{columbiaReal, columbiaImag}, real, imag, "MIXED_RADIX vs COLUMBIA", size);
+    }
+
+    private double[] randomSignal(int size) {
+        double[] signal = new double[size];
+
+        for (int i = 0; i < size; i++) {
+            signal[i] = 2 * random.nextDouble() - 1;
+        }
+
+        return signal;
+    }
+
+    /**
+     * Naive DFT - The exponent index is reduced modulo the size, so the twiddle factors stay exact for large sizes.
+     */
+    private static double[][] dft(double[] timeReal, double[] timeImag) {
+        int size = timeReal.length;
+
+        double[] real = new double[size];
+        double[] imag = new double[size];
+
+        for (int k = 0; k < size; k++) {
+            for (int t = 0; t < size; t++) {
+                double angle = -2 * Math.PI * (((long) k * t) % size) / size;
+                double cos = Math.cos(angle);
+                double sin = Math.sin(angle);
+
+                real[k] += timeReal[t] * cos - timeImag[t] * sin;
+                imag[k] += timeReal[t] * sin + timeImag[t] * cos;
+            }
+        }
+
+        return new double[][]{real, imag};
+    }
+
+    private static void assertClose(double[][] expected, double[] real, double[] imag, String engine, int size) {
+        assertEquals(expected[0].length, real.length);
+
+        double maxMagnitude = 0;
+        double maxError = 0;
+
+        for (int k = 0; k < expected[0].length; k++) {
+            maxMagnitude = Math.max(maxMagnitude, Math.hypot(expected[0][k], expected[1][k]));
+            maxError = Math.max(maxError, Math.hypot(expected[0][k] - real[k], expected[1][k] - imag[k]));
+        }
+
+        assertTrue(maxError <= TOLERANCE * Math.max(1, maxMagnitude),
+                engine + " - size " + size + " - error " + maxError + " (max magnitude " + maxMagnitude + ")");
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,226 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.filters;
+
+import br.unicamp.fnjv.wasis.api.utils.multimidia.wav.AudioWavFormat;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <pre>
+ * Output length, alignment, passband and stopband of <i>Decimator</i> - Low-pass only and band-pass.
+ *
+ * The tones are compared after the filters are fully inside the signal (<i>EDGE_SECONDS</i> from both ends).
+ * </pre>
+ */
+class DecimatorTest {
+
+    private static final double SAMPLE_RATE = AudioWavFormat.TARGET_SAMPLE_RATE;
+
+    /** Maximum deviation of a passband tone from the same tone sampled at the output sample rate (Relative to its amplitude). */
+    private static final double PASSBAND_DEVIATION = 0.001;
+
+    /** Minimum attenuation of a stopband tone (dB). */
+    private static final double STOPBAND_ATTENUATION = 60.0;
+
+    /** Samples ignored at both ends of the filtered tones (Seconds). */
+    private static final double EDGE_SECONDS = 0.05;
+
+    /** Low-pass only (Factor 4) and band-pass (Factor 4 and high-pass). */
+    private static final Decimator[] DECIMATORS = {new Decimator(SAMPLE_RATE, 0, 4000), new Decimator(SAMPLE_RATE, 500, 4000)};
+
+    private final Random random = new Random(20L);
+
+    @Test
+    void factorKeepsTheBandUnderPassband() {
+        assertEquals(4, new Decimator(SAMPLE_RATE, 0, 4000).getFactor());
+        assertEquals(11025.0, new Decimator(SAMPLE_RATE, 0, 4000).getOutputSampleRate());
+        assertEquals(17, new Decimator(SAMPLE_RATE, 0, 1000).getFactor());
+
+        Decimator decimator = new Decimator(SAMPLE_RATE, 0, 20000);
+
+        assertEquals(1, decimator.getFactor());
+        assertFalse(decimator.isFiltering());
+
+        double[] signal = randomSignal(1000);
+
+        assertArrayEquals(signal, decimator.decimate(signal));
+
+        // High-pass only
+        decimator = new Decimator(SAMPLE_RATE, 2000, 20000);
+
+        assertEquals(1, decimator.getFactor());
+        assertTrue(decimator.isFiltering());
+        assertEquals(signal.length, decimator.decimate(signal).length);
+    }
+
+    @Test
+    void outputLengthIsCeilingOfLengthByFactor() {
+        for (Decimator decimator : new Decimator[] {DECIMATORS[0], DECIMATORS[1], new Decimator(SAMPLE_RATE, 100, 1000)}) {
+            int factor = decimator.getFactor();
+
+            for (int signalLength : new int[] {1, 3, factor - 1, factor, factor + 1, 100, 4411, 44100, 44101}) {
+                double[] decimatedSignal = decimator.decimate(randomSignal(signalLength));
+
+                assertEquals((signalLength + factor - 1) / factor, decimatedSignal.length, "Factor " + factor + " - length " + signalLength);
+            }
+        }
+    }
+
+    @Test
+    void impulseIsCenteredOnItsOutputSample() {
+        for (Decimator decimator : DECIMATORS) {
+            int factor = decimator.getFactor();
+            int center = 1000;
+
+            double[] impulse = new double[4000 * factor];
+            impulse[center * factor] = 1;
+
+            double[] decimatedSignal = decimator.decimate(impulse);
+
+            int peak = 0;
+
+            for (int n = 0; n < decimatedSignal.length; n++) {
+                if (Math.abs(decimatedSignal[n]) > Math.abs(decimatedSignal[peak])) {
+                    peak = n;
+                }
+            }
+
+            assertEquals(center, peak);
+
+            // Linear phase - Symmetric around the impulse
+            for (int n = 1; n < center; n++) {
+                assertEquals(decimatedSignal[center - n], decimatedSignal[center + n], 1e-12, "Output " + (center + n));
+            }
+        }
+    }
+
+    @Test
+    void passbandTonesAreKept() {
+        for (Decimator decimator : DECIMATORS) {
+            for (double frequency : new double[] {1000, 2500, 4000}) {
+                double[] decimatedSignal = decimator.decimate(tone(frequency, SAMPLE_RATE, (int) SAMPLE_RATE));
+                double[] expected = tone(frequency, decimator.getOutputSampleRate(), decimatedSignal.length);
+
+                int edge = (int) (EDGE_SECONDS * decimator.getOutputSampleRate());
+                double maximumDeviation = 0;
+
+                for (int n = edge; n < decimatedSignal.length - edge; n++) {
+                    maximumDeviation = Math.max(maximumDeviation, Math.abs(decimatedSignal[n] - expected[n]));
+                }
+
+                assertTrue(maximumDeviation < PASSBAND_DEVIATION, "Tone " + frequency + " - deviation " + maximumDeviation);
+            }
+        }
+    }
+
+    @Test
+    void stopbandTonesAreAttenuated() {
+        for (Decimator decimator : DECIMATORS) {
+            // Above the new Nyquist frequency (5512.5 Hz) and its transition band - They would alias into the passband
+            for (double frequency : new double[] {7000, 9000, 12000, 15000, 20000}) {
+                assertAttenuated(decimator, frequency);
+            }
+        }
+
+        // Under the initial frequency of the band
+        assertAttenuated(DECIMATORS[1], 0);
+    }
+
+    @Test
+    void chunksMatchDecimate() {
+        double[] signal = randomSignal(20000);
+
+        // Low-pass only, band-pass, factor 17 and high-pass only
+        for (double[] band : new double[][] {{0, 4000}, {500, 4000}, {100, 1000}, {2000, 20000}}) {
+            Decimator decimator = new Decimator(SAMPLE_RATE, band[0], band[1]);
+            double[] expected = decimator.decimate(signal);
+
+            // Chunks from empty to longer than the filters
+            for (int maximumChunk : new int[] {1, 3, 100, 5000}) {
+                Decimator chunkedDecimator = new Decimator(SAMPLE_RATE, band[0], band[1]);
+                double[] outputs = new double[0];
+
+                for (int offset = 0; offset < signal.length; ) {
+                    int length = Math.min(signal.length - offset, random.nextInt(maximumChunk + 1));
+
+                    outputs = concat(outputs, chunkedDecimator.accept(signal, offset, length));
+                    offset += length;
+                }
+
+                outputs = concat(outputs, chunkedDecimator.end());
+
+                assertArrayEquals(expected, outputs, "Factor " + decimator.getFactor() + " - chunks up to " + maximumChunk);
+            }
+        }
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new Decimator(0, 0, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new Decimator(SAMPLE_RATE, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new Decimator(SAMPLE_RATE, 0, SAMPLE_RATE));
+        assertThrows(IllegalArgumentException.class, () -> new Decimator(SAMPLE_RATE, -1, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new Decimator(SAMPLE_RATE, 1000, 1000));
+
+        Decimator decimator = new Decimator(SAMPLE_RATE, 0, 4000);
+        decimator.end();
+
+        assertThrows(IllegalStateException.class, () -> decimator.accept(new double[1], 0, 1));
+        assertThrows(IllegalStateException.class, decimator::end);
+    }
+
+    private static void assertAttenuated(Decimator decimator, double frequency) {
+        double[] decimatedSignal = decimator.decimate(tone(frequency, SAMPLE_RATE, (int) SAMPLE_RATE));
+
+        int edge = (int) (EDGE_SECONDS * decimator.getOutputSampleRate());
+        double sumSquares = 0;
+
+        for (int n = edge; n < decimatedSignal.length - edge; n++) {
+            sumSquares += decimatedSignal[n] * decimatedSignal[n];
+        }
+
+        // Relative to a unit tone (RMS = 1 / sqrt(2)) or unit DC
+        double rms = Math.sqrt(sumSquares / (decimatedSignal.length - 2 * edge));
+        double attenuation = -20 * Math.log10(rms / ((frequency > 0) ? Math.sqrt(0.5) : 1));
+
+        assertTrue(attenuation > STOPBAND_ATTENUATION, "Factor " + decimator.getFactor() + " - tone " + frequency + " - attenuation " + attenuation);
+    }
+
+    /**
+     * Unit tone (Cosine, so 0 Hz is a unit DC signal).
+     */
+    private static double[] tone(double frequency, double sampleRate, int length) {
+        double[] signal = new double[length];
+
+        for (int n = 0; n < length; n++) {
+            signal[n] = Math.cos(2 * Math.PI * frequency * n / sampleRate);
+        }
+
+        return signal;
+    }
+
+    private static double[] concat(double[] first, double[] second) {
+        double[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+
+        return result;
+    }
+
+    private double[] randomSignal(int length) {
+        double[] signal = new double[length];
+
+        for (int index = 0; index < length; index++) {
+            signal[index] = 2 * random.nextDouble() - 1;
+        }
+
+        return signal;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,169 @@
+package br.unicamp.fnjv.wasis.api.core.dsp.filters;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * <pre>
+ * Compares <i>PolyphaseFilter</i> with the direct convolution of the whole signal followed by decimation:
+ *
+ * output[n] = sum(coefficients[k] * input[n * factor + delay - k]) - Input samples outside the signal are zero.
+ *
+ * The coefficients are not symmetric, so a reversed or shifted filter does not go unnoticed.
+ * </pre>
+ */
+class PolyphaseFilterTest {
+
+    /** Maximum error allowed, relative to the direct convolution. */
+    private static final double TOLERANCE = 1e-12;
+
+    /** Odd numbers of coefficients - Smaller and larger than the decimation factors. */
+    private static final int[] NUM_COEFFICIENTS = {1, 3, 7, 31, 33};
+
+    private static final int[] FACTORS = {1, 2, 3, 4, 7};
+
+    /** Signals shorter than the delay, than the filter and longer than both. */
+    private static final int[] SIGNAL_LENGTHS = {1, 2, 5, 16, 17, 100, 1001};
+
+    private final Random random = new Random(20L);
+
+    @Test
+    void impulseIsDelayCompensated() {
+        for (int numCoefficients : NUM_COEFFICIENTS) {
+            double[] coefficients = randomSignal(numCoefficients);
+            int delay = numCoefficients / 2;
+
+            for (int factor : FACTORS) {
+                double[] impulse = new double[200];
+                int impulseSample = 12 * factor;
+
+                impulse[impulseSample] = 1;
+
+                double[] outputs = filter(new PolyphaseFilter(coefficients, factor), impulse);
+
+                assertEquals((impulse.length + factor - 1) / factor, outputs.length);
+
+                // Output 'n' holds coefficient 'n * factor + delay - impulseSample' - The center coefficient at output 12
+                for (int n = 0; n < outputs.length; n++) {
+                    int indexCoefficient = n * factor + delay - impulseSample;
+                    double expected = (indexCoefficient >= 0 && indexCoefficient < numCoefficients) ? coefficients[indexCoefficient] : 0;
+
+                    assertEquals(expected, outputs[n], 0, "Coefficients " + numCoefficients + " - factor " + factor + " - output " + n);
+                }
+
+                assertEquals(coefficients[delay], outputs[12], 0);
+            }
+        }
+    }
+
+    @Test
+    void matchesDirectConvolution() {
+        for (int numCoefficients : NUM_COEFFICIENTS) {
+            double[] coefficients = randomSignal(numCoefficients);
+
+            for (int factor : FACTORS) {
+                for (int signalLength : SIGNAL_LENGTHS) {
+                    double[] signal = randomSignal(signalLength);
+                    double[] expected = directConvolution(coefficients, factor, signal);
+
+                    double[] outputs = filter(new PolyphaseFilter(coefficients, factor), signal);
+
+                    String message = "Coefficients " + numCoefficients + " - factor " + factor + " - length " + signalLength;
+
+                    assertEquals((signalLength + factor - 1) / factor, outputs.length, message);
+
+                    for (int n = 0; n < outputs.length; n++) {
+                        assertEquals(expected[n], outputs[n], TOLERANCE, message + " - output " + n);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void chunksMatchSingleInput() {
+        double[] coefficients = randomSignal(31);
+        double[] signal = randomSignal(1001);
+
+        for (int factor : FACTORS) {
+            double[] expected = filter(new PolyphaseFilter(coefficients, factor), signal);
+
+            // Chunks shorter and longer than the circular buffer, including empty chunks
+            for (int maximumChunk : new int[] {1, 5, 64, 300}) {
+                PolyphaseFilter polyphaseFilter = new PolyphaseFilter(coefficients, factor);
+
+                assertArrayEquals(expected, filterChunks(polyphaseFilter, signal, maximumChunk), "Factor " + factor + " - chunks up to " + maximumChunk);
+            }
+
+            // The copy does not keep the state of the filter
+            PolyphaseFilter polyphaseFilter = new PolyphaseFilter(coefficients, factor);
+            polyphaseFilter.accept(signal, 0, 500);
+
+            assertArrayEquals(expected, filter(polyphaseFilter.copy(), signal), "Factor " + factor + " - copy");
+        }
+    }
+
+    /**
+     * Filters a whole signal at once.
+     */
+    private static double[] filter(PolyphaseFilter polyphaseFilter, double[] signal) {
+        return concat(polyphaseFilter.accept(signal, 0, signal.length), polyphaseFilter.end());
+    }
+
+    /**
+     * Filters a signal in chunks of random sizes from 0 to <i>maximumChunk</i> samples.
+     */
+    private double[] filterChunks(PolyphaseFilter polyphaseFilter, double[] signal, int maximumChunk) {
+        double[] outputs = new double[0];
+
+        for (int offset = 0; offset < signal.length; ) {
+            int length = Math.min(signal.length - offset, random.nextInt(maximumChunk + 1));
+
+            outputs = concat(outputs, polyphaseFilter.accept(signal, offset, length));
+            offset += length;
+        }
+
+        return concat(outputs, polyphaseFilter.end());
+    }
+
+    private static double[] directConvolution(double[] coefficients, int factor, double[] signal) {
+        int delay = coefficients.length / 2;
+
+        double[] outputs = new double[(signal.length + factor - 1) / factor];
+
+        for (int n = 0; n < outputs.length; n++) {
+            for (int k = 0; k < coefficients.length; k++) {
+                int indexSample = n * factor + delay - k;
+
+                if (indexSample >= 0 && indexSample < signal.length) {
+                    outputs[n] += coefficients[k] * signal[indexSample];
+                }
+            }
+        }
+
+        return outputs;
+    }
+
+    private static double[] concat(double[] first, double[] second) {
+        double[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+
+        return result;
+    }
+
+    private double[] randomSignal(int length) {
+        double[] signal = new double[length];
+
+        for (int index = 0; index < length; index++) {
+            signal[index] = 2 * random.nextDouble() - 1;
+        }
+
+        return signal;
+    }
+
+}
\ No newline at end of file
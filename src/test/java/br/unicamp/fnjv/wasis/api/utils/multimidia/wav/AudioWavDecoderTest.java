@@ -0,0 +1,288 @@
+package br.unicamp.fnjv.wasis.api.utils.multimidia.wav;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <pre>
+ * Compares <i>AudioWavDecoder</i> with the previous per-sample decoding of <i>AudioWav.getAmplitudesChunk()</i>
+ * (<i>referenceAmplitude()</i>) - PCM 8, 16, 24 and 32 bits and IEEE Float, mono and stereo.
+ *
+ * The WAV data starts with the extreme and zero samples of each format, followed by random samples.
+ * <i>AudioWavHeader.loadHeader()</i> only accepts PCM, so the IEEE Float header is given directly.
+ * </pre>
+ */
+class AudioWavDecoderTest {
+
+    /** Size of the canonical header (RIFF, 'fmt ' and 'data' chunks). */
+    private static final int HEADER_SIZE = 44;
+
+    private static final int NUM_SAMPLES = 500;
+
+    /** Position of the first decoded amplitude in the output arrays. */
+    private static final int OUTPUT_OFFSET = 3;
+
+    /** Extreme and zero samples of the PCM formats (Little endian) - Including negative 24 bits samples. */
+    private static final int[][] PCM_EDGE_SAMPLES = {
+        {0x80, 0x00, 0x01, 0xff, 0x7f, 0x81},                                 // 8 bits - 0x80 is zero
+        {0x0000, 0x0001, 0xffff, 0x8000, 0x7fff, 0x8001},                     // 16 bits
+        {0x000000, 0x000001, 0xffffff, 0x800000, 0x7fffff, 0x800001, 0xff0000, 0x00ff80},
+        {0x00000000, 0x00000001, 0xffffffff, 0x80000000, 0x7fffffff, 0x80000001}
+    };
+
+    /** Extreme and zero samples of IEEE Float - Values that truncate to zero become 1 as well. */
+    private static final float[] FLOAT_EDGE_SAMPLES = {0F, -0F, 1e-12F, -1e-12F, 1F, -1F, 0.5F, -0.25F, 1.5F, -1.5F};
+
+    private final Random random = new Random(23L);
+
+    @Test
+    void pcmMatchesReference() {
+        for (int bitsPerSample = 8; bitsPerSample <= 32; bitsPerSample += 8) {
+            for (int channels = 1; channels <= 2; channels++) {
+                byte[] wav = pcmWav(bitsPerSample, channels);
+
+                assertMatchesReference(header(AudioWavFormat.WAVE_FORMAT_PCM, channels, bitsPerSample), wav);
+            }
+        }
+    }
+
+    @Test
+    void ieeeFloatMatchesReference() {
+        for (int channels = 1; channels <= 2; channels++) {
+            byte[] wav = floatWav(channels);
+
+            assertMatchesReference(header(AudioWavFormat.WAVE_FORMAT_IEEE_FLOAT, channels, 32), wav);
+        }
+    }
+
+    @Test
+    void loadedHeaderMatchesReference() throws Exception {
+        for (int bitsPerSample = 8; bitsPerSample <= 32; bitsPerSample += 8) {
+            for (int channels = 1; channels <= 2; channels++) {
+                byte[] wav = pcmWav(bitsPerSample, channels);
+
+                AudioWavHeader audioWavHeader = new AudioWavHeader(new ByteArrayInputStream(wav));
+
+                assertTrue(audioWavHeader.loadHeader(), audioWavHeader.getHeaderError());
+                assertEquals(HEADER_SIZE, audioWavHeader.getDataChunkOffset());
+                assertEquals(bitsPerSample, audioWavHeader.getBitsPerSample());
+                assertEquals(channels, audioWavHeader.getChannels());
+
+                assertMatchesReference(audioWavHeader, wav);
+            }
+        }
+    }
+
+    @Test
+    void zeroAmplitudesBecomeOne() {
+        for (int bitsPerSample = 8; bitsPerSample <= 32; bitsPerSample += 8) {
+            byte[] wav = pcmWav(bitsPerSample, 1);
+
+            double[] amplitudes = new double[1];
+            float[] floatAmplitudes = new float[1];
+
+            AudioWavDecoder.decode(header(AudioWavFormat.WAVE_FORMAT_PCM, 1, bitsPerSample), wrap(wav), HEADER_SIZE, amplitudes, 0, 1);
+            AudioWavDecoder.decode(header(AudioWavFormat.WAVE_FORMAT_PCM, 1, bitsPerSample), wrap(wav), HEADER_SIZE, floatAmplitudes, 0, 1);
+
+            assertEquals(1, amplitudes[0], "Bits " + bitsPerSample);
+            assertEquals(1, floatAmplitudes[0], "Bits " + bitsPerSample);
+        }
+    }
+
+    /**
+     * Decodes each channel, from the first sample and from the middle of the data, into both output types.
+     *
+     * @param audioWavHeader
+     * @param wav            - WAV file (Header and data)
+     */
+    private static void assertMatchesReference(AudioWavHeader audioWavHeader, byte[] wav) {
+        int channels = audioWavHeader.getChannels();
+        int bytesPerSample = audioWavHeader.getBytesPerSample();
+
+        for (int channel = 0; channel < channels; channel++) {
+            for (int initialSample : new int[] {0, 1, NUM_SAMPLES / 2}) {
+                int length = NUM_SAMPLES - initialSample;
+                int position = HEADER_SIZE + (initialSample * channels + channel) * bytesPerSample;
+
+                double[] expected = new double[OUTPUT_OFFSET + length];
+                float[] expectedFloat = new float[OUTPUT_OFFSET + length];
+
+                for (int index = 0; index < length; index++) {
+                    int amplitude = referenceAmplitude(audioWavHeader, wav, position + index * channels * bytesPerSample);
+
+                    expected[OUTPUT_OFFSET + index] = amplitude;
+                    expectedFloat[OUTPUT_OFFSET + index] = amplitude;
+                }
+
+                double[] amplitudes = new double[OUTPUT_OFFSET + length];
+                float[] floatAmplitudes = new float[OUTPUT_OFFSET + length];
+
+                AudioWavDecoder.decode(audioWavHeader, wrap(wav), position, amplitudes, OUTPUT_OFFSET, length);
+                AudioWavDecoder.decode(audioWavHeader, wrap(wav), position, floatAmplitudes, OUTPUT_OFFSET, length);
+
+                String message = "Format " + audioWavHeader.getAudioFormat() + " - bits " + audioWavHeader.getBitsPerSample()
+                               + " - channel " + channel + " of " + channels + " - initial sample " + initialSample;
+
+                assertArrayEquals(expected, amplitudes, message);
+                assertArrayEquals(expectedFloat, floatAmplitudes, message + " - float");
+            }
+        }
+    }
+
+    /**
+     * Previous decoding of one sample by <i>AudioWav.getAmplitudesChunk()</i>.
+     *
+     * @param audioWavHeader
+     * @param wavData
+     * @param pointer        - Position of the sample
+     *
+     * @return amplitude
+     */
+    private static int referenceAmplitude(AudioWavHeader audioWavHeader, byte[] wavData, int pointer) {
+        int amplitude = 0;
+
+        // 8 bits
+        if (audioWavHeader.getBitsPerSample() == 8) {
+            amplitude = (short) (wavData[pointer] & 0xff);
+            amplitude = amplitude - 128;
+
+            // 16 bits
+        } else if (audioWavHeader.getBitsPerSample() == 16) {
+            amplitude = (short) (wavData[pointer + 0] & 0xff)
+                      | (short) ((wavData[pointer + 1] & 0xff) << 8);
+
+            // 24 bits
+        } else if (audioWavHeader.getBitsPerSample() == 24) {
+            amplitude = (int) (wavData[pointer + 0] & 0xff)
+                      | (int) ((wavData[pointer + 1] & 0xff) << 8)
+                      | (int) ((wavData[pointer + 2]) << 16);
+
+            // 32 bits
+        } else if (audioWavHeader.getBitsPerSample() == 32) {
+            amplitude = (int) (wavData[pointer + 0] & 0xff)
+                      | (int) ((wavData[pointer + 1] & 0xff) << 8)
+                      | (int) ((wavData[pointer + 2] & 0xff) << 16)
+                      | (int) ((wavData[pointer + 3]) << 24);
+
+            // 32 bits - IEEE Float (0.24 Float Type 3)
+            if (audioWavHeader.getAudioFormat() == AudioWavFormat.WAVE_FORMAT_IEEE_FLOAT) {
+                float fltAmplitude = Float.intBitsToFloat(amplitude);
+                amplitude = (int) (fltAmplitude * 2147483647F);
+            }
+        }
+
+        if (amplitude == 0) {
+            amplitude = 1;   // Atribui valor mínimo à amplitude
+        }
+
+        return amplitude;
+    }
+
+    /**
+     * PCM WAV file - Each channel starts with the edge samples (Shifted by the channel), followed by random bytes.
+     */
+    private byte[] pcmWav(int bitsPerSample, int channels) {
+        int bytesPerSample = bitsPerSample / 8;
+        int[] edgeSamples = PCM_EDGE_SAMPLES[bytesPerSample - 1];
+
+        byte[] wav = wavHeader(AudioWavFormat.WAVE_FORMAT_PCM, channels, bitsPerSample);
+
+        for (int position = HEADER_SIZE; position < wav.length; position++) {
+            wav[position] = (byte) random.nextInt(256);
+        }
+
+        for (int channel = 0; channel < channels; channel++) {
+            for (int index = 0; index < edgeSamples.length; index++) {
+                int sample = edgeSamples[(index + channel) % edgeSamples.length];
+                int position = HEADER_SIZE + (index * channels + channel) * bytesPerSample;
+
+                for (int indexByte = 0; indexByte < bytesPerSample; indexByte++) {
+                    wav[position + indexByte] = (byte) (sample >>> (8 * indexByte));
+                }
+            }
+        }
+
+        return wav;
+    }
+
+    /**
+     * IEEE Float WAV file - Each channel starts with the edge samples (Shifted by the channel), followed by random samples in [-1, 1].
+     */
+    private byte[] floatWav(int channels) {
+        byte[] wav = wavHeader(AudioWavFormat.WAVE_FORMAT_IEEE_FLOAT, channels, 32);
+        ByteBuffer wavData = wrap(wav);
+
+        for (int index = 0; index < NUM_SAMPLES * channels; index++) {
+            int channel = index % channels;
+            int sample = index / channels;
+
+            float amplitude = (sample < FLOAT_EDGE_SAMPLES.length)
+                            ? FLOAT_EDGE_SAMPLES[(sample + channel) % FLOAT_EDGE_SAMPLES.length]
+                            : 2 * random.nextFloat() - 1;
+
+            wavData.putFloat(HEADER_SIZE + 4 * index, amplitude);
+        }
+
+        return wav;
+    }
+
+    /**
+     * Canonical WAV header at 44100 Hz, followed by <i>NUM_SAMPLES</i> zeroed samples per channel.
+     */
+    private static byte[] wavHeader(int audioFormat, int channels, int bitsPerSample) {
+        int blockAlign = channels * bitsPerSample / 8;
+        int dataSize = NUM_SAMPLES * blockAlign;
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + dataSize).order(ByteOrder.LITTLE_ENDIAN);
+
+        header.put("RIFF".getBytes()).putInt(36 + dataSize).put("WAVE".getBytes());
+        header.put("fmt ".getBytes()).putInt(16).putShort((short) audioFormat).putShort((short) channels);
+        header.putInt(44100).putInt(44100 * blockAlign).putShort((short) blockAlign).putShort((short) bitsPerSample);
+        header.put("data".getBytes()).putInt(dataSize);
+
+        return header.array();
+    }
+
+    /**
+     * Header of the given format, without parsing a file.
+     */
+    private static AudioWavHeader header(int audioFormat, int channels, int bitsPerSample) {
+        return new AudioWavHeader((InputStream) null) {
+
+            @Override
+            public int getAudioFormat() {
+                return audioFormat;
+            }
+
+            @Override
+            public int getChannels() {
+                return channels;
+            }
+
+            @Override
+            public int getBitsPerSample() {
+                return bitsPerSample;
+            }
+
+            @Override
+            public int getBytesPerSample() {
+                return bitsPerSample / 8;
+            }
+
+        };
+    }
+
+    private static ByteBuffer wrap(byte[] wav) {
+        return ByteBuffer.wrap(wav).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+}
\ No newline at end of file
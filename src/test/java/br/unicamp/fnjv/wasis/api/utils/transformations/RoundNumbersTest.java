@@ -0,0 +1,122 @@
+package br.unicamp.fnjv.wasis.api.utils.transformations;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares <i>RoundNumbers.roundHalfUp()</i> with <i>BigDecimal.valueOf(value).setScale(decimalPlaces, RoundingMode.HALF_UP)</i>.
+ */
+class RoundNumbersTest {
+
+    /** Decimal places tested - Beyond the power-of-ten table (8) the BigDecimal fallback is used. */
+    private static final int MAXIMUM_DECIMAL_PLACES = 10;
+
+    @Test
+    void tiesRoundAwayFromZero() {
+        double[] ties = {0.5, 1.5, 2.5, 0.125, 0.375, 1.005, 2.675, 1.115, 0.045, 8.345, 1234.5675, 0.00000005, 99.995};
+
+        for (double tie : ties) {
+            for (int decimalPlaces = 0; decimalPlaces <= MAXIMUM_DECIMAL_PLACES; decimalPlaces++) {
+                assertSameAsBigDecimal(tie, decimalPlaces);
+                assertSameAsBigDecimal(-tie, decimalPlaces);
+            }
+        }
+    }
+
+    @Test
+    void tiesOfEveryScale() {
+        for (int decimalPlaces = 0; decimalPlaces <= 8; decimalPlaces++) {
+            double powerOfTen = Math.pow(10, decimalPlaces);
+
+            for (int integer = 0; integer < 2000; integer++) {
+                // Decimal ties (x.5 at the rounding digit), as parsed from their decimal representation
+                double tie = Double.parseDouble(BigDecimal.valueOf(integer).add(BigDecimal.valueOf(5, 1)).divide(BigDecimal.valueOf(powerOfTen)).toString());
+
+                assertSameAsBigDecimal(tie, decimalPlaces);
+                assertSameAsBigDecimal(-tie, decimalPlaces);
+                assertSameAsBigDecimal(Math.nextUp(tie), decimalPlaces);
+                assertSameAsBigDecimal(Math.nextDown(tie), decimalPlaces);
+            }
+        }
+    }
+
+    @Test
+    void zerosAndTinyNegatives() {
+        double[] values = {0.0, -0.0, -0.0001, -0.004, -0.005, -0.0049999, 0.0001, Double.MIN_VALUE, -Double.MIN_VALUE};
+
+        for (double value : values) {
+            for (int decimalPlaces = 0; decimalPlaces <= MAXIMUM_DECIMAL_PLACES; decimalPlaces++) {
+                assertSameAsBigDecimal(value, decimalPlaces);
+            }
+        }
+
+        // BigDecimal has no negative zero
+        assertEquals(0.0, RoundNumbers.roundHalfUp(-0.0, 2));
+        assertEquals(0.0, RoundNumbers.roundHalfUp(-0.001, 2));
+    }
+
+    @Test
+    void largeMagnitudes() {
+        double[] values = {999999999.5, 1e9, 1e9 + 0.5, 123456789.123456789, 1e12 + 0.25, 1e15 + 0.5, 4503599627370495.5, 1e17, 1e300, Double.MAX_VALUE};
+
+        for (double value : values) {
+            for (int decimalPlaces = 0; decimalPlaces <= MAXIMUM_DECIMAL_PLACES; decimalPlaces++) {
+                assertSameAsBigDecimal(value, decimalPlaces);
+                assertSameAsBigDecimal(-value, decimalPlaces);
+            }
+        }
+    }
+
+    @Test
+    void randomValues() {
+        Random random = new Random(12L);
+
+        for (int i = 0; i < 1_000_000; i++) {
+            double value;
+
+            switch (i % 4) {
+                case 0:
+                    value = random.nextGaussian();
+                    break;
+                case 1:
+                    value = random.nextGaussian() * 1e4;
+                    break;
+                case 2:
+                    // Few decimal digits - Often exactly at a tie
+                    value = random.nextInt(2_000_000) / 1000.0 - 1000;
+                    break;
+                default:
+                    value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(24) - 12);
+            }
+
+            assertSameAsBigDecimal(value, i % (MAXIMUM_DECIMAL_PLACES + 1));
+        }
+    }
+
+    @Test
+    void roundsArraysAndMatrices() {
+        double[] values = {1.005, -2.5, 0.125, -0.0};
+        double[] expected = {1.01, -2.5, 0.13, 0.0};
+
+        double[] rounded = RoundNumbers.round(values, 2);
+
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(expected[i], rounded[i]);
+        }
+
+        assertEquals(-3.0, RoundNumbers.round(new double[][]{{-2.5}}, 0)[0][0]);
+    }
+
+    private static void assertSameAsBigDecimal(double value, int decimalPlaces) {
+        double expected = BigDecimal.valueOf(value).setScale(decimalPlaces, RoundingMode.HALF_UP).doubleValue();
+
+        // Bitwise comparison - Also tells 0.0 from -0.0
+        assertEquals(expected, RoundNumbers.roundHalfUp(value, decimalPlaces), "value " + value + " - decimal places " + decimalPlaces);
+    }
+
+}
\ No newline at end of file